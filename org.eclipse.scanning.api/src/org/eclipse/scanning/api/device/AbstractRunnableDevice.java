@@ -196,6 +196,7 @@ public abstract class AbstractRunnableDevice<T> implements IRunnableEventDevice<
 	}
 	
 	public void reset() throws ScanningException {
+		if (runnableDeviceService!=null) runnableDeviceService.invalidateConfiguration(this);
 		setDeviceState(DeviceState.READY);
 	}
 
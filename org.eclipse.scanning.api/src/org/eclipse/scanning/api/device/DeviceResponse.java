@@ -11,7 +11,17 @@
  *******************************************************************************/
 package org.eclipse.scanning.api.device;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.scanning.api.INameable;
 import org.eclipse.scanning.api.IScannable;
@@ -26,6 +36,8 @@ import org.eclipse.scanning.api.event.core.IResponseProcess;
 import org.eclipse.scanning.api.event.scan.DeviceAction;
 import org.eclipse.scanning.api.event.scan.DeviceInformation;
 import org.eclipse.scanning.api.event.scan.DeviceRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * TODO FIXME Is the idea of having request/response calls correct for exposing
@@ -45,6 +57,43 @@ import org.eclipse.scanning.api.event.scan.DeviceRequest;
  */
 public class DeviceResponse implements IResponseProcess<DeviceRequest> {
 		
+	private static Logger logger = LoggerFactory.getLogger(DeviceResponse.class);
+		
+	/**
+	 * The most threads reading devices at once, reads beyond this wait for a thread.
+	 */
+	private static final int readThreads = Integer.getInteger("org.eclipse.scanning.api.device.readThreads", 32);
+	
+	/**
+	 * Reads the devices of a request for many devices at the same time,
+	 * a device which is slow to read does not hold up the others. The pool
+	 * grows to readThreads as reads are submitted, so a read which hangs and
+	 * keeps its thread still leaves threads for other requests, and the
+	 * threads are let go after they have been idle for a minute.
+	 */
+	private static final ThreadPoolExecutor reader = new ThreadPoolExecutor(readThreads, readThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+		Thread thread = new Thread(r, "Device read");
+		thread.setDaemon(true);
+		return thread;
+	});
+	static {
+		reader.allowCoreThreadTimeOut(true);
+	}
+	
+	/**
+	 * The time in ms allowed for all the reads of a request for many devices, it is less
+	 * than the time which the remote services wait so that the devices which were read are
+	 * still returned. A device which has not been read by then has its error message set.
+	 */
+	private static final long readTimeout = Long.getLong("org.eclipse.scanning.api.device.readTimeout", 4000);
+	
+	/**
+	 * The level, unit and permitted values of a scannable do not change,
+	 * they are read once for each scannable. The scannables are weak keys
+	 * so that one which is replaced by a new device is not kept.
+	 */
+	private static final Map<IScannable<?>, DeviceInformation<?>> staticInformation = Collections.synchronizedMap(new WeakHashMap<>());
+		
 	private IRunnableDeviceService    dservice;
 	private DeviceRequest             bean;
 	private IPublisher<DeviceRequest> publisher;
@@ -74,7 +123,9 @@ public class DeviceResponse implements IResponseProcess<DeviceRequest> {
 	@Override
 	public DeviceRequest process(DeviceRequest request) {
 		try {
-			if (request.getDeviceType()==DeviceType.SCANNABLE) {
+			if (request.getDeviceNames()!=null) {
+				processMany(request, dservice, cservice);
+			} else if (request.getDeviceType()==DeviceType.SCANNABLE) {
 				processScannables(request, cservice);
 			} else {
 				processRunnables(request, dservice);
@@ -153,6 +204,111 @@ public class DeviceResponse implements IResponseProcess<DeviceRequest> {
 	}
 
 
+	/**
+	 * Reads every named device in parallel. The information is added in
+	 * the order of the names, one which fails or does not finish before
+	 * the read timeout has its error message set.
+	 */
+	private static void processMany(DeviceRequest request, IRunnableDeviceService dservice, IScannableDeviceService cservice) throws Exception {
+		
+		final List<String>                       names = new ArrayList<>(request.getDeviceNames());
+		final List<Future<DeviceInformation<?>>> reads = new ArrayList<>(names.size());
+		for (String name : names) {
+			if (request.getDeviceType()==DeviceType.SCANNABLE) {
+				reads.add(reader.submit(()->readScannable(name, cservice)));
+			} else {
+				reads.add(reader.submit(()->readRunnable(name, dservice)));
+			}
+		}
+		
+		final long deadline = System.currentTimeMillis()+readTimeout;
+		final List<String> slow = new ArrayList<>();
+		for (int i = 0; i < reads.size(); i++) {
+			final Future<DeviceInformation<?>> read = reads.get(i);
+			try {
+				request.addDeviceInformation(read.get(Math.max(0, deadline-System.currentTimeMillis()), TimeUnit.MILLISECONDS));
+			} catch (TimeoutException ne) {
+				read.cancel(true);
+				slow.add(names.get(i));
+				final DeviceInformation<Object> info = new DeviceInformation<>(names.get(i));
+				info.setErrorMessage("Cannot read '"+names.get(i)+"' in "+readTimeout+" ms");
+				request.addDeviceInformation(info);
+			}
+		}
+		if (!slow.isEmpty()) {
+			// A read which does not respond to the interrupt keeps its thread until it returns.
+			logger.warn("Cannot read {} in {} ms, {} of the {} device read threads are busy and {} reads are waiting for one",
+					    slow, readTimeout, reader.getActiveCount(), readThreads, reader.getQueue().size());
+		}
+	}
+	
+	/**
+	 * 
+	 * @param name
+	 * @param cservice
+	 * @return the information and position of the scannable, never null.
+	 */
+	static DeviceInformation<?> readScannable(String name, IScannableDeviceService cservice) {
+		
+		final DeviceInformation<Object> info = new DeviceInformation<>(name);
+		try {
+			IScannable<Object> device = cservice.getScannable(name);
+			if (device==null) throw new EventException("There is no created device called '"+name+"'");
+			
+			DeviceInformation<?> sinfo = staticInformation.get(device);
+			if (sinfo==null) {
+				sinfo = new DeviceInformation<Object>(name);
+				sinfo.setLevel(device.getLevel());
+				sinfo.setUnit(device.getUnit());
+				sinfo.setPermittedValues(device.getPermittedValues());
+				staticInformation.put(device, sinfo);
+			}
+			info.setLevel(sinfo.getLevel());
+			info.setUnit(sinfo.getUnit());
+			info.setPermittedValues(sinfo.getPermittedValues());
+			
+			info.setUpper(device.getMaximum());
+			info.setLower(device.getMinimum());
+			info.setActivated(device.isActivated());
+			info.setMonitorRole(device.getMonitorRole());
+			info.setValue(device.getPosition());
+			
+		} catch (Exception ne) {
+			info.setErrorMessage(getMessage(name, ne));
+		}
+		return info;
+	}
+	
+	/**
+	 * 
+	 * @param name
+	 * @param dservice
+	 * @return the information of the runnable device, never null.
+	 */
+	static DeviceInformation<?> readRunnable(String name, IRunnableDeviceService dservice) {
+		try {
+			IRunnableDevice<Object> device = dservice.getRunnableDevice(name);
+			if (device==null) throw new EventException("There is no created device called '"+name+"'");
+			if (device instanceof AbstractRunnableDevice) return ((AbstractRunnableDevice<?>)device).getDeviceInformation();
+			
+			final DeviceInformation<Object> info = new DeviceInformation<>(name);
+			info.setModel(device.getModel());
+			info.setState(device.getDeviceState());
+			info.setHealth(device.getDeviceHealth());
+			info.setBusy(device.isDeviceBusy());
+			return info;
+			
+		} catch (Exception ne) {
+			final DeviceInformation<Object> info = new DeviceInformation<>(name);
+			info.setErrorMessage(getMessage(name, ne));
+			return info;
+		}
+	}
+	
+	private static String getMessage(String name, Exception ne) {
+		return ne.getMessage()!=null ? ne.getMessage() : "Cannot read '"+name+"' "+ne.getClass().getSimpleName();
+	}
+
 	private static void merge(DeviceInformation<?> info, IScannable<?> device) throws Exception {
 		info.setLevel(device.getLevel());
 		info.setUnit(device.getUnit());
@@ -0,0 +1,35 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.device;
+
+import org.eclipse.scanning.api.scan.ScanningException;
+
+/**
+ * A device which writes its own file during a scan, for instance an
+ * area detector writing frames to an external HDF5 file. The scan will
+ * call flush() from time to time so that data written so far may be
+ * read while the scan is running.
+ * 
+ * flush() is called from a thread which is not the scan thread, while
+ * the device may be writing.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public interface IFlushableDevice {
+
+	/**
+	 * Flush any data written so far to the device's file(s).
+	 * @throws ScanningException
+	 */
+	void flush() throws ScanningException;
+}
@@ -92,6 +92,20 @@ public interface IRunnableDevice<T> extends INameable, IDeviceRoleActor, ILevel,
 	 * @return the current value of the device 'busy' flag.
 	 */
 	public boolean isDeviceBusy() throws ScanningException;
+	
+	/**
+	 * Devices which keep their configuration from one scan to the next may return true.
+	 * If the configure cache of the runnable device service is switched on, this is asked
+	 * before configuring the device again with a model equal to the one last applied.
+	 * The device should check that it still holds that configuration, for instance that
+	 * it has not been reset or faulted since, and is in a state which can run with it.
+	 * 
+	 * @return true if configure may be skipped when the model has not changed, by default false.
+	 * @throws ScanningException if the device cannot tell
+	 */
+	default boolean isReconfigureSkippable() throws ScanningException {
+		return false;
+	}
 
 	/**
 	 * This method is the same as calling run(null). I.e. run without specifying start position.
@@ -11,6 +11,7 @@
  *******************************************************************************/
 package org.eclipse.scanning.api.device;
 
+import java.util.ArrayList;
 import java.util.Collection;
 
 import org.eclipse.scanning.api.device.models.DeviceRole;
@@ -198,6 +199,21 @@ public interface IRunnableDeviceService extends IPositionerService {
      */
 	DeviceInformation<?> getDeviceInformation(String name) throws ScanningException;
 	
+    /**
+     * Get the information for each of the named runnable devices. A device which cannot be read
+     * has the error message of its information set and the others are still read. A remote
+     * service reads all of them in one request.
+     * 
+     * @param names
+     * @return information in the same order as the names
+     * @throws ScanningException if the request cannot be made, not if a device cannot be read.
+     */
+	default Collection<DeviceInformation<?>> getDeviceInformation(Collection<String> names) throws ScanningException {
+		final Collection<DeviceInformation<?>> ret = new ArrayList<>(names.size());
+		for (String name : names) ret.add(DeviceResponse.readRunnable(name, this));
+		return ret;
+	}
+	
     /**
      * Get the information for all the runnable devices currently created.
      * Will attempt to get device information that is potentially held on the device even if the device is not alive.
@@ -205,6 +221,33 @@ public interface IRunnableDeviceService extends IPositionerService {
      */
 	Collection<DeviceInformation<?>> getDeviceInformationIncludingNonAlive() throws ScanningException;
 
+	/**
+	 * Configures the device with the model. If the configure cache is switched on and the device
+	 * says that it may skip being configured again, nothing is done when the model and context are
+	 * equal to those it was last configured with and it has not been reset or faulted since.
+	 * 
+	 * @param device
+	 * @param model
+	 * @param context anything else which the configuration depends on, for instance the scan path
+	 *                for a malcolm device, may be null.
+	 * @return true if configure was called on the device, false if its last configuration was kept.
+	 * @throws ScanningException
+	 */
+	default <T> boolean configure(IRunnableDevice<T> device, T model, Object context) throws ScanningException {
+		device.configure(model);
+		return true;
+	}
+	
+	/**
+	 * Forgets the configuration last applied to the device so that the next call
+	 * to configure(...) does configure it. For instance when a scan is aborted or fails.
+	 * 
+	 * @param device
+	 */
+	default void invalidateConfiguration(IRunnableDevice<?> device) {
+		// Nothing is kept by default
+	}
+
     /**
      * This is a convenience method for getting the currently active scanner. 
      * It is useful if the scan is paused and it is required to seek the scan
@@ -168,6 +168,21 @@ public interface IScannableDeviceService {
 		return ret;
 	}
 	
+	/**
+	 * Get the information and the current position, in getValue(), of each of the named scannables.
+	 * A scannable which cannot be read has the error message of its information set and the others
+	 * are still read. A remote service reads all of them in one request.
+	 * 
+	 * @param names
+	 * @return information in the same order as the names
+	 * @throws ScanningException if the request cannot be made, not if a scannable cannot be read.
+	 */
+	default Collection<DeviceInformation<?>> getDeviceInformation(Collection<String> names) throws ScanningException {
+		final Collection<DeviceInformation<?>> ret = new ArrayList<>(names.size());
+		for (String name : names) ret.add(DeviceResponse.readScannable(name, this));
+		return ret;
+	}
+	
 	default void handleDeviceError(String name, Exception e) {
 		System.err.println("Failure getting device information for " + name);
 		e.printStackTrace();
@@ -108,6 +108,12 @@ public class DeviceWatchdogModel {
 	private String expression; // e.g. 'beamcurrent >= 1.0 && !portshutter.equalsIgnoreCase("Closed")'
 	private String message;
 	
+	// in ms, hysteresis of an expression watchdog. The expression must be false for this long before the scan is paused.
+	private long   pauseDelay;
+	
+	// in ms, hysteresis of an expression watchdog. The expression must be true for this long before the scan is resumed.
+	private long   resumeDelay;
+	
 	// t
 	private String countdownName; // e.g. "topup", "countdown" PV likely to be SR-CS-FILL-01:COUNTDOWN which is in s
 	
@@ -126,6 +132,12 @@ public class DeviceWatchdogModel {
 	// The name of the mode pv, if any. 
 	private String modeName;            // If this is set the PV will be checked to ensure that the topup mode is as expected.
 	
+	// If true a topup watchdog holds each point until it fits before the next topup, rather than pausing and rewinding.
+	private boolean predictive;
+	
+	// in ms, added to the exposure time to estimate how long a point takes (motor moves, readout etc.)
+	private long   pointOverhead;
+	
 	public String getCountdownName() {
 		return countdownName;
 	}
@@ -216,4 +228,30 @@ public class DeviceWatchdogModel {
 		this.modeName = modeName;
 	}
 	
+	public boolean isPredictive() {
+		return predictive;
+	}
+	public void setPredictive(boolean predictive) {
+		this.predictive = predictive;
+	}
+	public long getPointOverhead() {
+		return pointOverhead;
+	}
+	public void setPointOverhead(long pointOverhead) {
+		this.pointOverhead = pointOverhead;
+	}
+	
+	public long getPauseDelay() {
+		return pauseDelay;
+	}
+	public void setPauseDelay(long pauseDelay) {
+		this.pauseDelay = pauseDelay;
+	}
+	public long getResumeDelay() {
+		return resumeDelay;
+	}
+	public void setResumeDelay(long resumeDelay) {
+		this.resumeDelay = resumeDelay;
+	}
+	
 }
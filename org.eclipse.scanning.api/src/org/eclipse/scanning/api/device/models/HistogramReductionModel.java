@@ -0,0 +1,100 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.device.models;
+
+import org.eclipse.scanning.api.annotation.ui.FieldDescriptor;
+
+/**
+ * Model for a reduction which bins the values of each frame 
+ * into a histogram of equal width bins between a minimum and 
+ * maximum. Values outside the range are not counted.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class HistogramReductionModel extends ReductionModel {
+
+	@FieldDescriptor(minimum=1, hint="The number of bins in the histogram.")
+	private int bins = 100;
+	
+	@FieldDescriptor(hint="The lower edge of the first bin.")
+	private double minimum = 0;
+	
+	@FieldDescriptor(hint="The upper edge of the last bin.")
+	private double maximum = 1;
+
+	public HistogramReductionModel() {
+		
+	}
+
+	public HistogramReductionModel(String detectorName, String name, int bins, double minimum, double maximum) {
+		super(detectorName, name);
+		this.bins    = bins;
+		this.minimum = minimum;
+		this.maximum = maximum;
+	}
+
+	public int getBins() {
+		return bins;
+	}
+
+	public void setBins(int bins) {
+		this.bins = bins;
+	}
+
+	public double getMinimum() {
+		return minimum;
+	}
+
+	public void setMinimum(double minimum) {
+		this.minimum = minimum;
+	}
+
+	public double getMaximum() {
+		return maximum;
+	}
+
+	public void setMaximum(double maximum) {
+		this.maximum = maximum;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = prime * result + bins;
+		long temp;
+		temp = Double.doubleToLongBits(maximum);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(minimum);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		HistogramReductionModel other = (HistogramReductionModel) obj;
+		if (bins != other.bins)
+			return false;
+		if (Double.doubleToLongBits(maximum) != Double.doubleToLongBits(other.maximum))
+			return false;
+		if (Double.doubleToLongBits(minimum) != Double.doubleToLongBits(other.minimum))
+			return false;
+		return true;
+	}
+}
@@ -50,4 +50,33 @@ public class MalcolmModel extends AbstractDetectorModel implements IMalcolmModel
 	public void setAxesToMove(List<String> axesToMove) {
 		this.axesToMove = axesToMove;
 	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = prime * result + ((axesToMove == null) ? 0 : axesToMove.hashCode());
+		result = prime * result + ((fileDir == null) ? 0 : fileDir.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		MalcolmModel other = (MalcolmModel) obj;
+		if (axesToMove == null) {
+			if (other.axesToMove != null)
+				return false;
+		} else if (!axesToMove.equals(other.axesToMove))
+			return false;
+		if (fileDir == null) {
+			if (other.fileDir != null)
+				return false;
+		} else if (!fileDir.equals(other.fileDir))
+			return false;
+		return true;
+	}
 }
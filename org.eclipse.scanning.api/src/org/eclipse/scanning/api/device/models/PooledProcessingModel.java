@@ -0,0 +1,99 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.device.models;
+
+import org.eclipse.scanning.api.annotation.ui.FieldDescriptor;
+
+/**
+ * A processing model whose operations are run on a pool of worker threads
+ * rather than inline in the scan. Frames are given to the pool in memory as
+ * the detector writes them, the data file is not read back.
+ * 
+ * The scan only waits for processing if more than maxLag frames are waiting
+ * to be processed and written.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class PooledProcessingModel extends ProcessingModel {
+
+	@FieldDescriptor(minimum=1, hint="The number of threads running the operations.")
+	private int workers = 2;
+	
+	@FieldDescriptor(minimum=1, hint="The number of frames which processing may fall behind\nthe scan before the scan waits for it.")
+	private int maxLag = 16;
+	
+	@FieldDescriptor(minimum=0, hint="The rank of each processed result, 2 for an image.")
+	private int outputRank = 2;
+	
+	public PooledProcessingModel() {
+		
+	}
+	
+	public PooledProcessingModel(String detectorName, String operationsFile, int workers, int maxLag, long timeout) {
+		super(detectorName, null, operationsFile, timeout);
+		this.workers = workers;
+		this.maxLag  = maxLag;
+	}
+
+	public int getWorkers() {
+		return workers;
+	}
+
+	public void setWorkers(int workers) {
+		this.workers = workers;
+	}
+
+	public int getMaxLag() {
+		return maxLag;
+	}
+
+	public void setMaxLag(int maxLag) {
+		this.maxLag = maxLag;
+	}
+
+	public int getOutputRank() {
+		return outputRank;
+	}
+
+	public void setOutputRank(int outputRank) {
+		this.outputRank = outputRank;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = prime * result + maxLag;
+		result = prime * result + outputRank;
+		result = prime * result + workers;
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		PooledProcessingModel other = (PooledProcessingModel) obj;
+		if (maxLag != other.maxLag)
+			return false;
+		if (outputRank != other.outputRank)
+			return false;
+		if (workers != other.workers)
+			return false;
+		return true;
+	}
+}
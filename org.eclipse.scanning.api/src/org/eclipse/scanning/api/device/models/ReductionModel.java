@@ -0,0 +1,125 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.device.models;
+
+import java.util.Arrays;
+
+import org.eclipse.scanning.api.annotation.ui.DeviceType;
+import org.eclipse.scanning.api.annotation.ui.FieldDescriptor;
+
+/**
+ * Model for a device which reduces the frames of another detector 
+ * in memory as they are written, rather than reading them back from 
+ * the scan file. The detector named must be able to give its frames
+ * to listeners.
+ * 
+ * An optional region of interest may be set, if it is not the whole 
+ * frame is reduced.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class ReductionModel {
+
+	/**
+	 * The name of the detector whose frames we will be reducing.
+	 */
+	@FieldDescriptor(device=DeviceType.RUNNABLE, hint="The name of the detector whose frames we will reduce.")
+	private String detectorName;
+	
+	@FieldDescriptor(editable=false, hint="The unique device name.")
+	private String name;
+
+	@FieldDescriptor(hint="The start of the region of interest in the frame, or empty for the whole frame.")
+	private int[] roiStart;
+
+	@FieldDescriptor(hint="The shape of the region of interest in the frame, or empty for the whole frame.")
+	private int[] roiShape;
+
+	public ReductionModel() {
+		
+	}
+
+	public ReductionModel(String detectorName, String name) {
+		this.detectorName = detectorName;
+		this.name         = name;
+	}
+
+	public String getDetectorName() {
+		return detectorName;
+	}
+
+	public void setDetectorName(String detectorName) {
+		this.detectorName = detectorName;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public int[] getRoiStart() {
+		return roiStart;
+	}
+
+	public void setRoiStart(int... roiStart) {
+		this.roiStart = roiStart;
+	}
+
+	public int[] getRoiShape() {
+		return roiShape;
+	}
+
+	public void setRoiShape(int... roiShape) {
+		this.roiShape = roiShape;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((detectorName == null) ? 0 : detectorName.hashCode());
+		result = prime * result + ((name == null) ? 0 : name.hashCode());
+		result = prime * result + Arrays.hashCode(roiShape);
+		result = prime * result + Arrays.hashCode(roiStart);
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ReductionModel other = (ReductionModel) obj;
+		if (detectorName == null) {
+			if (other.detectorName != null)
+				return false;
+		} else if (!detectorName.equals(other.detectorName))
+			return false;
+		if (name == null) {
+			if (other.name != null)
+				return false;
+		} else if (!name.equals(other.name))
+			return false;
+		if (!Arrays.equals(roiShape, other.roiShape))
+			return false;
+		if (!Arrays.equals(roiStart, other.roiStart))
+			return false;
+		return true;
+	}
+}
@@ -1,5 +1,6 @@
 package org.eclipse.scanning.api.event.queues;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.scanning.api.event.queues.beans.PositionerAtom;
@@ -173,6 +174,26 @@ public interface IQueueBeanFactory {
 	 */
 	<Q extends QueueAtom> Q assembleQueueAtom(QueueValue<String> reference, ExperimentConfiguration config) throws QueueModelException;
 	
+	/**
+	 * Assemble one {@link QueueAtom} from the template registered with the 
+	 * given reference for each of the supplied configurations. This is 
+	 * intended for large experiments which repeat the same atom many times 
+	 * (e.g. once per sample), and implementations may share work between 
+	 * the atoms. The template is not changed by assembly.
+	 * @param reference String name of atom to return
+	 * @param configs List of {@link ExperimentConfiguration}, one per atom
+	 * @return List of Q extends {@link QueueAtom}, in the order of configs
+	 * @throws QueueModelException if no atom is registered with the reference 
+	 *         or any of the atoms could not be assembled
+	 */
+	default <Q extends QueueAtom> List<Q> assembleQueueAtoms(QueueValue<String> reference, List<ExperimentConfiguration> configs) throws QueueModelException {
+		List<Q> atoms = new ArrayList<>(configs.size());
+		for (ExperimentConfiguration config : configs) {
+			atoms.add(assembleQueueAtom(reference, config));
+		}
+		return atoms;
+	}
+	
 	/**
 	 * Construct a {@link TaskBean} based on the {@link TaskBeanModel} 
 	 * registered to the given reference.
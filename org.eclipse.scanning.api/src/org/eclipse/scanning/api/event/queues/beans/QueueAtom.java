@@ -11,9 +11,16 @@
  *******************************************************************************/
 package org.eclipse.scanning.api.event.queues.beans;
 
+import java.util.List;
+
 /**
  * Base class for all bean types which exist in active-queues.
  * 
+ * An atom may declare the devices it uses and the names of atoms earlier in 
+ * the same atom queue which it must follow. Atoms which declare neither run 
+ * in sequence with every other atom in the queue. Atoms which do declare 
+ * them may be run concurrently with atoms they do not conflict with.
+ * 
  * @author Michael Wharmby
  *
  */
@@ -24,4 +31,82 @@ public abstract class QueueAtom extends Queueable {
 	 */
 	private static final long serialVersionUID = 20161017L;
 
+	private List<String> devices;
+	private List<String> dependencies;
+
+	/**
+	 * Return the names of the devices (scannables, monitors, detectors...) 
+	 * this atom uses. Two atoms using the same device are never run at the 
+	 * same time.
+	 * @return List of device names or null if not declared.
+	 */
+	public List<String> getDevices() {
+		return devices;
+	}
+
+	public void setDevices(List<String> devices) {
+		this.devices = devices;
+	}
+
+	/**
+	 * Return the names (or short names) of atoms earlier in the same queue 
+	 * which must have finished before this atom is started.
+	 * @return List of atom names or null if not declared.
+	 */
+	public List<String> getDependencies() {
+		return dependencies;
+	}
+
+	public void setDependencies(List<String> dependencies) {
+		this.dependencies = dependencies;
+	}
+	
+	/**
+	 * @return true if this atom declares the devices it uses or the atoms it 
+	 *         depends on. 
+	 */
+	public boolean declaresDependencies() {
+		return (devices != null && !devices.isEmpty()) || (dependencies != null && !dependencies.isEmpty());
+	}
+	
+	@Override
+	public void merge(Queueable with) {
+		super.merge(with);
+		if (with instanceof QueueAtom) {
+			this.devices = ((QueueAtom)with).devices;
+			this.dependencies = ((QueueAtom)with).dependencies;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = prime * result + ((dependencies == null) ? 0 : dependencies.hashCode());
+		result = prime * result + ((devices == null) ? 0 : devices.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		QueueAtom other = (QueueAtom) obj;
+		if (dependencies == null) {
+			if (other.dependencies != null)
+				return false;
+		} else if (!dependencies.equals(other.dependencies))
+			return false;
+		if (devices == null) {
+			if (other.devices != null)
+				return false;
+		} else if (!devices.equals(other.devices))
+			return false;
+		return true;
+	}
+
 }
@@ -138,6 +138,17 @@ public class DeviceInformation<T> implements IModelProvider<T> {
 	 */
 	private boolean alive = true;
 
+	/**
+	 * The value of the device when it was read by a request for many devices,
+	 * for instance the position of a scannable.
+	 */
+	private Object value;
+	
+	/**
+	 * Set if the device could not be read by a request for many devices.
+	 */
+	private String errorMessage;
+
 	public DeviceInformation() {
 
 	}
@@ -250,6 +261,8 @@ public class DeviceInformation<T> implements IModelProvider<T> {
 		result = prime * result + ((supportedScanModes == null) ? 0 : supportedScanModes.hashCode());
 		result = prime * result + ((unit == null) ? 0 : unit.hashCode());
 		result = prime * result + ((upper == null) ? 0 : upper.hashCode());
+		result = prime * result + ((value == null) ? 0 : value.hashCode());
+		result = prime * result + ((errorMessage == null) ? 0 : errorMessage.hashCode());
 		return result;
 	}
 
@@ -332,6 +345,16 @@ public class DeviceInformation<T> implements IModelProvider<T> {
 				return false;
 		} else if (!upper.equals(other.upper))
 			return false;
+		if (value == null) {
+			if (other.value != null)
+				return false;
+		} else if (!value.equals(other.value))
+			return false;
+		if (errorMessage == null) {
+			if (other.errorMessage != null)
+				return false;
+		} else if (!errorMessage.equals(other.errorMessage))
+			return false;
 		return true;
 	}
 	
@@ -440,4 +463,20 @@ public class DeviceInformation<T> implements IModelProvider<T> {
 		this.monitorRole = monitorRole;
 	}
 
+	public Object getValue() {
+		return value;
+	}
+
+	public void setValue(Object value) {
+		this.value = value;
+	}
+
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	public void setErrorMessage(String errorMessage) {
+		this.errorMessage = errorMessage;
+	}
+
 }
@@ -37,6 +37,9 @@ import org.eclipse.scanning.api.points.IPosition;
  * 3. Set name and model, named device is retrieved and configured.        
  * 4. Set the device model and the configure boolean, get a new device created.  IRunnableDeviceService.createRunnableDevice()
  * 5. Set the device action and the device name to call specific methods.
+ * 6. Set the device names, post returns the information and value of each device. The devices are read
+ *    at the same time on the server and a device which cannot be read has the error message of its
+ *    information set.
  * 
  * </pre>
  * 
@@ -70,6 +73,11 @@ public class DeviceRequest extends IdBean {
 	 */
 	private String deviceName;
 	
+	/**
+	 * The names of the devices to read in one request or null to use the device name.
+	 */
+	private Collection<String> deviceNames;
+	
 	/**
 	 * The device's model. Normally used to configure a device.
 	 * The Object must json through the marshaller.
@@ -117,6 +125,7 @@ public class DeviceRequest extends IdBean {
 		DeviceRequest dr = (DeviceRequest)with;
 		devices          = dr.devices;
 		deviceName       = dr.deviceName;
+		deviceNames      = dr.deviceNames;
 		deviceModel      = dr.deviceModel;
 		deviceType       = dr.deviceType;
 		deviceAction     = dr.deviceAction;
@@ -189,6 +198,16 @@ public class DeviceRequest extends IdBean {
 	}
 
 
+	/**
+	 * For reading many devices in one request.
+	 * @param names
+	 * @param type
+	 */
+	public DeviceRequest(Collection<String> names, DeviceType type) {
+		this.deviceNames = names;
+		this.deviceType  = type;
+	}
+
 	public DeviceRequest(String name, DeviceType type, DeviceAction action, boolean activated) {
 		this(name, type);
 		this.deviceAction = action;
@@ -218,6 +237,7 @@ public class DeviceRequest extends IdBean {
 		result = prime * result + ((deviceAction == null) ? 0 : deviceAction.hashCode());
 		result = prime * result + ((deviceModel == null) ? 0 : deviceModel.hashCode());
 		result = prime * result + ((deviceName == null) ? 0 : deviceName.hashCode());
+		result = prime * result + ((deviceNames == null) ? 0 : deviceNames.hashCode());
 		result = prime * result + ((deviceType == null) ? 0 : deviceType.hashCode());
 		result = prime * result + ((deviceValue == null) ? 0 : deviceValue.hashCode());
 		result = prime * result + ((devices == null) ? 0 : devices.hashCode());
@@ -251,6 +271,11 @@ public class DeviceRequest extends IdBean {
 				return false;
 		} else if (!deviceName.equals(other.deviceName))
 			return false;
+		if (deviceNames == null) {
+			if (other.deviceNames != null)
+				return false;
+		} else if (!deviceNames.equals(other.deviceNames))
+			return false;
 		if (deviceType != other.deviceType)
 			return false;
 		if (deviceValue == null) {
@@ -289,6 +314,14 @@ public class DeviceRequest extends IdBean {
 		this.deviceName = dn;
 	}
 
+	public Collection<String> getDeviceNames() {
+		return deviceNames;
+	}
+
+	public void setDeviceNames(Collection<String> deviceNames) {
+		this.deviceNames = deviceNames;
+	}
+
 	@SuppressWarnings("unchecked")
 	public Object getDeviceModel() {
 		return deviceModel;
@@ -11,24 +11,45 @@
  *******************************************************************************/
 package org.eclipse.scanning.api.malcolm;
 
-import java.util.ArrayList;
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
 
 /**
  * Class representing a table in Malcolm Format (List of columns with data).
+ *
+ * The table is stored by column, each column is an array. Columns of type Integer, Short,
+ * Long, Byte, Boolean, Float and Double are held in primitive arrays, other columns in
+ * an array of the column type. Tables from EPICS with many rows, for instance the
+ * layout of a motion program, are therefore held without boxing each value. A column
+ * which holds a null is kept in an array of the boxed type instead. The methods
+ * returning lists and maps are views of the arrays, values are boxed as they are read.
+ * Values may be added to one column through {@link #getColumn(String)}, the table
+ * has another row once every column has a value for it.
+ *
  * Instances of this class are NOT thread safe.
  */
 public class MalcolmTable implements Iterable<Map<String, Object>> {
 	
-	private Map<String, List<Object>> tableData;
+	private Map<String, Object> columns;
 	private Map<String, Class<?>> tableDataTypes;
 	private List<String> headings;
 	private int numRows;
 	
+	/**
+	 * The size of each column while values are being added to columns one at
+	 * a time, null when every column has numRows values.
+	 */
+	private Map<String, Integer> columnSizes;
+	
 	public MalcolmTable() {
 		
 	}
@@ -36,7 +57,7 @@ public class MalcolmTable implements Iterable<Map<String, Object>> {
 	/**
 	 * Create a new Malcolm table with the given columns data and data types. The
 	 * size of each column must be equal, and the keys of both maps must be the same, these
-	 * are the column headings.  
+	 * are the column headings. The values are copied into the table.
 	 * @param tableAsMap a list of values for each column, of equal lengths
 	 * @param dataTypes a map of the data types for each column, this map must have the
 	 *    same keys as the tableAsMap
@@ -47,9 +68,7 @@ public class MalcolmTable implements Iterable<Map<String, Object>> {
 			throw new IllegalArgumentException("The given arguments are not of the same size");
 		}
 		
-		tableData = tableAsMap;
-		
-		numRows = tableData.isEmpty() ? 0 : tableData.values().iterator().next().size();
+		numRows = tableAsMap.isEmpty() ? 0 : tableAsMap.values().iterator().next().size();
 		tableDataTypes = dataTypes;
 		headings = new LinkedList<String>(tableAsMap.keySet());
 		
@@ -63,6 +82,7 @@ public class MalcolmTable implements Iterable<Map<String, Object>> {
 						heading, tableAsMap.get(heading).size(), numRows));
 			}
 		}
+		setTableData(tableAsMap);
 	}
 	
 	/**
@@ -73,44 +93,116 @@ public class MalcolmTable implements Iterable<Map<String, Object>> {
 		tableDataTypes = dataTypes;
 		headings = new LinkedList<String>(tableDataTypes.keySet());
 		
-		tableData = new LinkedHashMap<>(headings.size());
+		columns = new LinkedHashMap<>(headings.size());
 		for (String heading : headings) {
-			tableData.put(heading, new ArrayList<>());
+			columns.put(heading, Array.newInstance(getComponentType(dataTypes.get(heading)), 0));
 		}
 		numRows = 0;
 	}
 	
+	/**
+	 * Creates a table from arrays, one for each column. The arrays are used as
+	 * the storage of the table, they are not copied. The type of each column
+	 * is the boxed type of the array elements, for instance Integer for an int[].
+	 *
+	 * @param columnArrays map from column name to an array of values, of equal lengths
+	 * @return table
+	 */
+	public static MalcolmTable fromColumns(Map<String, Object> columnArrays) {
+		MalcolmTable table = new MalcolmTable();
+		table.columns = new LinkedHashMap<>(columnArrays.size());
+		table.tableDataTypes = new LinkedHashMap<>(columnArrays.size());
+		table.headings = new LinkedList<String>(columnArrays.keySet());
+		
+		int rows = -1;
+		for (String heading : table.headings) {
+			Object array = columnArrays.get(heading);
+			if (array == null || !array.getClass().isArray()) {
+				throw new IllegalArgumentException("The column " + heading + " is not an array");
+			}
+			int length = Array.getLength(array);
+			if (rows > -1 && length != rows) {
+				throw new IllegalArgumentException(String.format("The column %s has size %d, should be %d", heading, length, rows));
+			}
+			rows = length;
+			table.columns.put(heading, array);
+			table.tableDataTypes.put(heading, getBoxedType(array.getClass().getComponentType()));
+		}
+		table.numRows = Math.max(rows, 0);
+		return table;
+	}
+	
 	public List<Object> getColumn(String columnName) {
-		List<Object> column = tableData.get(columnName);
-		if (column != null) {
-			return tableData.get(columnName);
+		if (columns != null && columns.containsKey(columnName)) {
+			return new ColumnList(columnName);
 		}
 		throw new RuntimeException("Unknown column: " + columnName);
 	}
 	
-	public Class<?> getColumnClass(String columnName) {
-		List<Object> column = tableData.get(columnName);
-		if (column != null) {
-			return tableDataTypes.get(columnName);
+	/**
+	 * The array holding the values of a column, a primitive array for the number
+	 * and boolean types unless the column holds a null. This is the storage of the
+	 * column, not a copy.
+	 *
+	 * @param columnName
+	 * @return array of the size of the column, getNumRows() unless values have been added to the column alone
+	 */
+	public Object getColumnArray(String columnName) {
+		Object array = getArray(columnName);
+		final int size = getColumnSize(columnName);
+		if (Array.getLength(array) != size) {
+			Object trimmed = Array.newInstance(array.getClass().getComponentType(), size);
+			System.arraycopy(array, 0, trimmed, 0, size);
+			columns.put(columnName, trimmed);
+			array = trimmed;
 		}
-		throw new RuntimeException("Unknown column: " + columnName);
+		return array;
+	}
+	
+	public Class<?> getColumnClass(String columnName) {
+		getArray(columnName);
+		return tableDataTypes.get(columnName);
 	}
 	
+	/**
+	 * Returns a read only view of the row, the values are read from the table
+	 * when they are asked for.
+	 * @param rowIndex
+	 * @return map of column name to value
+	 */
 	public Map<String, Object> getRow(int rowIndex) {
-		if (rowIndex >= numRows) {
-			throw new IndexOutOfBoundsException("No such row " + rowIndex + ", number of rows = " + numRows);
-		}
-		
-		Map<String, Object> row = new LinkedHashMap<>(headings.size());
-		for (String heading : headings) {
-			row.put(heading, getCellValue(heading, rowIndex));
-		}
-		
-		return row;
+		checkRow(rowIndex);
+		return new RowMap(rowIndex);
 	}
 	
 	public Object getCellValue(String columnName, int rowIndex) {
-		return getColumn(columnName).get(rowIndex);
+		Object array = getArray(columnName);
+		checkRow(rowIndex);
+		return Array.get(array, rowIndex);
+	}
+	
+	public int getInt(String columnName, int rowIndex) {
+		Object array = getArray(columnName);
+		checkRow(rowIndex);
+		return isPrimitive(array) ? Array.getInt(array, rowIndex) : ((Number)Array.get(array, rowIndex)).intValue();
+	}
+	
+	public long getLong(String columnName, int rowIndex) {
+		Object array = getArray(columnName);
+		checkRow(rowIndex);
+		return isPrimitive(array) ? Array.getLong(array, rowIndex) : ((Number)Array.get(array, rowIndex)).longValue();
+	}
+	
+	public double getDouble(String columnName, int rowIndex) {
+		Object array = getArray(columnName);
+		checkRow(rowIndex);
+		return isPrimitive(array) ? Array.getDouble(array, rowIndex) : ((Number)Array.get(array, rowIndex)).doubleValue();
+	}
+	
+	public boolean getBoolean(String columnName, int rowIndex) {
+		Object array = getArray(columnName);
+		checkRow(rowIndex);
+		return isPrimitive(array) ? Array.getBoolean(array, rowIndex) : (Boolean)Array.get(array, rowIndex);
 	}
 	
 	public List<String> getHeadings() {
@@ -125,8 +217,16 @@ public class MalcolmTable implements Iterable<Map<String, Object>> {
 			if (!newRow.containsKey(heading)) {
 				throw new IllegalArgumentException("This row map does not have an entry for the column with the heading " + heading);
 			}
-			List<Object> columnValues = tableData.get(heading);
-			columnValues.add(newRow.get(heading));
+		}
+		if (columnSizes != null) {
+			for (String heading : headings) {
+				insert(heading, getColumnSize(heading), newRow.get(heading));
+			}
+			return;
+		}
+		for (String heading : headings) {
+			ensureCapacity(heading, numRows+1);
+			setValue(heading, numRows, newRow.get(heading));
 		}
 		numRows++;
 	}
@@ -152,18 +252,39 @@ public class MalcolmTable implements Iterable<Map<String, Object>> {
 		
 	}
 
+	/**
+	 * @return a view of the columns as lists, values are boxed when read
+	 */
 	public Map<String, List<Object>> getTableData() {
+		if (columns == null) return null;
+		Map<String, List<Object>> tableData = new LinkedHashMap<>(columns.size());
+		for (String heading : columns.keySet()) {
+			tableData.put(heading, new ColumnList(heading));
+		}
 		return tableData;
 	}
 
 	public void setTableData(Map<String, List<Object>> tableData) {
-		this.tableData = tableData;
 		// also sets the number of rows.
-		int numRows = tableData.values().iterator().next().size();
+		int numRows = tableData.isEmpty() ? 0 : tableData.values().iterator().next().size();
 		if (tableData.values().stream().anyMatch(column -> column.size() != numRows)) {
 			throw new IllegalArgumentException("All columns must have the same size");
 		}
+		
+		// The types may not be set yet, if not the columns are retyped when they are.
+		Map<String, Object> columns = new LinkedHashMap<>(tableData.size());
+		for (Map.Entry<String, List<Object>> entry : tableData.entrySet()) {
+			Class<?> type = tableDataTypes != null ? tableDataTypes.get(entry.getKey()) : null;
+			Object array = Array.newInstance(getComponentType(type, entry.getValue().contains(null)), numRows);
+			int i = 0;
+			for (Object value : entry.getValue()) {
+				setElement(array, i++, value);
+			}
+			columns.put(entry.getKey(), array);
+		}
+		this.columns = columns;
 		this.numRows = numRows;
+		this.columnSizes = null;
 	}
 
 	public Map<String, Class<?>> getTableDataTypes() {
@@ -172,6 +293,18 @@ public class MalcolmTable implements Iterable<Map<String, Object>> {
 
 	public void setTableDataTypes(Map<String, Class<?>> tableDataTypes) {
 		this.tableDataTypes = tableDataTypes;
+		if (columns == null || tableDataTypes == null) return;
+		for (Map.Entry<String, Object> entry : columns.entrySet()) {
+			Object array = entry.getValue();
+			int length = Array.getLength(array);
+			Class<?> componentType = getComponentType(tableDataTypes.get(entry.getKey()), hasNull(array, getColumnSize(entry.getKey())));
+			if (array.getClass().getComponentType() == componentType) continue;
+			Object typed = Array.newInstance(componentType, length);
+			for (int i = 0; i < length; i++) {
+				setElement(typed, i, Array.get(array, i));
+			}
+			entry.setValue(typed);
+		}
 	}
 
 	public int getNumRows() {
@@ -186,13 +319,256 @@ public class MalcolmTable implements Iterable<Map<String, Object>> {
 		this.headings = headings;
 	}
 
+	private Object getArray(String columnName) {
+		Object array = columns != null ? columns.get(columnName) : null;
+		if (array == null) throw new RuntimeException("Unknown column: " + columnName);
+		return array;
+	}
+	
+	private void checkRow(int rowIndex) {
+		if (rowIndex < 0 || rowIndex >= numRows) {
+			throw new IndexOutOfBoundsException("No such row " + rowIndex + ", number of rows = " + numRows);
+		}
+	}
+	
+	private int getColumnSize(String heading) {
+		return columnSizes != null ? columnSizes.get(heading) : numRows;
+	}
+	
+	private Object ensureCapacity(String heading, int size) {
+		Object array = columns.get(heading);
+		int capacity = Array.getLength(array);
+		if (size > capacity) {
+			Object grown = Array.newInstance(array.getClass().getComponentType(), Math.max(8, Math.max(size, capacity * 2)));
+			System.arraycopy(array, 0, grown, 0, getColumnSize(heading));
+			columns.put(heading, grown);
+			array = grown;
+		}
+		return array;
+	}
+	
+	/**
+	 * Sets a value into a column, a primitive column is boxed if the value is null.
+	 */
+	private void setValue(String heading, int index, Object value) {
+		Object array = columns.get(heading);
+		if (value == null && isPrimitive(array)) {
+			int length = Array.getLength(array);
+			Object boxed = Array.newInstance(getBoxedType(array.getClass().getComponentType()), length);
+			for (int i = 0; i < length; i++) Array.set(boxed, i, Array.get(array, i));
+			columns.put(heading, boxed);
+			array = boxed;
+		}
+		setElement(array, index, value);
+	}
+	
+	/**
+	 * Inserts a value into one column, the number of rows is that of the shortest column.
+	 */
+	private void insert(String heading, int index, Object value) {
+		final int size = getColumnSize(heading);
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("No such index " + index + " in column " + heading + " of size " + size);
+		}
+		final Object array = ensureCapacity(heading, size+1);
+		System.arraycopy(array, index, array, index+1, size-index);
+		setValue(heading, index, value);
+		
+		if (columnSizes == null) {
+			columnSizes = new LinkedHashMap<>(columns.size());
+			for (String name : columns.keySet()) columnSizes.put(name, numRows);
+		}
+		columnSizes.put(heading, size+1);
+		
+		int rows = Integer.MAX_VALUE, longest = 0;
+		for (int columnSize : columnSizes.values()) {
+			rows    = Math.min(rows, columnSize);
+			longest = Math.max(longest, columnSize);
+		}
+		numRows = rows;
+		if (rows == longest) columnSizes = null;
+	}
+	
+	private static boolean isPrimitive(Object array) {
+		return array.getClass().getComponentType().isPrimitive();
+	}
+	
+	private static boolean hasNull(Object array, int length) {
+		if (isPrimitive(array)) return false;
+		for (int i = 0; i < length; i++) {
+			if (Array.get(array, i) == null) return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Sets a value into a column array, converting numbers for primitive columns.
+	 */
+	private static void setElement(Object array, int index, Object value) {
+		final Class<?> type = array.getClass().getComponentType();
+		if (!type.isPrimitive()) {
+			Array.set(array, index, value instanceof Number ? convert((Number)value, type) : value);
+		} else if (type == boolean.class) {
+			((boolean[])array)[index] = (Boolean)value;
+		} else if (value instanceof Number) {
+			final Number number = (Number)value;
+			if (type == int.class) {
+				((int[])array)[index] = number.intValue();
+			} else if (type == double.class) {
+				((double[])array)[index] = number.doubleValue();
+			} else if (type == float.class) {
+				((float[])array)[index] = number.floatValue();
+			} else if (type == long.class) {
+				((long[])array)[index] = number.longValue();
+			} else if (type == short.class) {
+				((short[])array)[index] = number.shortValue();
+			} else if (type == byte.class) {
+				((byte[])array)[index] = number.byteValue();
+			} else {
+				Array.set(array, index, value);
+			}
+		} else {
+			throw new IllegalArgumentException("Cannot put "+value+" into a column of type "+type);
+		}
+	}
+	
+	/**
+	 * Converts a number to the boxed type of a column which holds nulls.
+	 */
+	private static Object convert(Number number, Class<?> type) {
+		if (type == Integer.class) return number.intValue();
+		if (type == Double.class)  return number.doubleValue();
+		if (type == Float.class)   return number.floatValue();
+		if (type == Long.class)    return number.longValue();
+		if (type == Short.class)   return number.shortValue();
+		if (type == Byte.class)    return number.byteValue();
+		return number;
+	}
+	
+	private static Class<?> getComponentType(Class<?> type, boolean nulls) {
+		return nulls && type != null ? type : getComponentType(type);
+	}
+	
+	private static Class<?> getComponentType(Class<?> type) {
+		if (type == null)          return Object.class;
+		if (type == Integer.class) return int.class;
+		if (type == Double.class)  return double.class;
+		if (type == Float.class)   return float.class;
+		if (type == Long.class)    return long.class;
+		if (type == Short.class)   return short.class;
+		if (type == Byte.class)    return byte.class;
+		if (type == Boolean.class) return boolean.class;
+		return type;
+	}
+	
+	private static Class<?> getBoxedType(Class<?> componentType) {
+		if (componentType == int.class)     return Integer.class;
+		if (componentType == double.class)  return Double.class;
+		if (componentType == float.class)   return Float.class;
+		if (componentType == long.class)    return Long.class;
+		if (componentType == short.class)   return Short.class;
+		if (componentType == byte.class)    return Byte.class;
+		if (componentType == boolean.class) return Boolean.class;
+		if (componentType == char.class)    return Character.class;
+		return componentType;
+	}
+	
+	/**
+	 * A column as a list, the array is looked up on each access as it
+	 * is replaced when rows are added.
+	 */
+	private class ColumnList extends AbstractList<Object> implements RandomAccess {
+		
+		private final String heading;
+		
+		ColumnList(String heading) {
+			this.heading = heading;
+		}
+		
+		@Override
+		public Object get(int index) {
+			checkIndex(index);
+			return Array.get(getArray(heading), index);
+		}
+		
+		@Override
+		public Object set(int index, Object element) {
+			Object previous = get(index);
+			setValue(heading, index, element);
+			return previous;
+		}
+		
+		@Override
+		public void add(int index, Object element) {
+			insert(heading, index, element);
+			modCount++;
+		}
+		
+		private void checkIndex(int index) {
+			if (index < 0 || index >= size()) {
+				throw new IndexOutOfBoundsException("No such index " + index + " in column " + heading + " of size " + size());
+			}
+		}
+		
+		@Override
+		public int size() {
+			return getColumnSize(heading);
+		}
+	}
+	
+	private class RowMap extends AbstractMap<String, Object> {
+		
+		private final int rowIndex;
+		
+		RowMap(int rowIndex) {
+			this.rowIndex = rowIndex;
+		}
+		
+		@Override
+		public Object get(Object key) {
+			Object array = columns.get(key);
+			return array != null ? Array.get(array, rowIndex) : null;
+		}
+		
+		@Override
+		public boolean containsKey(Object key) {
+			return columns.containsKey(key);
+		}
+		
+		@Override
+		public Set<Entry<String, Object>> entrySet() {
+			return new AbstractSet<Entry<String, Object>>() {
+				@Override
+				public Iterator<Entry<String, Object>> iterator() {
+					final Iterator<String> it = headings.iterator();
+					return new Iterator<Entry<String, Object>>() {
+						@Override
+						public boolean hasNext() {
+							return it.hasNext();
+						}
+						@Override
+						public Entry<String, Object> next() {
+							String heading = it.next();
+							return new SimpleImmutableEntry<>(heading, get(heading));
+						}
+					};
+				}
+				
+				@Override
+				public int size() {
+					return headings.size();
+				}
+			};
+		}
+	}
+	
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((headings == null) ? 0 : headings.hashCode());
 		result = prime * result + numRows;
-		result = prime * result + ((tableData == null) ? 0 : tableData.hashCode());
+		result = prime * result + ((columns == null) ? 0 : getTableData().hashCode());
 		result = prime * result + ((tableDataTypes == null) ? 0 : tableDataTypes.hashCode());
 		return result;
 	}
@@ -213,10 +589,10 @@ public class MalcolmTable implements Iterable<Map<String, Object>> {
 			return false;
 		if (numRows != other.numRows)
 			return false;
-		if (tableData == null) {
-			if (other.tableData != null)
+		if (columns == null) {
+			if (other.columns != null)
 				return false;
-		} else if (!tableData.equals(other.tableData))
+		} else if (other.columns == null || !getTableData().equals(other.getTableData()))
 			return false;
 		if (tableDataTypes == null) {
 			if (other.tableDataTypes != null)
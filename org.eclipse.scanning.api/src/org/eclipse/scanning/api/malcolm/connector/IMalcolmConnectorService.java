@@ -12,6 +12,7 @@
 package org.eclipse.scanning.api.malcolm.connector;
 
 import java.net.URI;
+import java.util.concurrent.Future;
 
 import org.eclipse.scanning.api.malcolm.IMalcolmDevice;
 import org.eclipse.scanning.api.malcolm.MalcolmDeviceException;
@@ -53,6 +54,23 @@ public interface IMalcolmConnectorService<T> {
 	 */
 	T send(IMalcolmDevice<?> device, T message) throws MalcolmDeviceException;
 
+	/**
+	 * Send the message without blocking. Several messages may be outstanding
+	 * for the same device at once, each future completes with its own reply.
+	 * The caller decides how long to wait for the reply, cancelling the future
+	 * interrupts the request if it has not finished.
+	 * 
+	 * The default runs send(device, message) on a pool shared by every connector
+	 * which does not override this.
+	 * 
+	 * @param device
+	 * @param message
+	 * @return the reply, when it arrives
+	 */
+	default Future<T> sendAsync(IMalcolmDevice<?> device, T message) {
+		return MalcolmRequestExecutor.getExecutor().submit(()->send(device, message));
+	}
+
 
 	/**
 	 * Subscribe to a message, adding the listener to the list of listeners for this message
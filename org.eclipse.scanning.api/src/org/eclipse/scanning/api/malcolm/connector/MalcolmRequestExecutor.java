@@ -0,0 +1,40 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.malcolm.connector;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the requests of connectors which do not override
+ * IMalcolmConnectorService.sendAsync(...). The pool grows with the number of
+ * outstanding requests and idle threads are released after a minute.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+final class MalcolmRequestExecutor {
+	
+	private static final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+		Thread thread = new Thread(r, "Malcolm request");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private MalcolmRequestExecutor() {
+		// Use getExecutor()
+	}
+	
+	static ExecutorService getExecutor() {
+		return executor;
+	}
+}
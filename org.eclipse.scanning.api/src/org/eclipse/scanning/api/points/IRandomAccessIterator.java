@@ -0,0 +1,38 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.points;
+
+import java.util.Iterator;
+
+/**
+ * 
+ * An iterator over the points of a scan which can also return the point
+ * at any step without iterating to it. Used by devices which report their
+ * progress as a step number, for instance malcolm, and must publish the
+ * position at that step.
+ * 
+ * Getting a point by step does not move the iterator.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public interface IRandomAccessIterator extends Iterator<IPosition> {
+
+	/**
+	 * The point at the given step of the scan.
+	 * 
+	 * @param step starting at 0
+	 * @return the point, with its step index set
+	 * @throws GeneratorException if the step is not in the scan
+	 */
+	IPosition getPoint(int step) throws GeneratorException;
+}
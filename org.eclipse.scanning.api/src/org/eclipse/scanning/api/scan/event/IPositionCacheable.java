@@ -0,0 +1,47 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.scan.event;
+
+/**
+ * A device which may return the last position that it was seen at
+ * instead of asking for its position each time. For instance a remote
+ * scannable which listens to the position events of the server.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public interface IPositionCacheable<T> {
+
+	/**
+	 * Get the position, from the cache if the cached position is
+	 * no older than the age given.
+	 *
+	 * @param maximumAge in ms, zero or less asks the device directly.
+	 * @return the position
+	 * @throws Exception
+	 */
+	T getPosition(long maximumAge) throws Exception;
+
+	/**
+	 *
+	 * @return the age in ms of the oldest cached position that getPosition() returns,
+	 *         zero if getPosition() always asks the device.
+	 */
+	long getMaximumAge();
+
+	/**
+	 *
+	 * @param maximumAge in ms of the oldest cached position that getPosition() returns,
+	 *                   zero for getPosition() to always ask the device.
+	 */
+	void setMaximumAge(long maximumAge);
+}
@@ -0,0 +1,77 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.scan.rank;
+
+import java.util.Arrays;
+
+/**
+ * 
+ * The chunking planned for a dataset, and the chunk cache which
+ * the file writing it should have so that partly written chunks
+ * are not evicted during the scan.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class ChunkPlan {
+
+	private final int[] chunk;
+	private final long  chunkBytes;
+	private final long  cacheBytes;
+	private final int   cacheSlots;
+	
+	public ChunkPlan(int[] chunk, long chunkBytes, long cacheBytes, int cacheSlots) {
+		this.chunk      = chunk;
+		this.chunkBytes = chunkBytes;
+		this.cacheBytes = cacheBytes;
+		this.cacheSlots = cacheSlots;
+	}
+
+	/**
+	 * 
+	 * @return the chunk shape, scan dimensions then frame dimensions.
+	 */
+	public int[] getChunk() {
+		return chunk;
+	}
+
+	/**
+	 * 
+	 * @return the size of one chunk in bytes.
+	 */
+	public long getChunkBytes() {
+		return chunkBytes;
+	}
+
+	/**
+	 * 
+	 * @return the chunk cache size in bytes (HDF5 rdcc_nbytes) which holds 
+	 * all the chunks being written at once.
+	 */
+	public long getCacheBytes() {
+		return cacheBytes;
+	}
+
+	/**
+	 * 
+	 * @return the number of chunk slots in the cache (HDF5 rdcc_nslots), a prime.
+	 */
+	public int getCacheSlots() {
+		return cacheSlots;
+	}
+
+	@Override
+	public String toString() {
+		return "ChunkPlan [chunk=" + Arrays.toString(chunk) + ", chunkBytes=" + chunkBytes + ", cacheBytes=" + cacheBytes
+				+ ", cacheSlots=" + cacheSlots + "]";
+	}
+}
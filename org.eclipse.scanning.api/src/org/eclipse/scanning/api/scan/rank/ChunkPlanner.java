@@ -0,0 +1,153 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.scan.rank;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+
+/**
+ * 
+ * Plans chunks for scan datasets.
+ * 
+ * <ol>
+ * <li>Each chunk starts as one whole frame at one scan point.</li>
+ * <li>If that is larger than {@link #MAX_CHUNK_BYTES} the slowest frame dimensions
+ *     are halved until it fits, so that rows of the frame stay whole.</li>
+ * <li>If it is smaller than the target the chunk is grown along the scan, fastest
+ *     dimension first. Data read by frame is only grown to {@link #MIN_CHUNK_BYTES} 
+ *     because readers of one frame would read the rest of the chunk for nothing. Data 
+ *     read along lines is grown along the fastest dimension and data read as maps along
+ *     every scan dimension, to {@link #TARGET_CHUNK_BYTES}. A dimension of unknown
+ *     extent is not grown past the expected size of the scan, or past {@link #MIN_CHUNK_BYTES}
+ *     if that is not known either.</li>
+ * </ol>
+ * 
+ * The cache is sized to hold every chunk which is partly written at once, this is
+ * a row of chunks across the faster dimensions when the chunk spans several lines.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+class ChunkPlanner implements IChunkPlanner {
+	
+	/**
+	 * Below this the overhead of each chunk in the B-tree and each write dominates.
+	 */
+	static final long MIN_CHUNK_BYTES    = 16*1024;
+	
+	/**
+	 * The size we grow chunks to for data read along the scan.
+	 */
+	static final long TARGET_CHUNK_BYTES = 256*1024;
+	
+	/**
+	 * The HDF5 default chunk cache is 1MB, larger chunks are not cached.
+	 */
+	static final long MAX_CHUNK_BYTES    = 1024*1024;
+	
+	/**
+	 * The smallest cache we recommend, the HDF5 default.
+	 */
+	private static final long MIN_CACHE_BYTES = 1024*1024;
+
+	@Override
+	public ChunkPlan plan(int[] scanShape, long expectedSize, int[] frameShape, int elementSize, ReadPattern... readers) {
+		
+		if (scanShape==null)  throw new IllegalArgumentException("The scan shape must be given, use IChunkPlanner.unknownShape(rank) if it is not known.");
+		if (frameShape==null) frameShape = new int[0];
+		if (elementSize<1)    elementSize = 1;
+		
+		final EnumSet<ReadPattern> patterns = readers==null || readers.length<1 
+				                            ? EnumSet.of(ReadPattern.FRAME)
+				                            : EnumSet.copyOf(Arrays.asList(readers));
+		
+		final int   scanRank = scanShape.length;
+		final int[] chunk    = new int[scanRank+frameShape.length];
+		Arrays.fill(chunk, 1);
+		for (int i = 0; i < frameShape.length; i++) chunk[scanRank+i] = Math.max(1, frameShape[i]);
+		
+		long bytes = bytes(chunk, elementSize);
+		
+		// Too big, split the frame from its slowest dimension.
+		for (int dim = scanRank; bytes>MAX_CHUNK_BYTES && dim<chunk.length; ) {
+			if (chunk[dim]>1) {
+				chunk[dim] = (chunk[dim]+1)/2;
+				bytes = bytes(chunk, elementSize);
+			} else {
+				dim++;
+			}
+		}
+		
+		// Too small, grow along the scan.
+		final boolean alongScan = patterns.contains(ReadPattern.LINE) || patterns.contains(ReadPattern.MAP);
+		final long    target    = alongScan ? TARGET_CHUNK_BYTES : MIN_CHUNK_BYTES;
+		final int     slowest   = patterns.contains(ReadPattern.MAP) || !alongScan ? 0 : scanRank-1;
+		for (int dim = scanRank-1; dim>=slowest && bytes<target; dim--) {
+			final int extent = scanShape[dim];
+			final long limit = extent>0 || expectedSize>0 ? target : Math.min(target, MIN_CHUNK_BYTES);
+			while (bytes<limit && (extent<1 || chunk[dim]<extent)) {
+				int grown = extent<1 ? chunk[dim]*2 : Math.min(chunk[dim]*2, extent);
+				if (extent<1 && expectedSize>0) {
+					// The other scan dimensions of the chunk also use up the expected points.
+					long others = bytes(Arrays.copyOf(chunk, scanRank), 1)/chunk[dim];
+					grown = (int)Math.min(grown, Math.max(1, expectedSize/others));
+					if (grown<=chunk[dim]) break;
+				}
+				if (bytes/chunk[dim]*grown>MAX_CHUNK_BYTES) break;
+				chunk[dim] = grown;
+				bytes = bytes(chunk, elementSize);
+			}
+			// Only grow a slower dimension once the faster one is whole.
+			if (extent<1 || chunk[dim]<extent) break;
+		}
+		
+		// The cache must hold all the chunks which are partly written at once.
+		long open = 1;
+		int  spanning = -1;
+		for (int dim = 0; dim < scanRank; dim++) {
+			if (chunk[dim]>1) { spanning = dim; break; }
+		}
+		if (spanning>-1) {
+			for (int dim = spanning+1; dim < scanRank; dim++) {
+				int extent = scanShape[dim];
+				open*= extent<1 ? 1 : (extent+chunk[dim]-1)/chunk[dim];
+			}
+		}
+		for (int i = 0; i < frameShape.length; i++) {
+			open*= (Math.max(1, frameShape[i])+chunk[scanRank+i]-1)/chunk[scanRank+i];
+		}
+		final long cacheBytes = Math.max(MIN_CACHE_BYTES, open*bytes);
+		final int  cacheSlots = nextPrime((int)Math.min(Integer.MAX_VALUE/2, Math.max(521, open*100)));
+		
+		return new ChunkPlan(chunk, bytes, cacheBytes, cacheSlots);
+	}
+
+	private static long bytes(int[] chunk, int elementSize) {
+		long bytes = elementSize;
+		for (int i : chunk) bytes*=i;
+		return bytes;
+	}
+	
+	private static int nextPrime(int n) {
+		if (n%2==0) n++;
+		while(!isPrime(n)) n+=2;
+		return n;
+	}
+
+	private static boolean isPrime(int n) {
+		if (n<2) return false;
+		for (int i = 2; (long)i*i <= n; i++) {
+			if (n%i==0) return false;
+		}
+		return true;
+	}
+}
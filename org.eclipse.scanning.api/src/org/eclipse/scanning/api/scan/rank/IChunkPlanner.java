@@ -0,0 +1,102 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.scan.rank;
+
+/**
+ * 
+ * Please use this service to choose the chunking of datasets written
+ * during a scan, rather than choosing chunk shapes in each device. 
+ * 
+ * Chunks are planned from the scan shape, the frame written at each
+ * point and how the data is expected to be read. They are kept between
+ * lower and upper bounds in bytes so that there are neither millions
+ * of tiny chunks nor chunks larger than the chunk cache.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public interface IChunkPlanner {
+
+	/**
+	 * Plan the chunks of a dataset of rank scanShape.length+frameShape.length
+	 * 
+	 * @param scanShape the shape of the scan, a dimension may be -1 if it is not known
+	 * @param expectedSize the number of points expected in the scan, used to limit chunks
+	 *        along dimensions of unknown extent. If it is less than one as well, those
+	 *        dimensions are only grown to the minimum chunk size.
+	 * @param frameShape the shape written at each point, empty for a scalar.
+	 * @param elementSize the size in bytes of one element, 8 for a double.
+	 * @param readers how the data will be read, FRAME if none are given.
+	 * @return the plan
+	 */
+	ChunkPlan plan(int[] scanShape, long expectedSize, int[] frameShape, int elementSize, ReadPattern... readers);
+	
+	/**
+	 * Chunk for a frame written at each point and read by frame.
+	 * @param scanShape
+	 * @param elementSize
+	 * @param frameShape
+	 * @return the chunk shape.
+	 */
+	default int[] createChunk(int[] scanShape, int elementSize, int... frameShape) {
+		return plan(scanShape, -1, frameShape, elementSize, ReadPattern.FRAME).getChunk();
+	}
+
+	/**
+	 * Chunk for a scalar written at each point, which is read along lines and as a map.
+	 * @param scanShape
+	 * @param elementSize
+	 * @return the chunk shape.
+	 */
+	default int[] createScalarChunk(int[] scanShape, int elementSize) {
+		return createScalarChunk(scanShape, -1, elementSize);
+	}
+
+	/**
+	 * Chunk for a scalar written at each point, when the shape of the scan may not be known
+	 * but the number of points is.
+	 * @param scanShape
+	 * @param expectedSize the number of points expected, -1 if not known.
+	 * @param elementSize
+	 * @return the chunk shape.
+	 */
+	default int[] createScalarChunk(int[] scanShape, long expectedSize, int elementSize) {
+		return plan(scanShape, expectedSize, new int[0], elementSize, ReadPattern.LINE, ReadPattern.MAP).getChunk();
+	}
+	
+	/**
+	 * A scan shape of unknown size, for when only the rank is known.
+	 * @param rank
+	 * @return shape of -1s
+	 */
+	static int[] unknownShape(int rank) {
+		final int[] shape = new int[rank];
+		for (int i = 0; i < shape.length; i++) shape[i] = -1;
+		return shape;
+	}
+	
+	/**
+	 * Currently it is possible to implement the IChunkPlanner
+	 * directly in the API bundle, in the same way as the 
+	 * IScanRankService.
+	 * 
+	 * @return
+	 */
+    public static IChunkPlanner getChunkPlanner() {
+    	return chunkPlanner;
+    }
+    
+    /**
+     * Do not use this variable, use getChunkPlanner();
+     */
+	static final IChunkPlanner chunkPlanner = new ChunkPlanner();
+}
@@ -0,0 +1,42 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.scan.rank;
+
+/**
+ * 
+ * How a dataset written by a scan is expected to be read, used
+ * by the {@link IChunkPlanner} to shape the chunks.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public enum ReadPattern {
+
+	/**
+	 * Whole frames are read at single scan points, for instance by
+	 * an image viewer or processing. Chunks are kept to one point
+	 * unless the frame is very small.
+	 */
+	FRAME,
+	
+	/**
+	 * The data is read along the fastest scan dimension, for instance
+	 * a line plot of a scalar or a stack of spectra.
+	 */
+	LINE,
+	
+	/**
+	 * The data is read over the whole scan at one point in the frame,
+	 * for instance a live map of a scalar. 
+	 */
+	MAP;
+}
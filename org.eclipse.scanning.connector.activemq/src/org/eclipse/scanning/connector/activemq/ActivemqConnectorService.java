@@ -11,6 +11,7 @@
  *******************************************************************************/
 package org.eclipse.scanning.connector.activemq;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.DatagramSocket;
 import java.net.ServerSocket;
@@ -41,6 +42,13 @@ import org.eclipse.scanning.api.event.IMessagingService;
  */
 public class ActivemqConnectorService implements IEventConnectorService, IMessagingService {
 
+	/**
+	 * Set this property to a directory to keep the messages in queues in a 
+	 * {@link QueueJournal} there, so that queued and finished beans survive
+	 * restarting the broker. If it is not set the broker is not persistent.
+	 */
+	public static final String JOURNAL_DIRECTORY_PROPERTY = "org.eclipse.scanning.connector.activemq.journal";
+
 	private static IMarshallerService jsonMarshaller;
 
 	public static void setJsonMarshaller(IMarshallerService jsonMarshaller) {
@@ -101,7 +109,13 @@ public class ActivemqConnectorService implements IEventConnectorService, IMessag
 			URI uri = new URI(suggestedURI); // Each test uses a new port if the port is running on another test.
 			service = new BrokerService();
 	        service.addConnector(uri);
-	        service.setPersistent(false); 
+	        String journalDir = System.getProperty(JOURNAL_DIRECTORY_PROPERTY);
+	        if (journalDir!=null) {
+	        	service.setPersistenceAdapter(new JournalPersistenceAdapter(new File(journalDir)));
+	        	service.setPersistent(true);
+	        } else {
+	        	service.setPersistent(false); 
+	        }
 			service.addConnector("stomp://localhost:61613"); // Allow stomp connections (for Python clients, etc.).
 	        SystemUsage systemUsage = service.getSystemUsage();
 	        systemUsage.getStoreUsage().setLimit(1024 * 1024 * 8);
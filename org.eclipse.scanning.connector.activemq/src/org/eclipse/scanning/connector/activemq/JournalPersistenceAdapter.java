@@ -0,0 +1,166 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.activemq;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.activemq.broker.ConnectionContext;
+import org.apache.activemq.command.ActiveMQDestination;
+import org.apache.activemq.command.ActiveMQQueue;
+import org.apache.activemq.command.Message;
+import org.apache.activemq.command.MessageAck;
+import org.apache.activemq.openwire.OpenWireFormat;
+import org.apache.activemq.store.MessageStore;
+import org.apache.activemq.store.memory.MemoryMessageStore;
+import org.apache.activemq.store.memory.MemoryPersistenceAdapter;
+import org.apache.activemq.util.ByteSequence;
+
+/**
+ * A persistence adapter which keeps messages in memory, as the broker does 
+ * when it is not persistent, and also writes the messages of every queue to
+ * a {@link QueueJournal}. When the broker is started again with the same 
+ * directory, the submission queues and status sets are recovered from the 
+ * journal without browsing or resubmitting any messages. Topics are not 
+ * journalled.
+ * 
+ * Messages are stored in the OpenWire format used by the broker.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class JournalPersistenceAdapter extends MemoryPersistenceAdapter {
+	
+	/**
+	 * Records written to the journal between snapshots.
+	 */
+	private static final int SNAPSHOT_INTERVAL = Integer.getInteger("org.eclipse.scanning.connector.activemq.journal.snapshotInterval", 10000);
+
+	private final QueueJournal  journal;
+	private final OpenWireFormat wireFormat;
+	private final Map<ActiveMQDestination, JournalMessageStore> stores;
+
+	/**
+	 * Open the journal in the directory and recover the queues in it.
+	 * 
+	 * @param directory of the journal
+	 * @throws IOException if the journal cannot be read.
+	 */
+	public JournalPersistenceAdapter(File directory) throws IOException {
+		this.journal    = new QueueJournal(directory, SNAPSHOT_INTERVAL);
+		this.wireFormat = new OpenWireFormat();
+		wireFormat.setCacheEnabled(false);
+		wireFormat.setTightEncodingEnabled(true);
+		this.stores     = new ConcurrentHashMap<>();
+		recover();
+	}
+
+	private void recover() throws IOException {
+		for (Map.Entry<String, Map<String, byte[]>> queue : journal.getQueues().entrySet()) {
+			final JournalMessageStore store = getStore(new ActiveMQQueue(queue.getKey()));
+			for (byte[] data : queue.getValue().values()) {
+				store.recover((Message)wireFormat.unmarshal(new ByteSequence(data)));
+			}
+		}
+	}
+	
+	private JournalMessageStore getStore(ActiveMQQueue destination) {
+		JournalMessageStore store = stores.get(destination);
+		if (store==null) {
+			store = new JournalMessageStore(destination);
+			stores.put(destination, store);
+		}
+		return store;
+	}
+
+	@Override
+	public Set<ActiveMQDestination> getDestinations() {
+		final Set<ActiveMQDestination> destinations = new HashSet<>(super.getDestinations());
+		destinations.addAll(stores.keySet());
+		return destinations;
+	}
+
+	@Override
+	public synchronized MessageStore createQueueMessageStore(ActiveMQQueue destination) throws IOException {
+		return getStore(destination);
+	}
+
+	@Override
+	public void removeQueueMessageStore(ActiveMQQueue destination) {
+		stores.remove(destination);
+		try {
+			journal.clear(destination.getPhysicalName());
+		} catch (IOException ne) {
+			throw new IllegalStateException("Cannot remove "+destination+" from the journal", ne);
+		}
+	}
+
+	@Override
+	public void deleteAllMessages() throws IOException {
+		super.deleteAllMessages();
+		for (JournalMessageStore store : stores.values()) {
+			store.removeAllMessages(null);
+		}
+	}
+
+	@Override
+	public void stop() throws Exception {
+		journal.snapshot();
+		journal.close();
+		super.stop();
+	}
+
+	@Override
+	public String toString() {
+		return "JournalPersistenceAdapter";
+	}
+
+	/**
+	 * The in-memory store of one queue, changes are written to the journal
+	 * before they are made.
+	 */
+	private class JournalMessageStore extends MemoryMessageStore {
+
+		public JournalMessageStore(ActiveMQDestination destination) {
+			super(destination);
+		}
+
+		@Override
+		public synchronized void addMessage(ConnectionContext context, Message message) throws IOException {
+			final ByteSequence seq = wireFormat.marshal(message);
+			final byte[] data = Arrays.copyOfRange(seq.getData(), seq.getOffset(), seq.getOffset()+seq.getLength());
+			journal.add(getDestination().getPhysicalName(), message.getMessageId().toString(), data);
+			super.addMessage(context, message);
+		}
+
+		@Override
+		public synchronized void removeMessage(ConnectionContext context, MessageAck ack) throws IOException {
+			journal.remove(getDestination().getPhysicalName(), ack.getLastMessageId().toString());
+			super.removeMessage(context, ack);
+		}
+
+		@Override
+		public synchronized void removeAllMessages(ConnectionContext context) throws IOException {
+			journal.clear(getDestination().getPhysicalName());
+			super.removeAllMessages(context);
+		}
+
+		private void recover(Message message) throws IOException {
+			super.addMessage(null, message);
+		}
+	}
+}
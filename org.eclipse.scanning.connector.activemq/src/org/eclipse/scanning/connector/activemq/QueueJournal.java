@@ -0,0 +1,219 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.activemq;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An append-only journal of the messages in a set of queues. Each change is 
+ * written as a compact binary record:
+ * <pre>
+ *   ADD:    type, queue name, message id, length, message bytes
+ *   REMOVE: type, queue name, message id
+ *   CLEAR:  type, queue name
+ * </pre>
+ * The current contents of every queue are held in memory. After a number of
+ * records have been written, the contents are written to a snapshot file and
+ * the journal is started again, so recovery reads at most one snapshot and a
+ * short journal.
+ * 
+ * Records are flushed to the file system when written, so the journal 
+ * survives the process stopping. A record which was only partly written when
+ * the process stopped is ignored on recovery.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class QueueJournal implements Closeable {
+	
+	private static final byte ADD    = 1;
+	private static final byte REMOVE = 2;
+	private static final byte CLEAR  = 3;
+	
+	private static final String JOURNAL  = "queues.journal";
+	private static final String SNAPSHOT = "queues.snapshot";
+
+	private final File directory;
+	private final int  snapshotInterval;
+	private final Map<String, Map<String, byte[]>> queues;
+	
+	private DataOutputStream out;
+	private int              records;
+
+	/**
+	 * Open the journal in this directory, recovering the contents of the 
+	 * queues written to it previously.
+	 * 
+	 * @param directory in which the journal and snapshot are written, created if necessary.
+	 * @param snapshotInterval number of records written to the journal before a snapshot is taken.
+	 * @throws IOException if the journal cannot be read or opened for writing.
+	 */
+	public QueueJournal(File directory, int snapshotInterval) throws IOException {
+		this.directory        = directory;
+		this.snapshotInterval = snapshotInterval;
+		this.queues           = new LinkedHashMap<>();
+		if (!directory.exists() && !directory.mkdirs()) throw new IOException("Cannot create journal directory "+directory);
+		
+		read(new File(directory, SNAPSHOT));
+		this.records = 0;
+		final boolean complete = read(new File(directory, JOURNAL));
+		this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(new File(directory, JOURNAL), true)));
+		if (!complete) snapshot(); // Do not append after a partly written record
+	}
+
+	/**
+	 * @return the messages of each queue, in the order they were added, by message id.
+	 */
+	public synchronized Map<String, Map<String, byte[]>> getQueues() {
+		final Map<String, Map<String, byte[]>> ret = new LinkedHashMap<>(queues.size());
+		for (Map.Entry<String, Map<String, byte[]>> entry : queues.entrySet()) {
+			ret.put(entry.getKey(), Collections.unmodifiableMap(new LinkedHashMap<>(entry.getValue())));
+		}
+		return ret;
+	}
+	
+	public synchronized void add(String queue, String id, byte[] data) throws IOException {
+		getQueue(queue).put(id, data);
+		out.writeByte(ADD);
+		out.writeUTF(queue);
+		out.writeUTF(id);
+		out.writeInt(data.length);
+		out.write(data);
+		written();
+	}
+	
+	public synchronized void remove(String queue, String id) throws IOException {
+		final Map<String, byte[]> messages = queues.get(queue);
+		if (messages==null || messages.remove(id)==null) return;
+		out.writeByte(REMOVE);
+		out.writeUTF(queue);
+		out.writeUTF(id);
+		written();
+	}
+	
+	public synchronized void clear(String queue) throws IOException {
+		if (queues.remove(queue)==null) return;
+		out.writeByte(CLEAR);
+		out.writeUTF(queue);
+		written();
+	}
+	
+	private void written() throws IOException {
+		out.flush();
+		if (++records >= snapshotInterval) snapshot();
+	}
+	
+	/**
+	 * Write the contents of all queues to the snapshot and start a new,
+	 * empty journal.
+	 * 
+	 * @throws IOException if the snapshot cannot be written, the previous snapshot and journal are kept.
+	 */
+	public synchronized void snapshot() throws IOException {
+		
+		final File tmp = new File(directory, SNAPSHOT+".tmp");
+		try (FileOutputStream fout = new FileOutputStream(tmp)) {
+			final DataOutputStream sout = new DataOutputStream(new BufferedOutputStream(fout));
+			for (Map.Entry<String, Map<String, byte[]>> queue : queues.entrySet()) {
+				for (Map.Entry<String, byte[]> message : queue.getValue().entrySet()) {
+					sout.writeByte(ADD);
+					sout.writeUTF(queue.getKey());
+					sout.writeUTF(message.getKey());
+					sout.writeInt(message.getValue().length);
+					sout.write(message.getValue());
+				}
+			}
+			sout.flush();
+			fout.getFD().sync();
+		}
+		
+		// Replace the snapshot in one step, so that there is always a whole one to recover from
+		final File snapshot = new File(directory, SNAPSHOT);
+		try {
+			Files.move(tmp.toPath(), snapshot.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException ne) {
+			throw new IOException("Cannot rename "+tmp+" to "+snapshot, ne);
+		}
+		
+		out.close();
+		out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(new File(directory, JOURNAL), false)));
+		records = 0;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		out.close();
+	}
+
+	private Map<String, byte[]> getQueue(String queue) {
+		Map<String, byte[]> messages = queues.get(queue);
+		if (messages==null) {
+			messages = new LinkedHashMap<>();
+			queues.put(queue, messages);
+		}
+		return messages;
+	}
+
+	/**
+	 * Apply the records in the file to the queues.
+	 * @param file
+	 * @return false if the last record was not completely written.
+	 * @throws IOException
+	 */
+	private boolean read(File file) throws IOException {
+		
+		if (!file.exists()) return true;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			while(true) {
+				final int type = in.read();
+				if (type<0) return true;
+				final String queue = in.readUTF();
+				switch(type) {
+				case ADD:
+					final String id = in.readUTF();
+					final byte[] data = new byte[in.readInt()];
+					in.readFully(data);
+					getQueue(queue).put(id, data);
+					break;
+				case REMOVE:
+					final Map<String, byte[]> messages = queues.get(queue);
+					final String removed = in.readUTF();
+					if (messages!=null) messages.remove(removed);
+					break;
+				case CLEAR:
+					queues.remove(queue);
+					break;
+				default:
+					throw new IOException("Unknown record type "+type+" in "+file);
+				}
+				records++;
+			}
+		} catch (EOFException ne) {
+			return false; // The last record was not completely written, it is ignored.
+		}
+	}
+
+}
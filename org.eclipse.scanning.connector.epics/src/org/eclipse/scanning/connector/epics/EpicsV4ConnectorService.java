@@ -18,6 +18,9 @@ import java.util.Collection;
 import java.util.Hashtable;
 import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.scanning.api.malcolm.IMalcolmDevice;
 import org.eclipse.scanning.api.malcolm.MalcolmDeviceException;
@@ -63,6 +66,17 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 	
 	private static final Logger logger = LoggerFactory.getLogger(EpicsV4ConnectorService.class);
 	
+	/**
+	 * Runs the requests made with sendAsync(...). The pool grows with the number of
+	 * outstanding requests so that calls to different devices, or several calls
+	 * to one device, overlap. Idle threads are released after a minute.
+	 */
+	private static final ExecutorService requestExecutor = Executors.newCachedThreadPool(r -> {
+		Thread thread = new Thread(r, "EpicsV4 Malcolm request");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
 	private EpicsV4MessageMapper mapper;
 	
 	private PvaClient pvaClient;
@@ -124,6 +138,11 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 		}
 		return result;
 	}
+	
+	@Override
+	public Future<MalcolmMessage> sendAsync(IMalcolmDevice<?> device, MalcolmMessage message) {
+		return requestExecutor.submit(()->send(device, message));
+	}
 
 	@Override
 	public void subscribe(IMalcolmDevice<?> device, MalcolmMessage msg, IMalcolmListener<MalcolmMessage> listener)
@@ -11,6 +11,8 @@
  *******************************************************************************/
 package org.eclipse.scanning.connector.epics;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.eclipse.scanning.api.event.scan.DeviceState;
 import org.eclipse.scanning.api.malcolm.IMalcolmDevice;
 import org.eclipse.scanning.api.malcolm.MalcolmDeviceException;
@@ -40,11 +42,12 @@ class EpicsV4MalcolmMessageGenerator implements MessageGenerator<MalcolmMessage>
 		this.service = service;
 	}
 
-	private static volatile long callCount = 0;
+	// Messages may be created on several threads at once, their ids must not repeat.
+	private static final AtomicLong callCount = new AtomicLong();
 	
 	private MalcolmMessage createMalcolmMessage() {
 		MalcolmMessage ret = new MalcolmMessage();
-		ret.setId(callCount++);
+		ret.setId(callCount.getAndIncrement());
 		return ret;
 	}
 
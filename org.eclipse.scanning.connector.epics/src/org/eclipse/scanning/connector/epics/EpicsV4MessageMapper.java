@@ -28,6 +28,7 @@ import org.eclipse.dawnsci.analysis.dataset.roi.SectorROI;
 import org.eclipse.dawnsci.analysis.dataset.roi.XAxisBoxROI;
 import org.eclipse.dawnsci.analysis.dataset.roi.YAxisBoxROI;
 import org.eclipse.scanning.api.device.models.MalcolmModel;
+import org.eclipse.scanning.api.malcolm.MalcolmTable;
 import org.eclipse.scanning.api.malcolm.message.MalcolmMessage;
 import org.eclipse.scanning.api.malcolm.message.Type;
 import org.eclipse.scanning.api.points.IPointGenerator;
@@ -37,6 +38,7 @@ import org.eclipse.scanning.api.points.models.SpiralModel;
 import org.eclipse.scanning.api.points.models.StepModel;
 import org.eclipse.scanning.connector.epics.custommarshallers.BoundingBoxDeserialiser;
 import org.eclipse.scanning.connector.epics.custommarshallers.BoundingBoxSerialiser;
+import org.eclipse.scanning.connector.epics.custommarshallers.CachedStructureSerialiser;
 import org.eclipse.scanning.connector.epics.custommarshallers.CircularROIDeserialiser;
 import org.eclipse.scanning.connector.epics.custommarshallers.CircularROISerialiser;
 import org.eclipse.scanning.connector.epics.custommarshallers.EllipticalROIDeserialiser;
@@ -53,6 +55,7 @@ import org.eclipse.scanning.connector.epics.custommarshallers.LinearROIDeseriali
 import org.eclipse.scanning.connector.epics.custommarshallers.LinearROISerialiser;
 import org.eclipse.scanning.connector.epics.custommarshallers.MalcolmMessageSerialiser;
 import org.eclipse.scanning.connector.epics.custommarshallers.MalcolmPointGeneratorDeserialiser;
+import org.eclipse.scanning.connector.epics.custommarshallers.MalcolmTableSerialiser;
 import org.eclipse.scanning.connector.epics.custommarshallers.NTScalarArrayDeserialiser;
 import org.eclipse.scanning.connector.epics.custommarshallers.NTScalarDeserialiser;
 import org.eclipse.scanning.connector.epics.custommarshallers.NTTableDeserialiser;
@@ -103,50 +106,53 @@ public class EpicsV4MessageMapper {
 		marshaller.registerSerialiser(PyDictionary.class, new PyDictionarySerialiser());
 		marshaller.registerSerialiser(MalcolmMessage.class, new MalcolmMessageSerialiser());
 		
+		// The structures of the models and regions do not depend on their values, so
+		// they are built once and reused. Not the spiral model, which nests its bounding box.
 		marshaller.registerSerialiser(SpiralModel.class, new SpiralModelSerialiser());
 		marshaller.registerDeserialiser("SpiralModel", new SpiralModelDeserialiser());
-		marshaller.registerSerialiser(StepModel.class, new StepModelSerialiser());
+		marshaller.registerSerialiser(StepModel.class, new CachedStructureSerialiser<>(new StepModelSerialiser()));
 		marshaller.registerDeserialiser("StepModel", new StepModelDeserialiser());
-		marshaller.registerSerialiser(GridModel.class, new GridModelSerialiser());
+		marshaller.registerSerialiser(GridModel.class, new CachedStructureSerialiser<>(new GridModelSerialiser()));
 		marshaller.registerDeserialiser("GridModel", new GridModelDeserialiser());
 		
-		marshaller.registerSerialiser(CircularROI.class, new CircularROISerialiser());
+		marshaller.registerSerialiser(CircularROI.class, new CachedStructureSerialiser<>(new CircularROISerialiser()));
 		marshaller.registerDeserialiser("CircularROI", new CircularROIDeserialiser());
-		marshaller.registerSerialiser(EllipticalROI.class, new EllipticalROISerialiser());
+		marshaller.registerSerialiser(EllipticalROI.class, new CachedStructureSerialiser<>(new EllipticalROISerialiser()));
 		marshaller.registerDeserialiser("EllipticalROI", new EllipticalROIDeserialiser());
-		marshaller.registerSerialiser(FreeDrawROI.class, new FreeDrawROISerialiser());
+		marshaller.registerSerialiser(FreeDrawROI.class, new CachedStructureSerialiser<>(new FreeDrawROISerialiser()));
 		marshaller.registerDeserialiser("FreeDrawROI", new FreeDrawROIDeserialiser());
-		marshaller.registerSerialiser(GridROI.class, new GridROISerialiser());
-		marshaller.registerSerialiser(HyperbolicROI.class, new HyperbolicROISerialiser());
+		marshaller.registerSerialiser(GridROI.class, new CachedStructureSerialiser<>(new GridROISerialiser()));
+		marshaller.registerSerialiser(HyperbolicROI.class, new CachedStructureSerialiser<>(new HyperbolicROISerialiser()));
 		marshaller.registerDeserialiser("HyperbolicROI", new HyperbolicROIDeserialiser());
-		marshaller.registerSerialiser(LinearROI.class, new LinearROISerialiser());
+		marshaller.registerSerialiser(LinearROI.class, new CachedStructureSerialiser<>(new LinearROISerialiser()));
 		marshaller.registerDeserialiser("LinearROI", new LinearROIDeserialiser());
-		marshaller.registerSerialiser(ParabolicROI.class, new ParabolicROISerialiser());
+		marshaller.registerSerialiser(ParabolicROI.class, new CachedStructureSerialiser<>(new ParabolicROISerialiser()));
 		marshaller.registerDeserialiser("ParabolicROI", new ParabolicROIDeserialiser());
-		marshaller.registerSerialiser(PerimeterBoxROI.class, new PerimeterBoxROISerialiser());
+		marshaller.registerSerialiser(PerimeterBoxROI.class, new CachedStructureSerialiser<>(new PerimeterBoxROISerialiser()));
 		marshaller.registerDeserialiser("PerimeterBoxROI", new PerimeterBoxROIDeserialiser());
-		marshaller.registerSerialiser(PointROI.class, new PointROISerialiser());
+		marshaller.registerSerialiser(PointROI.class, new CachedStructureSerialiser<>(new PointROISerialiser()));
 		marshaller.registerDeserialiser("PointROI", new PointROIDeserialiser());
-		marshaller.registerSerialiser(PolygonalROI.class, new PolygonalROISerialiser());
+		marshaller.registerSerialiser(PolygonalROI.class, new CachedStructureSerialiser<>(new PolygonalROISerialiser()));
 		marshaller.registerDeserialiser("PolygonalROI", new PolygonalROIDeserialiser());
-		marshaller.registerSerialiser(PolylineROI.class, new PolylineROISerialiser());
+		marshaller.registerSerialiser(PolylineROI.class, new CachedStructureSerialiser<>(new PolylineROISerialiser()));
 		marshaller.registerDeserialiser("PolylineROI", new PolylineROIDeserialiser());
-		marshaller.registerSerialiser(RectangularROI.class, new RectangularROISerialiser());
+		marshaller.registerSerialiser(RectangularROI.class, new CachedStructureSerialiser<>(new RectangularROISerialiser()));
 		marshaller.registerDeserialiser("RectangularROI", new RectangularROIDeserialiser());
-		marshaller.registerSerialiser(RingROI.class, new RingROISerialiser());
+		marshaller.registerSerialiser(RingROI.class, new CachedStructureSerialiser<>(new RingROISerialiser()));
 		marshaller.registerDeserialiser("RingROI", new RingROIDeserialiser());
-		marshaller.registerSerialiser(SectorROI.class, new SectorROISerialiser());
+		marshaller.registerSerialiser(SectorROI.class, new CachedStructureSerialiser<>(new SectorROISerialiser()));
 		marshaller.registerDeserialiser("SectorROI", new SectorROIDeserialiser());
-		marshaller.registerSerialiser(XAxisBoxROI.class, new XAxisBoxROISerialiser());
+		marshaller.registerSerialiser(XAxisBoxROI.class, new CachedStructureSerialiser<>(new XAxisBoxROISerialiser()));
 		marshaller.registerDeserialiser("XAxisBoxROI", new XAxisBoxROIDeserialiser());
-		marshaller.registerSerialiser(YAxisBoxROI.class, new YAxisBoxROISerialiser());
+		marshaller.registerSerialiser(YAxisBoxROI.class, new CachedStructureSerialiser<>(new YAxisBoxROISerialiser()));
 		marshaller.registerDeserialiser("YAxisBoxROI", new YAxisBoxROIDeserialiser());
 		
-		marshaller.registerSerialiser(BoundingBox.class, new BoundingBoxSerialiser());
+		marshaller.registerSerialiser(BoundingBox.class, new CachedStructureSerialiser<>(new BoundingBoxSerialiser()));
 		marshaller.registerDeserialiser("BoundingBox", new BoundingBoxDeserialiser());
 
 		marshaller.registerDeserialiser("epics:nt/NTScalar:1.0", new NTScalarDeserialiser());
 		marshaller.registerDeserialiser("epics:nt/NTScalarArray:1.0", new NTScalarArrayDeserialiser());
+		marshaller.registerSerialiser(MalcolmTable.class, new MalcolmTableSerialiser());
 		marshaller.registerDeserialiser("epics:nt/NTTable:1.0", new NTTableDeserialiser());
 		marshaller.registerDeserialiser("malcolm:core/PointGenerator:1.0", new MalcolmPointGeneratorDeserialiser());
 	}
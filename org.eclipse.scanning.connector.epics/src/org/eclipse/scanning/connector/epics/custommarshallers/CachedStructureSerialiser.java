@@ -0,0 +1,57 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.epics.custommarshallers;
+
+import org.epics.pvdata.pv.PVStructure;
+import org.epics.pvdata.pv.Structure;
+import org.epics.pvmarshaller.marshaller.api.IPVStructureSerialiser;
+import org.epics.pvmarshaller.marshaller.serialisers.Serialiser;
+
+/**
+ * Wraps a serialiser whose structure does not depend on the object being
+ * serialised, for instance the ROI and model serialisers which always create
+ * the same fields. The structure is built once, the first time, and then the
+ * same introspection interface is returned for every object. Introspection
+ * interfaces are immutable in pvData so sharing one between messages is safe.
+ * 
+ * Do not use this for serialisers which look at the object to decide the
+ * fields, such as the map, generator and table serialisers.
+ * 
+ * @author Matthew Gerring
+ *
+ * @param <T>
+ */
+public class CachedStructureSerialiser<T> implements IPVStructureSerialiser<T> {
+
+	private final IPVStructureSerialiser<T> delegate;
+	private volatile Structure structure;
+
+	public CachedStructureSerialiser(IPVStructureSerialiser<T> delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Structure buildStructure(Serialiser serialiser, T object) throws Exception {
+		Structure ret = structure;
+		if (ret==null) {
+			ret = delegate.buildStructure(serialiser, object);
+			structure = ret; // Races build the same structure, either may be kept.
+		}
+		return ret;
+	}
+
+	@Override
+	public void populatePVStructure(Serialiser serialiser, T object, PVStructure pvStructure) throws Exception {
+		delegate.populatePVStructure(serialiser, object, pvStructure);
+	}
+
+}
@@ -0,0 +1,57 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.epics.custommarshallers;
+
+/**
+ * The marshaller calls buildStructure(...) and then populatePVStructure(...)
+ * for the same object on the same thread. Serialisers which have to convert
+ * the object before they can do either, for instance a generator to its
+ * dictionary, put the converted value here when building so that populating
+ * takes it rather than converting again.
+ * 
+ * Only the last conversion on each thread is kept and it is taken once. If
+ * the object populated is not the one built last, the caller gets null and
+ * must convert it again itself.
+ * 
+ * @author Matthew Gerring
+ *
+ * @param <S> source type
+ * @param <C> converted type
+ */
+class ConversionHandoff<S,C> {
+
+	private final ThreadLocal<Object[]> last = new ThreadLocal<>();
+
+	/**
+	 * Keep the conversion of this source for the next take(...) on this thread.
+	 * @param source
+	 * @param converted
+	 * @return converted
+	 */
+	C put(S source, C converted) {
+		last.set(new Object[]{source, converted});
+		return converted;
+	}
+
+	/**
+	 * 
+	 * @param source
+	 * @return the conversion of this source if it was the last one put on this thread, otherwise null.
+	 */
+	@SuppressWarnings("unchecked")
+	C take(S source) {
+		Object[] entry = last.get();
+		if (entry==null) return null;
+		last.remove();
+		return entry[0]==source ? (C)entry[1] : null;
+	}
+}
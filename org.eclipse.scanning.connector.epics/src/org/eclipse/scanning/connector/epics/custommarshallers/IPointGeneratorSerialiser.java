@@ -11,6 +11,8 @@
  *******************************************************************************/
 package org.eclipse.scanning.connector.epics.custommarshallers;
 
+import java.util.Map;
+
 import org.eclipse.scanning.api.points.IPointGenerator;
 import org.eclipse.scanning.points.PySerializable;
 import org.epics.pvdata.pv.PVStructure;
@@ -27,23 +29,27 @@ import org.python.core.PyDictionary;
  */
 public class IPointGeneratorSerialiser implements IPVStructureSerialiser<IPointGenerator> {
 
+	private final ConversionHandoff<IPointGenerator, Map<String,?>> converted = new ConversionHandoff<>();
+
 	@Override
 	public Structure buildStructure(Serialiser serialiser, IPointGenerator generator) throws Exception {
-		if (generator instanceof PySerializable) {
-			PySerializable pySerializableGenerator = (PySerializable)generator;
-			PyDictionary generatorAsMap = pySerializableGenerator.toDict();
-			return serialiser.buildStructure(generatorAsMap);
-		} else {
-			throw new Exception("IPointGenerator wasn't PySerializable. Unable to serialise");
-		}
+		// The conversion to a dictionary calls into Jython, do it once per message.
+		Map<String,?> generatorAsMap = converted.put(generator, convert(generator));
+		return serialiser.getMapSerialiser().buildStructureFromMap(generatorAsMap);
 	}
 
 	@Override
 	public void populatePVStructure(Serialiser serialiser, IPointGenerator generator, PVStructure pvStructure) throws Exception {
+		Map<String,?> generatorAsMap = converted.take(generator);
+		if (generatorAsMap==null) generatorAsMap = convert(generator);
+		serialiser.getMapSerialiser().setMapValues(pvStructure, generatorAsMap);
+	}
+	
+	private static Map<String,?> convert(IPointGenerator generator) throws Exception {
 		if (generator instanceof PySerializable) {
 			PySerializable pySerializableGenerator = (PySerializable)generator;
-			PyDictionary generatorAsMap = pySerializableGenerator.toDict();
-			serialiser.setValues(generatorAsMap, pvStructure);
+			PyDictionary generatorAsDict = pySerializableGenerator.toDict();
+			return PyDictionarySerialiser.convertMap(generatorAsDict);
 		} else {
 			throw new Exception("IPointGenerator wasn't PySerializable. Unable to serialise");
 		}
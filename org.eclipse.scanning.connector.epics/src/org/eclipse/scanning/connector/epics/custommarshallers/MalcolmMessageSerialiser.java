@@ -11,13 +11,10 @@
  *******************************************************************************/
 package org.eclipse.scanning.connector.epics.custommarshallers;
 
-import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.eclipse.scanning.api.malcolm.message.MalcolmMessage;
-import org.epics.pvdata.factory.ConvertFactory;
 import org.epics.pvdata.factory.FieldFactory;
-import org.epics.pvdata.pv.Convert;
 import org.epics.pvdata.pv.Field;
 import org.epics.pvdata.pv.FieldCreate;
 import org.epics.pvdata.pv.PVString;
@@ -35,9 +32,9 @@ import org.epics.pvmarshaller.marshaller.serialisers.Serialiser;
  */
 public class MalcolmMessageSerialiser implements IPVStructureSerialiser<MalcolmMessage> {
 
-	private Convert convert = ConvertFactory.getConvert();
 	private FieldCreate fieldCreate = FieldFactory.getFieldCreate();
 	
+	@SuppressWarnings("unchecked")
 	@Override
 	public Structure buildStructure(Serialiser serialiser, MalcolmMessage msg) throws Exception {
 		Structure structure = null;
@@ -54,9 +51,7 @@ public class MalcolmMessageSerialiser implements IPVStructureSerialiser<MalcolmM
 			if (msg.getArguments() != null) {
 				
 				if (msg.getArguments() instanceof Map) {
-					ParamMap paramMap = new ParamMap();
-					paramMap.setParameters((Map)msg.getArguments());
-					field = serialiser.buildStructure(paramMap).getField("parameters");
+					field = serialiser.getMapSerialiser().buildStructureFromMap((Map<String,?>)msg.getArguments());
 				} else {
 					field = serialiser.buildStructure(msg.getArguments());
 				}
@@ -89,6 +84,7 @@ public class MalcolmMessageSerialiser implements IPVStructureSerialiser<MalcolmM
 		return structure;
 	}
 
+	@SuppressWarnings("unchecked")
 	@Override
 	public void populatePVStructure(Serialiser serialiser, MalcolmMessage msg, PVStructure pvStructure) throws Exception {
 		
@@ -102,10 +98,8 @@ public class MalcolmMessageSerialiser implements IPVStructureSerialiser<MalcolmM
 			
 			if (msg.getArguments() != null) {
 				if (msg.getArguments() instanceof Map) {
-					ParamMap paramMap = new ParamMap();
-					paramMap.setParametersFromObject((Map)msg.getArguments());
-					PVStructure params = serialiser.toPVStructure(paramMap);
-					convert.copyStructure(params.getStructureField("parameters"), parameters);
+					// Set directly, not through a bean which is built and then copied
+					serialiser.getMapSerialiser().setMapValues(parameters, (Map<String,?>)msg.getArguments());
 				} else {
 					serialiser.setValues(msg.getArguments(), parameters);
 				}
@@ -115,28 +109,4 @@ public class MalcolmMessageSerialiser implements IPVStructureSerialiser<MalcolmM
 			throw new Exception("Unexpected MalcolmMessage type");
 		}
 	}
-	
-	private class ParamMap {
-		private LinkedHashMap<String, Object> parameters;
-
-		public LinkedHashMap<String, Object> getParameters() {
-			return parameters;
-		}
-
-		public void setParameters(Map<String, Object> mapObj) {
-			this.parameters = new LinkedHashMap<>();
-			for (String key : mapObj.keySet()) {
-				this.parameters.put(key, mapObj.get(key));
-			}
-		}
-		
-		public void setParametersFromObject(Object parametersObject) throws Exception {
-			if (parametersObject instanceof Map) {
-				Map<String, Object> mapObj = (Map)parametersObject;
-				setParameters(mapObj);
-			} else {
-				throw new Exception("Non Map Parameters not supported"); // TODO make this work
-			}
-		}
-	}
 }
@@ -0,0 +1,152 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.epics.custommarshallers;
+
+import java.lang.reflect.Array;
+import java.util.List;
+
+import org.eclipse.scanning.api.malcolm.MalcolmTable;
+import org.epics.pvdata.factory.FieldFactory;
+import org.epics.pvdata.pv.FieldBuilder;
+import org.epics.pvdata.pv.FieldCreate;
+import org.epics.pvdata.pv.PVBooleanArray;
+import org.epics.pvdata.pv.PVByteArray;
+import org.epics.pvdata.pv.PVDoubleArray;
+import org.epics.pvdata.pv.PVFloatArray;
+import org.epics.pvdata.pv.PVIntArray;
+import org.epics.pvdata.pv.PVLongArray;
+import org.epics.pvdata.pv.PVShortArray;
+import org.epics.pvdata.pv.PVStringArray;
+import org.epics.pvdata.pv.PVStructure;
+import org.epics.pvdata.pv.ScalarType;
+import org.epics.pvdata.pv.Structure;
+import org.epics.pvmarshaller.marshaller.api.IPVStructureSerialiser;
+import org.epics.pvmarshaller.marshaller.serialisers.Serialiser;
+
+/**
+ * Custom serialiser for Malcolm Table, writes an NTTable. Each column
+ * of the table is put into the PVStructure as a whole array, the values
+ * are not boxed.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class MalcolmTableSerialiser implements IPVStructureSerialiser<MalcolmTable> {
+
+	private final String valueField = "value";
+	private final String headingsTagField = "labels";
+
+	@Override
+	public Structure buildStructure(Serialiser serialiser, MalcolmTable table) throws Exception {
+		FieldCreate fieldCreate = FieldFactory.getFieldCreate();
+
+		FieldBuilder valueBuilder = fieldCreate.createFieldBuilder();
+		for (String heading : table.getHeadings()) {
+			valueBuilder.addArray(heading, getScalarType(table.getColumnArray(heading)));
+		}
+
+		Structure structure = fieldCreate.createFieldBuilder().
+			addArray(headingsTagField, ScalarType.pvString).
+			add(valueField, valueBuilder.createStructure()).
+			setId("epics:nt/NTTable:1.0").
+			createStructure();
+		return structure;
+	}
+
+	@Override
+	public void populatePVStructure(Serialiser serialiser, MalcolmTable table, PVStructure pvStructure) throws Exception {
+		List<String> headings = table.getHeadings();
+		PVStringArray labels = pvStructure.getSubField(PVStringArray.class, headingsTagField);
+		labels.put(0, headings.size(), headings.toArray(new String[headings.size()]), 0);
+
+		PVStructure value = pvStructure.getStructureField(valueField);
+		final int length = table.getNumRows();
+		for (String heading : headings) {
+			Object column = unbox(heading, table.getColumnArray(heading), length);
+			switch (getScalarType(column)) {
+				case pvInt:
+					value.getSubField(PVIntArray.class, heading).put(0, length, (int[])column, 0);
+					break;
+				case pvShort:
+					value.getSubField(PVShortArray.class, heading).put(0, length, (short[])column, 0);
+					break;
+				case pvLong:
+					value.getSubField(PVLongArray.class, heading).put(0, length, (long[])column, 0);
+					break;
+				case pvByte:
+					value.getSubField(PVByteArray.class, heading).put(0, length, (byte[])column, 0);
+					break;
+				case pvBoolean:
+					value.getSubField(PVBooleanArray.class, heading).put(0, length, (boolean[])column, 0);
+					break;
+				case pvFloat:
+					value.getSubField(PVFloatArray.class, heading).put(0, length, (float[])column, 0);
+					break;
+				case pvDouble:
+					value.getSubField(PVDoubleArray.class, heading).put(0, length, (double[])column, 0);
+					break;
+				default:
+					value.getSubField(PVStringArray.class, heading).put(0, length, (String[])column, 0);
+					break;
+			}
+		}
+	}
+
+	/**
+	 * A column which has held a null is stored boxed. NTTable has no nulls, so a
+	 * missing floating point value is sent as NaN and a null in any other column
+	 * cannot be sent.
+	 */
+	private static Object unbox(String heading, Object column, int length) throws Exception {
+		final Class<?> type = column.getClass().getComponentType();
+		if (type.isPrimitive() || type == String.class) return column;
+		
+		final ScalarType scalarType = getScalarType(column);
+		final Object unboxed = Array.newInstance(getPrimitiveType(scalarType), length);
+		for (int i = 0; i < length; i++) {
+			Object value = Array.get(column, i);
+			if (value == null) {
+				if (scalarType == ScalarType.pvDouble)     value = Double.NaN;
+				else if (scalarType == ScalarType.pvFloat) value = Float.NaN;
+				else throw new Exception("The column '"+heading+"' has no value in row "+i+", only a floating point column may have a missing value");
+			}
+			Array.set(unboxed, i, value);
+		}
+		return unboxed;
+	}
+
+	private static ScalarType getScalarType(Object column) throws Exception {
+		Class<?> type = column.getClass().getComponentType();
+		if (type == int.class     || type == Integer.class) return ScalarType.pvInt;
+		if (type == short.class   || type == Short.class)   return ScalarType.pvShort;
+		if (type == long.class    || type == Long.class)    return ScalarType.pvLong;
+		if (type == byte.class    || type == Byte.class)    return ScalarType.pvByte;
+		if (type == boolean.class || type == Boolean.class) return ScalarType.pvBoolean;
+		if (type == float.class   || type == Float.class)   return ScalarType.pvFloat;
+		if (type == double.class  || type == Double.class)  return ScalarType.pvDouble;
+		if (type == String.class)  return ScalarType.pvString;
+		throw new Exception("Unsupported data type: " + type);
+	}
+
+	private static Class<?> getPrimitiveType(ScalarType type) {
+		switch (type) {
+			case pvInt:     return int.class;
+			case pvShort:   return short.class;
+			case pvLong:    return long.class;
+			case pvByte:    return byte.class;
+			case pvBoolean: return boolean.class;
+			case pvFloat:   return float.class;
+			case pvDouble:  return double.class;
+			default:        return String.class;
+		}
+	}
+}
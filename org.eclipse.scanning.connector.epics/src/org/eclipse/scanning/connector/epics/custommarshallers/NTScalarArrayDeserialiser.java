@@ -14,6 +14,7 @@ package org.eclipse.scanning.connector.epics.custommarshallers;
 import org.eclipse.scanning.api.malcolm.attributes.BooleanArrayAttribute;
 import org.eclipse.scanning.api.malcolm.attributes.NumberArrayAttribute;
 import org.eclipse.scanning.api.malcolm.attributes.StringArrayAttribute;
+import org.epics.pvdata.pv.PVScalarArray;
 import org.epics.pvdata.pv.PVStringArray;
 import org.epics.pvdata.pv.PVStructure;
 import org.epics.pvdata.pv.StringArrayData;
@@ -47,6 +48,9 @@ public class NTScalarArrayDeserialiser implements IPVStructureDeserialiser {
 		StringArrayData tagsArrayData = new StringArrayData();
 		tagsArray.get(0, tagsArray.getLength(), tagsArrayData);
 		
+		// Copied in bulk, the value field is typed by the meta (not always a string array).
+		PVScalarArray value = pvStructure.getSubField(PVScalarArray.class, valueField);
+		
 		if (metaId.startsWith(StringArrayAttribute.STRINGARRAY_ID)) {
 			StringArrayAttribute attribute = new StringArrayAttribute();
 			
@@ -56,7 +60,7 @@ public class NTScalarArrayDeserialiser implements IPVStructureDeserialiser {
 			attribute.setWriteable(writeable);
 			attribute.setName(pvStructure.getFullName());
 			
-			deserialiser.getScalarArrayDeserialiser().deserialise(attribute, "value", pvStructure.getSubField(PVStringArray.class, valueField));
+			attribute.setValue((String[])PVArrays.copy(value));
 
 			return attribute;
 		} else if (metaId.startsWith(BooleanArrayAttribute.BOOLEANARRAY_ID)) {
@@ -68,7 +72,7 @@ public class NTScalarArrayDeserialiser implements IPVStructureDeserialiser {
 			attribute.setWriteable(writeable);
 			attribute.setName(pvStructure.getFullName());
 			
-			deserialiser.getScalarArrayDeserialiser().deserialise(attribute, "value", pvStructure.getSubField(PVStringArray.class, valueField));
+			attribute.setValue((boolean[])PVArrays.copy(value));
 
 			return attribute;
 		} else if (metaId.startsWith(NumberArrayAttribute.NUMBERARRAY_ID)) {
@@ -83,7 +87,7 @@ public class NTScalarArrayDeserialiser implements IPVStructureDeserialiser {
 			String numberType = metaStructure.getStringField(numberTypeField).get();
 			attribute.setDtype(numberType);
 			
-			deserialiser.getScalarArrayDeserialiser().deserialise(attribute, "value", pvStructure.getSubField(PVStringArray.class, valueField));
+			attribute.setValue(PVArrays.toNumbers(PVArrays.copy(value)));
 
 			return attribute;
 		}
@@ -12,22 +12,22 @@
 package org.eclipse.scanning.connector.epics.custommarshallers;
 
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 
 import org.eclipse.scanning.api.malcolm.MalcolmTable;
 import org.eclipse.scanning.api.malcolm.attributes.TableAttribute;
-import org.epics.pvdata.pv.Field;
+import org.epics.pvdata.pv.PVField;
+import org.epics.pvdata.pv.PVScalarArray;
 import org.epics.pvdata.pv.PVStringArray;
 import org.epics.pvdata.pv.PVStructure;
-import org.epics.pvdata.pv.ScalarArray;
-import org.epics.pvdata.pv.ScalarType;
 import org.epics.pvdata.pv.StringArrayData;
 import org.epics.pvmarshaller.marshaller.api.IPVStructureDeserialiser;
 import org.epics.pvmarshaller.marshaller.deserialisers.Deserialiser;
 
 /**
- * Custom deserialiser for Malcolm Table
+ * Custom deserialiser for Malcolm Table. The columns are copied from
+ * the PVStructure into arrays of the same primitive type, the values
+ * are not boxed.
  * @author Matt Taylor
  *
  */
@@ -69,50 +69,16 @@ public class NTTableDeserialiser implements IPVStructureDeserialiser {
 		
 		PVStructure valuePVStructure = pvStructure.getStructureField(valueField);
 		
-		@SuppressWarnings("unchecked")
-		Map<String, List<Object>> valueMap = deserialiser.getMapDeserialiser().createMapFromPVStructure(valuePVStructure, LinkedHashMap.class, Object.class);
-		
-		Map<String, Class<?>> dataTypeMap = new LinkedHashMap<>();
-		
-		// Use the PVStructure to work out the column classes
-		for (String heading : valueMap.keySet()) {
-			Field field = valuePVStructure.getSubField(heading).getField();
-			if (field instanceof ScalarArray) {
-				ScalarArray scalarArray = (ScalarArray)field;
-				ScalarType scalarType = scalarArray.getElementType();
-				switch (scalarType) {
-					case pvInt:
-						dataTypeMap.put(heading, Integer.class);
-						break;
-					case pvShort:
-						dataTypeMap.put(heading, Short.class);
-						break;
-					case pvLong:
-						dataTypeMap.put(heading, Long.class);
-						break;
-					case pvByte:
-						dataTypeMap.put(heading, Byte.class);
-						break;
-					case pvBoolean:
-						dataTypeMap.put(heading, Boolean.class);
-						break;
-					case pvFloat:
-						dataTypeMap.put(heading, Float.class);
-						break;
-					case pvDouble:
-						dataTypeMap.put(heading, Double.class);
-						break;
-					case pvString:
-						dataTypeMap.put(heading, String.class);
-						break;
-					default:
-						throw new Exception("Unsupported data type: " + scalarType);
-							
-				}
+		// The column classes come from the element type of each array
+		Map<String, Object> columns = new LinkedHashMap<>();
+		for (PVField field : valuePVStructure.getPVFields()) {
+			if (!(field instanceof PVScalarArray)) {
+				throw new Exception("Column " + field.getFieldName() + " is not a scalar array");
 			}
+			columns.put(field.getFieldName(), PVArrays.copy((PVScalarArray)field));
 		}
 		
-		MalcolmTable malcolmTable = new MalcolmTable(valueMap, dataTypeMap);
+		MalcolmTable malcolmTable = MalcolmTable.fromColumns(columns);
 				
 		attribute.setValue(malcolmTable);
 		
@@ -120,5 +86,4 @@ public class NTTableDeserialiser implements IPVStructureDeserialiser {
 		
 	}
 	
-	
 }
@@ -0,0 +1,123 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.epics.custommarshallers;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+import org.epics.pvdata.pv.BooleanArrayData;
+import org.epics.pvdata.pv.ByteArrayData;
+import org.epics.pvdata.pv.DoubleArrayData;
+import org.epics.pvdata.pv.FloatArrayData;
+import org.epics.pvdata.pv.IntArrayData;
+import org.epics.pvdata.pv.LongArrayData;
+import org.epics.pvdata.pv.PVBooleanArray;
+import org.epics.pvdata.pv.PVByteArray;
+import org.epics.pvdata.pv.PVDoubleArray;
+import org.epics.pvdata.pv.PVFloatArray;
+import org.epics.pvdata.pv.PVIntArray;
+import org.epics.pvdata.pv.PVLongArray;
+import org.epics.pvdata.pv.PVScalarArray;
+import org.epics.pvdata.pv.PVShortArray;
+import org.epics.pvdata.pv.PVStringArray;
+import org.epics.pvdata.pv.ShortArrayData;
+import org.epics.pvdata.pv.StringArrayData;
+
+/**
+ * Bulk copies of pvData scalar arrays. The deserialisers use these rather
+ * than the marshaller's reflective scalar array deserialiser which sets
+ * values element by element.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public final class PVArrays {
+
+	private PVArrays() {
+		// Static methods only
+	}
+
+	/**
+	 * Copies an array, the data returned by the PVArray is shared with
+	 * the structure so it must be copied.
+	 * @param array
+	 * @return a primitive array, or a String[]
+	 * @throws Exception if the type is not supported
+	 */
+	public static Object copy(PVScalarArray array) throws Exception {
+		final int length = array.getLength();
+		switch (array.getScalarArray().getElementType()) {
+			case pvInt:
+				IntArrayData intData = new IntArrayData();
+				((PVIntArray)array).get(0, length, intData);
+				return Arrays.copyOfRange(intData.data, intData.offset, intData.offset + length);
+			case pvShort:
+				ShortArrayData shortData = new ShortArrayData();
+				((PVShortArray)array).get(0, length, shortData);
+				return Arrays.copyOfRange(shortData.data, shortData.offset, shortData.offset + length);
+			case pvLong:
+				LongArrayData longData = new LongArrayData();
+				((PVLongArray)array).get(0, length, longData);
+				return Arrays.copyOfRange(longData.data, longData.offset, longData.offset + length);
+			case pvByte:
+				ByteArrayData byteData = new ByteArrayData();
+				((PVByteArray)array).get(0, length, byteData);
+				return Arrays.copyOfRange(byteData.data, byteData.offset, byteData.offset + length);
+			case pvBoolean:
+				BooleanArrayData booleanData = new BooleanArrayData();
+				((PVBooleanArray)array).get(0, length, booleanData);
+				return Arrays.copyOfRange(booleanData.data, booleanData.offset, booleanData.offset + length);
+			case pvFloat:
+				FloatArrayData floatData = new FloatArrayData();
+				((PVFloatArray)array).get(0, length, floatData);
+				return Arrays.copyOfRange(floatData.data, floatData.offset, floatData.offset + length);
+			case pvDouble:
+				DoubleArrayData doubleData = new DoubleArrayData();
+				((PVDoubleArray)array).get(0, length, doubleData);
+				return Arrays.copyOfRange(doubleData.data, doubleData.offset, doubleData.offset + length);
+			case pvString:
+				StringArrayData stringData = new StringArrayData();
+				((PVStringArray)array).get(0, length, stringData);
+				return Arrays.copyOfRange(stringData.data, stringData.offset, stringData.offset + length);
+			default:
+				throw new Exception("Unsupported data type: " + array.getScalarArray().getElementType());
+		}
+	}
+
+	/**
+	 * Boxes a primitive numeric array, as returned by {@link #copy(PVScalarArray)}.
+	 * @param primitive
+	 * @return the numbers
+	 * @throws Exception if the array is not numeric
+	 */
+	public static Number[] toNumbers(Object primitive) throws Exception {
+		if (primitive instanceof Number[]) return (Number[])primitive;
+		if (primitive==null || !primitive.getClass().isArray() || primitive instanceof boolean[] || primitive instanceof String[]) {
+			throw new Exception("Cannot convert "+(primitive==null ? "null" : primitive.getClass().getSimpleName())+" to numbers");
+		}
+		final int length = Array.getLength(primitive);
+		final Number[] ret = new Number[length];
+		if (primitive instanceof double[]) {
+			double[] d = (double[])primitive;
+			for (int i = 0; i < length; i++) ret[i] = d[i];
+		} else if (primitive instanceof int[]) {
+			int[] d = (int[])primitive;
+			for (int i = 0; i < length; i++) ret[i] = d[i];
+		} else if (primitive instanceof long[]) {
+			long[] d = (long[])primitive;
+			for (int i = 0; i < length; i++) ret[i] = d[i];
+		} else {
+			for (int i = 0; i < length; i++) ret[i] = (Number)Array.get(primitive, i);
+		}
+		return ret;
+	}
+}
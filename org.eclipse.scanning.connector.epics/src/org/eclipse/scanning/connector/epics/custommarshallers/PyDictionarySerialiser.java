@@ -36,21 +36,29 @@ import org.python.core.PyUnicode;
  */
 public class PyDictionarySerialiser implements IPVStructureSerialiser<PyDictionary> {
 
+	private final ConversionHandoff<PyDictionary, Map<String,?>> converted = new ConversionHandoff<>();
+
 	@Override
 	public Structure buildStructure(Serialiser serialiser, PyDictionary dictionary) throws Exception {
-		// Convert to map first
-		Map<String,?> dictionaryAsMap = convertMap(dictionary);
+		// Convert to map first, populating the structure uses the same map
+		Map<String,?> dictionaryAsMap = converted.put(dictionary, convertMap(dictionary));
 		Structure structure = serialiser.getMapSerialiser().buildStructureFromMap(dictionaryAsMap);
 		return structure;
 	}
 
 	@Override
 	public void populatePVStructure(Serialiser serialiser, PyDictionary dictionary, PVStructure pvStructure) throws Exception {
-		Map<String,?> dictionaryAsMap = convertMap(dictionary);
+		Map<String,?> dictionaryAsMap = converted.take(dictionary);
+		if (dictionaryAsMap==null) dictionaryAsMap = convertMap(dictionary);
 		serialiser.getMapSerialiser().setMapValues(pvStructure, dictionaryAsMap);
 	}
 	
-	private LinkedHashMap<String, Object> convertMap(Map<Object, Object> maptoCopy) {
+	/**
+	 * Converts a python dictionary into a map of raw java values
+	 * @param maptoCopy
+	 * @return the map
+	 */
+	static LinkedHashMap<String, Object> convertMap(Map<Object, Object> maptoCopy) {
 		LinkedHashMap<String, Object> newObject = new LinkedHashMap<String, Object>();
 		for (Object key : maptoCopy.keySet()) {
 			String keyString = key.toString();
@@ -64,7 +72,7 @@ public class PyDictionarySerialiser implements IPVStructureSerialiser<PyDictiona
 	 * @param pyObj THe python object to convert
 	 * @return the raw java equivalent of the python object
 	 */
-	private Object convertPyObject(Object pyObj) {
+	private static Object convertPyObject(Object pyObj) {
 		if (pyObj == null) {
 			return null;
 		}
@@ -72,6 +72,7 @@ public class QueueBeanFactory implements IQueueBeanFactory {
 			throw new QueueModelException("A "+value.getClass().getSimpleName()+" with reference '"+key+"' is already registered.");
 		}
 		registry.put(key, value);
+		invalidateAssemblers();
 	}
 	
 	/**
@@ -84,12 +85,22 @@ public class QueueBeanFactory implements IQueueBeanFactory {
 	private <V> void unregisterOperation(QueueValue<String> key, Map<QueueValue<String>, V> registry, Class<V> clazz) throws QueueModelException {
 		if (registry.containsKey(key)) {
 			registry.remove(key);
+			invalidateAssemblers();
 		} else{
 			logger.error("Cannot unregister "+clazz.getSimpleName()+". Reference for '"+key+"' is not present.");
 			throw new QueueModelException("No "+clazz.getSimpleName()+" registered for reference '"+key+"'");
 		}
 	}
 
+	/**
+	 * Assemblers may keep structures derived from the registered templates 
+	 * and values between assemblies. Tell them to drop these whenever one of 
+	 * the registries changes.
+	 */
+	private void invalidateAssemblers() {
+		beanAssemblers.values().stream().forEach(IBeanAssembler::invalidate);
+	}
+
 	@Override
 	public <Q extends QueueAtom> void registerAtom(Q atom) throws QueueModelException{
 		//Variable=true because we're going to look for QueueValues with variable=true in other code
@@ -176,6 +187,23 @@ public class QueueBeanFactory implements IQueueBeanFactory {
 		throw new QueueModelException("No QueueAtom with the short name "+reference+" found in registry.");
 	}
 
+	@SuppressWarnings("unchecked")
+	@Override
+	public <Q extends QueueAtom> List<Q> assembleQueueAtoms(QueueValue<String> reference, List<ExperimentConfiguration> configs) throws QueueModelException {
+		Q protoAtom = (Q)queueAtomModelRegistry.get(reference);
+		if (protoAtom == null) {
+			logger.error("No QueueAtom with the short name "+reference+" found in registry.");
+			throw new QueueModelException("No QueueAtom with the short name "+reference+" found in registry.");
+		}
+		//Look up the template & its assembler once; the assembler caches what it can between atoms
+		IBeanAssembler<Q> beanAss = (IBeanAssembler<Q>) beanAssemblers.get(protoAtom.getClass());
+		List<Q> atoms = new ArrayList<>(configs.size());
+		for (ExperimentConfiguration config : configs) {
+			atoms.add(beanAss.assemble(protoAtom, config));
+		}
+		return atoms;
+	}
+
 	@Override
 	public TaskBean assembleTaskBean(QueueValue<String> reference, ExperimentConfiguration config) throws QueueModelException {
 		TaskBean tbModel = taskBeanModelRegistry.get(reference);
@@ -1,6 +1,7 @@
 package org.eclipse.scanning.event.queues.spooler.beanassemblers;
 
 import org.eclipse.scanning.api.event.queues.IQueueBeanFactory;
+import org.eclipse.scanning.api.event.queues.beans.QueueAtom;
 import org.eclipse.scanning.api.event.queues.beans.Queueable;
 import org.eclipse.scanning.api.event.queues.models.ExperimentConfiguration;
 import org.eclipse.scanning.api.event.queues.models.ModelEvaluationException;
@@ -12,17 +13,31 @@ public interface IBeanAssembler<Q extends Queueable> {
 	
 	default Q assemble(Q model, ExperimentConfiguration config) throws QueueModelException {
 		Q bean;
-		updateBeanModel(model, config);
-		
 		if (model.isModel()) {
-			bean = buildNewBean(model);
+			bean = buildNewBean(model, config);
+			if (model instanceof QueueAtom) {
+				//Declared devices & dependencies are the same for every bean built from the model
+				((QueueAtom)bean).setDevices(((QueueAtom)model).getDevices());
+				((QueueAtom)bean).setDependencies(((QueueAtom)model).getDependencies());
+			}
 		} else {
+			updateBeanModel(model, config);
 			bean = model;
 		}
 		setBeanName(bean);
 		return bean;
 	}
 	
+	/**
+	 * Build a new bean from the model, evaluated against the configuration.
+	 * Assemblers which must not keep state between calls override this to 
+	 * evaluate into copies rather than the model.
+	 */
+	default Q buildNewBean(Q model, ExperimentConfiguration config) throws QueueModelException {
+		updateBeanModel(model, config);
+		return buildNewBean(model);
+	}
+	
 	Q buildNewBean(Q model) throws QueueModelException;
 	
 	void setBeanName(Q bean);
@@ -31,6 +46,15 @@ public interface IBeanAssembler<Q extends Queueable> {
 	
 	void updateBeanModel(Q model, ExperimentConfiguration config) throws QueueModelException;
 	
+	/**
+	 * Discard anything kept from earlier assemblies. Called by the 
+	 * {@link IQueueBeanFactory} whenever a template or global value is 
+	 * registered or unregistered.
+	 */
+	default void invalidate() {
+		//Nothing is kept by default
+	}
+	
 	/**
 	 * Updates the current {@link IQueueValue} representing a value with the 
 	 * {@link IQueueValue} stored in local/global values, iff the given 
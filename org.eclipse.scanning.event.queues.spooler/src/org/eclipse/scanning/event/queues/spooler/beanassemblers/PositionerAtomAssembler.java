@@ -1,5 +1,7 @@
 package org.eclipse.scanning.event.queues.spooler.beanassemblers;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.eclipse.scanning.api.event.queues.IQueueBeanFactory;
@@ -13,18 +15,22 @@ public final class PositionerAtomAssembler extends AbstractBeanAssembler<Positio
 		super(queueBeanFactory);
 	}
 
+	@Override
+	public PositionerAtom buildNewBean(PositionerAtom model, ExperimentConfiguration config) throws QueueModelException {
+		//Evaluate a copy of the template's targets, so the template can be reused
+		return buildNewBean(model, evaluate(model, config));
+	}
+
 	@Override
 	public PositionerAtom buildNewBean(PositionerAtom model) throws QueueModelException {
+		return buildNewBean(model, model.getPositionerConfig());
+	}
+	
+	private PositionerAtom buildNewBean(PositionerAtom model, Map<String, Object> targets) {
 		PositionerAtom atom = new PositionerAtom(model.getShortName(), false);
 		atom.setBeamline(model.getBeamline());
 		atom.setRunTime(model.getRunTime());
-		
-		/*
-		 * Loop through the positionerConfig in the model replacing any 
-		 * targets which have references in the localValues or the 
-		 * globalValues (see {@link QueueBeanFactory})
-		 */
-		model.getPositionerNames().stream().forEach(dev -> atom.addPositioner(dev, model.getPositionerTarget(dev)));
+		targets.entrySet().stream().forEach(dev -> atom.addPositioner(dev.getKey(), dev.getValue()));
 		return atom;
 	}
 
@@ -38,7 +44,19 @@ public final class PositionerAtomAssembler extends AbstractBeanAssembler<Positio
 
 	@Override
 	public void updateBeanModel(PositionerAtom model, ExperimentConfiguration config) throws QueueModelException {
-		replaceMapIQueueValues(model.getPositionerConfig(), config);
+		//A real bean is not rebuilt, so it takes the evaluated targets itself
+		if (!model.isModel()) model.setPositionerConfig(evaluate(model, config));
+	}
+	
+	/*
+	 * Copy the positionerConfig in the model replacing any targets which 
+	 * have references in the localValues or the globalValues (see 
+	 * {@link QueueBeanFactory})
+	 */
+	private Map<String, Object> evaluate(PositionerAtom model, ExperimentConfiguration config) {
+		Map<String, Object> targets = new LinkedHashMap<>(model.getPositionerConfig());
+		replaceMapIQueueValues(targets, config);
+		return targets;
 	}
 
 }
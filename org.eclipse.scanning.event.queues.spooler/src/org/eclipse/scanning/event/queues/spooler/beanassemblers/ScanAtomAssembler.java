@@ -1,16 +1,23 @@
 package org.eclipse.scanning.event.queues.spooler.beanassemblers;
 
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.eclipse.scanning.api.device.IRunnableDeviceService;
@@ -43,12 +50,28 @@ public final class ScanAtomAssembler extends AbstractBeanAssembler<ScanAtom> {
 	
 	private Map<String, IScanObjectModelAssembler<? extends IScanPathModel>> pathAssemblerRegister;
 
+	/*
+	 * Reused between assemblies: the setters and fields of each configured 
+	 * class, found by reflection, and the detector models from the device 
+	 * service. The detector models are templates, each atom gets a copy. They
+	 * are dropped by invalidate() & if the service changes. Nothing else is 
+	 * kept between calls, so atoms may be assembled on several threads.
+	 */
+	private final Map<Class<?>, Map<String, List<Method>>> setterCache;
+	private final Map<Class<?>, List<Field>> fieldCache;
+	private final Map<String, IDetectorModel> detectorModelCache;
+	private IRunnableDeviceService cachedDeviceService;
+
 	public ScanAtomAssembler(IQueueBeanFactory queueBeanFactory) {
 		super(queueBeanFactory);
 		
 		pathAssemblerRegister = new HashMap<>();
 		pathAssemblerRegister.put("step", new StepModelAssembler());
 		pathAssemblerRegister.put("array", new ArrayModelAssembler());
+		
+		setterCache = new ConcurrentHashMap<>();
+		fieldCache = new ConcurrentHashMap<>();
+		detectorModelCache = new HashMap<>();
 	}
 
 	@Override
@@ -61,12 +84,29 @@ public final class ScanAtomAssembler extends AbstractBeanAssembler<ScanAtom> {
 		//2) We search the results for values that need replacing from localValues
 		
 		//Paths
-		updateModelMap(model.getPathModelsModel(), config.getPathModelValues(), config);
-		updateModelMap(model.getDetectorModelsModel(), config.getDetectorModelValues(), config);
+		Map<String, DeviceModel> pathModels = updateModelMap(model.getPathModelsModel(), config.getPathModelValues(), config);
+		Map<String, DeviceModel> detectorModels = updateModelMap(model.getDetectorModelsModel(), config.getDetectorModelValues(), config);
+		//A real bean is not rebuilt, so it takes the evaluated models itself
+		if (!model.isModel()) {
+			model.setpModsModel(pathModels);
+			model.setDetectorModelsModel(detectorModels);
+		}
+	}
+	
+	@Override
+	public ScanAtom buildNewBean(ScanAtom model, ExperimentConfiguration config) throws QueueModelException {
+		//The template is never changed, so one template can be assembled many times with different configurations
+		Map<String, DeviceModel> pathModels = updateModelMap(model.getPathModelsModel(), config.getPathModelValues(), config);
+		Map<String, DeviceModel> detectorModels = updateModelMap(model.getDetectorModelsModel(), config.getDetectorModelValues(), config);
+		return buildNewBean(model, pathModels, detectorModels);
 	}
 
 	@Override
 	public ScanAtom buildNewBean(ScanAtom model) throws QueueModelException {
+		return buildNewBean(model, model.getPathModelsModel(), model.getDetectorModelsModel());
+	}
+	
+	private ScanAtom buildNewBean(ScanAtom model, Map<String, DeviceModel> paths, Map<String, DeviceModel> detectors) throws QueueModelException {
 		ScanAtom atom = new ScanAtom(model.getShortName(), false);
 		atom.setBeamline(model.getBeamline());
 		atom.setRunTime(model.getRunTime());
@@ -75,13 +115,20 @@ public final class ScanAtomAssembler extends AbstractBeanAssembler<ScanAtom> {
 		atom.setScanSubmitQueueName(model.getScanSubmitQueueName());
 		
 		ScanRequest<?> scanReq = new ScanRequest<>();
-		scanReq.setCompoundModel(prepareScanPaths(model.getPathModelsModel()));
-		scanReq.setDetectors(prepareDetectors(model.getDetectorModelsModel()));
+		scanReq.setCompoundModel(prepareScanPaths(paths));
+		scanReq.setDetectors(prepareDetectors(detectors));
 		scanReq.setMonitorNames(prepareMonitors(model.getMonitorsModel()));
 		atom.setScanReq(scanReq);
 		
 		return atom;
 	}
+	
+	@Override
+	public void invalidate() {
+		synchronized (detectorModelCache) {
+			detectorModelCache.clear();
+		}
+	}
 
 	@Override
 	public void setBeanName(ScanAtom bean) {
@@ -105,24 +152,42 @@ public final class ScanAtomAssembler extends AbstractBeanAssembler<ScanAtom> {
 		bean.setName(name.toString());
 	}
 	
-	private void updateModelMap(Map<String, DeviceModel> modelMap, Map<String, DeviceModel> configMap, ExperimentConfiguration config) throws QueueModelException {
-		Set<String> extraPaths = new HashSet<>(configMap.keySet());
-		extraPaths.removeAll(modelMap.keySet());
-		extraPaths.stream().forEach(pathName -> modelMap.put(pathName, configMap.get(pathName)));
+	/**
+	 * Combine the device models from the template with those from the 
+	 * {@link ExperimentConfiguration} and evaluate any {@link IQueueValue}s 
+	 * in their configurations. Neither the template nor the configuration 
+	 * is changed; the evaluated models are copies.
+	 * @param modelMap Map of device models from the template
+	 * @param configMap Map of device models from the configuration
+	 * @param config {@link ExperimentConfiguration} used for evaluation
+	 * @return Map of device names against evaluated {@link DeviceModel}s
+	 * @throws QueueModelException if both maps configure the same device
+	 */
+	private Map<String, DeviceModel> updateModelMap(Map<String, DeviceModel> modelMap, Map<String, DeviceModel> configMap, ExperimentConfiguration config) throws QueueModelException {
 		//Check for duplicates
-		if (extraPaths.size() != configMap.keySet().size()) {
-			Optional<String> deviceName = configMap.keySet().stream().filter(confName -> modelMap.containsKey(confName)).findFirst();
+		Optional<String> deviceName = configMap.keySet().stream().filter(confName -> modelMap.containsKey(confName)).findFirst();
+		if (deviceName.isPresent()) {
 			logger.error("Both stored and experiment models configure '"+deviceName.get()+"'. Cannot specify multiple configurations for same device");
 			throw new QueueModelException("Cannot specify multiple configurations for same device ('"+deviceName.get()+"')");
 		}
 		
-		for (Map.Entry<String, DeviceModel> pathModel : modelMap.entrySet()) {
-			Map<String, Object> modelDevConf = pathModel.getValue().getDeviceConfiguration();
-			replaceMapIQueueValues(modelDevConf, config);
-//			modelDevConf.entrySet().stream().filter(option -> (option.getValue() instanceof IQueueValue))
-//				.forEach(option -> modelDevConf.put(option.getKey(), setValue((IQueueValue<?>) option.getValue(), config)));
-			pathModel.getValue().setDeviceConfiguration(modelDevConf);
+		Map<String, DeviceModel> evaluated = new LinkedHashMap<>();
+		for (Map.Entry<String, DeviceModel> devModel : modelMap.entrySet()) {
+			evaluated.put(devModel.getKey(), evaluateModel(devModel.getValue(), config));
+		}
+		for (Map.Entry<String, DeviceModel> devModel : configMap.entrySet()) {
+			evaluated.put(devModel.getKey(), evaluateModel(devModel.getValue(), config));
 		}
+		return evaluated;
+	}
+	
+	private DeviceModel evaluateModel(DeviceModel devModel, ExperimentConfiguration config) {
+		Map<String, Object> devConf = new LinkedHashMap<>(devModel.getDeviceConfiguration());
+		replaceMapIQueueValues(devConf, config);
+		
+		DeviceModel evaluated = new DeviceModel(devModel.getType(), devConf, devModel.getRoiConfiguration());
+		evaluated.setName(devModel.getName());
+		return evaluated;
 	}
 	
 	private <R> CompoundModel<R> prepareScanPaths(Map<String, DeviceModel> pathModels) throws QueueModelException {
@@ -163,17 +228,7 @@ public final class ScanAtomAssembler extends AbstractBeanAssembler<ScanAtom> {
 		for (Map.Entry<String, DeviceModel> detectorEntry : detectorModels.entrySet()) {
 			String detName = detectorEntry.getKey();
 			DeviceModel detConfig = detectorEntry.getValue();
-			IDetectorModel detModel;
-			try {
-				detModel = (IDetectorModel) ServicesHolder.getRunnableDeviceService().getRunnableDevice(detName).getModel();
-			} catch (ClassCastException | NullPointerException ex) {
-				logger.error("Device model returned for detector '"+detName+"' was not a detector model");
-				throw new QueueModelException("Failed to cast '"+detName+"' model to IDetectorModel", ex);
-			} catch (ScanningException ex) {
-				//getRunnableDevice isn't actually able to throw a ScanningException (as of 27.06.2017)
-				logger.error("No detector returned by RunnableDeviceService for the name '"+detName+"'");
-				throw new QueueModelException("No detector for name '"+detName+"'");
-			}
+			IDetectorModel detModel = copyModel(getDetectorModel(detName));
 			//We always want to set exposure time, so check it's set, set it and to save time don't set it again
 			if (!detConfig.getDeviceConfiguration().containsKey(EXPOSURETIME)) {
 				logger.error("No '"+EXPOSURETIME+"' value in input model of detector '"+detName+"'. "+EXPOSURETIME+" is required to configure each detector");
@@ -187,6 +242,156 @@ public final class ScanAtomAssembler extends AbstractBeanAssembler<ScanAtom> {
 		return detectors;
 	}
 	
+	/**
+	 * Get the model of the named detector from the 
+	 * {@link IRunnableDeviceService}. Models are cached, since a large 
+	 * experiment assembles the same detectors many times over. The model 
+	 * returned is shared and must be copied before it is configured.
+	 * @param detName String name of detector
+	 * @return {@link IDetectorModel} of the detector
+	 * @throws QueueModelException if there is no detector with this name
+	 */
+	private IDetectorModel getDetectorModel(String detName) throws QueueModelException {
+		synchronized (detectorModelCache) {
+			IRunnableDeviceService deviceService = ServicesHolder.getRunnableDeviceService();
+			if (deviceService != cachedDeviceService) {
+				detectorModelCache.clear();
+				cachedDeviceService = deviceService;
+			}
+			
+			IDetectorModel detModel = detectorModelCache.get(detName);
+			if (detModel != null) return detModel;
+			detModel = readDetectorModel(deviceService, detName);
+			detectorModelCache.put(detName, detModel);
+			return detModel;
+		}
+	}
+	
+	private IDetectorModel readDetectorModel(IRunnableDeviceService deviceService, String detName) throws QueueModelException {
+		IDetectorModel detModel;
+		try {
+			detModel = (IDetectorModel) deviceService.getRunnableDevice(detName).getModel();
+		} catch (ClassCastException | NullPointerException ex) {
+			logger.error("Device model returned for detector '"+detName+"' was not a detector model");
+			throw new QueueModelException("Failed to cast '"+detName+"' model to IDetectorModel", ex);
+		} catch (ScanningException ex) {
+			//getRunnableDevice isn't actually able to throw a ScanningException (as of 27.06.2017)
+			logger.error("No detector returned by RunnableDeviceService for the name '"+detName+"'");
+			throw new QueueModelException("No detector for name '"+detName+"'");
+		}
+		if (detModel == null) {
+			logger.error("Device model returned for detector '"+detName+"' was not a detector model");
+			throw new QueueModelException("Failed to cast '"+detName+"' model to IDetectorModel");
+		}
+		return detModel;
+	}
+	
+	/**
+	 * Deep copy a model into a new instance of its class, so that the copy 
+	 * (including its lists, maps, arrays & nested models) can be configured 
+	 * or changed later without changing the cached model.
+	 * @param model T to copy, must have a no argument constructor
+	 * @return T copy of the model
+	 * @throws QueueModelException if the model cannot be copied
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T copyModel(T model) throws QueueModelException {
+		try {
+			return (T) copyObject(model, model.getClass().getDeclaredConstructor(), new IdentityHashMap<>());
+		} catch (ReflectiveOperationException ex) {
+			logger.error("Could not copy model of type "+model.getClass().getSimpleName());
+			throw new QueueModelException("Failed to copy "+model.getClass().getSimpleName(), ex);
+		}
+	}
+	
+	/**
+	 * Copy a value held by a model. Immutable values are shared, arrays, 
+	 * collections & maps are copied element by element and other objects 
+	 * are copied field by field if they have a no argument constructor. 
+	 * Anything else, including other JDK classes, is shared with the original.
+	 * @param value Object to copy
+	 * @param copies Map of objects already copied against their copies
+	 * @return Object copy of the value
+	 * @throws ReflectiveOperationException if an object cannot be copied
+	 */
+	@SuppressWarnings("unchecked")
+	private Object copyValue(Object value, Map<Object, Object> copies) throws ReflectiveOperationException {
+		if (value == null || isImmutable(value.getClass())) return value;
+		if (copies.containsKey(value)) return copies.get(value);
+		
+		Class<?> type = value.getClass();
+		if (type.isArray()) {
+			int length = Array.getLength(value);
+			Object copy = Array.newInstance(type.getComponentType(), length);
+			copies.put(value, copy);
+			for (int i = 0; i < length; i++) Array.set(copy, i, copyValue(Array.get(value, i), copies));
+			return copy;
+		} else if (value instanceof Collection) {
+			Collection<Object> copy = (Collection<Object>) newInstance(type);
+			if (copy == null) copy = value instanceof Set ? new LinkedHashSet<>() : new ArrayList<>();
+			copies.put(value, copy);
+			for (Object element : (Collection<?>) value) copy.add(copyValue(element, copies));
+			return copy;
+		} else if (value instanceof Map) {
+			Map<Object, Object> copy = (Map<Object, Object>) newInstance(type);
+			if (copy == null) copy = new LinkedHashMap<>();
+			copies.put(value, copy);
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				copy.put(copyValue(entry.getKey(), copies), copyValue(entry.getValue(), copies));
+			}
+			return copy;
+		} else if (type.getName().startsWith("java.")) {
+			return value;
+		}
+		
+		try {
+			return copyObject(value, type.getDeclaredConstructor(), copies);
+		} catch (NoSuchMethodException ex) {
+			return value; //Cannot be copied, so must be shared
+		}
+	}
+	
+	private Object copyObject(Object value, Constructor<?> constructor, Map<Object, Object> copies) throws ReflectiveOperationException {
+		constructor.setAccessible(true);
+		Object copy = constructor.newInstance();
+		copies.put(value, copy);
+		for (Field field : getFields(value.getClass())) field.set(copy, copyValue(field.get(value), copies));
+		return copy;
+	}
+	
+	private Object newInstance(Class<?> type) {
+		try {
+			return type.getConstructor().newInstance();
+		} catch (ReflectiveOperationException ex) {
+			return null; //e.g. Arrays.asList() or Collections.emptyList()
+		}
+	}
+	
+	private boolean isImmutable(Class<?> type) {
+		return type.isPrimitive() || type.isEnum() || type == String.class || type == Boolean.class 
+				|| type == Character.class || Number.class.isAssignableFrom(type) && type.getName().startsWith("java.");
+	}
+	
+	/**
+	 * Get the instance fields of a class and its superclasses, made 
+	 * accessible. These are looked up by reflection once per class.
+	 * @param clazz Class to find fields on
+	 * @return List of fields
+	 */
+	private List<Field> getFields(Class<?> clazz) {
+		return fieldCache.computeIfAbsent(clazz, type -> {
+			List<Field> fields = new ArrayList<>();
+			for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+				for (Field field : c.getDeclaredFields()) {
+					if (Modifier.isStatic(field.getModifiers())) continue;
+					field.setAccessible(true);
+					fields.add(field);
+				}
+			}
+			return fields;
+		});
+	}
+	
 	private Collection<String> prepareMonitors(Collection<Object> monitorsModel) throws QueueModelException {
 		List<String> monitors = new ArrayList<>();
 		for (Object monitor : monitorsModel) {
@@ -221,16 +426,37 @@ public final class ScanAtomAssembler extends AbstractBeanAssembler<ScanAtom> {
 	 * @return T obj which has been fully configured
 	 */
 	private <T> T configureObject(T obj, DeviceModel configuration, List<String> ignoreList) throws QueueModelException {
-		List<Method> allMethods = Arrays.asList(obj.getClass().getMethods());
-		Map<String, Object> devConf = configuration.getDeviceConfiguration();
+		Map<String, List<Method>> setters = getSetters(obj.getClass());
 		
-		devConf.entrySet().stream().filter(option -> !ignoreList.contains(option.getKey())) //Is this option in the ignore list?
-			.forEach(option ->allMethods.stream().filter(method -> method.getName().startsWith("set")) //Does this method start with set?
-					  .filter(method -> configuration.isSetMethodForName(method, option.getKey())) //Is this the set method for this option?
-					  .forEach(method -> setField(method, obj, option)));		
+		for (Map.Entry<String, Object> option : configuration.getDeviceConfiguration().entrySet()) {
+			if (ignoreList.contains(option.getKey())) continue; //Is this option in the ignore list?
+			List<Method> candidates = setters.get(("set"+option.getKey()).toLowerCase());
+			if (candidates == null) continue;
+			for (Method method : candidates) {
+				//Is this the set method for this option?
+				if (configuration.isSetMethodForName(method, option.getKey())) setField(method, obj, option.getValue());
+			}
+		}
 		return obj;
 	}
 	
+	/**
+	 * Get the single argument set methods of a class, keyed by lower case 
+	 * method name. These are looked up by reflection once per class.
+	 * @param clazz Class to find setters on
+	 * @return Map of lower case method names against setters
+	 */
+	private Map<String, List<Method>> getSetters(Class<?> clazz) {
+		return setterCache.computeIfAbsent(clazz, type -> {
+			Map<String, List<Method>> setters = new HashMap<>();
+			for (Method method : type.getMethods()) {
+				if (!method.getName().startsWith("set") || method.getParameterCount() != 1) continue;
+				setters.computeIfAbsent(method.getName().toLowerCase(), name -> new ArrayList<>(1)).add(method);
+			}
+			return setters;
+		});
+	}
+	
 	/**
 	 * Use the supplied set method to configure a field on the given object to 
 	 * the value obtained by evaluating {@link IQueueValue} value.
@@ -33,6 +33,7 @@ import org.eclipse.scanning.api.event.queues.beans.Queueable;
 import org.eclipse.scanning.api.event.queues.beans.TaskBean;
 import org.eclipse.scanning.api.event.queues.remote.QueueRequest;
 import org.eclipse.scanning.api.ui.CommandConstants;
+import org.eclipse.scanning.event.queues.processes.ScanChannel;
 import org.eclipse.scanning.event.queues.remote.QueueResponseCreator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -199,6 +200,9 @@ public class QueueService extends QueueControllerService implements IQueueServic
 		}
 		jobQueueID = null;
 		
+		//Disconnect the channels shared by scan atoms
+		ScanChannel.disconnectAll();
+		
 		//Mark the service not initialised
 		init = false;
 		logger.debug("QueueService disposed");
@@ -24,16 +24,24 @@ import org.eclipse.scanning.api.event.queues.beans.QueueAtom;
 import org.eclipse.scanning.api.event.queues.beans.QueueBean;
 import org.eclipse.scanning.api.event.queues.beans.Queueable;
 import org.eclipse.scanning.api.event.status.Status;
-import org.eclipse.scanning.event.queues.Queue;
 import org.eclipse.scanning.event.queues.ServicesHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Generic class for processing a {@link Queueable} implementing 
- * {@link IHasAtomQueue}. The processor spools the atoms in the contained queue
- * into a new queue  created through the {@link IQueueService}. The new queue 
- * is monitored using the {@link QueueListener} and through the queue service.
+ * {@link IHasAtomQueue}. By default the processor spools the atoms in the 
+ * contained queue into a {@link LocalAtomQueue}, which runs them in this 
+ * process. If the atoms need to be visible to other clients of the queue 
+ * service (for example to be paused or terminated individually), the 
+ * processor can be set remote, when they are spooled into a new active-queue
+ * created through the {@link IQueueService}. Either queue is monitored using 
+ * the {@link QueueListener}. Atoms which declare their devices and 
+ * dependencies may run concurrently in a local queue; an active-queue always
+ * runs them in sequence.
+ * 
+ * The default can be changed with the system property 
+ * {@value #REMOTE_CHILD_QUEUES_PROPERTY}.
  * 
  * @author Michael Wharmby
  *
@@ -50,6 +58,11 @@ public class AtomQueueProcessor<P extends Queueable & IHasAtomQueue<Q>,
 	
 	private static Logger logger = LoggerFactory.getLogger(AtomQueueProcessor.class);
 	
+	/**
+	 * Set this property true to create active-queues for all child queues.
+	 */
+	public static final String REMOTE_CHILD_QUEUES_PROPERTY = "org.eclipse.scanning.event.queues.remote.child.queues";
+	
 	private IQueueService queueService;
 	private IQueueControllerService queueController;
 	private QueueListener<P, Q> queueListener;
@@ -57,6 +70,8 @@ public class AtomQueueProcessor<P extends Queueable & IHasAtomQueue<Q>,
 	
 	private QueueProcess<P, T> parentProcess;
 	private String activeQueueID; 
+	private LocalAtomQueue<Q> localQueue;
+	private boolean remote;
 	
 	/**
 	 * Constructs a new AtomQueueProcessor configured to use the 
@@ -70,15 +85,18 @@ public class AtomQueueProcessor<P extends Queueable & IHasAtomQueue<Q>,
 		queueService = ServicesHolder.getQueueService();
 		queueController = ServicesHolder.getQueueControllerService();
 		this.parentProcess = parentProcess;
+		this.remote = Boolean.getBoolean(REMOTE_CHILD_QUEUES_PROPERTY);
 	}
 	
 	/**
-	 * Creates a child active-queue {@link IQueue} using the 
-	 * {@link IQueueService} and a {@link QueueListener} to monitor it. Beans 
-	 * are then spooled from the {@link IHasAtomQueue} instance into the 
-	 * consumer using the {@link IQueueControllerService}. Finally the 
-	 * {@link Queue} is started and run() then waits to be signalled that 
-	 * processing has finished before the method returns. 
+	 * Creates a child queue and a {@link QueueListener} to monitor it. If 
+	 * remote, the child queue is an active-queue {@link IQueue} registered 
+	 * with the {@link IQueueService}, otherwise it is a 
+	 * {@link LocalAtomQueue}. Beans are then spooled from the 
+	 * {@link IHasAtomQueue} instance into the child queue (through the 
+	 * {@link IQueueControllerService} if remote). Finally the child queue is 
+	 * started and run() returns; the parent process waits to be signalled 
+	 * that processing has finished.
 	 * 
 	 * @throws EventException when spooling beans fails.
 	 * @throws InterruptedException if wait for processing to complete is 
@@ -88,10 +106,15 @@ public class AtomQueueProcessor<P extends Queueable & IHasAtomQueue<Q>,
 		//Everything should be set up by now, so we can get the atomQueue
 		final P atomQueue = parentProcess.getQueueBean();
 		
-		//Create a new active queue to submit the atoms into
-		logger.debug("Registering active-queue for "+parentProcess.getQueueBean().getClass().getSimpleName()+" '"+parentProcess.getQueueBean().getName()+"'");
-		parentProcess.broadcast(Status.RUNNING, 0d, "Registering new active queue.");
-		activeQueueID = queueService.registerNewActiveQueue();
+		//Create a new child queue to submit the atoms into
+		if (remote) {
+			logger.debug("Registering active-queue for "+parentProcess.getQueueBean().getClass().getSimpleName()+" '"+parentProcess.getQueueBean().getName()+"'");
+			parentProcess.broadcast(Status.RUNNING, 0d, "Registering new active queue.");
+			activeQueueID = queueService.registerNewActiveQueue();
+		} else {
+			logger.debug("Creating local queue for "+parentProcess.getQueueBean().getClass().getSimpleName()+" '"+parentProcess.getQueueBean().getName()+"'");
+			parentProcess.broadcast(Status.RUNNING, 0d, "Creating new local queue.");
+		}
 		
 		/*
 		 * Create QueueListener - this must happen BEFORE submitting beans, 
@@ -103,14 +126,18 @@ public class AtomQueueProcessor<P extends Queueable & IHasAtomQueue<Q>,
 				parentProcess, 
 				parentProcess.getQueueBean(), 
 				parentProcess.getProcessLatch());
-		queueSubscriber = queueController.createQueueSubscriber(activeQueueID);
-		queueSubscriber.addListener(queueListener);
+		if (remote) {
+			queueSubscriber = queueController.createQueueSubscriber(activeQueueID);
+			queueSubscriber.addListener(queueListener);
+		} else {
+			localQueue = new LocalAtomQueue<>(parentProcess.getQueueBean().getName(), queueListener);
+		}
 		
 		/*
-		 * Spool beans from bean atom queue to the queue service
+		 * Spool beans from bean atom queue to the child queue
 		 * (queue empty after this!)
 		 */
-		parentProcess.broadcast(Status.RUNNING, 1d, "Submitting atoms to active queue.");
+		parentProcess.broadcast(Status.RUNNING, 1d, "Submitting atoms to "+(remote ? "active" : "local")+" queue.");
 		Queueable parentBean = parentProcess.getQueueBean();//TODO This is not needed - see atomQueue
 		int initialQueueSize = atomQueue.atomQueueSize();
 		while (atomQueue.atomQueueSize() > 0) {
@@ -124,7 +151,11 @@ public class AtomQueueProcessor<P extends Queueable & IHasAtomQueue<Q>,
 			if (nextAtom.getUserName() != parentBean.getUserName()) {
 				nextAtom.setUserName(parentBean.getUserName());
 			}
-			queueController.submit(atomQueue.nextAtom(), activeQueueID);
+			if (remote) {
+				queueController.submit(atomQueue.nextAtom(), activeQueueID);
+			} else {
+				localQueue.submit(atomQueue.nextAtom());
+			}
 		}
 		logger.debug(initialQueueSize+" atoms submitted from "+parentProcess.getQueueBean().getClass().getSimpleName()+" '"+parentBean.getName()+"'");
 		
@@ -132,23 +163,62 @@ public class AtomQueueProcessor<P extends Queueable & IHasAtomQueue<Q>,
 		 * Start processing & wait for it to end - after returning, we start 
 		 * the post-match analysis immediately.
 		 */
-		parentProcess.broadcast(Status.RUNNING, 4d, "Beans submitted. Starting active queue...");
-		queueService.startActiveQueue(activeQueueID);
-		parentProcess.broadcast(Status.RUNNING, 5d, "Waiting for active queue to complete");
+		if (remote) {
+			parentProcess.broadcast(Status.RUNNING, 4d, "Beans submitted. Starting active queue...");
+			queueService.startActiveQueue(activeQueueID);
+			parentProcess.broadcast(Status.RUNNING, 5d, "Waiting for active queue to complete");
+		} else {
+			parentProcess.broadcast(Status.RUNNING, 4d, "Beans submitted. Starting local queue...");
+			localQueue.start();
+			parentProcess.broadcast(Status.RUNNING, 5d, "Waiting for local queue to complete");
+		}
 	}
 	
 	/**
 	 * Instructs {@link IQueueService} to terminate the {@link IConsumer} 
 	 * instance (using the stop() method - this terminates all beans in the 
-	 * status set.
+	 * status set. A local queue terminates the atoms being processed and 
+	 * does not start the rest.
 	 *  
 	 * @throws EventException if stop failed.
 	 */
 	protected void terminate() throws EventException {
+		if (!remote) {
+			if (localQueue != null) localQueue.stop();
+			return;
+		}
 		//Calling IConsumer.stop() causes all jobs being processed to terminate
 		queueService.stopActiveQueue(activeQueueID, false);
 	}
 	
+	/**
+	 * Pauses the atoms being processed in a local queue. Pausing an 
+	 * active-queue is not implemented.
+	 * 
+	 * @throws EventException if pause failed.
+	 */
+	protected void pause() throws EventException {
+		if (remote || localQueue == null) {
+			logger.warn("Pause/resume not implemented on active-queue");
+			return;
+		}
+		localQueue.pause();
+	}
+	
+	/**
+	 * Resumes the atoms being processed in a local queue. Resuming an 
+	 * active-queue is not implemented.
+	 * 
+	 * @throws EventException if resume failed.
+	 */
+	protected void resume() throws EventException {
+		if (remote || localQueue == null) {
+			logger.warn("Pause/resume not implemented on active-queue");
+			return;
+		}
+		localQueue.resume();
+	}
+	
 	/**
 	 * Clean-up {@link IEventService} infrastructure created to process the 
 	 * {@link IHasAtomQueue}.
@@ -157,6 +227,11 @@ public class AtomQueueProcessor<P extends Queueable & IHasAtomQueue<Q>,
 	 */
 	protected void tidyQueue() throws EventException {
 		logger.debug("Cleaning up queue infrastructure for "+parentProcess.getQueueBean().getClass().getSimpleName()+" '"+parentProcess.getQueueBean().getName()+"'...");
+		if (!remote) {
+			//Nothing registered, only need to make sure nothing more runs
+			if (localQueue != null && localQueue.getStatus().isActive()) localQueue.stop();
+			return;
+		}
 		//This should happen first to avoid spurious messages about termination
 		queueSubscriber.disconnect();
 		
@@ -183,11 +258,34 @@ public class AtomQueueProcessor<P extends Queueable & IHasAtomQueue<Q>,
 	}
 
 	/**
-	 * Returns the active-queue ID created by this AtomQueueProcessor
-	 * - used in tests.
+	 * Returns the active-queue ID created by this AtomQueueProcessor, null 
+	 * for a local queue - used in tests.
 	 */
 	public String getActiveQueueID() {
 		return activeQueueID;
 	}
 	
+	/**
+	 * Returns the local queue created by this AtomQueueProcessor, null for 
+	 * an active-queue - used in tests.
+	 */
+	public LocalAtomQueue<Q> getLocalQueue() {
+		return localQueue;
+	}
+	
+	public boolean isRemote() {
+		return remote;
+	}
+	
+	/**
+	 * Set whether the atoms are processed in an active-queue registered with
+	 * the {@link IQueueService}, so that they are visible to other clients, 
+	 * or locally. Must be called before run().
+	 * 
+	 * @param remote true to create an active-queue.
+	 */
+	public void setRemote(boolean remote) {
+		this.remote = remote;
+	}
+	
 }
@@ -0,0 +1,382 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event.queues.processes;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventConnectorService;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.bean.BeanEvent;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.IConsumer;
+import org.eclipse.scanning.api.event.core.IConsumerProcess;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.queues.IQueue;
+import org.eclipse.scanning.api.event.queues.IQueueProcess;
+import org.eclipse.scanning.api.event.queues.IQueueService;
+import org.eclipse.scanning.api.event.queues.QueueStatus;
+import org.eclipse.scanning.api.event.queues.beans.QueueAtom;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.event.queues.QueueProcessFactory;
+import org.eclipse.scanning.event.queues.ServicesHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * LocalAtomQueue is a child queue which runs its atoms in this process. 
+ * Unlike an active-queue {@link IQueue} registered with the 
+ * {@link IQueueService}, it has no {@link IConsumer}, no submission or status 
+ * queues and no heartbeat. Each atom is processed by the 
+ * {@link IQueueProcess} given by the {@link QueueProcessFactory}, exactly as 
+ * the consumer of an active-queue would process it, and the status updates 
+ * the process broadcasts are passed directly to the listener (typically a 
+ * {@link QueueListener}).
+ * 
+ * Atoms are started in the order they were submitted. An atom which declares 
+ * the devices it uses or the atoms it depends on (see 
+ * {@link QueueAtom#declaresDependencies()}) is started as soon as every 
+ * earlier atom it conflicts with has finished, so it may run at the same time 
+ * as other atoms. Two atoms conflict if either declares nothing, if they 
+ * share a device or if one names the other as a dependency. A queue of atoms 
+ * which declare nothing is therefore processed strictly in sequence.
+ * 
+ * The atoms are not visible to other clients of the queue service, so they 
+ * cannot be paused or terminated individually by a client. Control is through
+ * the parent bean, which calls pause(), resume() and stop() here.
+ * 
+ * @author Michael Wharmby
+ *
+ * @param <Q> Bean from within the AtomQueue - implements {@link QueueAtom}.
+ */
+public class LocalAtomQueue<Q extends QueueAtom> {
+	
+	private static final Logger logger = LoggerFactory.getLogger(LocalAtomQueue.class);
+	
+	/**
+	 * Threads are reused between child queues, an experiment may run 
+	 * hundreds of them one after another.
+	 */
+	private static final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "Local atom queue processing thread");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MAX_PRIORITY);
+		return thread;
+	});
+	
+	private final String queueID;
+	private final List<Q> atoms = new ArrayList<>();
+	private final LocalPublisher publisher;
+	
+	private final Set<IConsumerProcess<Q>> running = new LinkedHashSet<>();
+	private boolean stopped = false, paused = false;
+	private QueueStatus status;
+	private Future<?> processing;
+	
+	/**
+	 * Create a child queue which reports the progress of its atoms to the 
+	 * given listener.
+	 * 
+	 * @param queueID String name of the queue, used in logging.
+	 * @param listener {@link IBeanListener} receiving status updates of the 
+	 *        atoms.
+	 */
+	public LocalAtomQueue(String queueID, IBeanListener<Q> listener) {
+		this.queueID = queueID;
+		this.publisher = new LocalPublisher(listener);
+		this.status = QueueStatus.INITIALISED;
+	}
+	
+	/**
+	 * Add an atom to the end of the queue.
+	 * 
+	 * @param atom {@link QueueAtom} to be processed.
+	 * @throws EventException if the queue has already been started.
+	 */
+	public synchronized void submit(Q atom) throws EventException {
+		if (status != QueueStatus.INITIALISED) throw new EventException("Cannot submit to local queue "+queueID+" - Status: "+status);
+		atoms.add(atom);
+	}
+	
+	/**
+	 * Start processing the submitted atoms on pooled threads. This method 
+	 * returns immediately.
+	 * 
+	 * @throws EventException if the queue has already been started.
+	 */
+	public synchronized void start() throws EventException {
+		if (!status.isStartable() || processing != null) throw new EventException("Local queue "+queueID+" is not startable - Status: "+status);
+		final List<Q> toProcess = new ArrayList<>(atoms);
+		status = QueueStatus.STARTED;
+		processing = executor.submit(() -> process(toProcess));
+	}
+	
+	/**
+	 * Start each atom once the atoms it must follow have finished and wait 
+	 * until all of them are finished.
+	 */
+	private synchronized void process(List<Q> toProcess) {
+		final List<List<Integer>> predecessors = getPredecessors(toProcess);
+		final boolean[] started = new boolean[toProcess.size()];
+		final boolean[] finished = new boolean[toProcess.size()];
+		try {
+			while (!allTrue(finished)) {
+				for (int i = 0; i < toProcess.size(); i++) {
+					if (started[i]) continue;
+					final Q atom = toProcess.get(i);
+					final int index = i;
+					if (stopped) {
+						started[i] = finished[i] = true;
+						atom.setStatus(Status.TERMINATED);
+						atom.setMessage("Run aborted before started");
+						publisher.broadcast(atom);
+						continue;
+					}
+					if (paused || !allFinished(predecessors.get(i), finished)) continue;
+					
+					started[i] = true;
+					final IConsumerProcess<Q> process;
+					try {
+						process = createProcess(atom);
+					} catch (EventException evEx) {
+						logger.error("Could not create process for "+atom.getClass().getSimpleName()+" '"+atom.getName()+"' in local queue "+queueID+": "+evEx.getMessage());
+						finished[i] = true;
+						atom.setStatus(Status.FAILED);
+						atom.setMessage("Could not create process: "+evEx.getMessage());
+						publisher.broadcast(atom);
+						continue;
+					}
+					running.add(process);
+					executor.submit(() -> runAtom(atom, process, () -> finished[index] = true));
+				}
+				if (!allTrue(finished)) wait();
+			}
+		} catch (InterruptedException iEx) {
+			logger.warn("Local queue "+queueID+" interrupted, remaining atoms will not be processed");
+		} catch (EventException evEx) {
+			logger.error("Local queue "+queueID+" could not process atoms: "+evEx.getMessage());
+		} finally {
+			status = QueueStatus.STOPPED;
+		}
+	}
+	
+	private void runAtom(Q atom, IConsumerProcess<Q> process, Runnable onFinish) {
+		try {
+			process.start(); // Blocking, as it is in the consumer of an active-queue
+		} catch (EventException evEx) {
+			logger.error("Processing "+atom.getClass().getSimpleName()+" '"+atom.getName()+"' in local queue "+queueID+" failed with: "+evEx.getMessage());
+		} catch (InterruptedException iEx) {
+			logger.warn("Processing "+atom.getClass().getSimpleName()+" '"+atom.getName()+"' in local queue "+queueID+" interrupted");
+		} finally {
+			synchronized (this) {
+				running.remove(process);
+				onFinish.run();
+				notifyAll();
+			}
+		}
+	}
+	
+	/**
+	 * For each atom, find the earlier atoms which must be finished before it 
+	 * may start.
+	 */
+	private List<List<Integer>> getPredecessors(List<Q> toProcess) {
+		final List<List<Integer>> predecessors = new ArrayList<>(toProcess.size());
+		for (int i = 0; i < toProcess.size(); i++) {
+			final List<Integer> before = new ArrayList<>();
+			for (int j = 0; j < i; j++) {
+				if (isConflicting(toProcess.get(j), toProcess.get(i))) before.add(j);
+			}
+			predecessors.add(before);
+		}
+		return predecessors;
+	}
+	
+	private static boolean isConflicting(QueueAtom earlier, QueueAtom later) {
+		if (!earlier.declaresDependencies() || !later.declaresDependencies()) return true;
+		final List<String> dependencies = later.getDependencies();
+		if (dependencies != null && (dependencies.contains(earlier.getName()) || dependencies.contains(earlier.getShortName()))) return true;
+		if (earlier.getDevices() == null || later.getDevices() == null) return false;
+		return !Collections.disjoint(earlier.getDevices(), later.getDevices());
+	}
+	
+	private static boolean allFinished(List<Integer> indices, boolean[] finished) {
+		for (int index : indices) {
+			if (!finished[index]) return false;
+		}
+		return true;
+	}
+	
+	private static boolean allTrue(boolean[] flags) {
+		for (boolean flag : flags) {
+			if (!flag) return false;
+		}
+		return true;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private IConsumerProcess<Q> createProcess(Q atom) throws EventException {
+		return QueueProcessFactory.getProcessor(atom, publisher, true);
+	}
+	
+	/**
+	 * Pause the atoms being processed and do not start any more until 
+	 * resumed.
+	 * 
+	 * @throws EventException if a process could not be paused.
+	 */
+	public void pause() throws EventException {
+		for (IConsumerProcess<Q> process : getRunning(true)) {
+			if (!process.isPaused()) process.pause();
+		}
+	}
+	
+	/**
+	 * Resume the atoms being processed and continue with the queue.
+	 * 
+	 * @throws EventException if a process could not be resumed.
+	 */
+	public void resume() throws EventException {
+		for (IConsumerProcess<Q> process : getRunning(false)) {
+			if (process.isPaused()) process.resume();
+		}
+	}
+	
+	private synchronized List<IConsumerProcess<Q>> getRunning(boolean pause) {
+		paused = pause;
+		notifyAll();
+		return new ArrayList<>(running);
+	}
+	
+	/**
+	 * Terminate the atoms being processed. Atoms which have not started are 
+	 * reported as terminated without being run. The queue is STOPPING until 
+	 * every atom has reported its final status.
+	 * 
+	 * @throws EventException if a process could not be terminated.
+	 */
+	public void stop() throws EventException {
+		final List<IConsumerProcess<Q>> toTerminate;
+		synchronized (this) {
+			if (status != QueueStatus.STARTED) return;
+			status = QueueStatus.STOPPING;
+			stopped = true;
+			toTerminate = new ArrayList<>(running);
+			notifyAll();
+		}
+		for (IConsumerProcess<Q> process : toTerminate) {
+			if (process.isPaused()) process.resume();
+			process.terminate();
+		}
+	}
+	
+	public synchronized QueueStatus getStatus() {
+		return status;
+	}
+	
+	public String getQueueID() {
+		return queueID;
+	}
+	
+	/**
+	 * Passes the beans broadcast by the atom processes to the listener, in 
+	 * place of the status topic of an active-queue. Broadcasts may come from 
+	 * the processing thread or from a thread controlling the process, the 
+	 * listener sees them one at a time.
+	 */
+	private class LocalPublisher implements IPublisher<Q> {
+		
+		private final IBeanListener<Q> listener;
+		
+		private LocalPublisher(IBeanListener<Q> listener) {
+			this.listener = listener;
+		}
+
+		@Override
+		public void broadcast(Q bean) throws EventException {
+			synchronized (listener) {
+				listener.beanChangePerformed(new BeanEvent<>(bean));
+			}
+		}
+
+		@Override
+		public String getTopicName() {
+			return queueID;
+		}
+
+		@Override
+		public void setTopicName(String topic) throws EventException {
+			throw new EventException("Local queue "+queueID+" has no status topic");
+		}
+
+		@Override
+		public URI getUri() {
+			return null;
+		}
+
+		@Override
+		public IEventConnectorService getConnectorService() {
+			IEventService eventService = ServicesHolder.getEventService();
+			return eventService != null ? eventService.getEventConnectorService() : null;
+		}
+
+		@Override
+		public void disconnect() throws EventException {
+			//Nothing to disconnect
+		}
+
+		@Override
+		public void setAlive(boolean alive) throws EventException {
+			//No heartbeat
+		}
+
+		@Override
+		public boolean isAlive() {
+			return getStatus().isActive();
+		}
+
+		@Override
+		public String getStatusSetName() {
+			return null;
+		}
+
+		@Override
+		public void setStatusSetName(String queueName) {
+			//No status set
+		}
+
+		@Override
+		public void setStatusSetAddRequired(boolean isRequired) {
+			//No status set
+		}
+
+		@Override
+		public void setLoggingStream(PrintStream stream) {
+			//Updates go straight to the listener
+		}
+
+		@Override
+		public void setConsumer(IConsumer<?> consumer) {
+			//No consumer
+		}
+	}
+
+}
@@ -143,8 +143,15 @@ public class QueueListener<P extends Queueable, Q extends StatusBean> implements
 		}	
 	}
 
+	/**
+	 * Children of a parent may run concurrently (see {@link LocalAtomQueue}), 
+	 * so events are handled one at a time. Each child contributes its change 
+	 * in percent complete scaled by its fraction of the total work, so the 
+	 * parent percent complete does not depend on the order or overlap of the 
+	 * updates.
+	 */
 	@Override
-	public void beanChangePerformed(BeanEvent<Q> evt) {
+	public synchronized void beanChangePerformed(BeanEvent<Q> evt) {
 		boolean broadcastUpdate = false, beanCompleted = false, failed = false;
 		Q bean = evt.getBean();
 		String beanID = bean.getUniqueId();
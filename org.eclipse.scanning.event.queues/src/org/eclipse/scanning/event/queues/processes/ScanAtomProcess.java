@@ -17,11 +17,8 @@ import java.util.UUID;
 
 import org.eclipse.scanning.api.event.EventConstants;
 import org.eclipse.scanning.api.event.EventException;
-import org.eclipse.scanning.api.event.IEventService;
 import org.eclipse.scanning.api.event.core.IConsumer;
 import org.eclipse.scanning.api.event.core.IPublisher;
-import org.eclipse.scanning.api.event.core.ISubmitter;
-import org.eclipse.scanning.api.event.core.ISubscriber;
 import org.eclipse.scanning.api.event.queues.beans.QueueAtom;
 import org.eclipse.scanning.api.event.queues.beans.Queueable;
 import org.eclipse.scanning.api.event.queues.beans.ScanAtom;
@@ -29,7 +26,6 @@ import org.eclipse.scanning.api.event.scan.ScanBean;
 import org.eclipse.scanning.api.event.status.Status;
 import org.eclipse.scanning.api.ui.CommandConstants;
 import org.eclipse.scanning.event.queues.QueueProcessFactory;
-import org.eclipse.scanning.event.queues.ServicesHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,7 +34,9 @@ import org.slf4j.LoggerFactory;
  * a {@link ScanBean}, which is then submitted to the scan event service.
  * 
  * The process uses a {@link QueueListener} to monitor the process of the 
- * scan and pass up messages to the rest of the queue.
+ * scan and pass up messages to the rest of the queue. The bean is submitted 
+ * and monitored through a {@link ScanChannel}, which is shared with the 
+ * other ScanAtomProcesses using the same scan broker.
  * 
  * @author Michael Wharmby
  * 
@@ -57,9 +55,7 @@ public class ScanAtomProcess<T extends Queueable> extends QueueProcess<ScanAtom,
 	private static Logger logger = LoggerFactory.getLogger(ScanAtomProcess.class);
 	
 	//Scanning infrastructure
-	private IEventService eventService;
-	private IPublisher<ScanBean> scanCommandPublisher;
-	private ISubscriber<QueueListener<ScanAtom, ScanBean>> scanSubscriber;
+	private ScanChannel scanChannel;
 	private QueueListener<ScanAtom, ScanBean> queueListener;
 	
 	//For processor operation
@@ -67,14 +63,11 @@ public class ScanAtomProcess<T extends Queueable> extends QueueProcess<ScanAtom,
 	
 	/**
 	 * Create a ScanAtomProcessor which can be used by a {@link QueueProcess}. 
-	 * Constructor configures the {@link IEventService} using the instance 
-	 * specified in the {@link ServicesHolder}. Additionally, a new 
-	 * {@link ScanBean} is created which will be configured with the details 
-	 * of from the {@link ScanAtom}.
+	 * When run, a new {@link ScanBean} is created which will be configured 
+	 * with the details of from the {@link ScanAtom}.
 	 */
 	public ScanAtomProcess(T bean, IPublisher<T> publisher, Boolean blocking) throws EventException {
 		super(bean, publisher, blocking);
-		eventService = ServicesHolder.getEventService();
 	}
 
 	@Override
@@ -117,28 +110,24 @@ public class ScanAtomProcess<T extends Queueable> extends QueueProcess<ScanAtom,
 		scanBean.setUserName(queueBean.getUserName());
 		scanBean.setScanRequest(queueBean.getScanReq());
 		
-		broadcast(Status.RUNNING, 3d, "Creating scanning infrastructure.");
-		logger.debug("Creating scan command publisher, submitter and subscriber...");
-		ISubmitter<ScanBean> scanSubmitter = eventService.createSubmitter(scanBrokerURI, scanSubmitQueueName);
-		scanCommandPublisher = eventService.createPublisher(scanBrokerURI, scanStatusTopicName);
-		scanSubscriber = eventService.createSubscriber(scanBrokerURI, scanStatusTopicName);
-		queueListener = new QueueListener<>(this, queueBean, processLatch, scanBean);
+		broadcast(Status.RUNNING, 3d, "Getting scanning infrastructure.");
+		logger.debug("Getting scan channel...");
 		try {
-			scanSubscriber.addListener(queueListener);
+			scanChannel = ScanChannel.getChannel(scanBrokerURI, scanSubmitQueueName, scanStatusTopicName);
 		} catch (EventException evEx) {
-			broadcast(Status.FAILED, "Failed to add QueueListener to scan subscriber; unable to monitor queue. Cannot continue: \""+evEx.getMessage()+"\".");
-			logger.error("Failed to add QueueListener to scan subscriber for '"+queueBean.getName()+"'; unable to monitor queue. Cannot continue: \""+evEx.getMessage()+"\".");
-			throw new EventException("Failed to add QueueListener to scan subscriber", evEx);
+			broadcast(Status.FAILED, "Failed to connect to scanning service; unable to monitor queue. Cannot continue: \""+evEx.getMessage()+"\".");
+			logger.error("Failed to get scan channel for '"+queueBean.getName()+"'; unable to monitor queue. Cannot continue: \""+evEx.getMessage()+"\".");
+			throw new EventException("Failed to get scan channel", evEx);
 		}
+		queueListener = new QueueListener<>(this, queueBean, processLatch, scanBean);
 		
 		broadcast(Status.RUNNING, 4d, "Submitting bean to scanning service.");
 		scanBean.setStatus(Status.SUBMITTED);
 		try {
-			scanSubmitter.submit(scanBean);
-			scanSubmitter.disconnect();
-			logger.info("Submitted ScanBean ('"+scanBean.getName()+"') generated from '"+queueBean.getName()+"' and disconnected submitter");
+			scanChannel.submit(scanBean, queueListener);
+			logger.info("Submitted ScanBean ('"+scanBean.getName()+"') generated from '"+queueBean.getName()+"'");
 		} catch (EventException evEx) {
-			commandScanBean(Status.REQUEST_TERMINATE); //Just in case the submission worked, but the disconnect didn't, stop the runnning process
+			commandScanBean(Status.REQUEST_TERMINATE); //Just in case the submission worked, stop the runnning process
 			broadcast(Status.FAILED, "Failed to submit scan bean to scanning system: \""+evEx.getMessage()+"\".");
 			logger.error("Failed to submit scan bean '"+scanBean.getName()+"' to scanning system: \""+evEx.getMessage()+"\".");
 			throw new EventException("Failed to submit scan bean to scanning system", evEx);
@@ -209,28 +198,35 @@ public class ScanAtomProcess<T extends Queueable> extends QueueProcess<ScanAtom,
 	 * @throws EventException In case broadcasting fails.
 	 */
 	private void commandScanBean(Status command) throws EventException {
-		if (scanCommandPublisher == null) {
-			broadcast(Status.FAILED, "Scan Publisher not initialised. Cannot send commands to scanning system");
-			logger.error("Scan publisher not initialised. Cannot send commands to scanning system for '"+queueBean.getName()+"'.");
-			throw new EventException("Scan publisher not initialised. Cannot send commands to scanning system");
+		if (scanChannel == null) {
+			broadcast(Status.FAILED, "Scan channel not initialised. Cannot send commands to scanning system");
+			logger.error("Scan channel not initialised. Cannot send commands to scanning system for '"+queueBean.getName()+"'.");
+			throw new EventException("Scan channel not initialised. Cannot send commands to scanning system");
 		}
 		if (!command.isRequest()) {
 			logger.warn("Command \""+command+"\" to ScanBean '"+scanBean.getName()+"' is not a request. Unexpected behaviour may result.");
 		}
 		scanBean.setStatus(command);
-		scanCommandPublisher.broadcast(scanBean);
+		scanChannel.command(scanBean);
 		logger.info("Sent command to scan service (ScanBean='"+scanBean.getName()+"' command="+command+")");
 	}
 	
 	/**
-	 * Clean up EventService objects which interact with the scan child queue.
+	 * Stop listening to the scan child queue. The {@link ScanChannel} stays 
+	 * connected for the next scan.
 	 * @throws EventException
 	 */
 	private void tidyScanActors() throws EventException {
 		logger.debug("Cleaning up queue infrastructure for '"+queueBean.getName()+"'...");
 		
-		scanCommandPublisher.disconnect();
-		scanSubscriber.disconnect();
+		if (scanChannel != null) scanChannel.release(scanBean);
+	}
+	
+	/**
+	 * @return {@link ScanChannel} used to submit the scan - used in tests.
+	 */
+	public ScanChannel getScanChannel() {
+		return scanChannel;
 	}
 
 }
@@ -0,0 +1,201 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event.queues.processes;
+
+import java.net.URI;
+import java.util.EventListener;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.IDisconnectable;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.core.ISubmitter;
+import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.queues.beans.ScanAtom;
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.event.queues.ServicesHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ScanChannel holds the submitter, command publisher and status subscriber 
+ * which a {@link ScanAtomProcess} uses to run a {@link ScanBean} through the 
+ * scanning service. Creating and connecting these for every {@link ScanAtom} 
+ * costs three JMS clients per scan, so one channel is created for each scan 
+ * broker URI, submission queue and status topic and is shared by all the 
+ * scans using them. Status updates are passed only to the listener 
+ * registered with the uniqueId of the {@link ScanBean} (see 
+ * {@link ISubscriber#addListener(String, EventListener)}).
+ * 
+ * If sending a bean fails, the channel is recreated once (for example after
+ * a broker restart) and the send repeated. A channel is also recreated if the
+ * event service has changed since it was made. All channels are disconnected
+ * when the queue service is disposed.
+ * 
+ * @author Michael Wharmby
+ *
+ */
+public class ScanChannel {
+	
+	private static final Logger logger = LoggerFactory.getLogger(ScanChannel.class);
+	
+	private static final Map<String, ScanChannel> channels = new HashMap<>();
+	
+	private final IEventService eventService;
+	private final URI uri;
+	private final String submitQueueName, statusTopicName;
+	private final Map<String, IBeanListener<ScanBean>> listeners = new HashMap<>();
+	
+	private ISubmitter<ScanBean> submitter;
+	private IPublisher<ScanBean> publisher;
+	private ISubscriber<IBeanListener<ScanBean>> subscriber;
+	
+	private ScanChannel(IEventService eventService, URI uri, String submitQueueName, String statusTopicName) throws EventException {
+		this.eventService = eventService;
+		this.uri = uri;
+		this.submitQueueName = submitQueueName;
+		this.statusTopicName = statusTopicName;
+		connect();
+	}
+	
+	/**
+	 * Get the channel for the given scan broker, submission queue and status
+	 * topic, creating it if necessary.
+	 * 
+	 * @param uri URI of the scan broker.
+	 * @param submitQueueName String name of the scan submission queue.
+	 * @param statusTopicName String name of the scan status topic.
+	 * @return ScanChannel connected to the scanning service.
+	 * @throws EventException if the channel could not be created.
+	 */
+	public static synchronized ScanChannel getChannel(URI uri, String submitQueueName, String statusTopicName) throws EventException {
+		final IEventService eventService = ServicesHolder.getEventService();
+		final String key = uri+"|"+submitQueueName+"|"+statusTopicName;
+		ScanChannel channel = channels.get(key);
+		if (channel != null && channel.eventService != eventService) {
+			channel.disconnect();
+			channel = null;
+		}
+		if (channel == null) {
+			logger.debug("Creating scan channel to "+submitQueueName+" & "+statusTopicName+" on "+uri);
+			channel = new ScanChannel(eventService, uri, submitQueueName, statusTopicName);
+			channels.put(key, channel);
+		}
+		return channel;
+	}
+	
+	/**
+	 * Disconnect all channels. Scans which are still running will no longer 
+	 * report their status to their {@link ScanAtomProcess}.
+	 */
+	public static synchronized void disconnectAll() {
+		for (ScanChannel channel : channels.values()) {
+			channel.disconnect();
+		}
+		channels.clear();
+	}
+	
+	private void connect() throws EventException {
+		submitter = eventService.createSubmitter(uri, submitQueueName);
+		publisher = eventService.createPublisher(uri, statusTopicName);
+		subscriber = eventService.createSubscriber(uri, statusTopicName);
+		for (Map.Entry<String, IBeanListener<ScanBean>> entry : listeners.entrySet()) {
+			subscriber.addListener(entry.getKey(), entry.getValue());
+		}
+	}
+	
+	private void reconnect() throws EventException {
+		logger.warn("Recreating scan channel to "+submitQueueName+" & "+statusTopicName+" on "+uri);
+		disconnect();
+		connect();
+	}
+	
+	private synchronized void disconnect() {
+		disconnect(submitter);
+		disconnect(publisher);
+		disconnect(subscriber);
+	}
+	
+	private void disconnect(IDisconnectable connection) {
+		if (connection == null) return;
+		try {
+			connection.disconnect();
+		} catch (EventException evEx) {
+			logger.warn("Could not disconnect scan channel "+connection.getClass().getSimpleName()+": "+evEx.getMessage());
+		}
+	}
+	
+	/**
+	 * Register the listener for status updates of the bean and submit the 
+	 * bean to the scanning service.
+	 * 
+	 * @param bean {@link ScanBean} to be run.
+	 * @param listener {@link IBeanListener} to receive status updates of the 
+	 *        bean until it is released.
+	 * @throws EventException if the bean could not be submitted.
+	 */
+	public synchronized void submit(ScanBean bean, IBeanListener<ScanBean> listener) throws EventException {
+		listeners.put(bean.getUniqueId(), listener);
+		if (subscriber.isDisconnected()) {
+			reconnect();
+		} else {
+			subscriber.addListener(bean.getUniqueId(), listener);
+		}
+		
+		try {
+			submitter.submit(bean);
+		} catch (EventException evEx) {
+			logger.warn("Submitting '"+bean.getName()+"' failed with: "+evEx.getMessage());
+			reconnect();
+			submitter.submit(bean);
+		}
+	}
+	
+	/**
+	 * Send the bean, with a request status, to the scanning service.
+	 * 
+	 * @param bean {@link ScanBean} with the command set.
+	 * @throws EventException if the command could not be sent.
+	 */
+	public synchronized void command(ScanBean bean) throws EventException {
+		try {
+			publisher.broadcast(bean);
+		} catch (EventException evEx) {
+			logger.warn("Sending command to '"+bean.getName()+"' failed with: "+evEx.getMessage());
+			reconnect();
+			publisher.broadcast(bean);
+		}
+	}
+	
+	/**
+	 * Stop passing status updates of the bean to its listener.
+	 * 
+	 * @param bean {@link ScanBean} which is finished with.
+	 */
+	public synchronized void release(ScanBean bean) {
+		if (listeners.remove(bean.getUniqueId()) != null) {
+			subscriber.removeListeners(bean.getUniqueId());
+		}
+	}
+	
+	/**
+	 * @return true if status updates are being passed to a listener for this 
+	 *         bean.
+	 */
+	public synchronized boolean isListening(ScanBean bean) {
+		return listeners.containsKey(bean.getUniqueId());
+	}
+
+}
@@ -81,15 +81,13 @@ public class SubTaskAtomProcess<T extends Queueable> extends QueueProcess<SubTas
 	@Override
 	protected void doPause() throws Exception {
 		if (finished) return; //Stops spurious messages/behaviour when processing already finished
-		//TODO!
-		logger.warn("Pause/resume not implemented on SubTaskAtom");
+		atomQueueProcessor.pause();
 	}
 	
 	@Override
 	protected void doResume() throws Exception {
 		if (finished) return; //Stops spurious messages/behaviour when processing already finished
-		//TODO!
-		logger.warn("Pause/resume not implemented on SubTaskAtom");
+		atomQueueProcessor.resume();
 	}
 
 	@Override
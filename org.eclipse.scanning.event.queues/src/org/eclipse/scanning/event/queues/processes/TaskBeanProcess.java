@@ -87,15 +87,13 @@ public class TaskBeanProcess<T extends Queueable> extends QueueProcess<TaskBean,
 	@Override
 	protected void doPause() throws Exception {
 		if (finished) return; //Stops spurious messages/behaviour when processing already finished
-		//TODO!
-		logger.warn("Pause/resume not implemented on TaskBeanProcessor");
+		atomQueueProcessor.pause();
 	}
 	
 	@Override
 	protected void doResume() throws Exception {
 		if (finished) return; //Stops spurious messages/behaviour when processing already finished
-		//TODO!
-		logger.warn("Pause/resume not implemented on TaskBeanProcessor");
+		atomQueueProcessor.resume();
 	}
 	
 	@Override
@@ -13,11 +13,13 @@ package org.eclipse.scanning.event.remote;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import org.eclipse.scanning.api.annotation.ui.DeviceType;
 import org.eclipse.scanning.api.device.IRunnableDevice;
 import org.eclipse.scanning.api.device.IRunnableDeviceService;
 import org.eclipse.scanning.api.device.IScannableDeviceService;
@@ -42,6 +44,7 @@ public class _RunnableDeviceService extends AbstractRemoteService implements IRu
 	private static final Logger logger = LoggerFactory.getLogger(_RunnableDeviceService.class);
 
 	private IRequester<DeviceRequest> requester;
+	private IRequester<DeviceRequest> manyRequester;
 	private IScannableDeviceService   cservice;
 	private Map<String, IRunnableDevice<?>> runnables;
 	
@@ -51,11 +54,16 @@ public class _RunnableDeviceService extends AbstractRemoteService implements IRu
 	    logger.debug("Setting timeout {} {}" , timeout , " ms");
 		requester.setResponseConfiguration(new ResponseConfiguration(ResponseType.ONE, timeout, TimeUnit.MILLISECONDS));
 		runnables = new HashMap<>();
+		
+		// Reading many devices takes longer than one
+		manyRequester = eservice.createRequestor(uri, IEventService.DEVICE_REQUEST_TOPIC, IEventService.DEVICE_RESPONSE_TOPIC);
+		manyRequester.setTimeout(Long.getLong("org.eclipse.scanning.event.remote.manyDeviceTimeout", 5000), TimeUnit.MILLISECONDS);
 	}
 	
 	@Override
 	public void disconnect() throws EventException {
 		requester.disconnect(); // Requester can still be used again after a disconnect
+		manyRequester.disconnect();
 		for (String name : runnables.keySet()) {
 			IRunnableDevice<?> runnable = runnables.remove(name);
 			if (runnable instanceof IDisconnectable) ((IDisconnectable)runnable).disconnect();
@@ -178,6 +186,19 @@ public class _RunnableDeviceService extends AbstractRemoteService implements IRu
 	    return req.getDeviceInformation();
 	}
 
+	@Override
+	public Collection<DeviceInformation<?>> getDeviceInformation(Collection<String> names) throws ScanningException {
+	    DeviceRequest req;
+		try {
+			req = manyRequester.post(new DeviceRequest(names, DeviceType.RUNNABLE));
+			req.checkException();
+		} catch (EventException | InterruptedException e) {
+			throw new ScanningException("Cannot get devices! Connection to broker may be lost or no server up!", e);
+		}
+		if (req.getDevices()==null) return Collections.emptyList();
+	    return req.getDevices();
+	}
+
 	@Override
 	public <T> void register(IRunnableDevice<T> device) {
 		throw new IllegalArgumentException("New devices may not be registered on a remote service implementation!");
@@ -16,6 +16,7 @@ import java.net.URI;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.scanning.api.IScannable;
 import org.eclipse.scanning.api.ITerminatable;
@@ -34,6 +35,7 @@ import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.scan.PositionEvent;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.event.ILocationListener;
+import org.eclipse.scanning.api.scan.event.IPositionCacheable;
 import org.eclipse.scanning.api.scan.event.IPositionListenable;
 import org.eclipse.scanning.api.scan.event.IPositionListener;
 import org.eclipse.scanning.api.scan.event.Location;
@@ -41,11 +43,28 @@ import org.eclipse.scanning.api.scan.event.LocationEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-class _Scannable<T> extends _AbstractRemoteDevice<T> implements IScannable<T>, IPositionListenable, ITerminatable, ILocationListener {
+class _Scannable<T> extends _AbstractRemoteDevice<T> implements IScannable<T>, IPositionListenable, IPositionCacheable<T>, ITerminatable, ILocationListener {
 
 	private static final Logger logger = LoggerFactory.getLogger(_Scannable.class);
 
 	private final ISubscriber<ILocationListener> subscriber;
+	
+	/**
+	 * The oldest cached position which getPosition() returns, zero to always
+	 * ask the server. The cache is kept up to date by the position events.
+	 */
+	private volatile long maximumAge = Long.getLong("org.eclipse.scanning.event.remote.positionCacheAge", 0);
+	
+	/**
+	 * The last position which was read or performed, null if a move has started since.
+	 */
+	private volatile CachedPosition cached;
+	
+	/**
+	 * Changed whenever the cache is, so that a position which was
+	 * read while a move started is not cached.
+	 */
+	private final AtomicInteger generation = new AtomicInteger();
 
 	_Scannable(DeviceRequest req, URI uri, ISubscriber<ILocationListener> positionListener, IEventService eservice) throws EventException, InterruptedException {
 		super(req, 
@@ -55,15 +74,53 @@ class _Scannable<T> extends _AbstractRemoteDevice<T> implements IScannable<T>, I
 		this.subscriber = positionListener;
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public T getPosition() throws Exception {
+		return getPosition(maximumAge);
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	public T getPosition(long maximumAge) throws Exception {
+		
+		if (maximumAge>0) {
+			addListener(); // Position events keep the cache up to date
+			CachedPosition pos = cached;
+			if (pos!=null && System.currentTimeMillis()-pos.time<=maximumAge) return (T)pos.value;
+		}
+		
+		final int gen = generation.get();
 		DeviceRequest req = update();
 		if (req==null) return null;
 		req.checkException();
+		if (generation.compareAndSet(gen, gen+1)) cached = new CachedPosition(req.getDeviceValue());
 		return (T)req.getDeviceValue();
 	}
 
+	@Override
+	public long getMaximumAge() {
+		return maximumAge;
+	}
+
+	@Override
+	public void setMaximumAge(long maximumAge) {
+		this.maximumAge = maximumAge;
+	}
+	
+	/**
+	 * Caches a position read for this scannable by another request.
+	 * @param value
+	 */
+	void cachePosition(Object value) {
+		generation.incrementAndGet();
+		cached = new CachedPosition(value);
+	}
+	
+	private void invalidatePosition() {
+		generation.incrementAndGet();
+		cached = null;
+	}
+
 	/**
 	 * Calls setPosition and waits for up to five minutes.
 	 * 
@@ -74,6 +131,7 @@ class _Scannable<T> extends _AbstractRemoteDevice<T> implements IScannable<T>, I
 		try {
 			// Will tell us that the value is changing by recording the time of the change 
 			addListener(); 
+			invalidatePosition(); // Not known until the move is done
 
 			DeviceRequest req = new DeviceRequest(info.getName(), DeviceType.SCANNABLE);
 			req.setDeviceAction(DeviceAction.SET);
@@ -83,6 +141,7 @@ class _Scannable<T> extends _AbstractRemoteDevice<T> implements IScannable<T>, I
 			if (req.getDeviceInformation()!=null) {
 				merge((DeviceInformation<T>)req.getDeviceInformation());
 			}
+			if (req.getErrorMessage()==null) cachePosition(req.getDeviceValue()); // The position after the move
 			
 		} catch (Exception ne) {
 			logger.error("Cannot update device info for "+info.getName(), ne);
@@ -195,11 +254,14 @@ class _Scannable<T> extends _AbstractRemoteDevice<T> implements IScannable<T>, I
 
 	@Override
 	public void locationPerformed(LocationEvent evt) {
+		
+		final Location      loc  = evt.getLocation();
+		updateCache(loc);
+		
 		if (listeners == null) return;
 		if (listeners.isEmpty()) return;
 
 		lastActive = System.currentTimeMillis();
-		final Location      loc  = evt.getLocation();
 		if (loc.getType()==null) return;
 		
 		final PositionEvent evnt = new PositionEvent(loc.getPosition(), _Scannable.this);
@@ -216,6 +278,37 @@ class _Scannable<T> extends _AbstractRemoteDevice<T> implements IScannable<T>, I
 		}
 	}
 
+	/**
+	 * A move which starts makes the cached position unknown and the position it is performed
+	 * at is cached. The positions passed through during a move are not cached because they
+	 * may arrive after the move has been performed.
+	 * 
+	 * @param loc
+	 */
+	private void updateCache(Location loc) {
+		if (loc.getType()==null || loc.getPosition()==null) return;
+		switch (loc.getType()) {
+		case positionWillPerform:
+			invalidatePosition();
+			break;
+		case positionPerformed:
+			Object value = loc.getPosition().get(getName());
+			if (value!=null) cachePosition(value);
+			break;
+		default:
+			break;
+		}
+	}
+	
+	private static class CachedPosition {
+		private final Object value;
+		private final long   time;
+		CachedPosition(Object value) {
+			this.value = value;
+			this.time  = System.currentTimeMillis();
+		}
+	}
+
 	private ResponseWaiter createResponseWaiter() {
 		return new ResponseWaiter() {
 			@Override
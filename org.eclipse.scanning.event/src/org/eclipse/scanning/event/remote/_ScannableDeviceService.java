@@ -13,6 +13,7 @@ package org.eclipse.scanning.event.remote;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +36,7 @@ import org.eclipse.scanning.api.scan.event.ILocationListener;
 class _ScannableDeviceService extends AbstractRemoteService implements IScannableDeviceService {
 
 	private IRequester<DeviceRequest>  requester;
+	private IRequester<DeviceRequest>  manyRequester;
 	private Map<String, IScannable<?>> scannables;
 	private ISubscriber<ILocationListener> subscriber;
 	
@@ -45,12 +47,17 @@ class _ScannableDeviceService extends AbstractRemoteService implements IScannabl
 	    requester.setTimeout(timeout, TimeUnit.MILLISECONDS); 
 	    scannables = new HashMap<>();
 	    
+	    // Reading many scannables takes longer than one
+		manyRequester = eservice.createRequestor(uri, IEventService.DEVICE_REQUEST_TOPIC, IEventService.DEVICE_RESPONSE_TOPIC);
+	    manyRequester.setTimeout(Long.getLong("org.eclipse.scanning.event.remote.manyDeviceTimeout", 5000), TimeUnit.MILLISECONDS); 
+	    
 		subscriber = eservice.createSubscriber(uri, EventConstants.POSITION_TOPIC);
 	}
 	
 	@Override
 	public void disconnect() throws EventException {
 		requester.disconnect(); // Requester can still be used again after a disconnect
+		manyRequester.disconnect();
 		for (String name : scannables.keySet()) {
 			IScannable<?> scannable = scannables.remove(name);
 			if (scannable instanceof IDisconnectable) ((IDisconnectable)scannable).disconnect();
@@ -84,6 +91,33 @@ class _ScannableDeviceService extends AbstractRemoteService implements IScannabl
 	    return req.getDevices().toArray(new DeviceInformation<?>[req.size()]);
 	}
 
+	/**
+	 * Reads all the scannables in one request. The information and cached position
+	 * of scannables already made by this service are updated, so their limits and
+	 * unit are not requested again.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public Collection<DeviceInformation<?>> getDeviceInformation(Collection<String> names) throws ScanningException {
+	    DeviceRequest req;
+		try {
+			req = manyRequester.post(new DeviceRequest(names, DeviceType.SCANNABLE));
+			req.checkException();
+		} catch (EventException | InterruptedException e) {
+			throw new ScanningException("Cannot get devices! Connection to broker may be lost or no server up!", e);
+		}
+		if (req.getDevices()==null) return Collections.emptyList();
+		for (DeviceInformation<?> info : req.getDevices()) {
+			if (info.getErrorMessage()!=null) continue;
+			IScannable<?> scannable = scannables.get(info.getName());
+			if (scannable instanceof _Scannable) {
+				((_Scannable<Object>)scannable).merge((DeviceInformation<Object>)info);
+				((_Scannable<Object>)scannable).cachePosition(info.getValue());
+			}
+		}
+	    return req.getDevices();
+	}
+
 	@Override
 	public <T> IScannable<T> getScannable(String name) throws ScanningException {
 		
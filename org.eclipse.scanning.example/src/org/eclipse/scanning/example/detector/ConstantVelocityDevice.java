@@ -28,6 +28,7 @@ import org.eclipse.scanning.api.device.IWritableDetector;
 import org.eclipse.scanning.api.event.scan.DeviceState;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.rank.IChunkPlanner;
 import org.eclipse.scanning.api.scan.rank.IScanRankService;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
 import org.eclipse.scanning.example.Services;
@@ -73,7 +74,7 @@ public class ConstantVelocityDevice extends AbstractRunnableDevice<ConstantVeloc
 		context = detector.initializeLazyDataset(NXdetector.NX_DATA, rank, Double.class);
 		
 		// Setting chunking is a very good idea if speed is required.
-		int[] chunk = info.createChunk(model.getLineSize(), model.getChannelCount(), model.getSpectraSize());
+		int[] chunk = IChunkPlanner.getChunkPlanner().createChunk(info.getShape(), 8, model.getLineSize(), model.getChannelCount(), model.getSpectraSize());
 		context.setChunking(chunk);
 		
 		Attributes.registerAttributes(detector, this);
@@ -112,4 +113,12 @@ public class ConstantVelocityDevice extends AbstractRunnableDevice<ConstantVeloc
 		setName(model.getName());
 	}
 
+	/**
+	 * Nothing but the model is set by configure.
+	 */
+	@Override
+	public boolean isReconfigureSkippable() throws ScanningException {
+		return getDeviceState()==DeviceState.ARMED;
+	}
+
 }
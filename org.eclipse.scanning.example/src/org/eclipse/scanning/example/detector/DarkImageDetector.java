@@ -28,6 +28,7 @@ import org.eclipse.january.dataset.SliceND;
 import org.eclipse.scanning.api.annotation.scan.ScanFinally;
 import org.eclipse.scanning.api.device.AbstractRunnableDevice;
 import org.eclipse.scanning.api.device.IWritableDetector;
+import org.eclipse.scanning.api.event.scan.DeviceState;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.example.Services;
@@ -50,6 +51,7 @@ public class DarkImageDetector extends AbstractRunnableDevice<DarkImageModel> im
 	public void clean() {
 		image = null;
 		data  = null;
+		darkCount = 0; // The next scan starts a new stack, even if it is not configured again
 	}
 
 	
@@ -84,6 +86,11 @@ public class DarkImageDetector extends AbstractRunnableDevice<DarkImageModel> im
 		darkCount = 0;
 	}
 
+	@Override
+	public boolean isReconfigureSkippable() throws ScanningException {
+		return getDeviceState()==DeviceState.ARMED;
+	}
+
 	@Override
 	public void run(IPosition pos) throws ScanningException, InterruptedException {
 		
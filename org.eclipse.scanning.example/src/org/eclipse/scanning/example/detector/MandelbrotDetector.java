@@ -33,9 +33,13 @@ import org.eclipse.scanning.api.device.IWritableDetector;
 import org.eclipse.scanning.api.event.scan.DeviceState;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.rank.IChunkPlanner;
 import org.eclipse.scanning.api.scan.rank.IScanRankService;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
 import org.eclipse.scanning.example.Services;
+import org.eclipse.scanning.sequencer.analysis.FrameDelegate;
+import org.eclipse.scanning.sequencer.analysis.IFrameListenable;
+import org.eclipse.scanning.sequencer.analysis.IFrameListener;
 
 /**
  * A dummy detector which must be set up with references to two Scannables representing X and Y positions. When used in a step scan, this detector generates a
@@ -43,7 +47,7 @@ import org.eclipse.scanning.example.Services;
  * <p>
  * Note: values will always be high if used at (x, y) positions more than 2 units away from the origin.
  */
-public class MandelbrotDetector extends AbstractRunnableDevice<MandelbrotModel> implements IWritableDetector<MandelbrotModel>, INexusDevice<NXdetector> {
+public class MandelbrotDetector extends AbstractRunnableDevice<MandelbrotModel> implements IWritableDetector<MandelbrotModel>, INexusDevice<NXdetector>, IFrameListenable {
 
 	// Field names to be used in the NeXus file 
 	private static final String FIELD_NAME_VALUE = "value";
@@ -62,6 +66,9 @@ public class MandelbrotDetector extends AbstractRunnableDevice<MandelbrotModel>
 	private ILazyWriteableDataset spectrumData;
 	private ILazyWriteableDataset valueData;
 	private final Random random = new Random();
+	
+	// Frames given in memory to reduction devices
+	private final FrameDelegate frames = new FrameDelegate(this);
 
 	public MandelbrotDetector() throws IOException, ScanningException {
 		super(Services.getRunnableDeviceService()); // Necessary if you are going to spring it
@@ -135,8 +142,10 @@ public class MandelbrotDetector extends AbstractRunnableDevice<MandelbrotModel>
 		}
 
 		// Setting chunking is a very good idea if speed is required.
-		if (model.isSaveImage()) imageData.setChunking(info.createChunk(model.getRows(), model.getColumns()));
-		if (model.isSaveSpectrum())spectrumData.setChunking(info.createChunk(model.getPoints()));
+		final IChunkPlanner planner = IChunkPlanner.getChunkPlanner();
+		if (model.isSaveImage()) imageData.setChunking(planner.createChunk(info.getShape(), 8, model.getRows(), model.getColumns()));
+		if (model.isSaveSpectrum())spectrumData.setChunking(planner.createChunk(info.getShape(), 8, model.getPoints()));
+		if (model.isSaveValue()) valueData.setChunking(planner.createScalarChunk(info.getShape(), 8));
 
 		// Write detector metadata
 		detector.setField("exposure_time", model.getExposureTime());
@@ -164,6 +173,15 @@ public class MandelbrotDetector extends AbstractRunnableDevice<MandelbrotModel>
 		super.configure(model);
 	}
 
+	/**
+	 * The configure only keeps the model, which the detector uses until it is
+	 * configured again, so one which is still armed may be run again without it.
+	 */
+	@Override
+	public boolean isReconfigureSkippable() throws ScanningException {
+		return getDeviceState()==DeviceState.ARMED;
+	}
+
 	@Override
 	public void run(IPosition pos) throws ScanningException, InterruptedException {
 		setDeviceState(DeviceState.RUNNING);
@@ -228,11 +246,24 @@ public class MandelbrotDetector extends AbstractRunnableDevice<MandelbrotModel>
 			throw new ScanningException("Failed to write the data to the NeXus file", e);
 		}
 
+		// The image, or spectrum if there is no image, is the frame for any reductions.
+		frames.fireFrameWritten(pos, image!=null ? image : spectrum);
+
 		// Finished writing set state back to armed
 		setDeviceState(DeviceState.ARMED);
 		return true;
 	}
 
+	@Override
+	public void addFrameListener(IFrameListener l) {
+		frames.addFrameListener(l);
+	}
+
+	@Override
+	public void removeFrameListener(IFrameListener l) {
+		frames.removeFrameListener(l);
+	}
+
 	/**
 	 * Fill a Julia set around the origin for the value C = a + bi
 	 */
@@ -30,6 +30,7 @@ import org.eclipse.january.dataset.Random;
 import org.eclipse.january.dataset.SliceND;
 import org.eclipse.scanning.api.annotation.scan.ScanFinally;
 import org.eclipse.scanning.api.device.AbstractRunnableDevice;
+import org.eclipse.scanning.api.device.IFlushableDevice;
 import org.eclipse.scanning.api.device.IWritableDetector;
 import org.eclipse.scanning.api.event.scan.DeviceState;
 import org.eclipse.scanning.api.points.IPosition;
@@ -38,7 +39,7 @@ import org.eclipse.scanning.api.scan.rank.IScanRankService;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
 import org.eclipse.scanning.example.Services;
 
-public class PosDetector extends AbstractRunnableDevice<PosDetectorModel> implements IWritableDetector<PosDetectorModel>, INexusDevice<NXdetector> {
+public class PosDetector extends AbstractRunnableDevice<PosDetectorModel> implements IWritableDetector<PosDetectorModel>, INexusDevice<NXdetector>, IFlushableDevice {
 
 	private IDataset image;
 	private ILazyWriteableDataset data;
@@ -53,6 +54,15 @@ public class PosDetector extends AbstractRunnableDevice<PosDetectorModel> implem
 		setDeviceState(DeviceState.READY);
 	}
 	
+	/**
+	 * The file is made by the first write of each scan and closed at the end of it,
+	 * configure only keeps the model.
+	 */
+	@Override
+	public boolean isReconfigureSkippable() throws ScanningException {
+		return getDeviceState()==DeviceState.ARMED;
+	}
+	
 	@Override
 	public void run(IPosition position)
 			throws ScanningException, InterruptedException, TimeoutException, ExecutionException {
@@ -152,6 +162,17 @@ public class PosDetector extends AbstractRunnableDevice<PosDetectorModel> implem
 		return filePath;
 	}
 	
+	@Override
+	public void flush() throws ScanningException {
+		final NexusFile file = nexusFile;
+		if (file == null) return;
+		try {
+			file.flush();
+		} catch (NexusException e) {
+			throw new ScanningException(e);
+		}
+	}
+	
 	@ScanFinally
 	public void clean() {
 		image = null;
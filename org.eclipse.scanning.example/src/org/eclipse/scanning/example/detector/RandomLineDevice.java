@@ -34,6 +34,7 @@ import org.eclipse.scanning.api.device.IWritableDetector;
 import org.eclipse.scanning.api.event.scan.DeviceState;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.rank.IChunkPlanner;
 import org.eclipse.scanning.api.scan.rank.IScanRankService;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
 import org.eclipse.scanning.example.Services;
@@ -82,7 +83,7 @@ public class RandomLineDevice extends AbstractRunnableDevice<RandomLineModel> im
 		context = detector.initializeLazyDataset(NXdetector.NX_DATA, rank, Double.class);
 		
 		// Setting chunking is a very good idea if speed is required.
-		int[] chunk = info.createChunk(model.getLineSize());
+		int[] chunk = IChunkPlanner.getChunkPlanner().createChunk(info.getShape(), 8, model.getLineSize());
 		context.setChunking(chunk);
 		
 		Attributes.registerAttributes(detector, this);
@@ -97,6 +98,14 @@ public class RandomLineDevice extends AbstractRunnableDevice<RandomLineModel> im
 		setName(model.getName());
 	}
 
+	/**
+	 * The line is made again by each run, only the model is kept from configure.
+	 */
+	@Override
+	public boolean isReconfigureSkippable() throws ScanningException {
+		return getDeviceState()==DeviceState.ARMED;
+	}
+
 	@Override
 	public void run(IPosition pos) throws ScanningException, InterruptedException {
 		count(Thread.currentThread().getStackTrace());
@@ -72,9 +72,11 @@ import org.eclipse.scanning.api.malcolm.connector.IMalcolmConnectorService;
 import org.eclipse.scanning.api.malcolm.connector.MessageGenerator;
 import org.eclipse.scanning.api.malcolm.event.IMalcolmListener;
 import org.eclipse.scanning.api.malcolm.message.MalcolmMessage;
+import org.eclipse.scanning.api.points.GeneratorException;
 import org.eclipse.scanning.api.points.IPointGenerator;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.rank.IChunkPlanner;
 import org.eclipse.scanning.api.scan.rank.IScanRankService;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
 import org.eclipse.scanning.example.Services;
@@ -122,18 +124,12 @@ public class DummyMalcolmDevice extends AbstractMalcolmDevice<DummyMalcolmModel>
 				return new int[] { 1 };
 			}
 			
-			final int[] chunk = new int[getScanRank() + datashape.length];
-			Arrays.fill(chunk, 1);
+			// Only the rank and size of the scan are known here
+			final int[] scanShape = IChunkPlanner.unknownShape(getScanRank());
 			if (datashape.length > 0) {
-				int index = 0;
-				for (int i = datashape.length; i > 0; i--) {
-					chunk[chunk.length - i] = datashape[index];
-					index++;
-				}
-			} else {
-				chunk[chunk.length - 1] = 8;
+				return IChunkPlanner.getChunkPlanner().createChunk(scanShape, 8, datashape);
 			}
-			return chunk;
+			return IChunkPlanner.getChunkPlanner().createScalarChunk(scanShape, scanSize, 8);
 		}
 		
 		protected void writeData(String datasetName, IPosition position, IDataset data) throws DatasetException {
@@ -360,6 +356,8 @@ public class DummyMalcolmDevice extends AbstractMalcolmDevice<DummyMalcolmModel>
 	
 	private int scanRank;
 	
+	private int scanSize = -1;
+	
 	DeviceState deviceState;
 	
 	// the dummy devices are responsible for writing the nexus files 
@@ -489,12 +487,24 @@ public class DummyMalcolmDevice extends AbstractMalcolmDevice<DummyMalcolmModel>
 
 		// super.configure sets device state to ready
 		super.configure(model);
+		createDevices(model);
+	}
 		
+	private void createDevices(DummyMalcolmModel model) {
 		devices = model.getDummyDetectorModels().stream().collect(Collectors.toMap(
 				d -> d.getName(), d -> new DummyMalcolmControlledDetector(d)));
 		devices.put("panda", new DummyPandaDevice());
 	}
 	
+	/**
+	 * The dummy keeps its model between scans while it is armed, the devices
+	 * which write the nexus files are made again if the configure is skipped.
+	 */
+	@Override
+	public boolean isReconfigureSkippable() throws ScanningException {
+		return getDeviceState()==DeviceState.ARMED;
+	}
+	
 	@ScanFinally
 	public void scanFinally() {
 		// close all the nexus file
@@ -509,6 +519,7 @@ public class DummyMalcolmDevice extends AbstractMalcolmDevice<DummyMalcolmModel>
 		// reset device state for next scan.
 		devices = null;
 		firstRunCompleted = false;
+		stepIndex = 1;
 	}
 	
 	@Override
@@ -534,6 +545,12 @@ public class DummyMalcolmDevice extends AbstractMalcolmDevice<DummyMalcolmModel>
 			if (scanRank < 0) {
 				scanRank = 1;
 			}
+			try {
+				scanSize = pointGenerator.size();
+			} catch (GeneratorException e) {
+				logger.debug("Cannot get the size of the scan, chunks will be planned without it", e);
+				scanSize = -1;
+			}
 		}
 	}
 	
@@ -674,6 +691,7 @@ public class DummyMalcolmDevice extends AbstractMalcolmDevice<DummyMalcolmModel>
 		completedSteps.setValue(totalSteps.getValue());
 		
 		if (!firstRunCompleted) {
+			if (devices==null) createDevices(getModel()); // The configure was skipped
 			createNexusFiles();
 			firstRunCompleted = true;
 		}
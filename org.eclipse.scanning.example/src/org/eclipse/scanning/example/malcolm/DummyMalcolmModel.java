@@ -103,4 +103,39 @@ public class DummyMalcolmModel extends MalcolmModel implements ITimeoutable {
 		setPositionerNames(axesToMove);
 	}
 
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = prime * result + ((dummyDetectorModels == null) ? 0 : dummyDetectorModels.hashCode());
+		result = prime * result + ((monitorNames == null) ? 0 : monitorNames.hashCode());
+		result = prime * result + ((positionerNames == null) ? 0 : positionerNames.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		DummyMalcolmModel other = (DummyMalcolmModel) obj;
+		if (dummyDetectorModels == null) {
+			if (other.dummyDetectorModels != null)
+				return false;
+		} else if (!dummyDetectorModels.equals(other.dummyDetectorModels))
+			return false;
+		if (monitorNames == null) {
+			if (other.monitorNames != null)
+				return false;
+		} else if (!monitorNames.equals(other.monitorNames))
+			return false;
+		if (positionerNames == null) {
+			if (other.positionerNames != null)
+				return false;
+		} else if (!positionerNames.equals(other.positionerNames))
+			return false;
+		return true;
+	}
+
 }
@@ -31,6 +31,7 @@ import org.eclipse.scanning.api.IScanAttributeContainer;
 import org.eclipse.scanning.api.annotation.scan.ScanFinally;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.points.Scalar;
+import org.eclipse.scanning.api.scan.rank.IChunkPlanner;
 import org.eclipse.scanning.api.scan.rank.IScanRankService;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
 
@@ -100,8 +101,9 @@ public class MockNeXusSlit extends MockScannable implements INexusDevice<NXslit>
 			yLzValue = positioner.initializeLazyDataset(NXslit.NX_Y_GAP, info.getRank(), Double.class);
 			xLzValue.setFillValue(fill);
 			yLzValue.setFillValue(fill);
-			xLzValue.setChunking(info.createChunk(false, 8)); // Might be slow, need to check this
-			yLzValue.setChunking(info.createChunk(false, 8)); // Might be slow, need to check this
+			int[] chunk = IChunkPlanner.getChunkPlanner().createScalarChunk(info.getShape(), 8);
+			xLzValue.setChunking(chunk);
+			yLzValue.setChunking(chunk);
 			xLzValue.setWritingAsync(true);
 			yLzValue.setWritingAsync(true);
 		}
@@ -17,6 +17,7 @@ import org.eclipse.january.dataset.ILazyWriteableDataset;
 import org.eclipse.january.dataset.SliceND;
 import org.eclipse.scanning.api.IScanAttributeContainer;
 import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.scan.rank.IChunkPlanner;
 import org.eclipse.scanning.api.scan.rank.IScanRankService;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
 
@@ -42,7 +43,7 @@ public class MockStringNexusScannable extends MockStringScannable implements INe
 			}
 		} else {
 			lzValue = positioner.initializeLazyDataset(NXpositioner.NX_VALUE, info.getRank(), String.class);
-			lzValue.setChunking(info.createChunk(false, 8));
+			lzValue.setChunking(IChunkPlanner.getChunkPlanner().createScalarChunk(info.getShape(), 8));
 			lzValue.setWritingAsync(true);
 		}
 		
@@ -18,8 +18,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -192,8 +191,12 @@ public abstract class AbstractMalcolmDevice<M extends IMalcolmModel> extends Abs
     protected void subscribe(MalcolmMessage message, IMalcolmListener<MalcolmMessage> listener) throws MalcolmDeviceException {
     	connector.subscribe(this, message, listener);
     }
+    /**
+     * Unsubscribe the listener, or every listener to the message if it is null
+     */
     @SuppressWarnings("unchecked")
 	protected MalcolmMessage unsubscribe(MalcolmMessage message, IMalcolmListener<MalcolmMessage> listener) throws MalcolmDeviceException {
+    	if (listener==null) return connector.unsubscribe(this, message, (IMalcolmListener<MalcolmMessage>[])null);
     	return connector.unsubscribe(this, message, listener);
     }
     protected void subscribeToConnectionStateChange(IMalcolmListener<Boolean> listener) throws MalcolmDeviceException {
@@ -211,11 +214,51 @@ public abstract class AbstractMalcolmDevice<M extends IMalcolmModel> extends Abs
 	 * @throws InterruptedException 
 	 */
 	protected MalcolmMessage send(MalcolmMessage message, long timeout) throws MalcolmDeviceException, InterruptedException, ExecutionException, TimeoutException {
-	    return asynch(()->connector.send(this, message), timeout);
+	    return get(sendAsync(message), timeout);
 	}
 	
-	protected MalcolmMessage call(MalcolmMethod method, long timeout, DeviceState... states) throws MalcolmDeviceException, InterruptedException, ExecutionException, TimeoutException {
-	    return asynch(()->connectionDelegate.call(method, states), timeout);
+	/**
+	 * Calls the method and waits for the reply, which comes when the method has finished.
+	 * 
+	 * @param method
+	 * @param timeout in ms
+	 * @return
+	 */
+	protected MalcolmMessage call(MalcolmMethod method, long timeout) throws MalcolmDeviceException, InterruptedException, ExecutionException, TimeoutException {
+	    return get(callAsync(method, null), timeout);
+	}
+	
+	/**
+	 * Sends the message and returns without waiting for the reply. Several
+	 * messages may be outstanding at once, for instance to read attributes
+	 * or configure more than one device at the same time.
+	 * 
+	 * @param message
+	 * @return the reply, when it arrives
+	 */
+	protected Future<MalcolmMessage> sendAsync(MalcolmMessage message) {
+		return connector.sendAsync(this, message);
+	}
+	
+	protected Future<MalcolmMessage> callAsync(MalcolmMethod method, Object params) throws MalcolmDeviceException {
+		return sendAsync(createCallMessage(method, params));
+	}
+	
+	/**
+	 * Waits for a reply, cancelling the request if it times out or the
+	 * waiting thread is interrupted.
+	 * 
+	 * @param reply
+	 * @param timeout in ms
+	 * @return
+	 */
+	protected MalcolmMessage get(Future<MalcolmMessage> reply, long timeout) throws InterruptedException, ExecutionException, TimeoutException {
+		try {
+			return reply.get(timeout, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException | InterruptedException ne) {
+			reply.cancel(true);
+			throw ne;
+		}
 	}
 	
 	/**
@@ -233,13 +276,4 @@ public abstract class AbstractMalcolmDevice<M extends IMalcolmModel> extends Abs
 			throw new MalcolmDeviceException(this, other);
 		}
 	}
-	
-	private MalcolmMessage asynch(final Callable<MalcolmMessage> callable, long timeout) throws InterruptedException, ExecutionException, TimeoutException {
-		ExecutorService service = Executors.newSingleThreadExecutor();
-		try {
-		    return service.submit(callable).get(timeout, TimeUnit.MILLISECONDS);
-		} finally {
-			service.shutdownNow();
-		}
-	}
 }
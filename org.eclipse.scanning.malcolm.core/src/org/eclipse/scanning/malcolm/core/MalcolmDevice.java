@@ -18,20 +18,24 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.eclipse.scanning.api.ValidationException;
 import org.eclipse.scanning.api.annotation.scan.PointStart;
+import org.eclipse.scanning.api.annotation.scan.ScanStart;
 import org.eclipse.scanning.api.device.IRunnableDeviceService;
 import org.eclipse.scanning.api.device.models.MalcolmModel;
 import org.eclipse.scanning.api.event.core.IPublisher;
 import org.eclipse.scanning.api.event.scan.DeviceState;
 import org.eclipse.scanning.api.event.scan.ScanBean;
 import org.eclipse.scanning.api.malcolm.MalcolmDeviceException;
+import org.eclipse.scanning.api.malcolm.attributes.ChoiceAttribute;
 import org.eclipse.scanning.api.malcolm.attributes.IDeviceAttribute;
 import org.eclipse.scanning.api.malcolm.attributes.MalcolmAttribute;
 import org.eclipse.scanning.api.malcolm.attributes.NumberAttribute;
@@ -46,6 +50,7 @@ import org.eclipse.scanning.api.malcolm.message.Type;
 import org.eclipse.scanning.api.points.IMutator;
 import org.eclipse.scanning.api.points.IPointGenerator;
 import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.IRandomAccessIterator;
 import org.eclipse.scanning.api.points.models.CompoundModel;
 import org.eclipse.scanning.sequencer.SubscanModerator;
 import org.slf4j.Logger;
@@ -86,6 +91,10 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 	private final long getRunTimeout() {
 		return Long.getLong("org.eclipse.scanning.malcolm.core.runTimeout",       48*60*60*1000); // 2d
 	}
+	// Maximum age of a cached attribute, -1 to keep it while monitored, 0 not to cache
+	private final long getAttributeCacheAge() {
+		return Long.getLong("org.eclipse.scanning.malcolm.core.attributeCacheAge", -1);
+	}
 
 	// Subscriber messages
     private MalcolmMessage                      stateSubscriber;
@@ -96,14 +105,20 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 	
 	// Data should be in model?
 	private MalcolmEventBean    meb;
-	private Iterator<IPosition> scanPositionIterator;
+	
+	// Progress, published at most every POSITION_COMPLETE_FREQ whatever the rate of completedSteps
+	private final MalcolmProgressReporter progress = new MalcolmProgressReporter(POSITION_COMPLETE_FREQ, this::sendProgress);
+	// Only used if the positions cannot be looked up by step
+	private volatile Iterator<IPosition> scanPositionIterator;
+	private int                 iteratedSteps = 0;
 	
 	// Local data.
-	private long    lastBroadcastTime = System.currentTimeMillis();
-	private int     lastUpdateCount = 0;
 	private boolean succesfullyInitialised = false;	
 	private boolean subscribedToStateChange = false;
 	
+	// Attributes kept current by monitors, see getAttribute(String, boolean)
+	private final Map<String, CachedAttribute> attributeCache = new ConcurrentHashMap<>();
+	private final AtomicInteger                attributeGeneration = new AtomicInteger();
 
 	public MalcolmDevice() throws MalcolmDeviceException {
 		super(Services.getConnectorService(), Services.getRunnableDeviceService());
@@ -195,59 +210,73 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
     @PointStart
     public void scanPoint(SubscanModerator moderator) {
     	Iterable<IPosition> scanPositions = moderator.getInnerIterable();
-        scanPositionIterator = scanPositions.iterator();
+    	final Iterator<IPosition> it = scanPositions.iterator();
+    	if (it instanceof IRandomAccessIterator) {
+    		// completedSteps of n means that step n-1 is done
+    		scanPositionIterator = null;
+    		progress.setPositions(step -> step>0 ? ((IRandomAccessIterator)it).getPoint(step-1) : null);
+    	} else {
+    		scanPositionIterator = it;
+    		progress.setPositions(this::iterateTo);
+    	}
     }
 
+	/**
+	 * Called for each completedSteps update. The step is only recorded here,
+	 * it is published by the progress reporter so that a fast scan does
+	 * not wait for its own progress to be reported.
+	 */
 	protected void sendScanEvent(MalcolmEvent<MalcolmMessage> e) throws Exception {
 		
 		MalcolmMessage msg      = e.getBean();
 		DeviceState newState = MalcolmUtil.getState(msg, false);
-
-		ScanBean bean = getBean();
-		bean.setDeviceName(getName());
-		bean.setPreviousDeviceState(bean.getDeviceState());
 		if (newState!=null) {
+			ScanBean bean = getBean();
+			bean.setDeviceName(getName());
+			bean.setPreviousDeviceState(bean.getDeviceState());
 			bean.setDeviceState(newState);
+			if (publisher!=null) publisher.broadcast(bean);
 		}
 		
-        Integer point = bean.getPoint();
-        boolean newPoint = false;		
 		Object value = msg.getValue();
 		if (value instanceof Map) {
-			point = (Integer)((Map<?,?>)value).get("value");
-			bean.setPoint(point);
-            newPoint = true;
+			progress.update((Integer)((Map<?,?>)value).get("value"));
 		} else if (value instanceof NumberAttribute) {
-			point = (Integer)((NumberAttribute)value).getValue();
-			bean.setPoint(point);
-            newPoint = true;
+			progress.update((Integer)((NumberAttribute)value).getValue());
 		}
+	}
+	
+	/**
+	 * Publishes the latest step, called by the progress reporter.
+	 */
+	private void sendProgress(int step, IPosition position) throws Exception {
+
+		ScanBean bean = getBean();
+		bean.setDeviceName(getName());
+		bean.setPreviousDeviceState(bean.getDeviceState());
+		bean.setPoint(step);
 		
-		// Fire a position complete only if it's past the timeout value
-		if (newPoint && scanPositionIterator != null) {
-			long currentTime = System.currentTimeMillis();
-			
-			int positionDiff = point - lastUpdateCount;
-			
-			IPosition scanPosition = null;
-			for (int i = 0; i < positionDiff; i++) {
-				if (scanPositionIterator.hasNext()) {
-					scanPosition = scanPositionIterator.next();
-				}
-			}
-			
-			lastUpdateCount = point;
-			
-			if (scanPosition != null && currentTime - lastBroadcastTime >= POSITION_COMPLETE_FREQ) {
-				scanPosition.setStepIndex(point);
-            	firePositionComplete(scanPosition);
-            	
-	            lastBroadcastTime = System.currentTimeMillis();
-			}
+		if (position!=null) {
+			position.setStepIndex(step);
+			firePositionComplete(position);
 		}
 		
 		if (publisher!=null) publisher.broadcast(bean);
 	}
+	
+	/**
+	 * Finds the position of a step by iterating, for generators which cannot look it up.
+	 */
+	private IPosition iterateTo(int step) {
+		IPosition position = null;
+		for (; iteratedSteps < step; iteratedSteps++) {
+			if (scanPositionIterator!=null && scanPositionIterator.hasNext()) {
+				position = scanPositionIterator.next();
+			}
+		}
+		iteratedSteps = step;
+		return position;
+	}
 
 	protected void sendScanStateChange(MalcolmEvent<MalcolmMessage> e) throws Exception {
 		
@@ -303,6 +332,7 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 			    });
 			} else {
 				logger.warn("Malcolm Device '" + getName() + "' connection state changed to not connected");
+				clearAttributeCache();
 			}
 		} catch (Exception ne) {
 			logger.error("Problem dispatching message!", ne);
@@ -312,12 +342,22 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 	@Override
 	public DeviceState getDeviceState() throws MalcolmDeviceException {
 		try {
+			final IDeviceAttribute<?> cached = getCachedAttribute(STATE_ENDPOINT);
+			if (cached instanceof ChoiceAttribute) {
+				return DeviceState.valueOf(((ChoiceAttribute)cached).getValue().toUpperCase());
+			}
+			
+			final int generation = attributeGeneration.get();
 			final MalcolmMessage message = createGetMessage(STATE_ENDPOINT);
 			final MalcolmMessage reply   = send(message, getTimeout());
 			if (reply.getType()==Type.ERROR) {
 				throw new MalcolmDeviceException("Error from Malcolm Device Connection: " + reply.getMessage());
 			}
-			return MalcolmUtil.getState(reply);
+			final DeviceState state = MalcolmUtil.getState(reply);
+			if (reply.getValue() instanceof ChoiceAttribute) {
+				cacheAttribute(STATE_ENDPOINT, (ChoiceAttribute)reply.getValue(), generation);
+			}
+			return state;
 			
 		} catch (MalcolmDeviceException mne) {
 			throw mne;
@@ -399,12 +439,33 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 		resetProgressCounting();
 	}
 	
+	/**
+	 * The progress is counted again for each scan, including
+	 * one which skipped configure because the model was the same.
+	 */
+	@ScanStart
+	public void scanStart() {
+		resetProgressCounting();
+	}
+	
+	/**
+	 * Malcolm which is still armed with the same model and point generator does
+	 * not need to be configured again. Once a run has completed or it has been
+	 * reset malcolm is no longer armed and is configured again.
+	 */
+	@Override
+	public boolean isReconfigureSkippable() throws MalcolmDeviceException {
+		return getDeviceState()==DeviceState.ARMED;
+	}
+	
 	/**
 	 * Reset any variables used in counting progress
 	 */
 	private void resetProgressCounting() {
+		progress.setPositions(null);
+		progress.reset();
 		scanPositionIterator = null;
-		lastUpdateCount = 0;
+		iteratedSteps = 0;
 	}
 
 	private EpicsMalcolmModel createEpicsMalcolmModel(M model) {
@@ -425,10 +486,11 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 	
 	@Override
 	public void run(IPosition pos) throws MalcolmDeviceException, InterruptedException, ExecutionException, TimeoutException {
-		MalcolmMessage reply = call(MalcolmMethod.RUN, getRunTimeout(), DeviceState.RUNNING);
+		MalcolmMessage reply = call(MalcolmMethod.RUN, getRunTimeout());
 		if (reply.getType()==Type.ERROR) {
 			throw new MalcolmDeviceException("Error from Malcolm Device Connection: " + reply.getMessage());
 		}
+		progress.flush(); // The scan is told about the last step before run returns
 	}
 	
 	@Override
@@ -484,6 +546,7 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 
 	@Override
 	public void dispose() throws MalcolmDeviceException {
+		clearAttributeCache();
 		unsubscribe(stateSubscriber);
 		unsubscribe(scanSubscriber);
 
@@ -494,7 +557,7 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 		if (subscriber!=null) {
 			final MalcolmMessage unsubscribeStatus = createUnsubscribeMessage();
 			unsubscribeStatus.setId(subscriber.getId());
-			unsubscribe(subscriber);
+			unsubscribe(unsubscribeStatus, null);
 			logger.debug("Unsubscription "+getName()+" made "+unsubscribeStatus);
 		}
 	}
@@ -567,6 +630,33 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 	}
 	
 	public <T> IDeviceAttribute<T> getAttribute(String attributeName) throws MalcolmDeviceException {
+		return getAttribute(attributeName, false);
+	}
+	
+	/**
+	 * Gets an attribute of the device. The first read of an attribute is a GET
+	 * to the device, after which the attribute is monitored and later reads are
+	 * answered from the cache. A cached attribute is only returned if:
+	 * <ol>
+	 * <li>the device is alive, the cache is cleared when the connection is lost,</li>
+	 * <li>no method (configure, run, reset etc.) has been called on the device
+	 *     since it was last read with a GET, a read after a call always goes to the device,</li>
+	 * <li>it is younger than org.eclipse.scanning.malcolm.core.attributeCacheAge ms, if that is set.</li>
+	 * </ol>
+	 * Between those points the value is as current as the monitor on it.
+	 * 
+	 * @param attributeName
+	 * @param forceRead true to always GET the attribute from the device
+	 * @return the attribute
+	 * @throws MalcolmDeviceException
+	 */
+	public <T> IDeviceAttribute<T> getAttribute(String attributeName, boolean forceRead) throws MalcolmDeviceException {
+		if (!forceRead) {
+			final IDeviceAttribute<T> cached = getCachedAttribute(attributeName);
+			if (cached!=null) return cached;
+		}
+		
+		final int generation = attributeGeneration.get();
 		final MalcolmMessage message = createGetMessage(attributeName);
 		final MalcolmMessage reply   = wrap(()->send(message, getTimeout()));
 		if (reply.getType()==Type.ERROR) {
@@ -580,6 +670,7 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 		
 		@SuppressWarnings("unchecked")
 		IDeviceAttribute<T> attribute = (IDeviceAttribute<T>) result;
+		cacheAttribute(attributeName, attribute, generation);
 		return attribute;
 	}
 	
@@ -602,10 +693,126 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 	 * Gets the value of an attribute on the device
 	 */
 	public <T> T getAttributeValue(String attributeName) throws MalcolmDeviceException {
-		IDeviceAttribute<T> attribute = getAttribute(attributeName);
+		return getAttributeValue(attributeName, false);
+	}
+	
+	/**
+	 * Gets the value of an attribute on the device
+	 * @param attributeName
+	 * @param forceRead true to always GET the attribute from the device
+	 * @see #getAttribute(String, boolean)
+	 */
+	public <T> T getAttributeValue(String attributeName, boolean forceRead) throws MalcolmDeviceException {
+		IDeviceAttribute<T> attribute = getAttribute(attributeName, forceRead);
 		return attribute.getValue();
 	}
 	
+	@Override
+	protected MalcolmMessage send(MalcolmMessage message, long timeout) throws MalcolmDeviceException, InterruptedException, ExecutionException, TimeoutException {
+		try {
+			return super.send(message, timeout);
+		} finally {
+			if (message.getType()==Type.CALL) invalidateAttributes();
+		}
+	}
+	
+	@Override
+	protected MalcolmMessage call(MalcolmMethod method, long timeout) throws MalcolmDeviceException, InterruptedException, ExecutionException, TimeoutException {
+		try {
+			return super.call(method, timeout);
+		} finally {
+			invalidateAttributes();
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private <T> IDeviceAttribute<T> getCachedAttribute(String attributeName) {
+		if (!isAlive()) return null;
+		final CachedAttribute entry = attributeCache.get(attributeName);
+		if (entry==null || !entry.valid) return null;
+		final long age = getAttributeCacheAge();
+		if (age>0 && System.currentTimeMillis()-entry.time > age) return null;
+		return (IDeviceAttribute<T>)entry.attribute;
+	}
+	
+	/**
+	 * Caches an attribute read with a GET and starts monitoring it if it is not
+	 * already. The entry is only valid if no method was called on the device
+	 * while the GET was in flight.
+	 */
+	private void cacheAttribute(String attributeName, IDeviceAttribute<?> attribute, int generation) {
+		if (getAttributeCacheAge()==0 || !isAlive()) return;
+		
+		CachedAttribute entry = attributeCache.get(attributeName);
+		if (entry!=null) {
+			entry.update(attribute, generation==attributeGeneration.get());
+			return;
+		}
+		try {
+			entry = new CachedAttribute(createSubscribeMessage(attributeName), attribute);
+			if (attributeCache.putIfAbsent(attributeName, entry)!=null) return;
+			subscribe(entry.subscriber, entry);
+			entry.valid = generation==attributeGeneration.get();
+		} catch (MalcolmDeviceException ne) {
+			logger.debug("Cannot monitor attribute '"+attributeName+"' of '"+getName()+"', it will not be cached", ne);
+			attributeCache.remove(attributeName, entry);
+		}
+	}
+	
+	/**
+	 * Marks every cached attribute as needing a GET. The monitors are kept.
+	 */
+	private void invalidateAttributes() {
+		attributeGeneration.incrementAndGet();
+		for (CachedAttribute entry : attributeCache.values()) entry.valid = false;
+	}
+	
+	private void clearAttributeCache() {
+		invalidateAttributes();
+		for (Iterator<CachedAttribute> it = attributeCache.values().iterator(); it.hasNext();) {
+			final CachedAttribute entry = it.next();
+			it.remove();
+			try {
+				unsubscribe(entry.subscriber, entry);
+			} catch (Exception ne) {
+				logger.debug("Cannot unsubscribe from attribute of '"+getName()+"'", ne);
+			}
+		}
+	}
+	
+	/**
+	 * An attribute read from the device and kept up to date by a monitor.
+	 */
+	private static final class CachedAttribute implements IMalcolmListener<MalcolmMessage> {
+		
+		private final MalcolmMessage         subscriber;
+		private volatile IDeviceAttribute<?> attribute;
+		private volatile long                time;
+		private volatile boolean             valid;
+		
+		CachedAttribute(MalcolmMessage subscriber, IDeviceAttribute<?> attribute) {
+			this.subscriber = subscriber;
+			this.attribute  = attribute;
+			this.time       = System.currentTimeMillis();
+		}
+		
+		void update(IDeviceAttribute<?> attribute, boolean valid) {
+			this.attribute = attribute;
+			this.time      = System.currentTimeMillis();
+			this.valid     = valid;
+		}
+
+		@Override
+		public void eventPerformed(MalcolmEvent<MalcolmMessage> e) {
+			final Object value = e.getBean().getValue();
+			if (value instanceof MalcolmAttribute) {
+				// A monitor keeps the value current but does not make it valid again after a call
+				attribute = (IDeviceAttribute<?>)value;
+				time      = System.currentTimeMillis();
+			}
+		}
+	}
+	
 	public static final class EpicsMalcolmModel {
 		private final IPointGenerator<?> generator;
 		private final List<String> axesToMove;
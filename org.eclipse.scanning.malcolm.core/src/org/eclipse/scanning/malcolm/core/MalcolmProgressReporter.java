@@ -0,0 +1,142 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.malcolm.core;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.scanning.api.points.IPosition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 
+ * Reports the progress of a malcolm scan from its completedSteps.
+ * 
+ * An update only records the latest step, so the thread delivering updates
+ * from the device is never held up however fast the hardware goes. The progress
+ * is published on a separate thread at most once every period, for the latest
+ * step only. Steps in between are never looked up or published.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class MalcolmProgressReporter {
+	
+	private static final Logger logger = LoggerFactory.getLogger(MalcolmProgressReporter.class);
+
+	/**
+	 * Looks up the position for a step, may return null if there is none.
+	 */
+	@FunctionalInterface
+	public interface PositionLookup {
+		IPosition getPosition(int step) throws Exception;
+	}
+	
+	/**
+	 * Told about the latest step, the position may be null.
+	 */
+	@FunctionalInterface
+	public interface ProgressListener {
+		void progress(int step, IPosition position) throws Exception;
+	}
+	
+	private static final ScheduledExecutorService publisher = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "Malcolm progress");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
+	private final long             period;
+	private final ProgressListener listener;
+	private volatile PositionLookup positions;
+	
+	private final AtomicInteger latestStep = new AtomicInteger();
+	private final AtomicBoolean scheduled  = new AtomicBoolean();
+	private int                 publishedStep;
+	private volatile long       lastPublishTime;
+	
+	/**
+	 * 
+	 * @param period minimum time between publishing progress in ms
+	 * @param listener
+	 */
+	public MalcolmProgressReporter(long period, ProgressListener listener) {
+		this.period   = period;
+		this.listener = listener;
+	}
+	
+	/**
+	 * Set how positions are found for steps, null if there are none.
+	 * @param positions
+	 */
+	public void setPositions(PositionLookup positions) {
+		this.positions = positions;
+	}
+
+	/**
+	 * Record the latest step, called by the thread delivering updates from the device.
+	 * This does not look up the position or publish anything.
+	 * @param step
+	 */
+	public void update(int step) {
+		latestStep.set(step);
+		if (scheduled.compareAndSet(false, true)) {
+			long delay = Math.max(0, lastPublishTime + period - System.currentTimeMillis());
+			publisher.schedule(this::publish, delay, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	/**
+	 * Publish the latest step now, on the calling thread, if it has not been
+	 * already. Used at the end of a run so that the last step is not left
+	 * waiting for the period after the run has returned.
+	 */
+	public void flush() {
+		publish();
+	}
+	
+	/**
+	 * Start counting from step 0 again, for instance on configure.
+	 */
+	public synchronized void reset() {
+		latestStep.set(0);
+		publishedStep = 0;
+	}
+	
+	/**
+	 * 
+	 * @return the last step which was published.
+	 */
+	public synchronized int getPublishedStep() {
+		return publishedStep;
+	}
+	
+	private synchronized void publish() {
+		// Clear before reading the step so that a later update schedules another publish
+		scheduled.set(false);
+		final int step = latestStep.get();
+		if (step==publishedStep) return;
+		publishedStep   = step;
+		lastPublishTime = System.currentTimeMillis();
+		try {
+			final PositionLookup lookup = positions;
+			final IPosition position = lookup!=null ? lookup.getPosition(step) : null;
+			listener.progress(step, position);
+		} catch (Exception ne) {
+			logger.error("Cannot publish progress of step "+step, ne);
+		}
+	}
+}
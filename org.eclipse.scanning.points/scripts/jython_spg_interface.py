@@ -289,42 +289,51 @@ class JCompoundGenerator(JavaIteratorWrapper):
     def _iterator(self):
         
         for point in self.generator.iterator():
+            yield self._to_java(point)
             
-            if len(point.positions.keys()) == 1:
-                name = point.positions.keys()[0]
-                index = point.indexes[0]
-                position = point.positions[name]
-                java_point = Scalar(name, index, position)
+    def getPoint(self, n):
+        """
+        The point at step n, computed directly rather than by iterating
+        """
+        return self._to_java(self.generator.get_point(n))
                 
-            elif len(point.positions.keys()) == 2:
-                logging.debug([point.indexes, point.positions])
+    def _to_java(self, point):
                 
-                names = []
-                indexes = []
-                values = []
-                for axis in self.axes_ordering:
-                    index = self.index_locations[axis]
-                    indexes.append(point.indexes[index])
-                    logging.debug([axis, index])
-                    values.append(point.positions[axis])
-                    names.append(axis)
+        if len(point.positions.keys()) == 1:
+            name = point.positions.keys()[0]
+            index = point.indexes[0]
+            position = point.positions[name]
+            java_point = Scalar(name, index, position)
                     
-                java_point = Point(names[1], indexes[1], values[1], 
-                                   names[0], indexes[0], values[0])
-                java_point.setDimensionNames(self.dimension_names)
-            else:
-                java_point = MapPosition()
+        elif len(point.positions.keys()) == 2:
+            logging.debug([point.indexes, point.positions])
                 
-                for axis in self.axes_ordering:
-                    index = self.index_locations[axis]
-                    logging.debug([axis, index])
-                    value = point.positions[axis]
-                    java_point.put(axis, value)
-                    java_point.putIndex(axis, point.indexes[index])
+            names = []
+            indexes = []
+            values = []
+            for axis in self.axes_ordering:
+                index = self.index_locations[axis]
+                indexes.append(point.indexes[index])
+                logging.debug([axis, index])
+                values.append(point.positions[axis])
+                names.append(axis)
                 
-                java_point.setDimensionNames(self.dimension_names)
+            java_point = Point(names[1], indexes[1], values[1], 
+                               names[0], indexes[0], values[0])
+            java_point.setDimensionNames(self.dimension_names)
+        else:
+            java_point = MapPosition()
                 
-            yield java_point
+            for axis in self.axes_ordering:
+                index = self.index_locations[axis]
+                logging.debug([axis, index])
+                value = point.positions[axis]
+                java_point.put(axis, value)
+                java_point.putIndex(axis, point.indexes[index])
+            
+            java_point.setDimensionNames(self.dimension_names)
+            
+        return java_point
 
 
 class JRandomOffsetMutator(object):
@@ -61,6 +61,28 @@ public class JythonInterpreterManager {
 	   	configuredState = state;
 	}
 	
+	/**
+	 * Create a system state which is isolated from the global one, it has
+	 * its own modules and path, but the same class loader and a copy of
+	 * the configured path. Used for interpreters which should not share
+	 * or serialise on the global state, for instance in a pool.
+	 *
+	 * Directories added with addPath(...) after this call are not on the
+	 * path of the state returned.
+	 *
+	 * @param bundleNames
+	 * @return new system state
+	 */
+	public static synchronized PySystemState createSystemState(String... bundleNames) {
+		setupSystemState(bundleNames);
+		PySystemState state = new PySystemState();
+		state.setClassLoader(configuredState.getClassLoader());
+		for (Object dir : configuredState.path) {
+			if (!state.path.contains(dir)) state.path.add(dir);
+		}
+		return state;
+	}
+	
 	public static synchronized void addPath(String directory) throws IOException {
 		
 		// Load one of the standard functions if the state has not been created yet.
@@ -0,0 +1,286 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.jython;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.python.core.CompileMode;
+import org.python.core.CompilerFlags;
+import org.python.core.Py;
+import org.python.core.PyCode;
+import org.python.core.PyObject;
+import org.python.core.PyString;
+import org.python.core.PyStringMap;
+import org.python.core.PySystemState;
+import org.python.util.PythonInterpreter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 
+ * A bounded pool of interpreters, each with its own system state so that
+ * devices and scripts running at the same time do not serialise on the
+ * global PySystemState. Interpreters are created ahead of use and keep
+ * the modules they have imported, so a module is only loaded once per 
+ * interpreter. The local namespace of an interpreter is reset when it is
+ * returned to the pool.
+ * 
+ * Scripts which are run repeatedly should be run with {@link Lease#exec(String)}
+ * which compiles them once, the compiled code is shared by all interpreters.
+ * Classes made by {@link Lease#createObject(Class, String, String)} are
+ * imported once by each interpreter.
+ * 
+ * Usage:
+ * <pre>
+ * try (JythonInterpreterPool.Lease lease = JythonInterpreterPool.getDefault().borrow(10, TimeUnit.SECONDS)) {
+ *     lease.exec("x = 1+1");
+ * }
+ * </pre>
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class JythonInterpreterPool {
+
+	private static final Logger logger = LoggerFactory.getLogger(JythonInterpreterPool.class);
+	
+	private static final int CODE_CACHE_SIZE = 256;
+	
+	private static JythonInterpreterPool defaultPool;
+
+	private final int                               maxSize;
+	private final String[]                          bundleNames;
+	private final BlockingQueue<PythonInterpreter>  idle;
+	private final AtomicInteger                     size;
+	private final Map<String, PyCode>               code;
+	private final Map<PythonInterpreter, Map<String, PyObject>> classes;
+	
+	/**
+	 * 
+	 * @param maxSize the maximum number of interpreters which may be in use at once.
+	 * @param warm the number of interpreters to create now, before they are needed.
+	 * @param bundleNames bundles whose scripts directory should be on the path.
+	 */
+	public JythonInterpreterPool(int maxSize, int warm, String... bundleNames) {
+		if (maxSize<1) throw new IllegalArgumentException("The pool must have at least one interpreter!");
+		this.maxSize     = maxSize;
+		this.bundleNames = bundleNames;
+		this.idle        = new LinkedBlockingQueue<>(maxSize);
+		this.size        = new AtomicInteger();
+		this.code        = Collections.synchronizedMap(new LinkedHashMap<String, PyCode>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, PyCode> eldest) {
+				return size()>CODE_CACHE_SIZE;
+			}
+		});
+		this.classes     = Collections.synchronizedMap(new HashMap<>());
+		for (int i = 0; i < Math.min(warm, maxSize); i++) {
+			idle.add(create());
+			size.incrementAndGet();
+		}
+	}
+	
+	/**
+	 * The pool used by scanning devices. Its size may be set with the
+	 * system property org.eclipse.scanning.jython.poolSize, default 4.
+	 * @return the shared pool
+	 */
+	public static synchronized JythonInterpreterPool getDefault() {
+		if (defaultPool==null) {
+			int max = Integer.getInteger("org.eclipse.scanning.jython.poolSize", 4);
+			defaultPool = new JythonInterpreterPool(max, 1, "org.eclipse.scanning.sequencer");
+		}
+		return defaultPool;
+	}
+	
+	/**
+	 * Take an interpreter from the pool, creating one if the pool is not yet
+	 * at its maximum size. Blocks if all the interpreters are in use.
+	 * 
+	 * The interpreter's system state is made the state of this thread until
+	 * the lease is closed, so objects created in the interpreter may be called
+	 * directly from Java.
+	 * 
+	 * @param timeout
+	 * @param unit
+	 * @return a lease which must be closed to give the interpreter back
+	 * @throws InterruptedException
+	 * @throws TimeoutException if no interpreter became free in the time
+	 */
+	public Lease borrow(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+		
+		PythonInterpreter interpreter = idle.poll();
+		if (interpreter==null) {
+			if (reserve()) {
+				try {
+					interpreter = create();
+				} catch (RuntimeException | Error ne) {
+					size.decrementAndGet(); // Another may be made next time
+					throw ne;
+				}
+			} else {
+				interpreter = idle.poll(timeout, unit);
+				if (interpreter==null) throw new TimeoutException("No interpreter was free in "+timeout+" "+unit.toString().toLowerCase()+". All "+maxSize+" are in use.");
+			}
+		}
+		return new Lease(interpreter);
+	}
+	
+	/**
+	 * Count an interpreter which is about to be created, if the pool is not full.
+	 * @return true if an interpreter may be created
+	 */
+	private boolean reserve() {
+		int current;
+		do {
+			current = size.get();
+			if (current>=maxSize) return false;
+		} while(!size.compareAndSet(current, current+1));
+		return true;
+	}
+	
+	/**
+	 * Compile a script or return the code compiled before.
+	 * @param script
+	 * @return the compiled code
+	 */
+	public PyCode compile(String script) {
+		PyCode compiled = code.get(script);
+		if (compiled==null) {
+			compiled = Py.compile_flags(script, "<script>", CompileMode.exec, new CompilerFlags());
+			code.put(script, compiled);
+		}
+		return compiled;
+	}
+	
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return the number of interpreters created, idle or in use.
+	 */
+	public int getSize() {
+		return size.get();
+	}
+	
+	/**
+	 * @return the number of interpreters waiting to be used.
+	 */
+	public int getIdle() {
+		return idle.size();
+	}
+
+	protected PythonInterpreter create() {
+		PySystemState     state       = JythonInterpreterManager.createSystemState(bundleNames);
+		PythonInterpreter interpreter = new PythonInterpreter(null, state);
+		reset(interpreter);
+		return interpreter;
+	}
+
+	private void release(PythonInterpreter interpreter) {
+		try {
+			reset(interpreter);
+		} catch (Exception ne) {
+			// The interpreter cannot be reused, we will make another when needed.
+			logger.warn("Cannot reset interpreter, it will be discarded.", ne);
+			classes.remove(interpreter);
+			size.decrementAndGet();
+			return;
+		}
+		idle.offer(interpreter);
+	}
+
+	/**
+	 * Clears the local namespace, the modules imported are kept.
+	 */
+	private static void reset(PythonInterpreter interpreter) {
+		PyStringMap locals = new PyStringMap();
+		locals.__setitem__("__name__", new PyString("__main__"));
+		locals.__setitem__("__doc__", Py.None);
+		interpreter.setLocals(locals);
+	}
+	
+	/**
+	 * An interpreter borrowed from the pool, close it to give the interpreter back.
+	 */
+	public class Lease implements AutoCloseable {
+		
+		private final PythonInterpreter interpreter;
+		private final PySystemState     previous;
+		private boolean                 closed;
+		
+		private Lease(PythonInterpreter interpreter) {
+			this.interpreter = interpreter;
+			this.previous    = Py.setSystemState(interpreter.getSystemState());
+		}
+		
+		public PythonInterpreter getInterpreter() {
+			return interpreter;
+		}
+		
+		/**
+		 * Run a script, compiling it once for all interpreters in the pool.
+		 * @param script
+		 */
+		public void exec(String script) {
+			interpreter.exec(compile(script));
+		}
+		
+		public PyObject get(String name) {
+			return interpreter.get(name);
+		}
+		
+		public void set(String name, Object value) {
+			interpreter.set(name, value);
+		}
+		
+		/**
+		 * Create a new instance of a Jython class implementing a Java interface.
+		 * The module is imported once by each interpreter.
+		 * 
+		 * @param javaClass
+		 * @param moduleName
+		 * @param className
+		 * @return the object
+		 */
+		@SuppressWarnings("unchecked")
+		public <T> T createObject(Class<T> javaClass, String moduleName, String className) {
+			final Map<String, PyObject> imported = classes.computeIfAbsent(interpreter, i -> new HashMap<>());
+			final String key = moduleName+"."+className;
+			PyObject pyClass = imported.get(key); // Only this thread uses the interpreter until the lease is closed.
+			if (pyClass==null) {
+				exec("from "+moduleName+" import "+className);
+				pyClass = interpreter.get(className);
+				imported.put(key, pyClass);
+			}
+			return (T)pyClass.__call__().__tojava__(javaClass);
+		}
+
+		@Override
+		public void close() {
+			if (closed) return;
+			closed = true;
+			Py.setSystemState(previous);
+			release(interpreter);
+		}
+	}
+}
@@ -25,11 +25,14 @@ import org.eclipse.scanning.api.points.IDeviceDependentIterable;
 import org.eclipse.scanning.api.points.IMutator;
 import org.eclipse.scanning.api.points.IPointGenerator;
 import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.IRandomAccessIterator;
 import org.eclipse.scanning.api.points.MapPosition;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.ScanRegion;
 import org.eclipse.scanning.jython.JythonObjectFactory;
+import org.python.core.Py;
 import org.python.core.PyDictionary;
+import org.python.core.PyException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,7 +44,7 @@ import org.slf4j.LoggerFactory;
  * @author Matthew Gerring
  *
  */
-public class CompoundSpgIterator extends AbstractScanPointIterator {
+public class CompoundSpgIterator extends AbstractScanPointIterator implements IRandomAccessIterator {
 
 	private static Logger logger = LoggerFactory.getLogger(CompoundSpgIterator.class);
 	
@@ -117,6 +120,21 @@ public class CompoundSpgIterator extends AbstractScanPointIterator {
 		return point;
 	}
 	
+	/**
+	 * The point at a step, scanpointgenerator computes it from the step
+	 * number so this does not iterate and does not move the iterator.
+	 */
+	@Override
+	public IPosition getPoint(int step) throws GeneratorException {
+		try {
+			IPosition point = (IPosition)Py.java2py(pyIterator).invoke("getPoint", Py.newInteger(step)).__tojava__(IPosition.class);
+			point.setStepIndex(step);
+			return point;
+		} catch (PyException ne) {
+			throw new GeneratorException("Cannot get point "+step+" of "+gen, ne);
+		}
+	}
+	
 	public IPosition getNext() {
 		
 		for (int i = iterators.length-1; i > -1; i--) {
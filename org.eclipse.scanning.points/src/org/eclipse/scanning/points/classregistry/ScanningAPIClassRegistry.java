@@ -17,8 +17,11 @@ import java.util.Map;
 import org.eclipse.dawnsci.analysis.api.persistence.IClassRegistry;
 import org.eclipse.scanning.api.MonitorRole;
 import org.eclipse.scanning.api.device.models.ClusterProcessingModel;
+import org.eclipse.scanning.api.device.models.HistogramReductionModel;
 import org.eclipse.scanning.api.device.models.MalcolmModel;
+import org.eclipse.scanning.api.device.models.PooledProcessingModel;
 import org.eclipse.scanning.api.device.models.ProcessingModel;
+import org.eclipse.scanning.api.device.models.ReductionModel;
 import org.eclipse.scanning.api.event.alive.HeartbeatBean;
 import org.eclipse.scanning.api.event.alive.KillBean;
 import org.eclipse.scanning.api.event.alive.PauseBean;
@@ -190,6 +193,9 @@ public class ScanningAPIClassRegistry implements IClassRegistry {
 		// device.models
 		registerClass(tmp, ProcessingModel.class);
 		registerClass(tmp, ClusterProcessingModel.class);
+		registerClass(tmp, PooledProcessingModel.class);
+		registerClass(tmp, ReductionModel.class);
+		registerClass(tmp, HistogramReductionModel.class);
 
 		// script
 		registerClass(tmp, ScriptLanguage.class);
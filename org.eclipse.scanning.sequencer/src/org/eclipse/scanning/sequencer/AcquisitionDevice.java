@@ -63,6 +63,7 @@ import org.eclipse.scanning.api.scan.event.IPositionListener;
 import org.eclipse.scanning.api.scan.event.IPositioner;
 import org.eclipse.scanning.api.scan.models.ScanModel;
 import org.eclipse.scanning.sequencer.nexus.INexusScanFileManager;
+import org.eclipse.scanning.sequencer.nexus.NexusFlushScheduler;
 import org.eclipse.scanning.sequencer.nexus.NexusScanFileManagerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -88,6 +89,7 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 	
 	// the nexus file
 	private INexusScanFileManager nexusScanFileManager = null;
+	private NexusFlushScheduler   flushScheduler;
 	
 	private static Logger logger = LoggerFactory.getLogger(AcquisitionDevice.class);
 	
@@ -178,6 +180,7 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 		nexusScanFileManager = NexusScanFileManagerFactory.createNexusScanFileManager(this);
 		nexusScanFileManager.configure(model);
 		nexusScanFileManager.createNexusFile(Boolean.getBoolean("org.eclipse.scanning.sequencer.nexus.async"));
+		flushScheduler = new NexusFlushScheduler(nexusScanFileManager, model.getDetectors());
 		
 		// create the runners and writers
 		if (model.getDetectors()!=null) {
@@ -313,6 +316,9 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
     		// Add the malcolm listners so that progress on inner malcolm scans can be reported
     		addMalcolmListeners();
 
+    		// Flush the file on a timer and when enough has been written, not every point
+    		flushScheduler.start();
+
     		// The scan loop
         	pos = null; // We want the last point when we are done so don't use foreach
         	boolean firedFirst = false;
@@ -338,7 +344,10 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 	        	exposureManager.setExposureTime(pos); // most of the time this does nothing.
 	        	
 	        	IPosition written = writers.await();  // Wait for the previous write out to return, if any
-	       		if (written!=null) annotationManager.invoke(WriteComplete.class, written);
+	       		if (written!=null) {
+	       			annotationManager.invoke(WriteComplete.class, written);
+	       			flushScheduler.written(written);
+	       		}
 	        	
  	        	runners.run(pos);                     // GDA8: collectData() / GDA9: run() for Malcolm
 	        	writers.run(pos, false);              // Do not block on the readout, move to the next position immediately.
@@ -431,9 +440,13 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 				} catch (Exception ex) {
 					logger.warn("Error during removing Malcolm listeners", ex);
 				}
-				positioner.close();
-				runners.close();
-				writers.close();
+				try {
+					positioner.close();
+					runners.close();
+					writers.close();
+				} finally {
+					flushScheduler.stop();           // must not flush once the file is closed
+				}
 				
 				nexusScanFileManager.scanFinished(); // writes scanFinished and closes nexus file
 	        	
@@ -18,8 +18,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.CoreException;
@@ -91,6 +93,19 @@ public final class RunnableDeviceServiceImpl implements IRunnableDeviceService,
 	// It should not be accessed from elsewhere.
 	private static IRunnableDevice<?> currentScanningDevice;
 
+	/**
+	 * When true devices which say that their configure may be skipped are not
+	 * configured again with an unchanged model. Off unless the property is set
+	 * or spring switches it on.
+	 */
+	private static volatile boolean configureCache = Boolean.getBoolean("org.eclipse.scanning.sequencer.configureCache");
+	
+	/**
+	 * Map of device to the configuration last applied to it by configure(...)
+	 * The devices are compared by identity, two devices may have equal models.
+	 */
+	private static final Map<IRunnableDevice<?>, AppliedConfiguration> configurations;
+
 	
 	// Use a factory pattern to register the types.
 	// This pattern can always be extended by extension points
@@ -101,6 +116,7 @@ public final class RunnableDeviceServiceImpl implements IRunnableDeviceService,
 		modelledDevices.put(ScanModel.class,         AcquisitionDevice.class);
 
 		namedDevices     = new HashMap<>(3);
+		configurations   = Collections.synchronizedMap(new IdentityHashMap<>(3));
 	}
 
 	/**
@@ -121,6 +137,7 @@ public final class RunnableDeviceServiceImpl implements IRunnableDeviceService,
 		modelledDevices.clear();
 		modelledDevices.put(ScanModel.class,         AcquisitionDevice.class);
 		namedDevices.clear();
+		configurations.clear();
 	}
 	
 	
@@ -259,6 +276,59 @@ public final class RunnableDeviceServiceImpl implements IRunnableDeviceService,
 		}
 	}
 	
+	@Override
+	public <T> boolean configure(IRunnableDevice<T> device, T model, Object context) throws ScanningException {
+		
+		if (!configureCache) {
+			device.configure(model);
+			return true;
+		}
+		
+		// The device is asked last, it may have to read its state to know if it is still configured.
+		AppliedConfiguration applied = configurations.remove(device);
+		if (applied!=null && applied.isFor(model, context) && device.isReconfigureSkippable()) {
+			configurations.put(device, applied);
+			logger.debug("The model of {} has not changed, it is not configured again", device.getName());
+			return false;
+		}
+		
+		// If configure throws, the device is not in the map and is configured next time.
+		applied = new AppliedConfiguration(model, context);
+		device.configure(model);
+		configurations.put(device, applied);
+		return true;
+	}
+	
+	@Override
+	public void invalidateConfiguration(IRunnableDevice<?> device) {
+		configurations.remove(device);
+	}
+	
+	/**
+	 * A model and context which were applied to a device. The hash codes are kept from the
+	 * time that the configure was done, so that a model which has been changed since then is not mistaken for the one which was applied.
+	 */
+	private static class AppliedConfiguration {
+		
+		private final Object model;
+		private final int    modelHash;
+		private final Object context;
+		private final int    contextHash;
+		
+		AppliedConfiguration(Object model, Object context) {
+			this.model       = model;
+			this.modelHash   = Objects.hashCode(model);
+			this.context     = context;
+			this.contextHash = Objects.hashCode(context);
+		}
+
+		boolean isFor(Object model, Object context) {
+			if (modelHash!=Objects.hashCode(this.model) || contextHash!=Objects.hashCode(this.context)) return false; // Changed since
+			if (modelHash!=Objects.hashCode(model) || contextHash!=Objects.hashCode(context)) return false;
+			return Objects.equals(this.model, model) && Objects.equals(this.context, context);
+		}
+	}
+	
 	@Override
 	public <T> IRunnableDevice<T> getRunnableDevice(String name) throws ScanningException {
 		return getRunnableDevice(name, null);
@@ -337,6 +407,15 @@ public final class RunnableDeviceServiceImpl implements IRunnableDeviceService,
 		RunnableDeviceServiceImpl.defaultMalcolmHostname = defaultMalcolmHostname;
 	}
 
+	public static boolean isConfigureCache() {
+		return configureCache;
+	}
+
+	public static void setConfigureCache(boolean configureCache) {
+		RunnableDeviceServiceImpl.configureCache = configureCache;
+		if (!configureCache) configurations.clear();
+	}
+
 	/**
 	 * Used for testing only
 	 * @param model
@@ -13,6 +13,7 @@ import org.eclipse.january.dataset.ILazyWriteableDataset;
 import org.eclipse.january.dataset.SliceND;
 import org.eclipse.scanning.api.device.models.SlicingModel;
 import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.rank.IChunkPlanner;
 import org.eclipse.scanning.api.scan.rank.IScanRankService;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
 
@@ -26,7 +27,8 @@ import org.eclipse.scanning.api.scan.rank.IScanSlice;
  * NOTE This device assumes that each dataset written during the scan will be
  * available for processing. If the NeXus HDF-SWMR API does not flush data
  * during the scan, it cannot work because it reads back the data written
- * by a previous detector and averages it.
+ * by a previous detector and averages it. The scan flushes the file on a
+ * timer, see NexusFlushScheduler.
  * 
  * </pre>
  * 
@@ -38,12 +40,9 @@ public class AveragingSlicingDevice extends SlicingRunnableDevice<SlicingModel>
 	public static final String AVERAGE_QUALIFIER = "_average";
 	
 	private ILazyWriteableDataset averaged;
-	private NexusScanInfo         info;
 
 	@Override
 	public boolean process(SliceDeviceContext context) throws ScanningException {
-		
-		averaged.setChunking(info.createChunk(getDataShape(context.getData())));
 		 		
 		double mean = (Double)context.getSlice().squeeze().mean();
 
@@ -64,7 +63,7 @@ public class AveragingSlicingDevice extends SlicingRunnableDevice<SlicingModel>
 		final NXdetector detector = NexusNodeFactory.createNXdetector();
 		
 		this.averaged = detector.initializeLazyDataset(NXdetector.NX_DATA, info.getRank(), Double.class);
-		this.info     = info;		
+		averaged.setChunking(IChunkPlanner.getChunkPlanner().createScalarChunk(info.getShape(), 8));
 		
 		Attributes.registerAttributes(detector, this);
 
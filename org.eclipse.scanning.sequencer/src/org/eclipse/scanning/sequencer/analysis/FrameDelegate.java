@@ -0,0 +1,64 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer.analysis;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+import org.eclipse.january.dataset.IDataset;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.scan.ScanningException;
+
+/**
+ * Manages frame listeners for a detector implementing {@link IFrameListenable}.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class FrameDelegate implements IFrameListenable {
+
+	private final Object                source;
+	private Collection<IFrameListener> listeners;
+
+	public FrameDelegate(Object source) {
+		this.source = source;
+	}
+
+	@Override
+	public void addFrameListener(IFrameListener l) {
+		if (listeners==null) listeners = Collections.synchronizedCollection(new LinkedHashSet<>(3));
+		listeners.add(l);
+	}
+
+	@Override
+	public void removeFrameListener(IFrameListener l) {
+		if (listeners==null) return;
+		listeners.remove(l);
+	}
+
+	/**
+	 * 
+	 * @return true if there is at least one listener, used to avoid creating frames no-one wants.
+	 */
+	public boolean hasListeners() {
+		return listeners!=null && !listeners.isEmpty();
+	}
+
+	public void fireFrameWritten(IPosition position, IDataset frame) throws ScanningException {
+		if (!hasListeners() || frame==null) return;
+		final FrameEvent evt = new FrameEvent(source, position, frame);
+		// Make array, avoid multi-threading issues
+		final IFrameListener[] la = listeners.toArray(new IFrameListener[listeners.size()]);
+		for (IFrameListener l : la) l.frameWritten(evt);
+	}
+}
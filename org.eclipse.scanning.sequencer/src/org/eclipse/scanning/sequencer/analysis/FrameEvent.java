@@ -0,0 +1,53 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer.analysis;
+
+import java.util.EventObject;
+
+import org.eclipse.january.dataset.IDataset;
+import org.eclipse.scanning.api.points.IPosition;
+
+/**
+ * Event sent by a detector once it has written a frame. The
+ * frame is the data which was written for this position, still
+ * in memory. Listeners must not change the frame.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class FrameEvent extends EventObject {
+
+	private static final long serialVersionUID = -2716314426532856361L;
+
+	private final IPosition position;
+	private final IDataset  frame;
+
+	/**
+	 * 
+	 * @param source the detector which wrote the frame
+	 * @param position the position at which the frame was taken
+	 * @param frame the data, not a copy
+	 */
+	public FrameEvent(Object source, IPosition position, IDataset frame) {
+		super(source);
+		this.position = position;
+		this.frame    = frame;
+	}
+
+	public IPosition getPosition() {
+		return position;
+	}
+
+	public IDataset getFrame() {
+		return frame;
+	}
+}
@@ -0,0 +1,124 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer.analysis;
+
+import org.eclipse.dawnsci.nexus.NXdetector;
+import org.eclipse.dawnsci.nexus.NexusException;
+import org.eclipse.dawnsci.nexus.NexusScanInfo;
+import org.eclipse.january.DatasetException;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.ILazyWriteableDataset;
+import org.eclipse.january.dataset.IndexIterator;
+import org.eclipse.scanning.api.ModelValidationException;
+import org.eclipse.scanning.api.ValidationException;
+import org.eclipse.scanning.api.device.models.HistogramReductionModel;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.eclipse.scanning.api.scan.rank.IChunkPlanner;
+
+/**
+ * <pre>
+ * Bins the values of each frame, or its region of interest, into a histogram
+ * of equal width bins. The counts are written into a "data" field of rank
+ * scan rank + 1 and the bin centres into "bin_centres".
+ * 
+ * The histogram summed over the scan so far is kept and may be read during
+ * the scan. The live event has the count and the centre of the fullest bin.
+ * </pre>
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class HistogramReductionDevice extends ReductionRunnableDevice<HistogramReductionModel> {
+	
+	public static final String FIELD_NAME_BIN_CENTRES = "bin_centres";
+	
+	private ILazyWriteableDataset data;
+	private double[]              scanHistogram;
+
+	@Override
+	public void validate(HistogramReductionModel model) throws ValidationException {
+		super.validate(model);
+		if (model.getBins()<1) throw new ModelValidationException("There must be at least one bin!", model, "bins");
+		if (model.getMaximum()<=model.getMinimum()) throw new ModelValidationException("The maximum must be greater than the minimum!", model, "minimum", "maximum");
+	}
+
+	@Override
+	protected synchronized void clear() {
+		scanHistogram = new double[model.getBins()];
+	}
+
+	@Override
+	protected double[] reduce(Dataset frame) {
+		
+		final int      bins  = model.getBins();
+		final double   min   = model.getMinimum();
+		final double   scale = bins/(model.getMaximum()-min);
+		final double[] hist  = new double[bins];
+		
+		final IndexIterator it = frame.getIterator();
+		while (it.hasNext()) {
+			final double v = frame.getElementDoubleAbs(it.index);
+			final int    i = (int)Math.floor((v-min)*scale);
+			if (i>=0 && i<bins) {
+				hist[i]++;
+			} else if (v==model.getMaximum()) {
+				hist[bins-1]++; // The last bin is closed.
+			}
+		}
+		
+		synchronized (this) {
+			for (int i = 0; i < bins; i++) scanHistogram[i]+=hist[i];
+		}
+		return hist;
+	}
+
+	@Override
+	protected String[] createFields(NXdetector detector, NexusScanInfo info) throws NexusException {
+		
+		final int bins = model.getBins();
+		data = detector.initializeLazyDataset(NXdetector.NX_DATA, info.getRank()+1, Double.class);
+		data.setChunking(IChunkPlanner.getChunkPlanner().createChunk(info.getShape(), 8, bins));
+		
+		final double width = (model.getMaximum()-model.getMinimum())/bins;
+		detector.setDataset(FIELD_NAME_BIN_CENTRES, DatasetFactory.createLinearSpace(model.getMinimum()+width/2, model.getMaximum()-width/2, bins, Dataset.FLOAT64));
+		
+		return new String[]{NXdetector.NX_DATA};
+	}
+
+	@Override
+	protected void writeReduced(double[] values, IPosition pos) throws DatasetException {
+		writeArray(data, DatasetFactory.createFromObject(values), pos);
+	}
+
+	@Override
+	protected void populate(MapPosition live, double[] values) {
+		int    peak  = 0;
+		double count = 0;
+		for (int i = 0; i < values.length; i++) {
+			count+=values[i];
+			if (values[i]>values[peak]) peak = i;
+		}
+		final double width = (model.getMaximum()-model.getMinimum())/values.length;
+		live.put(getLiveName("count"), count);
+		live.put(getLiveName("peak"),  model.getMinimum()+(peak+0.5)*width);
+	}
+
+	/**
+	 * 
+	 * @return a copy of the histogram summed over all frames so far in the scan.
+	 */
+	public synchronized double[] getScanHistogram() {
+		return scanHistogram!=null ? scanHistogram.clone() : null;
+	}
+}
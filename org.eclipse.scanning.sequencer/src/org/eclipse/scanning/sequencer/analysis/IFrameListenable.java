@@ -0,0 +1,27 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer.analysis;
+
+/**
+ * A detector which is able to give its frames, in memory, to 
+ * listeners as they are written. Reduction devices use this to 
+ * avoid reading the frame back from the scan file.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public interface IFrameListenable {
+
+	void addFrameListener(IFrameListener l);
+	
+	void removeFrameListener(IFrameListener l);
+}
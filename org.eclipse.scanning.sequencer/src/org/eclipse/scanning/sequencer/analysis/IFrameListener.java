@@ -0,0 +1,36 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer.analysis;
+
+import java.util.EventListener;
+
+import org.eclipse.scanning.api.scan.ScanningException;
+
+/**
+ * Listener notified with each frame that a detector writes.
+ * 
+ * The notification happens in the thread writing the detector, 
+ * the listener should reduce the frame quickly and not keep a
+ * reference to it.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public interface IFrameListener extends EventListener {
+
+	/**
+	 * Called after a frame has been written by a detector.
+	 * @param evt
+	 * @throws ScanningException
+	 */
+	void frameWritten(FrameEvent evt) throws ScanningException;
+}
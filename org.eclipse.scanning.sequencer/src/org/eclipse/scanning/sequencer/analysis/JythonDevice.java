@@ -1,5 +1,7 @@
 package org.eclipse.scanning.sequencer.analysis;
 
+import java.util.concurrent.TimeUnit;
+
 import org.eclipse.dawnsci.nexus.INexusDevice;
 import org.eclipse.dawnsci.nexus.NXdetector;
 import org.eclipse.dawnsci.nexus.NexusException;
@@ -13,29 +15,42 @@ import org.eclipse.january.dataset.ILazyWriteableDataset;
 import org.eclipse.january.dataset.SliceND;
 import org.eclipse.scanning.api.device.models.JythonModel;
 import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.rank.IChunkPlanner;
 import org.eclipse.scanning.api.scan.rank.IScanRankService;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
-import org.eclipse.scanning.jython.JythonObjectFactory;
+import org.eclipse.scanning.jython.JythonInterpreterPool;
 
+/**
+ * Runs a Jython function on each slice. Each point borrows an interpreter
+ * from the shared {@link JythonInterpreterPool} so that several Jython 
+ * devices, or scans, do not serialise on the global interpreter.
+ */
 public class JythonDevice extends SlicingRunnableDevice<JythonModel>  implements INexusDevice<NXdetector> {
 	
-	private JythonObjectFactory<IJythonFunction> factory;
+	private JythonInterpreterPool pool;
 	private ILazyWriteableDataset processed;
 	private NexusScanInfo info;
 
 	@Override
 	public void configure(JythonModel model) throws ScanningException {
 		super.configure(model);
-		this.factory = new JythonObjectFactory<>(IJythonFunction.class, model.getModuleName(), model.getClassName(), "org.eclipse.scanning.sequencer");
+		this.pool = JythonInterpreterPool.getDefault();
+		// Import the module now, to check it and warm an interpreter.
+		try (JythonInterpreterPool.Lease lease = borrow()) {
+			lease.createObject(IJythonFunction.class, model.getModuleName(), model.getClassName());
+		}
 	}
 
 	@Override
 	boolean process(SliceDeviceContext context) throws ScanningException {
 		
-		processed.setChunking(info.createChunk(getDataShape(context.getData())));
+		processed.setChunking(IChunkPlanner.getChunkPlanner().createChunk(info.getShape(), 8, getDataShape(context.getData())));
 
-		IJythonFunction jython = factory.createObject();
-		IDataset ret = jython.process(context.getSlice());
+		IDataset ret;
+		try (JythonInterpreterPool.Lease lease = borrow()) {
+			IJythonFunction jython = lease.createObject(IJythonFunction.class, model.getModuleName(), model.getClassName());
+			ret = jython.process(context.getSlice());
+		}
 		
 		IScanSlice sslice  = IScanRankService.getScanRankService().createScanSlice(context.getLocation(), ret.getShape());
 		SliceND    slicenD = new SliceND(processed.getShape(), processed.getMaxShape(), sslice.getStart(), sslice.getStop(), sslice.getStep());
@@ -48,6 +63,15 @@ public class JythonDevice extends SlicingRunnableDevice<JythonModel>  implements
 		return true;
 	}
 	
+	private JythonInterpreterPool.Lease borrow() throws ScanningException {
+		try {
+			long timeout = model.getTimeout()>0 ? model.getTimeout() : Long.MAX_VALUE;
+			return pool.borrow(timeout, TimeUnit.SECONDS);
+		} catch (Exception ne) {
+			throw new ScanningException("Cannot get an interpreter for "+getName(), ne);
+		}
+	}
+	
 	@Override
 	public NexusObjectProvider<NXdetector> getNexusProvider(NexusScanInfo info) throws NexusException {
 		
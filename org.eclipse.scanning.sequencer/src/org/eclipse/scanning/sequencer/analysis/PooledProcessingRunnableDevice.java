@@ -0,0 +1,377 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer.analysis;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.dawnsci.analysis.api.persistence.IPersistenceService;
+import org.eclipse.dawnsci.analysis.api.persistence.IPersistentFile;
+import org.eclipse.dawnsci.analysis.api.processing.IExecutionVisitor;
+import org.eclipse.dawnsci.analysis.api.processing.IOperation;
+import org.eclipse.dawnsci.analysis.api.processing.IOperationContext;
+import org.eclipse.dawnsci.analysis.api.processing.IOperationService;
+import org.eclipse.dawnsci.analysis.api.processing.OperationData;
+import org.eclipse.dawnsci.nexus.INexusDevice;
+import org.eclipse.dawnsci.nexus.NXdetector;
+import org.eclipse.dawnsci.nexus.NexusException;
+import org.eclipse.dawnsci.nexus.NexusNodeFactory;
+import org.eclipse.dawnsci.nexus.NexusScanInfo;
+import org.eclipse.dawnsci.nexus.builder.NexusObjectProvider;
+import org.eclipse.dawnsci.nexus.builder.NexusObjectWrapper;
+import org.eclipse.january.IMonitor;
+import org.eclipse.january.dataset.DatasetUtils;
+import org.eclipse.january.dataset.IDataset;
+import org.eclipse.january.dataset.ILazyWriteableDataset;
+import org.eclipse.january.dataset.SliceND;
+import org.eclipse.scanning.api.ModelValidationException;
+import org.eclipse.scanning.api.ValidationException;
+import org.eclipse.scanning.api.annotation.scan.ScanFinally;
+import org.eclipse.scanning.api.annotation.scan.ScanStart;
+import org.eclipse.scanning.api.device.AbstractRunnableDevice;
+import org.eclipse.scanning.api.device.IRunnableDevice;
+import org.eclipse.scanning.api.device.IWritableDetector;
+import org.eclipse.scanning.api.device.models.DeviceRole;
+import org.eclipse.scanning.api.device.models.PooledProcessingModel;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.scan.ScanInformation;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.models.ScanModel;
+import org.eclipse.scanning.api.scan.rank.IChunkPlanner;
+import org.eclipse.scanning.api.scan.rank.IScanRankService;
+import org.eclipse.scanning.api.scan.rank.IScanSlice;
+import org.eclipse.scanning.sequencer.ServiceHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <pre>
+ * A processing device which runs its operations on a bounded pool of worker 
+ * threads so that slow processing does not slow the scan. Unlike
+ * {@link ProcessingRunnableDevice} which processes inline in the write of
+ * each point, the frames of the detector named in the model are given to
+ * this device in memory as they are written (see {@link IFrameListenable}).
+ * 
+ * Each frame is numbered in the order it arrives and the processed results
+ * are written to the NeXus file in that order, whichever worker finishes first.
+ * 
+ * The scan is only held back if more than {@link PooledProcessingModel#getMaxLag()}
+ * frames are waiting to be processed and written. At the last point of the
+ * scan the write of this device waits for all processing to finish, so the
+ * NeXus file is complete when the scan closes it.
+ * 
+ * Each worker has its own operation context, operations read from the 
+ * operations file are created for each worker. An operation set directly
+ * on the model is shared by the workers so must be thread safe.
+ * </pre>
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class PooledProcessingRunnableDevice extends AbstractRunnableDevice<PooledProcessingModel> implements IWritableDetector<PooledProcessingModel>, INexusDevice<NXdetector>, IFrameListener {
+	
+	private static final Logger logger = LoggerFactory.getLogger(PooledProcessingRunnableDevice.class);
+
+	private ILazyWriteableDataset processed;
+	private NexusScanInfo         info;
+	private volatile boolean      chunked;
+
+	private IFrameListenable      source;
+	private volatile ExecutorService pool;
+	private ThreadLocal<Worker>   workers;
+	private int                   scanSize;
+	
+	// Frames are numbered by submitted and written in this order, guarded by lock.
+	private final Object                lock;
+	private final Map<Integer, Result>  done;
+	private int                         submitted;
+	private int                         written;
+	private Exception                   failure;
+
+	public PooledProcessingRunnableDevice() {
+		super(ServiceHolder.getRunnableDeviceService());
+		setLevel(100); // Runs at the end of the cycle by default.
+		setRole(DeviceRole.PROCESSING);
+		this.model = new PooledProcessingModel(); // We start with an empty one in case they want to fill it in the UI.
+		this.lock  = new Object();
+		this.done  = new HashMap<>();
+	}
+	
+	@Override
+	public void validate(PooledProcessingModel model) throws ValidationException {
+		if (model.getDetectorName()==null) throw new ModelValidationException("The detector name must be set!", model, "detectorName");
+		if (model.getOperationsFile()==null && model.getOperation()==null) throw new ModelValidationException("The operation file must be set!", model, "operationsFile");
+		if (model.getWorkers()<1) throw new ModelValidationException("There must be at least one worker!", model, "workers");
+		if (model.getMaxLag()<1) throw new ModelValidationException("The maximum lag must be at least one frame!", model, "maxLag");
+	}
+	
+	@Override
+	public void configure(PooledProcessingModel model) throws ScanningException {
+		super.configure(model);
+		if (model.getName()!=null) setName(model.getName());
+	}
+
+	@Override
+	public NexusObjectProvider<NXdetector> getNexusProvider(NexusScanInfo info) throws NexusException {
+		
+		final NXdetector detector = NexusNodeFactory.createNXdetector();
+		
+		this.processed = detector.initializeLazyDataset(NXdetector.NX_DATA, info.getRank()+model.getOutputRank(), Double.class);
+		this.info      = info;
+		this.chunked   = false;
+		
+		Attributes.registerAttributes(detector, this);
+
+		NexusObjectWrapper<NXdetector> nexusProvider = new NexusObjectWrapper<NXdetector>(getName(), detector);
+
+		// Add all fields for any NXdata groups that this device creates
+		nexusProvider.setAxisDataFieldNames(NXdetector.NX_DATA);
+		
+		// "data" is the name of the primary data field (i.e. the 'signal' field of the default NXdata)
+		nexusProvider.setPrimaryDataFieldName(NXdetector.NX_DATA);
+
+		return nexusProvider;
+	}
+
+	@ScanStart
+	public void connect(ScanModel smodel, ScanInformation scanInfo) throws ScanningException {
+		
+		synchronized (lock) {
+			done.clear();
+			submitted = 0;
+			written   = 0;
+			failure   = null;
+		}
+		this.scanSize = scanInfo.getSize();
+		this.workers  = new ThreadLocal<>();
+		this.pool     = Executors.newFixedThreadPool(model.getWorkers(), new WorkerFactory(getName()));
+		
+		for (IRunnableDevice<?> device : smodel.getDetectors()) {
+			if (model.getDetectorName().equals(device.getName())) {
+				if (!(device instanceof IFrameListenable)) throw new ScanningException("The detector '"+device.getName()+"' cannot give its frames to "+getName());
+				source = (IFrameListenable)device;
+				source.addFrameListener(this);
+				return;
+			}
+		}
+		throw new ScanningException("The detector '"+model.getDetectorName()+"' processed by "+getName()+" is not in the scan!");
+	}
+	
+	@ScanFinally
+	public void disconnect() {
+		if (source!=null) source.removeFrameListener(this);
+		source = null;
+		if (pool!=null) pool.shutdownNow();
+		pool    = null;
+		workers = null;
+		synchronized (lock) {
+			done.clear();
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * Called in the write of the detector, this returns as soon as the frame
+	 * is queued unless the processing has fallen too far behind. Frames
+	 * written after the device has disconnected are ignored.
+	 */
+	@Override
+	public void frameWritten(FrameEvent evt) throws ScanningException {
+		
+		final ExecutorService pool = this.pool;
+		if (pool==null) return;
+		
+		final int sequence;
+		synchronized (lock) {
+			// Backpressure, only when the lag is exceeded.
+			await(model.getMaxLag()-1);
+			sequence = submitted++;
+		}
+		
+		// The detector may reuse its buffer, we take a copy.
+		final IDataset  frame = DatasetUtils.convertToDataset(evt.getFrame()).clone();
+		final IPosition pos   = evt.getPosition();
+		try {
+			pool.execute(()->process(sequence, pos, frame));
+		} catch (RejectedExecutionException ne) {
+			logger.debug("Frame "+sequence+" ignored by "+getName()+" which has disconnected");
+		}
+	}
+
+	@Override
+	public void run(IPosition position) throws ScanningException, InterruptedException {
+		
+	}
+
+	@Override
+	public boolean write(IPosition pos) throws ScanningException {
+		synchronized (lock) {
+			if (pos.getStepIndex()>=scanSize-1) {
+				await(0); // Last point, everything must be in the file before it closes.
+			} else if (failure!=null) {
+				throw new ScanningException("Processing failed in "+getName(), failure);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Wait, holding the lock, until no more than lag frames are outstanding.
+	 * @param lag
+	 * @throws ScanningException if processing failed or we timed out.
+	 */
+	private void await(int lag) throws ScanningException {
+		
+		final long timeout = model.getTimeout()>0 ? model.getTimeout()*1000 : Long.MAX_VALUE;
+		final long start   = System.currentTimeMillis();
+		try {
+			while(submitted-written>lag && failure==null) {
+				long remaining = timeout-(System.currentTimeMillis()-start);
+				if (remaining<=0) throw new ScanningException("Processing in "+getName()+" is "+(submitted-written)+" frames behind and did not catch up in "+model.getTimeout()+"s");
+				lock.wait(Math.min(remaining, 1000));
+			}
+		} catch (InterruptedException ne) {
+			throw new ScanningException("Interrupted waiting for processing in "+getName(), ne);
+		}
+		if (failure!=null) throw new ScanningException("Processing failed in "+getName(), failure);
+	}
+
+	/**
+	 * Called in a worker thread. Processes a frame then writes any results 
+	 * which are next in order.
+	 */
+	private void process(int sequence, IPosition pos, IDataset frame) {
+		
+		Result result;
+		try {
+			Worker worker = workers.get();
+			if (worker==null) {
+				worker = new Worker();
+				workers.set(worker);
+			}
+			result = new Result(pos, worker.execute(frame), null);
+		} catch (Exception ne) {
+			result = new Result(pos, null, ne);
+		}
+		
+		synchronized (lock) {
+			done.put(sequence, result);
+			Result next;
+			while((next = done.remove(written))!=null) {
+				try {
+					if (next.error!=null) throw next.error;
+					write(next);
+				} catch (Exception ne) {
+					logger.error("Cannot process frame "+written+" in "+getName(), ne);
+					if (failure==null) failure = ne;
+				}
+				written++;
+			}
+			lock.notifyAll();
+		}
+	}
+
+	private void write(Result result) throws Exception {
+		if (result.data==null) return; // Operations may filter out a frame.
+		if (!chunked) {
+			processed.setChunking(IChunkPlanner.getChunkPlanner().createChunk(info.getShape(), 8, result.data.getShape()));
+			chunked = true;
+		}
+		IScanSlice rslice = IScanRankService.getScanRankService().createScanSlice(result.position, result.data.getShape());
+		SliceND    slice  = new SliceND(processed.getShape(), processed.getMaxShape(), rslice.getStart(), rslice.getStop(), rslice.getStep());
+		processed.setSlice(null, result.data, slice);
+	}
+	
+	private IOperation<?,?>[] createOperations() throws Exception {
+		if (getModel().getOperationsFile()!=null) {
+			final IPersistenceService pservice = ServiceHolder.getPersistenceService();
+			IPersistentFile           file     = pservice.createPersistentFile(getModel().getOperationsFile());
+			try {
+				return file.getOperations();
+			} finally {
+				file.close();
+			}
+		} else if (getModel().getOperation()!=null) {
+			return new IOperation<?,?>[]{(IOperation<?,?>)getModel().getOperation()};
+		}
+		throw new ScanningException("No persisted operations file supplied!");
+	}
+
+	private static class Result {
+		private final IPosition position;
+		private final IDataset  data;
+		private final Exception error;
+		Result(IPosition position, IDataset data, Exception error) {
+			this.position = position;
+			this.data     = data;
+			this.error    = error;
+		}
+	}
+
+	/**
+	 * The operation context of one worker thread.
+	 */
+	private class Worker {
+		
+		private final IOperationService oservice;
+		private final IOperationContext context;
+		private IDataset                result;
+		
+		Worker() throws Exception {
+			this.oservice = ServiceHolder.getOperationService();
+			if (oservice == null) throw new ScanningException("Unable to use device '"+getName()+"' because no operations service is available.");
+			
+			this.context = oservice.createContext();
+			context.setSeries(createOperations());
+			context.setVisitor(new IExecutionVisitor.Stub() {
+				@Override
+				public void executed(OperationData data, IMonitor monitor) throws Exception {
+					result = data.getData();
+				}
+			});
+		}
+		
+		IDataset execute(IDataset frame) throws Exception {
+			result = null;
+			
+			// The frame is the data, it has no scan dimensions.
+			int[] ddims = new int[frame.getRank()];
+			for (int i = 0; i < ddims.length; i++) ddims[i] = i;
+			context.setDataDimensions(ddims);
+			context.setData(frame);
+			oservice.execute(context);
+			return result;
+		}
+	}
+	
+	private static class WorkerFactory implements ThreadFactory {
+		
+		private final String        name;
+		private final AtomicInteger count = new AtomicInteger();
+		
+		WorkerFactory(String name) {
+			this.name = name;
+		}
+		
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "Processing worker "+count.incrementAndGet()+" of "+name);
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -35,6 +35,7 @@ import org.eclipse.scanning.api.ValidationException;
 import org.eclipse.scanning.api.annotation.scan.ScanFinally;
 import org.eclipse.scanning.api.device.models.ProcessingModel;
 import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.rank.IChunkPlanner;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
 import org.eclipse.scanning.sequencer.ServiceHolder;
 
@@ -107,7 +108,7 @@ public class ProcessingRunnableDevice extends SlicingRunnableDevice<ProcessingMo
 			
 			if (context==null) {
 				createOperationService();
-				processed.setChunking(info.createChunk(getDataShape(data)));
+				processed.setChunking(IChunkPlanner.getChunkPlanner().createChunk(info.getShape(), 8, getDataShape(data)));
 			}
 			
 			context.setData(sdcontext.getSlice()); // Just this frame.
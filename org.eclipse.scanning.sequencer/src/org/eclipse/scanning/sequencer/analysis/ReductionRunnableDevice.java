@@ -0,0 +1,234 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer.analysis;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.dawnsci.nexus.INexusDevice;
+import org.eclipse.dawnsci.nexus.NXdetector;
+import org.eclipse.dawnsci.nexus.NexusException;
+import org.eclipse.dawnsci.nexus.NexusNodeFactory;
+import org.eclipse.dawnsci.nexus.NexusScanInfo;
+import org.eclipse.dawnsci.nexus.builder.NexusObjectProvider;
+import org.eclipse.dawnsci.nexus.builder.NexusObjectWrapper;
+import org.eclipse.january.DatasetException;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DatasetUtils;
+import org.eclipse.january.dataset.IDataset;
+import org.eclipse.january.dataset.ILazyWriteableDataset;
+import org.eclipse.january.dataset.SliceND;
+import org.eclipse.scanning.api.ModelValidationException;
+import org.eclipse.scanning.api.ValidationException;
+import org.eclipse.scanning.api.annotation.scan.ScanFinally;
+import org.eclipse.scanning.api.annotation.scan.ScanStart;
+import org.eclipse.scanning.api.device.AbstractRunnableDevice;
+import org.eclipse.scanning.api.device.IRunnableDevice;
+import org.eclipse.scanning.api.device.IWritableDetector;
+import org.eclipse.scanning.api.device.models.DeviceRole;
+import org.eclipse.scanning.api.device.models.ReductionModel;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.models.ScanModel;
+import org.eclipse.scanning.api.scan.rank.IScanRankService;
+import org.eclipse.scanning.api.scan.rank.IScanSlice;
+import org.eclipse.scanning.sequencer.ServiceHolder;
+
+/**
+ * <pre>
+ * A device which reduces the frames of another detector in memory, as
+ * they are written, and writes only the reduced values to the NeXus file.
+ * Unlike {@link SlicingRunnableDevice} the frame is not read back from the 
+ * scan file, so the detector need not even save its frames.
+ * 
+ * The detector named in the model must implement {@link IFrameListenable}. At
+ * the start of the scan this device listens to it, each frame is reduced in
+ * the detector's write thread and the result held until this device writes
+ * at its own (later) level. The reduced values for each point are then sent 
+ * to position listeners as a live event, named "{@literal $deviceName$_$field$}".
+ * 
+ * Extend this class to implement {@link #reduce(Dataset)} and the NeXus fields.
+ * 
+ * </pre>
+ * 
+ * @author Matthew Gerring
+ * @param <T>
+ *
+ */
+public abstract class ReductionRunnableDevice<T extends ReductionModel> extends AbstractRunnableDevice<T> implements IWritableDetector<T>, INexusDevice<NXdetector>, IFrameListener {
+
+	private final Map<Integer, double[]> reduced;
+	private IFrameListenable             source;
+	
+	public ReductionRunnableDevice() {
+		super(ServiceHolder.getRunnableDeviceService());
+		setLevel(100); // Runs at the end of the cycle by default.
+		setRole(DeviceRole.PROCESSING);
+		this.reduced = new ConcurrentHashMap<>(7);
+	}
+	
+	@Override
+	public void validate(T model) throws ValidationException {
+		if (model.getDetectorName()==null) throw new ModelValidationException("The detector name must be set!", model, "detectorName");
+		int[] start = model.getRoiStart();
+		int[] shape = model.getRoiShape();
+		if ((start==null) != (shape==null)) throw new ModelValidationException("The region of interest must have both a start and a shape!", model, "roiStart", "roiShape");
+		if (start!=null && start.length!=shape.length) throw new ModelValidationException("The region of interest start and shape must have the same rank!", model, "roiStart", "roiShape");
+	}
+	
+	@Override
+	public void configure(T model) throws ScanningException {
+		super.configure(model);
+		if (model.getName()!=null) setName(model.getName());
+	}
+
+	@ScanStart
+	public void connect(ScanModel smodel) throws ScanningException {
+		reduced.clear();
+		clear();
+		for (IRunnableDevice<?> device : smodel.getDetectors()) {
+			if (model.getDetectorName().equals(device.getName())) {
+				if (!(device instanceof IFrameListenable)) throw new ScanningException("The detector '"+device.getName()+"' cannot give its frames to "+getName());
+				source = (IFrameListenable)device;
+				source.addFrameListener(this);
+				return;
+			}
+		}
+		throw new ScanningException("The detector '"+model.getDetectorName()+"' reduced by "+getName()+" is not in the scan!");
+	}
+	
+	@ScanFinally
+	public void disconnect() {
+		if (source!=null) source.removeFrameListener(this);
+		source = null;
+		reduced.clear();
+	}
+
+	@Override
+	public void frameWritten(FrameEvent evt) throws ScanningException {
+		Dataset frame = DatasetUtils.convertToDataset(evt.getFrame());
+		if (model.getRoiStart()!=null) {
+			int[] start = model.getRoiStart();
+			int[] stop  = new int[start.length];
+			for (int i = 0; i < stop.length; i++) stop[i] = start[i]+model.getRoiShape()[i];
+			frame = frame.getSliceView(start, stop, null);
+		}
+		reduced.put(evt.getPosition().getStepIndex(), reduce(frame));
+	}
+
+	@Override
+	public void run(IPosition position) throws ScanningException, InterruptedException {
+		
+	}
+
+	@Override
+	public boolean write(IPosition pos) throws ScanningException {
+		
+		final double[] values = reduced.remove(pos.getStepIndex());
+		if (values==null) throw new ScanningException("No frame was received from '"+model.getDetectorName()+"' for step "+pos.getStepIndex());
+		try {
+			writeReduced(values, pos);
+		} catch (DatasetException e) {
+			throw new ScanningException(e);
+		}
+		
+		final MapPosition live = new MapPosition();
+		live.setStepIndex(pos.getStepIndex());
+		populate(live, values);
+		firePositionComplete(live);
+		return true;
+	}
+	
+	@Override
+	public NexusObjectProvider<NXdetector> getNexusProvider(NexusScanInfo info) throws NexusException {
+		
+		final NXdetector detector = NexusNodeFactory.createNXdetector();
+		final String[]   fields   = createFields(detector, info);
+		
+		Attributes.registerAttributes(detector, this);
+
+		NexusObjectWrapper<NXdetector> nexusProvider = new NexusObjectWrapper<NXdetector>(getName(), detector);
+
+		// Add all fields for any NXdata groups that this device creates
+		nexusProvider.setAxisDataFieldNames(fields);
+		
+		// The first field is the primary data field (i.e. the 'signal' field of the default NXdata)
+		nexusProvider.setPrimaryDataFieldName(fields[0]);
+
+		return nexusProvider;
+	}
+	
+	/**
+	 * Called once at the start of each scan to clear any statistics kept over the scan.
+	 */
+	protected void clear() {
+		
+	}
+
+	/**
+	 * Reduce a frame, or its region of interest. This is called in the thread
+	 * writing the detector so should be fast and not keep the frame.
+	 * 
+	 * @param frame
+	 * @return the reduced values for this frame.
+	 * @throws ScanningException
+	 */
+	protected abstract double[] reduce(Dataset frame) throws ScanningException;
+	
+	/**
+	 * Create the lazy datasets which the reduced values will be written to.
+	 * @param detector
+	 * @param info
+	 * @return the field names created, the first is the primary data field.
+	 * @throws NexusException
+	 */
+	protected abstract String[] createFields(NXdetector detector, NexusScanInfo info) throws NexusException;
+	
+	/**
+	 * Write the values returned from {@link #reduce(Dataset)} at this position.
+	 * @param values
+	 * @param pos
+	 * @throws DatasetException
+	 */
+	protected abstract void writeReduced(double[] values, IPosition pos) throws DatasetException;
+
+	/**
+	 * Put the values which should be sent as a live event for this point.
+	 * @param live
+	 * @param values
+	 */
+	protected abstract void populate(MapPosition live, double[] values);
+
+	/**
+	 * Write a single value at the scan position.
+	 */
+	protected static void writeScalar(ILazyWriteableDataset data, double value, IPosition pos) throws DatasetException {
+		IScanSlice rslice  = IScanRankService.getScanRankService().createScanSlice(pos);
+		SliceND    sliceND = new SliceND(data.getShape(), data.getMaxShape(), rslice.getStart(), rslice.getStop(), rslice.getStep());
+		data.setSlice(null, DatasetFactory.createFromObject(value), sliceND);
+	}
+
+	/**
+	 * Write an array of values at the scan position.
+	 */
+	protected static void writeArray(ILazyWriteableDataset data, IDataset values, IPosition pos) throws DatasetException {
+		IScanSlice rslice  = IScanRankService.getScanRankService().createScanSlice(pos, values.getShape());
+		SliceND    sliceND = new SliceND(data.getShape(), data.getMaxShape(), rslice.getStart(), rslice.getStop(), rslice.getStep());
+		data.setSlice(null, values, sliceND);
+	}
+	
+	protected String getLiveName(String field) {
+		return getName()+"_"+field;
+	}
+}
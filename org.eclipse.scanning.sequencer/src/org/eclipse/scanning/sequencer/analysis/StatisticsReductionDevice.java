@@ -0,0 +1,123 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer.analysis;
+
+import org.eclipse.dawnsci.nexus.NXdetector;
+import org.eclipse.dawnsci.nexus.NexusException;
+import org.eclipse.dawnsci.nexus.NexusScanInfo;
+import org.eclipse.january.DatasetException;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.ILazyWriteableDataset;
+import org.eclipse.january.dataset.IndexIterator;
+import org.eclipse.scanning.api.device.models.ReductionModel;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.eclipse.scanning.api.scan.rank.IChunkPlanner;
+
+/**
+ * <pre>
+ * Reduces each frame, or its region of interest, to its sum, mean, minimum
+ * and maximum in a single pass over the frame. Each is written to a scalar
+ * field of the same rank as the scan.
+ * 
+ * The mean, minimum and maximum over all the frames so far in the scan are
+ * also kept and sent with the live event as "{@literal $deviceName$_scan_mean}" etc.
+ * </pre>
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class StatisticsReductionDevice extends ReductionRunnableDevice<ReductionModel> {
+	
+	public static final String FIELD_NAME_MEAN = "mean";
+	public static final String FIELD_NAME_SUM  = "sum";
+	public static final String FIELD_NAME_MIN  = "min";
+	public static final String FIELD_NAME_MAX  = "max";
+
+	private static final String[] FIELDS = {FIELD_NAME_MEAN, FIELD_NAME_SUM, FIELD_NAME_MIN, FIELD_NAME_MAX};
+	
+	private ILazyWriteableDataset[] datasets;
+	
+	// Running statistics over the scan
+	private long   scanCount;
+	private double scanSum;
+	private double scanMin;
+	private double scanMax;
+
+	@Override
+	protected synchronized void clear() {
+		scanCount = 0;
+		scanSum   = 0;
+		scanMin   = Double.POSITIVE_INFINITY;
+		scanMax   = Double.NEGATIVE_INFINITY;
+	}
+
+	@Override
+	protected double[] reduce(Dataset frame) {
+		
+		double sum = 0;
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		final IndexIterator it = frame.getIterator();
+		while (it.hasNext()) {
+			final double v = frame.getElementDoubleAbs(it.index);
+			sum+=v;
+			if (v<min) min = v;
+			if (v>max) max = v;
+		}
+		final int size = frame.getSize();
+		
+		synchronized (this) {
+			scanCount+=size;
+			scanSum+=sum;
+			scanMin = Math.min(scanMin, min);
+			scanMax = Math.max(scanMax, max);
+		}
+		return new double[]{size>0 ? sum/size : Double.NaN, sum, min, max};
+	}
+
+	@Override
+	protected String[] createFields(NXdetector detector, NexusScanInfo info) throws NexusException {
+		datasets = new ILazyWriteableDataset[FIELDS.length];
+		final int[] chunk = IChunkPlanner.getChunkPlanner().createScalarChunk(info.getShape(), 8);
+		for (int i = 0; i < FIELDS.length; i++) {
+			datasets[i] = detector.initializeLazyDataset(FIELDS[i], info.getRank(), Double.class);
+			datasets[i].setChunking(chunk);
+		}
+		return FIELDS;
+	}
+
+	@Override
+	protected void writeReduced(double[] values, IPosition pos) throws DatasetException {
+		for (int i = 0; i < datasets.length; i++) writeScalar(datasets[i], values[i], pos);
+	}
+
+	@Override
+	protected void populate(MapPosition live, double[] values) {
+		for (int i = 0; i < FIELDS.length; i++) live.put(getLiveName(FIELDS[i]), values[i]);
+		live.put(getLiveName("scan_mean"), getScanMean());
+		live.put(getLiveName("scan_min"),  getScanMin());
+		live.put(getLiveName("scan_max"),  getScanMax());
+	}
+
+	public synchronized double getScanMean() {
+		return scanCount>0 ? scanSum/scanCount : Double.NaN;
+	}
+
+	public synchronized double getScanMin() {
+		return scanMin;
+	}
+
+	public synchronized double getScanMax() {
+		return scanMax;
+	}
+}
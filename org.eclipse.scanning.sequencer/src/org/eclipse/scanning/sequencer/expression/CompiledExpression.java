@@ -0,0 +1,143 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer.expression;
+
+import java.util.Collection;
+import java.util.Objects;
+
+import org.apache.commons.jexl2.Expression;
+import org.apache.commons.jexl2.JexlContext;
+import org.apache.commons.jexl2.JexlEngine;
+
+/**
+ *
+ * A JEXL expression which is parsed once and then evaluated many times
+ * against a fixed set of variables. Each variable is bound to a slot
+ * in an array so that setting a value is an index and evaluating the
+ * expression does not build or copy a map.
+ *
+ * This is designed for watchdogs which evaluate the same expression every
+ * time that a scannable reports a new value, which may be at a high rate.
+ *
+ * This class is thread safe, values are set and the expression evaluated
+ * under the same lock.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class CompiledExpression {
+
+	/**
+	 * JexlEngine is thread safe and caches the parsed scripts.
+	 */
+	private static final JexlEngine jexl = new JexlEngine();
+	static {
+		jexl.setCache(64);
+		jexl.setSilent(false);
+	}
+
+	private final Expression expression;
+	private final String[]   names;
+	private final Object[]   values;
+	private final JexlContext context;
+
+	/**
+	 *
+	 * @param expr the JEXL expression
+	 * @param variables the names of the variables in the expression, these are given a slot each in order.
+	 */
+	public CompiledExpression(String expr, Collection<String> variables) {
+		this.expression = jexl.createExpression(expr);
+		this.names      = variables.toArray(new String[variables.size()]);
+		for (int i = 0; i < names.length; i++) names[i] = names[i].intern();
+		this.values     = new Object[names.length];
+		this.context    = new SlotContext();
+	}
+
+	/**
+	 *
+	 * @param name
+	 * @return the slot of this variable or -1 if the expression does not use it.
+	 */
+	public int getSlot(String name) {
+		for (int i = 0; i < names.length; i++) {
+			if (names[i]==name || names[i].equals(name)) return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Set a value into a slot
+	 * @param slot
+	 * @param value
+	 * @return true if the value was different to the one in the slot.
+	 */
+	public synchronized boolean set(int slot, Object value) {
+		if (Objects.equals(values[slot], value)) return false;
+		values[slot] = value;
+		return true;
+	}
+
+	/**
+	 * Set a value by name, names not in the expression are ignored.
+	 * @param name
+	 * @param value
+	 * @return true if the expression uses this name and the value changed.
+	 */
+	public boolean set(String name, Object value) {
+		int slot = getSlot(name);
+		if (slot<0) return false;
+		return set(slot, value);
+	}
+
+	public synchronized Object get(int slot) {
+		return values[slot];
+	}
+
+	@SuppressWarnings("unchecked")
+	public synchronized <T> T evaluate() {
+		return (T)expression.evaluate(context);
+	}
+
+	public String getExpression() {
+		return expression.getExpression();
+	}
+
+	public int getSize() {
+		return names.length;
+	}
+
+	/**
+	 * Context reading directly from the slots. JEXL asks for variables
+	 * by the identifiers it parsed, a linear scan of a few names is
+	 * cheaper than hashing.
+	 */
+	private class SlotContext implements JexlContext {
+
+		@Override
+		public Object get(String name) {
+			int slot = getSlot(name);
+			return slot>-1 ? values[slot] : null;
+		}
+
+		@Override
+		public void set(String name, Object value) {
+			int slot = getSlot(name);
+			if (slot>-1) values[slot] = value;
+		}
+
+		@Override
+		public boolean has(String name) {
+			return getSlot(name)>-1;
+		}
+	}
+}
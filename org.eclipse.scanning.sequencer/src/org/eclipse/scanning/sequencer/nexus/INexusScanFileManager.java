@@ -36,6 +36,14 @@ public interface INexusScanFileManager extends IConfigurable<ScanModel> {
 	 */
 	public void flushNexusFile() throws ScanningException;
 	
+	/**
+	 * An estimate of the number of bytes written at each point of the
+	 * scan, from the datasets of the devices. This is only known once
+	 * the first point has been written.
+	 * @return bytes per point or 0 if unknown
+	 */
+	public long getBytesPerPoint();
+	
 	/**
 	 * Informs the manager that the scan has finished. This will
 	 * cause the scanFinished dataset to be updated and the nexus file to be closed.
@@ -0,0 +1,247 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer.nexus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.scanning.api.device.IFlushableDevice;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <pre>
+ * Flushes the NeXus file of a scan, and the files of any devices which
+ * are {@link IFlushableDevice}, so that a reader of the running scan sees
+ * the data with a predictable latency. A flush is made when either:
+ * 
+ * 1. The flush period has passed since the last flush and something has been written, or
+ * 2. The bytes written since the last flush exceed the flush threshold.
+ * 
+ * Flushing is done on a separate thread, the scan loop only counts the 
+ * points written and never waits for a flush. If a flush is already
+ * running when another is due, the second one is not queued because the
+ * running flush will include the data.
+ * 
+ * The bytes written are estimated from the shape of the datasets once the
+ * first point is written, see {@link INexusScanFileManager#getBytesPerPoint()}.
+ * 
+ * The thresholds are set with system properties, a value of zero or less
+ * switches that trigger off:
+ *    {@value #FLUSH_PERIOD_PROPERTY} time in ms, default {@value #DEFAULT_PERIOD}
+ *    {@value #FLUSH_BYTES_PROPERTY}  bytes, default {@value #DEFAULT_BYTES}
+ * 
+ * The time taken by each flush is recorded.
+ * </pre>
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class NexusFlushScheduler {
+	
+	private static final Logger logger = LoggerFactory.getLogger(NexusFlushScheduler.class);
+
+	public static final String FLUSH_PERIOD_PROPERTY = "org.eclipse.scanning.sequencer.nexus.flushPeriod";
+	public static final String FLUSH_BYTES_PROPERTY  = "org.eclipse.scanning.sequencer.nexus.flushBytes";
+	
+	static final long DEFAULT_PERIOD = 2000;
+	static final long DEFAULT_BYTES  = 64*1024*1024;
+
+	private final INexusScanFileManager          manager;
+	private final Collection<IFlushableDevice>   devices;
+	private final long                           period;
+	private final long                           threshold;
+
+	private volatile ScheduledExecutorService executor;
+	private final AtomicBoolean      flushing;
+	private final AtomicLong         pointsWritten;
+	private final AtomicLong         bytesWritten;
+	private volatile long            bytesPerPoint = -1;
+	private volatile long            lastFlush;
+	
+	// Latency of the flushes in ns
+	private final AtomicLong count;
+	private final AtomicLong total;
+	private final AtomicLong max;
+	private volatile long    last;
+	
+	public NexusFlushScheduler(INexusScanFileManager manager, Collection<?> devices) {
+		this(manager, devices, Long.getLong(FLUSH_PERIOD_PROPERTY, DEFAULT_PERIOD), Long.getLong(FLUSH_BYTES_PROPERTY, DEFAULT_BYTES));
+	}
+
+	/**
+	 * 
+	 * @param manager the manager of the scan file
+	 * @param devices the devices of the scan, those which are IFlushableDevice are flushed with the file.
+	 * @param period in ms, zero or less to not flush on time.
+	 * @param threshold in bytes, zero or less to not flush on the amount written.
+	 */
+	public NexusFlushScheduler(INexusScanFileManager manager, Collection<?> devices, long period, long threshold) {
+		this.manager   = manager;
+		this.devices   = new ArrayList<>();
+		if (devices!=null) for (Object device : devices) {
+			if (device instanceof IFlushableDevice) this.devices.add((IFlushableDevice)device);
+		}
+		this.period    = period;
+		this.threshold = threshold;
+		this.flushing      = new AtomicBoolean(false);
+		this.pointsWritten = new AtomicLong(0);
+		this.bytesWritten  = new AtomicLong(0);
+		this.count = new AtomicLong(0);
+		this.total = new AtomicLong(0);
+		this.max   = new AtomicLong(0);
+	}
+	
+	/**
+	 * 
+	 * @return true if this scheduler will flush during the scan.
+	 */
+	public boolean isEnabled() {
+		return manager.isNexusWritingEnabled() && (period>0 || threshold>0);
+	}
+
+	/**
+	 * Call when the scan starts, creates the flushing thread.
+	 */
+	public void start() {
+		if (!isEnabled() || executor!=null) return;
+		executor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "NeXus flush");
+			thread.setDaemon(true);
+			return thread;
+		});
+		lastFlush = System.nanoTime();
+		if (period>0) executor.scheduleWithFixedDelay(this::check, period, Math.max(1, period/4), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Call from the scan loop when the write of a point has completed.
+	 * Does not block.
+	 * 
+	 * @param position the point written
+	 */
+	public void written(IPosition position) {
+		if (executor==null) return;
+		pointsWritten.incrementAndGet();
+		if (threshold<1) return;
+		if (bytesPerPoint<0) bytesPerPoint = manager.getBytesPerPoint(); // The frames are known once a point is written
+		if (bytesWritten.addAndGet(bytesPerPoint)>=threshold) request();
+	}
+
+	/**
+	 * Check the time since the last flush.
+	 */
+	private void check() {
+		if (pointsWritten.get()<1) return;
+		if (System.nanoTime()-lastFlush>=TimeUnit.MILLISECONDS.toNanos(period)) request();
+	}
+
+	private void request() {
+		if (!flushing.compareAndSet(false, true)) return; // The running flush will include this data
+		try {
+			executor.execute(this::flush);
+		} catch (RuntimeException ne) { // Rejected because we are stopping
+			flushing.set(false);
+		}
+	}
+
+	private void flush() {
+		try {
+			pointsWritten.set(0);
+			bytesWritten.set(0);
+			
+			long start = System.nanoTime();
+			manager.flushNexusFile();
+			for (IFlushableDevice device : devices) device.flush();
+			long end   = System.nanoTime();
+			
+			lastFlush = end;
+			record(end-start);
+			
+		} catch (ScanningException ne) {
+			logger.warn("Cannot flush the scan file(s)", ne);
+		} finally {
+			flushing.set(false);
+		}
+	}
+
+	private void record(long latency) {
+		last = latency;
+		count.incrementAndGet();
+		total.addAndGet(latency);
+		max.accumulateAndGet(latency, Math::max);
+		if (logger.isTraceEnabled()) logger.trace("Flush took {} ms", latency/1000000d);
+	}
+
+	/**
+	 * Call when the scan has finished writing and before the file is 
+	 * closed. Waits for a flush which is running to complete.
+	 */
+	public void stop() {
+		if (executor==null) return;
+		executor.shutdown(); // Cancels the timer, a flush already requested completes.
+		try {
+			if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+				logger.warn("A flush of the scan file(s) did not complete in 30s");
+			}
+		} catch (InterruptedException ie) {
+			logger.warn("Interrupted waiting for a flush of the scan file(s) to complete");
+			Thread.currentThread().interrupt();
+		}
+		executor = null;
+		if (count.get()>0) logger.debug("Flushed {} times, mean {} ms, max {} ms", count.get(), getMeanLatency(), getMaxLatency());
+	}
+
+	/**
+	 * @return the number of flushes made.
+	 */
+	public long getFlushCount() {
+		return count.get();
+	}
+
+	/**
+	 * @return the time taken by the last flush in ms
+	 */
+	public double getLastLatency() {
+		return last/1000000d;
+	}
+
+	/**
+	 * @return the mean time taken by a flush in ms
+	 */
+	public double getMeanLatency() {
+		long n = count.get();
+		return n>0 ? total.get()/1000000d/n : 0;
+	}
+
+	/**
+	 * @return the longest time taken by a flush in ms
+	 */
+	public double getMaxLatency() {
+		return max.get()/1000000d;
+	}
+
+	public long getPeriod() {
+		return period;
+	}
+
+	public long getThreshold() {
+		return threshold;
+	}
+}
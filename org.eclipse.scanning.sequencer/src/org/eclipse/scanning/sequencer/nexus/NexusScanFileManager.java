@@ -24,8 +24,19 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
+import org.eclipse.dawnsci.analysis.api.tree.DataNode;
 import org.eclipse.dawnsci.nexus.INexusDevice;
 import org.eclipse.dawnsci.nexus.NXdata;
 import org.eclipse.dawnsci.nexus.NXentry;
@@ -45,6 +56,8 @@ import org.eclipse.dawnsci.nexus.builder.data.DataDeviceBuilder;
 import org.eclipse.dawnsci.nexus.builder.data.NexusDataBuilder;
 import org.eclipse.dawnsci.nexus.builder.data.PrimaryDataDevice;
 import org.eclipse.dawnsci.nexus.builder.impl.MapBasedMetadataProvider;
+import org.eclipse.january.dataset.ILazyDataset;
+import org.eclipse.january.dataset.ILazyWriteableDataset;
 import org.eclipse.scanning.api.INameable;
 import org.eclipse.scanning.api.IScannable;
 import org.eclipse.scanning.api.MonitorRole;
@@ -63,6 +76,7 @@ import org.eclipse.scanning.api.scan.models.ScanDeviceModel.ScanFieldModel;
 import org.eclipse.scanning.api.scan.models.ScanMetadata;
 import org.eclipse.scanning.api.scan.models.ScanMetadata.MetadataType;
 import org.eclipse.scanning.api.scan.models.ScanModel;
+import org.eclipse.scanning.api.scan.rank.IChunkPlanner;
 import org.eclipse.scanning.sequencer.ServiceHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -74,6 +88,50 @@ public class NexusScanFileManager implements INexusScanFileManager, IPositionLis
 	
 	private static final Logger logger = LoggerFactory.getLogger(NexusScanFileManager.class);
 
+	/**
+	 * Devices are asked for their nexus providers in parallel unless this property is set.
+	 */
+	public static final String SERIAL_PROVIDERS_PROPERTY = "org.eclipse.scanning.sequencer.nexus.serialProviders";
+	
+	private static final ExecutorService providerExecutor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+		Thread thread = new Thread(r, "NeXus provider");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
+	/**
+	 * The number of per-scan monitors which are read at the same time, default 8.
+	 */
+	public static final String PER_SCAN_THREADS_PROPERTY = "org.eclipse.scanning.sequencer.nexus.perScanThreads";
+	
+	/**
+	 * The time in ms to wait for each per-scan monitor from when its read starts, default 30000.
+	 * A monitor which is slower than this is reported and left out of the file. Zero or less
+	 * waits forever.
+	 */
+	public static final String PER_SCAN_TIMEOUT_PROPERTY = "org.eclipse.scanning.sequencer.nexus.perScanTimeout";
+	
+	/**
+	 * The most time in ms to wait for all the per-scan monitors of a scan, default 300000.
+	 * Monitors which are still queued behind reads which do not return are left out when
+	 * it has passed. Zero or less has no limit.
+	 */
+	public static final String PER_SCAN_MAX_WAIT_PROPERTY = "org.eclipse.scanning.sequencer.nexus.perScanMaxWait";
+	
+	/**
+	 * Per-scan monitors are often slow hardware reads and there may be many of them,
+	 * so they are read on their own pool and cannot hold up the other devices.
+	 */
+	private static final int perScanThreads = Math.max(1, Integer.getInteger(PER_SCAN_THREADS_PROPERTY, 8));
+	private static final ThreadPoolExecutor perScanExecutor = new ThreadPoolExecutor(perScanThreads, perScanThreads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+		Thread thread = new Thread(r, "Per-scan monitor");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
+	private static volatile long perScanTimeout = Long.getLong(PER_SCAN_TIMEOUT_PROPERTY, 30000);
+	private static volatile long perScanMaxWait = Long.getLong(PER_SCAN_MAX_WAIT_PROPERTY, 300000);
+
 	private final AbstractRunnableDevice<ScanModel> scanDevice;
 	private ScanModel model;
 	private NexusScanInfo scanInfo;
@@ -126,9 +184,10 @@ public class NexusScanFileManager implements INexusScanFileManager, IPositionLis
 		this.model = model;
 		
 		final List<String> scannableNames = getScannableNames(model.getPositionIterable());
+		final int scanRank = getScanRank(model);
 		addLegacyPerScanMonitors(model, scannableNames);
 
-		this.scanInfo = createScanInfo(model, scannableNames);
+		this.scanInfo = createScanInfo(model, scannableNames, scanRank);
 		
 		// create the solstice scan monitor which writes unique keys. This is not added as
 		// a monitor to the scan as it part of the scan framework and must always write last
@@ -172,10 +231,12 @@ public class NexusScanFileManager implements INexusScanFileManager, IPositionLis
 	}
 	
 	/**
-	 * Flushes the wrapped nexus file.
+	 * Flushes the wrapped nexus file, writing any unique keys which the
+	 * scan monitor has buffered first.
 	 * @throws ScanningException if the nexus file could not be flushed for any reason
 	 */
 	public void flushNexusFile() throws ScanningException {
+		solsticeScanMonitor.flushUniqueKeys();
 		try {
 			int code = nexusScanFile.flush();
 			if (code < 0) {
@@ -186,6 +247,35 @@ public class NexusScanFileManager implements INexusScanFileManager, IPositionLis
 		}
 	}
 	
+	@Override
+	public long getBytesPerPoint() {
+		final int scanRank = scanInfo.getRank();
+		long bytes = 0;
+		for (List<NexusObjectProvider<?>> provList : nexusObjectProviders.values()) {
+			for (NexusObjectProvider<?> prov : provList) {
+				final NXobject nexusObject = prov.getNexusObject();
+				if (nexusObject==null) continue;
+				for (DataNode node : nexusObject.getDataNodeMap().values()) {
+					final ILazyDataset dataset = node.getDataset();
+					if (!(dataset instanceof ILazyWriteableDataset)) continue; // Not written during the scan
+					final int[] shape = dataset.getShape();
+					if (shape==null || shape.length<scanRank) continue;
+					long size = getItemBytes(dataset.getElementClass())*dataset.getElementsPerItem();
+					for (int i = scanRank; i < shape.length; i++) size*=shape[i];
+					bytes+=size;
+				}
+			}
+		}
+		return bytes;
+	}
+	
+	private static int getItemBytes(Class<?> clazz) {
+		if (clazz==Byte.class || clazz==Boolean.class) return 1;
+		if (clazz==Short.class) return 2;
+		if (clazz==Integer.class || clazz==Float.class) return 4;
+		return 8; // Double, Long and an estimate for others.
+	}
+	
 	/**
 	 * Writes scan finished and closes the wrapped nexus file.
 	 * @throws ScanningException
@@ -244,28 +334,203 @@ public class NexusScanFileManager implements INexusScanFileManager, IPositionLis
 		return nexusDevices;
 	}
 
+	/**
+	 * Asks each device for its nexus provider. Devices do not depend on each other
+	 * to do this and some are slow, for instance reading hardware, so they are asked
+	 * in parallel. The order of the providers is the order of the devices.
+	 * 
+	 * @return providers for each role
+	 * @throws ScanningException
+	 */
 	protected Map<ScanRole, List<NexusObjectProvider<?>>> extractNexusProviders() throws ScanningException {
-		Map<ScanRole, List<NexusObjectProvider<?>>> nexusObjectProviders = new EnumMap<>(ScanRole.class);
+		
+		final boolean serial = Boolean.getBoolean(SERIAL_PROVIDERS_PROPERTY) || nexusDevices.values().stream().mapToInt(Collection::size).sum()<2;
+		
+		// Each per-scan monitor is timed from when its read starts, the upper bound is for them all.
+		final long timeout     = serial ? 0 : perScanTimeout;
+		final long maxDeadline = !serial && perScanMaxWait>0 ? System.currentTimeMillis()+perScanMaxWait : 0;
+		final List<TimedRead> perScanReads = new ArrayList<>();
+
+		final Map<ScanRole, List<Future<NexusObjectProvider<?>>>> futures = new EnumMap<>(ScanRole.class);
 		for (ScanRole deviceType: ScanRole.values()) {
 			final Collection<INexusDevice<?>> nexusDevicesForType = nexusDevices.get(deviceType);
-			final List<NexusObjectProvider<?>> nexusObjectProvidersForType =
-					new ArrayList<>(nexusDevicesForType.size());
+			final List<Future<NexusObjectProvider<?>>> futuresForType = new ArrayList<>(nexusDevicesForType.size());
 			for (INexusDevice<?> nexusDevice : nexusDevicesForType) {
+				final Callable<NexusObjectProvider<?>> task = () -> nexusDevice.getNexusProvider(scanInfo);
+				if (serial) {
+					final FutureTask<NexusObjectProvider<?>> ftask = new FutureTask<>(task);
+					ftask.run();
+					futuresForType.add(ftask);
+				} else if (deviceType==ScanRole.MONITOR_PER_SCAN) {
+					final TimedRead read = new TimedRead(task);
+					perScanReads.add(read);
+					futuresForType.add(perScanExecutor.submit(read));
+				} else {
+					futuresForType.add(providerExecutor.submit(task));
+				}
+			}
+			futures.put(deviceType, futuresForType);
+		}
+
+		Map<ScanRole, List<NexusObjectProvider<?>>> nexusObjectProviders = new EnumMap<>(ScanRole.class);
+		for (ScanRole deviceType: ScanRole.values()) {
+			final List<Future<NexusObjectProvider<?>>> futuresForType = futures.get(deviceType);
+			final List<NexusObjectProvider<?>> nexusObjectProvidersForType =
+					new ArrayList<>(futuresForType.size());
+			final boolean timed = deviceType==ScanRole.MONITOR_PER_SCAN && !serial;
+			final Collection<INexusDevice<?>> slow = new ArrayList<>();
+			final Iterator<INexusDevice<?>> devices = nexusDevices.get(deviceType).iterator();
+			for (int i = 0; i < futuresForType.size(); i++) {
+				final Future<NexusObjectProvider<?>> future = futuresForType.get(i);
+				final INexusDevice<?> nexusDevice = devices.next();
 				try {
-					NexusObjectProvider<?> nexusProvider = nexusDevice.getNexusProvider(scanInfo);
+					NexusObjectProvider<?> nexusProvider = timed
+							? getNexusProvider(future, perScanReads.get(i), timeout, maxDeadline)
+							: getNexusProvider(future, 0);
 					if (nexusProvider != null) {
 						nexusObjectProvidersForType.add(nexusProvider);
 					}
-				} catch (NexusException e) {
-					throw new ScanningException("Cannot create device: " + e.getMessage(), e);
+				} catch (TimeoutException e) {
+					future.cancel(true);
+					if (perScanReads.get(i).started>0) {
+						logger.error("The per-scan monitor '{}' did not give its value within {} ms and will not be written", getDeviceName(nexusDevice), timeout);
+					} else {
+						logger.error("The per-scan monitor '{}' was not read within {} ms of the scan and will not be written", getDeviceName(nexusDevice), perScanMaxWait);
+					}
+					slow.add(nexusDevice);
 				}
 			}
+			if (!slow.isEmpty()) {
+				// A read which does not respond to the interrupt keeps its thread until it returns.
+				final int blocked = perScanExecutor.getActiveCount();
+				if (blocked>0) {
+					logger.warn("{} of the {} per-scan monitor threads are still in reads which timed out, "
+						      + "they are not available to other scans until those reads return",
+						      blocked, perScanThreads);
+				}
+				nexusDevices.put(deviceType, nexusDevices.get(deviceType).stream().filter(d -> !slow.contains(d)).collect(Collectors.toList()));
+			}
 			
 			nexusObjectProviders.put(deviceType, nexusObjectProvidersForType);
 		}
 		
 		return nexusObjectProviders;
 	}
+	
+	/**
+	 * Waits for a per-scan monitor until the timeout has passed from when its read started.
+	 * A read which is queued behind others has not started and is waited for, up to the
+	 * deadline for all the per-scan monitors.
+	 * 
+	 * @param future
+	 * @param read
+	 * @param timeout the time in ms from the start of the read, zero or less waits forever.
+	 * @param maxDeadline the time in ms by which all the reads must be done, zero has no limit.
+	 */
+	private NexusObjectProvider<?> getNexusProvider(Future<NexusObjectProvider<?>> future, TimedRead read, long timeout, long maxDeadline) throws ScanningException, TimeoutException {
+		while (true) {
+			final long started = read.started;
+			long deadline = 0;
+			if (timeout>0) {
+				// Until the read starts, look again at least every 100 ms to see if it has.
+				deadline = started>0 ? started+timeout : System.currentTimeMillis()+Math.min(timeout, 100);
+			}
+			if (maxDeadline>0) deadline = deadline>0 ? Math.min(deadline, maxDeadline) : maxDeadline;
+			try {
+				return getNexusProvider(future, deadline);
+			} catch (TimeoutException ne) {
+				final long now = System.currentTimeMillis();
+				if (maxDeadline>0 && now>=maxDeadline) throw ne;
+				if (timeout>0 && read.started>0 && now>=read.started+timeout) throw ne;
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 * @param future
+	 * @param deadline the time in ms by which the provider must be given, zero waits forever.
+	 */
+	private NexusObjectProvider<?> getNexusProvider(Future<NexusObjectProvider<?>> future, long deadline) throws ScanningException, TimeoutException {
+		try {
+			return deadline>0 ? future.get(Math.max(0, deadline-System.currentTimeMillis()), TimeUnit.MILLISECONDS) : future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ScanningException("Interrupted creating devices", e);
+		} catch (ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof NexusException) {
+				throw new ScanningException("Cannot create device: " + cause.getMessage(), cause);
+			}
+			if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+			if (cause instanceof Error) throw (Error)cause;
+			throw new ScanningException(cause);
+		}
+	}
+
+	private static Object getDeviceName(INexusDevice<?> nexusDevice) {
+		return nexusDevice instanceof INameable ? ((INameable)nexusDevice).getName() : nexusDevice;
+	}
+	
+	/**
+	 * A per-scan monitor read which records when it starts, so that a monitor which is
+	 * queued behind others on the pool is timed from when it runs and not from the submit.
+	 */
+	private static class TimedRead implements Callable<NexusObjectProvider<?>> {
+		
+		private final Callable<NexusObjectProvider<?>> task;
+		private volatile long started; // Zero until the read starts
+		
+		TimedRead(Callable<NexusObjectProvider<?>> task) {
+			this.task = task;
+		}
+
+		@Override
+		public NexusObjectProvider<?> call() throws Exception {
+			started = System.currentTimeMillis();
+			return task.call();
+		}
+	}
+	
+	/**
+	 * 
+	 * @return the time in ms to wait for each per-scan monitor from when its read starts, zero or less waits forever.
+	 */
+	public static long getPerScanTimeout() {
+		return perScanTimeout;
+	}
+
+	/**
+	 * 
+	 * @param timeout the time in ms to wait for each per-scan monitor from when its read starts, zero or less waits forever.
+	 */
+	public static void setPerScanTimeout(long timeout) {
+		perScanTimeout = timeout;
+	}
+
+	/**
+	 * 
+	 * @return the most time in ms to wait for all the per-scan monitors of a scan, zero or less has no limit.
+	 */
+	public static long getPerScanMaxWait() {
+		return perScanMaxWait;
+	}
+
+	/**
+	 * 
+	 * @param maxWait the most time in ms to wait for all the per-scan monitors of a scan, zero or less has no limit.
+	 */
+	public static void setPerScanMaxWait(long maxWait) {
+		perScanMaxWait = maxWait;
+	}
+	
+	/**
+	 * 
+	 * @return the number of threads which read per-scan monitors.
+	 */
+	public static int getPerScanThreads() {
+		return perScanThreads;
+	}
 
 	/**
 	 * Augments the set of monitors in the model with: <ul>
@@ -319,13 +584,41 @@ public class NexusScanFileManager implements INexusScanFileManager, IPositionLis
 		// setting them to be per scan monitors
 		if (!scannablesToAdd.isEmpty()) {
 			final List<IScannable<?>> monitors = new ArrayList<>(model.getMonitors());
-			monitors.addAll(perScanMonitorNames.stream()
-				.map(name -> getPerScanMonitor(name)).collect(Collectors.toList()));
+			monitors.addAll(getPerScanMonitors(perScanMonitorNames));
 
 			model.setMonitors(monitors);
 		}
 	}
 	
+	/**
+	 * Looks up the per-scan monitors. The connector service may be remote, so the
+	 * lookups are done in parallel on the per-scan pool. The order is that of the names.
+	 */
+	private List<IScannable<?>> getPerScanMonitors(Collection<String> monitorNames) throws ScanningException {
+		if (Boolean.getBoolean(SERIAL_PROVIDERS_PROPERTY) || monitorNames.size()<2) {
+			return monitorNames.stream().map(name -> getPerScanMonitor(name)).collect(Collectors.toList());
+		}
+		
+		final List<Future<IScannable<?>>> futures = new ArrayList<>(monitorNames.size());
+		for (String name : monitorNames) futures.add(perScanExecutor.submit(() -> getPerScanMonitor(name)));
+		
+		final List<IScannable<?>> monitors = new ArrayList<>(futures.size());
+		for (Future<IScannable<?>> future : futures) {
+			try {
+				monitors.add(future.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ScanningException("Interrupted reading per-scan monitors", e);
+			} catch (ExecutionException e) {
+				final Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+				if (cause instanceof Error) throw (Error)cause;
+				throw new ScanningException(cause);
+			}
+		}
+		return monitors;
+	}
+	
 	private IScannable<?> getPerScanMonitor(String monitorName) {
 		IScannable<?> scannable = null;
 		try {
@@ -354,17 +647,19 @@ public class NexusScanFileManager implements INexusScanFileManager, IPositionLis
 			names = ((IDeviceDependentIterable)gen).getScannableNames();
 		}
 		if (names==null) {
-			names = model.getPositionIterable().iterator().next().getNames();
+			final Iterator<IPosition> it = gen.iterator();
+			names = it.hasNext() ? it.next().getNames() : Collections.emptyList();
 		}
 		return names;
 	}
 	
-	private NexusScanInfo createScanInfo(ScanModel scanModel, List<String> scannableNames) throws ScanningException {
+	private NexusScanInfo createScanInfo(ScanModel scanModel, List<String> scannableNames, int scanRank) throws ScanningException {
 		final NexusScanInfo nexusScanInfo = new NexusScanInfo(scannableNames);
 
-		final int scanRank = getScanRank(scanModel);
 		nexusScanInfo.setRank(scanRank);
-		nexusScanInfo.setShape(scanModel.getScanInformation().getShape());
+		int[] shape = scanModel.getScanInformation().getShape();
+		if (shape==null || shape.length!=scanRank) shape = IChunkPlanner.unknownShape(scanRank); // Devices plan chunks from the shape
+		nexusScanInfo.setShape(shape);
 		
 		nexusScanInfo.setDetectorNames(getDeviceNames(scanModel.getDetectors()));
 
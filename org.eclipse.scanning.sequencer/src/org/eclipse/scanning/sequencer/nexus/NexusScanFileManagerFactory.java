@@ -40,6 +40,11 @@ public class NexusScanFileManagerFactory {
 			// do nothing
 		}
 
+		@Override
+		public long getBytesPerPoint() {
+			return 0;
+		}
+
 		@Override
 		public void scanFinished() throws ScanningException {
 			// do nothing
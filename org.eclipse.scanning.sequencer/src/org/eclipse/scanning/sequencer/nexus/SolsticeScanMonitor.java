@@ -60,6 +60,7 @@ import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.scan.ScanInformation;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.models.ScanModel;
+import org.eclipse.scanning.api.scan.rank.IChunkPlanner;
 import org.eclipse.scanning.api.scan.rank.IScanRankService;
 import org.eclipse.scanning.api.scan.rank.IScanSlice;
 import org.eclipse.scanning.sequencer.ServiceHolder;
@@ -76,6 +77,15 @@ import org.slf4j.LoggerFactory;
  * scan framework itself, and specifically because it must write to the unique keys dataset only
  * after all devices have written to their datasets.
  * 
+ * The unique keys are not written one point at a time, they are buffered while the
+ * points of the scan are contiguous along the innermost dimension and written as a
+ * single slice. A key is only ever written later than it would have been, never
+ * earlier, so a reader which sees a key can still rely on the detector data for that
+ * point being there. The buffer is written out when it reaches the chunk size of the
+ * innermost dimension, when the next point is not contiguous, when the oldest key
+ * has been buffered for longer than {@link #UNIQUE_KEYS_MAX_AGE}, when the file is
+ * flushed and when the scan finishes or is aborted.
+ * 
  * @author Matthew Dickie
  */
 public class SolsticeScanMonitor extends AbstractScannable<Object> implements INexusDevice<NXcollection> {
@@ -87,6 +97,19 @@ public class SolsticeScanMonitor extends AbstractScannable<Object> implements IN
 	private static final DateTimeFormatter formatter = new DateTimeFormatterBuilder().
 			appendPattern("HH:mm:ss").appendFraction(ChronoField.NANO_OF_SECOND, 3, 3, true).toFormatter();
 
+	/**
+	 * The maximum number of unique keys which are buffered before they are written.
+	 * A value of 1 writes each key as the point completes.
+	 */
+	public static final String UNIQUE_KEYS_BATCH_PROPERTY = "org.eclipse.scanning.sequencer.nexus.uniqueKeysBatch";
+	private static final int    UNIQUE_KEYS_BATCH = Integer.getInteger(UNIQUE_KEYS_BATCH_PROPERTY, 1024);
+	
+	/**
+	 * The time in ms after which buffered keys are written when the next point arrives,
+	 * so that slow scans still show their progress.
+	 */
+	public static final long UNIQUE_KEYS_MAX_AGE = 500;
+
 	// Nexus
 	private List<NexusObjectProvider<?>> nexusObjectProviders = null;
 	private NexusObjectProvider<NXcollection> nexusProvider = null;
@@ -105,6 +128,15 @@ public class SolsticeScanMonitor extends AbstractScannable<Object> implements IN
 	private int[] scanShape = null;
 	private boolean writeAfterMovePerformed = false;
 	
+	// Unique keys not yet written, a run along the innermost dimension
+	private final Object keysLock = new Object();
+	private int     keysBatchSize = 1;
+	private int[]   keysStart = null;
+	private int     keysDirection = 0;
+	private int[]   keysBuffer = null;
+	private int     keysCount = 0;
+	private long    keysTime = 0;
+	
 	public SolsticeScanMonitor(ScanModel model) {
 		this.model = model;
 		setName(SCANNABLE_NAME_SOLSTICE_SCAN_MONITOR);
@@ -215,10 +247,11 @@ public class SolsticeScanMonitor extends AbstractScannable<Object> implements IN
 
 		// set chunking for lazy datasets
 		if (info.getRank() > 0) {
-			final int[] chunk = info.createChunk(false, 8);
+			final int[] chunk = IChunkPlanner.getChunkPlanner().createScalarChunk(info.getShape(), 4);
 			if (!malcolmScan) {
 				uniqueKeysDataset.setFillValue(0);
 				uniqueKeysDataset.setChunking(chunk);
+				keysBatchSize = Math.max(1, Math.min(chunk[chunk.length-1], UNIQUE_KEYS_BATCH));
 			}
 		}
 		
@@ -243,6 +276,7 @@ public class SolsticeScanMonitor extends AbstractScannable<Object> implements IN
 	/**
 	 * Called when the scan completes to: 
 	 * <ul>
+	 * <li>write any unique keys which are still buffered;</li>
 	 * <li>write the scan finished (by writing '1' to the scan finished dataset;</li>
 	 * <li>write the scan duration.</li>
 	 * </ul>
@@ -250,6 +284,8 @@ public class SolsticeScanMonitor extends AbstractScannable<Object> implements IN
 	 */
 	public void scanFinished() throws ScanningException {
 		// Note: we don't use scanFinally as that is called after the nexus file is closed.
+		flushUniqueKeys();
+		
 		final Dataset scanFinishedDataset = DatasetFactory.createFromObject(IntegerDataset.class, 1, null);
 		try {
 			this.scanFinishedDataset.setSlice(null, scanFinishedDataset,
@@ -359,8 +395,13 @@ public class SolsticeScanMonitor extends AbstractScannable<Object> implements IN
 	private Object writePosition(IPosition position) {
 		if (!malcolmScan) {
 			IScanSlice rslice = IScanRankService.getScanRankService().createScanSlice(position);
-			SliceND sliceND = new SliceND(uniqueKeysDataset.getShape(), uniqueKeysDataset.getMaxShape(), rslice.getStart(), rslice.getStop(), rslice.getStep());
 			final int uniqueKey = position.getStepIndex() + 1;
+			if (keysBatchSize > 1 && rslice.getStart().length > 0) {
+				bufferUniqueKey(rslice.getStart(), uniqueKey);
+				return null;
+			}
+			
+			SliceND sliceND = new SliceND(uniqueKeysDataset.getShape(), uniqueKeysDataset.getMaxShape(), rslice.getStart(), rslice.getStop(), rslice.getStep());
 			final Dataset newActualPosition = DatasetFactory.createFromObject(uniqueKey);
 			try {
 				uniqueKeysDataset.setSlice(null, newActualPosition, sliceND);
@@ -372,6 +413,87 @@ public class SolsticeScanMonitor extends AbstractScannable<Object> implements IN
 		return null;
 	}
 
+	/**
+	 * Adds a key to the buffer, writing the buffer first if the key does not
+	 * continue the current run and afterwards if the run is full or old.
+	 * @param start
+	 * @param uniqueKey
+	 */
+	private void bufferUniqueKey(int[] start, int uniqueKey) {
+		synchronized (keysLock) {
+			if (keysCount > 0 && !isNextKey(start)) writeUniqueKeys();
+			if (keysCount == 0) {
+				keysStart = start.clone();
+				keysDirection = 0;
+				keysTime = System.currentTimeMillis();
+				if (keysBuffer == null) keysBuffer = new int[keysBatchSize];
+			} else if (keysDirection == 0) {
+				keysDirection = start[start.length-1] - keysStart[keysStart.length-1];
+			}
+			keysBuffer[keysCount++] = uniqueKey;
+			
+			if (keysCount >= keysBatchSize || System.currentTimeMillis() - keysTime > UNIQUE_KEYS_MAX_AGE) {
+				writeUniqueKeys();
+			}
+		}
+	}
+
+	/**
+	 * @param start
+	 * @return true if the point is next to the last buffered point along the innermost
+	 * dimension, in the same direction as the run so far (snake scans run backwards).
+	 */
+	private boolean isNextKey(int[] start) {
+		if (start.length != keysStart.length) return false;
+		final int last = start.length-1;
+		for (int i = 0; i < last; i++) {
+			if (start[i] != keysStart[i]) return false;
+		}
+		final int step = start[last] - (keysStart[last] + keysDirection * (keysCount-1));
+		if (keysDirection == 0) return step == 1 || step == -1;
+		return step == keysDirection;
+	}
+
+	/**
+	 * Writes any unique keys which are buffered. This is called by the file
+	 * manager before the file is flushed and when the scan finishes.
+	 */
+	public void flushUniqueKeys() {
+		synchronized (keysLock) {
+			if (keysCount > 0) writeUniqueKeys();
+		}
+	}
+
+	private void writeUniqueKeys() {
+		final int last = keysStart.length-1;
+		final int[] values = Arrays.copyOf(keysBuffer, keysCount);
+		final int[] start  = keysStart.clone();
+		if (keysDirection < 0) { // Written in increasing order of index
+			for (int i = 0; i < values.length/2; i++) {
+				int tmp = values[i];
+				values[i] = values[values.length-1-i];
+				values[values.length-1-i] = tmp;
+			}
+			start[last] = start[last] - (keysCount-1);
+		}
+		final int[] shape = new int[start.length];
+		Arrays.fill(shape, 1);
+		shape[last] = keysCount;
+		final int[] stop = new int[start.length];
+		for (int i = 0; i < stop.length; i++) stop[i] = start[i] + shape[i];
+		final int[] step = new int[start.length];
+		Arrays.fill(step, 1);
+		
+		keysCount = 0;
+		try {
+			final Dataset keys = DatasetFactory.createFromObject(IntegerDataset.class, values, shape);
+			SliceND sliceND = new SliceND(uniqueKeysDataset.getShape(), uniqueKeysDataset.getMaxShape(), start, stop, step);
+			uniqueKeysDataset.setSlice(null, keys, sliceND);
+		} catch (DatasetException e) {
+			logger.error("Could not write unique keys", e);
+		}
+	}
+
 	public boolean writeAfterMovePerformed() {
 		return writeAfterMovePerformed;
 	}
@@ -14,6 +14,9 @@ package org.eclipse.scanning.sequencer.watchdog;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.dawnsci.analysis.api.expressions.IExpressionEngine;
 import org.eclipse.dawnsci.analysis.api.expressions.IExpressionService;
@@ -28,6 +31,7 @@ import org.eclipse.scanning.api.scan.PositionEvent;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.event.IPositionListenable;
 import org.eclipse.scanning.api.scan.event.IPositionListener;
+import org.eclipse.scanning.sequencer.expression.CompiledExpression;
 import org.eclipse.scanning.sequencer.expression.ServerExpressionService;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceReference;
@@ -39,6 +43,14 @@ import org.slf4j.LoggerFactory;
  * 
  * Monitors an expression of scannables and if one of the values changes, reevaluates the
  * expression.
+ * 
+ * The expression is compiled once when the scan starts and each scannable it uses is bound
+ * to a slot, so position events (including compound ones) only set values by index. The 
+ * expression is only reevaluated if one of its values changed.
+ * 
+ * The pauseDelay and resumeDelay of the model give the decision hysteresis. If set, the 
+ * expression must stay false (or true) for that long before the scan is paused (or resumed), 
+ * so that a noisy PV does not pause and resume a scan repeatedly.
  * 
  
   Example XML configuration
@@ -62,8 +74,17 @@ public class ExpressionWatchdog extends AbstractWatchdog implements IPositionLis
 	
 	private static Logger logger = LoggerFactory.getLogger(ExpressionWatchdog.class);
 
-	private IExpressionEngine engine;
-	private IPosition         lastCompletedPoint;
+	private CompiledExpression expression;
+	private IPosition          lastCompletedPoint;
+	
+	/**
+	 * Used for the hysteresis of pause and resume, the decision
+	 * last sent to the controller and one waiting to be sent, if any.
+	 */
+	private ScheduledExecutorService debouncer;
+	private boolean                  running = true;
+	private Boolean                  pending;
+	private long                     pendingCount;
 
 
 	private List<IScannable<?>>       scannables;
@@ -92,34 +113,76 @@ public class ExpressionWatchdog extends AbstractWatchdog implements IPositionLis
 
 	private void checkPosition(IPosition pos) {
 		try {
-			if (engine==null) return;
+			CompiledExpression expr = expression;
+			if (expr==null) return;
 			
-			if (pos.getNames().size()!=1) return;
-			String name = pos.getNames().get(0);
-			engine.addLoadedVariable(name, pos.get(name));
-			checkExpression(true);
+			// Positions may be compound, we only reevaluate if one of our values changed.
+			boolean changed = false;
+			for (String name : pos.getNames()) {
+				changed = expr.set(name, pos.get(name)) || changed;
+			}
+			if (changed) checkExpression(expr, true);
 					
 		} catch (Exception ne) {
 			logger.error("Cannot process position "+pos, ne);
 		}	
 	}
 	
-	private boolean checkExpression(boolean requirePause) throws Exception {
-		Boolean ok = engine.evaluate();
+	private boolean checkExpression(CompiledExpression expr, boolean requirePause) throws Exception {
+		Boolean ok = expr.evaluate();
+		if (requirePause) decide(ok);
+		return ok;
+	}
 		
-		if (requirePause) {
+	/**
+	 * Sends the decision to the controller, after the hysteresis
+	 * delay if there is one.
+	 * @param ok
+	 * @throws Exception
+	 */
+	private synchronized void decide(boolean ok) throws Exception {
 			
-			if (!ok) {
-			    controller.pause(getId(), model); // Will not pause if already paused.
+		if (ok==running) { // Nothing to do, cancel anything pending.
+			pending = null;
+			return;
+		}
+		if (pending!=null && pending==ok) return; // Already waiting to do this
 				
-			} else {
-				if (lastCompletedPoint!=null) {
-					controller.seek(getId(), lastCompletedPoint.getStepIndex());
-				}
-				controller.resume(getId()); // Will not resume unless paused by us
+		long delay = ok ? model.getResumeDelay() : model.getPauseDelay();
+		if (delay<=0 || debouncer==null) {
+			pending = null;
+			apply(ok);
+			return;
+		}
+		
+		final long count = ++pendingCount;
+		pending = ok;
+		debouncer.schedule(()->applyPending(count), delay, TimeUnit.MILLISECONDS);
+	}
+	
+	private synchronized void applyPending(long count) {
+		if (pending==null || count!=pendingCount) return; // Cancelled or superseded
+		try {
+			boolean ok = pending;
+			pending = null;
+			apply(ok);
+		} catch (Exception ne) {
+			logger.error("Cannot apply decision of "+getId(), ne);
+		}
+	}
+	
+	private void apply(boolean ok) throws Exception {
+		
+		running = ok;
+		if (!ok) {
+		    controller.pause(getId(), model); // Will not pause if already paused.
+			
+		} else {
+			if (lastCompletedPoint!=null) {
+				controller.seek(getId(), lastCompletedPoint.getStepIndex());
 			}
+			controller.resume(getId()); // Will not resume unless paused by us
 		}
-		return ok;
 	}
 	
 	@ScanStart
@@ -127,10 +190,13 @@ public class ExpressionWatchdog extends AbstractWatchdog implements IPositionLis
 		
 		logger.debug("Expression Watchdog starting on "+controller.getName());
 		try {
-		    this.engine = getExpressionService().getExpressionEngine();
+		    IExpressionEngine engine = getExpressionService().getExpressionEngine();
 		    
 		    engine.createExpression(model.getExpression()); // Parses expression, may send exception on syntax
 		    Collection<String> names = engine.getVariableNamesFromExpression();
+		    
+		    // Compile once and bind each scannable to a slot.
+		    CompiledExpression expr = new CompiledExpression(model.getExpression(), names);
 		    this.scannables = new ArrayList<>(names.size());
 		    for (String name : names) {
 				IScannable<?> scannable = getScannable(name);
@@ -138,15 +204,28 @@ public class ExpressionWatchdog extends AbstractWatchdog implements IPositionLis
 				
 			    if (!(scannable instanceof IPositionListenable)) throw new ScanningException(name+" is not a position listenable!");
 
-				engine.addLoadedVariable(scannable.getName(), scannable.getPosition());
+				expr.set(expr.getSlot(name), scannable.getPosition());
 		    }
 		    
 		    // Check it
-		    boolean ok = checkExpression(false);
+		    boolean ok = checkExpression(expr, false);
 		    if (!ok) {
 		    	throw new ScanningException(model.getMessage()+". The expression '"+model.getExpression()+"' is false and a scan may not be run!");
 		    }
 		    
+		    synchronized (this) {
+		    	running = true;
+		    	pending = null;
+		    	if (model.getPauseDelay()>0 || model.getResumeDelay()>0) {
+		    		debouncer = Executors.newSingleThreadScheduledExecutor(r -> {
+		    			Thread thread = new Thread(r, "Expression watchdog hysteresis");
+		    			thread.setDaemon(true);
+		    			return thread;
+		    		});
+		    	}
+		    }
+		    this.expression = expr;
+		    
 		    // Listen to it
 		    for (IScannable<?> scannable : scannables) {
 			    ((IPositionListenable)scannable).addPositionListener(this);
@@ -175,7 +254,12 @@ public class ExpressionWatchdog extends AbstractWatchdog implements IPositionLis
 		    	((IPositionListenable)scannable).removePositionListener(this);
 			}
 			scannables.clear();
-			engine = null;
+			expression = null;
+			synchronized (this) {
+				pending = null;
+				if (debouncer!=null) debouncer.shutdownNow();
+				debouncer = null;
+			}
 		    
 		} catch (Exception ne) {
 			logger.error("Cannot stop watchdog!", ne);
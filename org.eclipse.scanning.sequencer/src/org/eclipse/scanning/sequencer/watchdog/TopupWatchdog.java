@@ -13,15 +13,20 @@ package org.eclipse.scanning.sequencer.watchdog;
 
 import org.eclipse.scanning.api.IScannable;
 import org.eclipse.scanning.api.annotation.scan.PointEnd;
+import org.eclipse.scanning.api.annotation.scan.PointStart;
 import org.eclipse.scanning.api.annotation.scan.ScanFinally;
 import org.eclipse.scanning.api.annotation.scan.ScanStart;
+import org.eclipse.scanning.api.device.IRunnableDevice;
 import org.eclipse.scanning.api.device.models.DeviceWatchdogModel;
+import org.eclipse.scanning.api.device.models.IDetectorModel;
+import org.eclipse.scanning.api.event.scan.DeviceState;
 import org.eclipse.scanning.api.event.scan.ScanBean;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.scan.PositionEvent;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.event.IPositionListenable;
 import org.eclipse.scanning.api.scan.event.IPositionListener;
+import org.eclipse.scanning.api.scan.models.ScanModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -128,6 +133,22 @@ In brief though, the only one you need to care about is state 8 = VMX. This is "
 
 If this PV = 8, then we're in normal mode. If this PV is anything else, then we're in some other state.
 
+<h3>Predictive mode</h3>
+
+If the model is predictive the scan is not paused and rewound around topup. Instead the
+start of each point is held until the point fits in the window left before the next topup:
+
+    <pre>
+    1. t - (e+o) > c
+    2. t < (p-Tf)-w
+    
+    e  - exposure time of the point
+    o  - point overhead from the model (moves, readout etc.)
+    </pre>
+
+The countdown is extrapolated between events so that the hold is no longer than it needs to be.
+Loss of beam cannot be predicted so it still pauses and rewinds the scan as above.
+
     
  * @author Matthew Gerring
  *
@@ -135,12 +156,23 @@ If this PV = 8, then we're in normal mode. If this PV is anything else, then we'
 public class TopupWatchdog extends AbstractWatchdog implements IPositionListener {
 	
 	private static Logger logger = LoggerFactory.getLogger(TopupWatchdog.class);
+	
+	private static final long PAUSED_POLL = 100; // ms, how often a held point checks if a paused scan has resumed
 
 	private String             countdownUnit;
 	private volatile IPosition lastCompletedPoint;
 	
 	private volatile boolean busy   = false;
 	private volatile boolean rewind = false;
+	
+	/**
+	 * Used by predictive mode, the last countdown in ms and the
+	 * time at which it was received.
+	 */
+	private volatile long    lastCountdown = -1;
+	private volatile long    lastCountdownStamp;
+	private final Object     hold = new Object();
+	private long             exposureTime; // ms, longest detector exposure in the scan
 
 	public TopupWatchdog() {
 		super();
@@ -188,6 +220,16 @@ public class TopupWatchdog extends AbstractWatchdog implements IPositionListener
 	 */
 	private void processPosition(long t) throws Exception {
 		
+		// Record the countdown before we decide to ignore events so that
+		// any point being held sees the latest value.
+		lastCountdown      = t;
+		lastCountdownStamp = System.currentTimeMillis();
+		if (model.isPredictive()) {
+			synchronized (hold) {
+				hold.notifyAll();
+			}
+		}
+		
 		// It's 10Hz, we can ignore events if we are doing something.
 		// We ignore events while processing an event. 
 		// Events are frequent and blocking is bad.
@@ -200,11 +242,15 @@ public class TopupWatchdog extends AbstractWatchdog implements IPositionListener
 		// simple tests or FPE's
 		try {
 			busy = true;
-			if (!isPositionValid(t)) {
+			boolean valid = isPositionValid(t);
+			
+			// In predictive mode the points are held until they fit before topup, so
+			// we only need to pause if the beam is lost.
+			if (!valid && (t<0 || !model.isPredictive())) {
 				rewind = t<0; // We did not detect it before loosing beam
 				controller.pause(getId(), getModel());
 		
-			} else { // We are a valid place in the topup, see if we can resume
+			} else if (valid) { // We are a valid place in the topup, see if we can resume
 
 				// the warmup period has ended, we can resume the scan
 				if (rewind && lastCompletedPoint!=null) {
@@ -228,8 +274,83 @@ public class TopupWatchdog extends AbstractWatchdog implements IPositionListener
 		return t > c && t < ((p-Tf)-w);
 	}
 	
+	/**
+	 * In predictive mode, blocks the start of a point until it will complete 
+	 * before the next topup and the scan is not paused. Returns straight away 
+	 * if the scan is aborted or finishes. Does nothing if the model is not predictive.
+	 * 
+	 * @param pos
+	 * @throws Exception if the hold is interrupted or the state of the scan cannot be read
+	 */
+	@PointStart
+	public void pointStart(IPosition pos) throws Exception {
+		
+		if (!model.isPredictive()) return;
+		
+		long duration = getPointTime(pos);
+		long window   = (model.getPeriod()-model.getTopupTime())-model.getWarmup()-model.getCooloff();
+		if (duration>=window) {
+			logger.warn("The point time of "+duration+"ms is longer than the topup window of "+window+"ms, points will not be held.");
+			return;
+		}
+		
+		synchronized (hold) {
+			while(true) {
+				DeviceState state = controller.getDevice().getDeviceState();
+				if (!state.isRunning()) return; // Aborted or finished
+				
+				// While the scan is paused the point is held, even if it would fit, until the scan is resumed.
+				boolean paused = state==DeviceState.PAUSED || state==DeviceState.SEEKING;
+				long wait = getHoldTime(duration);
+				if (!paused && wait<=0) return;
+				if (paused) wait = wait>0 ? Math.min(wait, PAUSED_POLL) : PAUSED_POLL;
+				
+				logger.debug("Holding point "+pos.getStepIndex()+" for "+wait+"ms");
+				hold.wait(wait); // Woken by each countdown event so that we re-estimate
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 * @param duration in ms of the point
+	 * @return time in ms which a point of the given duration must wait to fit before the next topup or 0 if it may start now. 
+	 */
+	private long getHoldTime(long duration) {
+		
+		long t = lastCountdown;
+		if (t<0) return 0; // No beam, the pause and rewind looks after this.
+		
+		// Extrapolate, the countdown only reports at around 10Hz. 
+		if (t>0) t = Math.max(0, t-(System.currentTimeMillis()-lastCountdownStamp));
+		
+		long w  = model.getWarmup();
+		long c  = model.getCooloff();
+		long p  = model.getPeriod();
+		long Tf = model.getTopupTime();
+		
+		if (t>=((p-Tf)-w)) return t-((p-Tf)-w)+1; // Warming up after topup
+		if (t-duration>c)  return 0;               // Fits before the cooloff
+		return t+Tf+w;                             // Wait for topup and warmup, countdown events will wake us sooner if required.
+	}
+	
+	private long getPointTime(IPosition pos) {
+		long time = pos.getExposureTime()>0 ? getValueMs(pos.getExposureTime(), "s") : exposureTime;
+		return time+model.getPointOverhead();
+	}
+
 	@ScanStart
-	public void start(ScanBean bean) throws Exception {
+	public void start(ScanBean bean, ScanModel smodel) throws Exception {
+		
+		if (smodel!=null && smodel.getDetectors()!=null) {
+			double max = 0;
+			for (IRunnableDevice<?> device : smodel.getDetectors()) {
+				if (device.getModel() instanceof IDetectorModel) {
+					max = Math.max(max, ((IDetectorModel)device.getModel()).getExposureTime());
+				}
+			}
+			this.exposureTime = getValueMs(max, "s");
+		}
 		
 		logger.debug("Watchdog starting on "+controller.getName());
 		
@@ -272,6 +393,9 @@ public class TopupWatchdog extends AbstractWatchdog implements IPositionListener
 		try {
 		    IScannable<?> topup = getScannable(model.getCountdownName());
 		    ((IPositionListenable)topup).removePositionListener(this);
+		    synchronized (hold) {
+		    	hold.notifyAll();
+		    }
 		    
 		    logger.debug("Watchdog stopped on "+controller.getName());
 		} catch (ScanningException ne) {
@@ -0,0 +1,130 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.server.servlet;
+
+import java.util.Collection;
+
+import org.eclipse.scanning.api.device.models.IMalcolmModel;
+import org.eclipse.scanning.api.event.IEventConnectorService;
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.scan.ScanRequest;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.scan.ScanEstimator;
+
+/**
+ * The part of starting a scan which does not depend on the hardware,
+ * done ahead of time for a bean which is waiting in the submission queue.
+ * This is the preprocessed request, its point generator, the estimate
+ * of its size and shape, the names of the scannables it moves and, if
+ * it has no Malcolm device, its validation.
+ * <p>
+ * A PreparedScan may only be used to run the bean it was prepared for
+ * and only if the request has not been changed in the queue since, see
+ * {@link #isFor(ScanBean)}.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class PreparedScan {
+	
+	private final String             uniqueId;
+	private final ScanRequest<?>     submitted;
+	private final ScanRequest<?>     request;
+	private final IPointGenerator<?> generator;
+	private final ScanEstimator      estimator;
+	private final Collection<String> scannableNames;
+	private final boolean            validated;
+	
+	private PreparedScan(String uniqueId, ScanRequest<?> submitted, ScanRequest<?> request, IPointGenerator<?> generator, 
+			             ScanEstimator estimator, Collection<String> scannableNames, boolean validated) {
+		this.uniqueId       = uniqueId;
+		this.submitted      = submitted;
+		this.request        = request;
+		this.generator      = generator;
+		this.estimator      = estimator;
+		this.scannableNames = scannableNames;
+		this.validated      = validated;
+	}
+
+	/**
+	 * Prepare a bean to be run. The request of the bean is preprocessed and
+	 * may be changed so the bean should be a copy, for instance one read from
+	 * the submission queue.
+	 * 
+	 * @param bean
+	 * @return the prepared scan
+	 * @throws Exception if the scan cannot be prepared, the same error will happen when it is run.
+	 */
+	public static PreparedScan prepare(ScanBean bean) throws Exception {
+		
+		// Keep the request as it was submitted, to check that the bean is the same when it is run.
+		final IEventConnectorService marshaller = Services.getEventService().getEventConnectorService();
+		final ScanRequest<?> submitted = marshaller.unmarshal(marshaller.marshal(bean.getScanRequest()), ScanRequest.class);
+		
+		final ScanRequest<?> request = ScanServlet.preprocess(bean.getScanRequest());
+		final IPointGenerator<?> generator = ScanProcess.getGenerator(request);
+		final ScanEstimator estimator = new ScanEstimator(generator, request.getDetectors(), 0);
+		estimator.getShape(); // The shape is cached and may take a while to calculate for large scans.
+		final Collection<String> scannableNames = ScanProcess.getScannableNames(generator);
+		
+		// Malcolm devices are sent the generator and their output directory
+		// before they validate, this can only be done when the scan runs.
+		boolean validated = false;
+		if (!ScanProcess.isValidationDisabled() && !hasMalcolmDevice(request)) {
+			ScanProcess.validate(request);
+			validated = true;
+		}
+		return new PreparedScan(bean.getUniqueId(), submitted, request, generator, estimator, scannableNames, validated);
+	}
+	
+	private static boolean hasMalcolmDevice(ScanRequest<?> request) {
+		if (request.getDetectors()==null) return false;
+		return request.getDetectors().values().stream().anyMatch(IMalcolmModel.class::isInstance);
+	}
+
+	/**
+	 * 
+	 * @param bean
+	 * @return true if this is the bean that was prepared and its request is unchanged.
+	 */
+	public boolean isFor(ScanBean bean) {
+		return uniqueId!=null && uniqueId.equals(bean.getUniqueId()) && submitted.equals(bean.getScanRequest());
+	}
+
+	public String getUniqueId() {
+		return uniqueId;
+	}
+
+	/**
+	 * 
+	 * @return the preprocessed request, which should be set on the bean that is run.
+	 */
+	public ScanRequest<?> getRequest() {
+		return request;
+	}
+
+	public IPointGenerator<?> getGenerator() {
+		return generator;
+	}
+
+	public ScanEstimator getEstimator() {
+		return estimator;
+	}
+
+	public Collection<String> getScannableNames() {
+		return scannableNames;
+	}
+
+	public boolean isValidated() {
+		return validated;
+	}
+}
@@ -0,0 +1,111 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.server.servlet;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.scanning.api.event.core.IConsumer;
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.status.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Prepares the next bean in the submission queue while the current scan
+ * runs, so that on short scans the time between scans is not spent building
+ * generators and validating. Only one bean is prepared at a time; if the
+ * queue changes before that bean is run the preparation is discarded.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+final class ScanPreparer {
+	
+	private static final Logger logger = LoggerFactory.getLogger(ScanPreparer.class);
+
+	private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "Scan preparation");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
+	private Future<PreparedScan> next;
+	
+	/**
+	 * Start to prepare the first submitted bean in the queue other than the one
+	 * which is about to run. Any earlier preparation which was not used is discarded.
+	 * 
+	 * @param consumer
+	 * @param current the bean about to run
+	 */
+	synchronized void prepareNext(IConsumer<ScanBean> consumer, ScanBean current) {
+		discard();
+		next = executor.submit(()-> {
+			ScanBean bean = getNext(consumer.getSubmissionQueue(), current);
+			if (bean==null) return null;
+			logger.debug("Preparing {} while {} runs", bean.getName(), current.getName());
+			return PreparedScan.prepare(bean);
+		});
+	}
+
+	private ScanBean getNext(List<ScanBean> queue, ScanBean current) {
+		if (queue==null) return null;
+		for (ScanBean bean : queue) {
+			if (bean.getUniqueId()==null || bean.getUniqueId().equals(current.getUniqueId())) continue;
+			if (bean.getStatus()!=null && bean.getStatus()!=Status.SUBMITTED) continue;
+			return bean;
+		}
+		return null;
+	}
+
+	/**
+	 * Get the preparation of this bean. If it is still being prepared this waits,
+	 * the same work would otherwise be done again when the bean runs.
+	 * 
+	 * @param bean
+	 * @return the prepared scan or null if this bean was not prepared or has changed.
+	 */
+	synchronized PreparedScan take(ScanBean bean) {
+		if (next==null) return null;
+		try {
+			PreparedScan prepared = next.get();
+			if (prepared==null) return null;
+			if (prepared.isFor(bean)) return prepared;
+			if (bean.getUniqueId()!=null && bean.getUniqueId().equals(prepared.getUniqueId())) {
+				logger.debug("{} was changed after it was prepared, it will be prepared again", bean.getName());
+			}
+			return null;
+			
+		} catch (ExecutionException ne) {
+			// Not an error here, if the bean cannot be prepared it will fail when it runs.
+			logger.debug("Cannot prepare scan ahead of time", ne.getCause());
+			return null;
+		} catch (InterruptedException ne) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (CancellationException ne) {
+			return null;
+		} finally {
+			next = null;
+		}
+	}
+	
+	synchronized void discard() {
+		if (next!=null) next.cancel(true);
+		next = null;
+	}
+}
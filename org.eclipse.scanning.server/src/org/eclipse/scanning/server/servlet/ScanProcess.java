@@ -16,7 +16,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
@@ -47,6 +51,7 @@ import org.eclipse.scanning.api.points.IDeviceDependentIterable;
 import org.eclipse.scanning.api.points.IPointGenerator;
 import org.eclipse.scanning.api.points.IPointGeneratorService;
 import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.models.CompoundModel;
 import org.eclipse.scanning.api.scan.IFilePathService;
 import org.eclipse.scanning.api.scan.ScanEstimator;
 import org.eclipse.scanning.api.scan.ScanInformation;
@@ -71,6 +76,16 @@ import org.slf4j.LoggerFactory;
 public class ScanProcess implements IConsumerProcess<ScanBean> {
 	
 	private static final Logger logger = LoggerFactory.getLogger(ScanProcess.class);
+	
+	/**
+	 * Configures Malcolm devices at the same time when a scan has more than one.
+	 */
+	private static final ExecutorService malcolmConfigurer = Executors.newCachedThreadPool(r -> {
+		Thread thread = new Thread(r, "Malcolm configure");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
 	protected final ScanBean               bean;
 	protected final IPublisher<ScanBean>   publisher;
 
@@ -81,11 +96,28 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 	private IDeviceController          controller;
 	private boolean                    blocking;
 
+	// The part of the scan done while it was waiting in the queue, may be null.
+	private final PreparedScan         prepared;
+
 	public ScanProcess(ScanBean scanBean, IPublisher<ScanBean> response, boolean blocking) throws EventException {
+		this(scanBean, response, blocking, null);
+	}
+	
+	/**
+	 * 
+	 * @param scanBean
+	 * @param response
+	 * @param blocking
+	 * @param prepared the scan prepared ahead for this bean or null to prepare it when it is run.
+	 *                 The bean must already have the request which was prepared.
+	 * @throws EventException
+	 */
+	public ScanProcess(ScanBean scanBean, IPublisher<ScanBean> response, boolean blocking, PreparedScan prepared) throws EventException {
 		
 		this.bean = scanBean;
 		this.publisher = response;
 		this.blocking = blocking;
+		this.prepared = prepared;
 		
 		if (bean.getScanRequest().getStart()!=null || bean.getScanRequest().getEnd()!=null) {
 			try {
@@ -124,6 +156,7 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 	public void terminate() throws EventException {
 		
 		if (bean.getStatus()==Status.COMPLETE) return; // Nothing to terminate.
+		invalidateDetectors();
 		try {
 			if (controller!=null) controller.abort(getClass().getName());
 		} catch (ScanningException  | InterruptedException e) {
@@ -136,10 +169,11 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 		try {
 			logger.debug("Starting to run : {}", bean);
 			setFilePath(bean);
-			IPointGenerator<?> gen = getGenerator(bean.getScanRequest());
+			IPointGenerator<?> gen = prepared!=null ? prepared.getGenerator() : getGenerator(bean.getScanRequest());
+			Collection<String> scannableNames = prepared!=null ? prepared.getScannableNames() : getScannableNames(gen);
 			initializeMalcolmDevice(bean, gen);
 			
-			checkMonitors(gen);
+			checkMonitors(scannableNames);
 			validateRequest(bean);
 
 			// Move to a position if they set one
@@ -148,7 +182,7 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 			// Run a script, if any has been requested
 			runScript(bean.getScanRequest().getBefore(), bean.getScanRequest()::setBeforeResponse);
 			
-			this.controller = createRunnableDevice(bean, gen);
+			this.controller = createRunnableDevice(bean, gen, scannableNames);
 			
 			if (blocking) {  // Normally the case
                 executeBlocking(controller, bean);       
@@ -165,6 +199,7 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 			
 		} catch (Exception ne) {
 			logger.error("Cannot execute run "+getBean().getName()+" "+getBean().getUniqueId(), ne);
+			invalidateDetectors();
 			bean.setPreviousStatus(Status.RUNNING);
 			bean.setStatus(Status.FAILED);
 			bean.setMessage(ne.getMessage());
@@ -206,26 +241,35 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 	}
 
 	private void validateRequest(ScanBean bean) throws ValidationException, InstantiationException, IllegalAccessException {
-		if (!Boolean.getBoolean("org.eclipse.scanning.server.servlet.scanProcess.disableValidate")) {
+		if (prepared!=null && prepared.isValidated()) {
+			logger.debug("Run was validated while queued : {}", bean);
+		} else if (!isValidationDisabled()) {
 			logger.debug("Validating run : {}", bean);
-			final ScanRequest<?> sr = bean.getScanRequest();
-			if (sr.getDetectors()!=null && sr.getDetectors().isEmpty()) sr.setDetectors(null);
-		    Services.getValidatorService().validate(sr);
+			validate(bean.getScanRequest());
 			logger.debug("Validating passed : {}", bean);
 		} else {
 			logger.warn("The run {} has validation switched off.", bean);
 		}
 	}
+	
+	static boolean isValidationDisabled() {
+		return Boolean.getBoolean("org.eclipse.scanning.server.servlet.scanProcess.disableValidate");
+	}
+	
+	static void validate(ScanRequest<?> sr) throws ValidationException, InstantiationException, IllegalAccessException {
+		if (sr.getDetectors()!=null && sr.getDetectors().isEmpty()) sr.setDetectors(null);
+	    Services.getValidatorService().validate(sr);
+	}
 
 	/**
 	 * Checks the monitors in the scan request. This removes from the
 	 * collection of monitor names the name of any monitor that is a scannable in the scan.
 	 * Also, if the property {@code org.eclipse.scanning.server.useDefaultActivatedMonitors }
 	 * is <code>true</code>, and the monitor list is empty, the default monitors are added. 
-	 * @param gen point generator
+	 * @param scannableNames names of the scannables moved by the point generator
 	 * @throws Exception
 	 */
-	private void checkMonitors(IPointGenerator<?> gen) throws Exception {
+	private void checkMonitors(Collection<String> scannableNames) throws Exception {
 		Collection<String> monitorNames = bean.getScanRequest().getMonitorNames();
 		
 		// We set any activated monitors in the request if none have been specified.
@@ -238,7 +282,6 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 		
 		if (monitorNames != null) {
 			// remove any monitors
-			Collection<String> scannableNames = getScannableNames(gen);
 			monitorNames = monitorNames.stream().filter(mon -> !scannableNames.contains(mon)).collect(Collectors.toList());
 					
 			bean.getScanRequest().setMonitorNames(monitorNames);
@@ -341,29 +384,29 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 		cons.accept(res);
 	}
 
-	private IDeviceController createRunnableDevice(ScanBean bean, IPointGenerator<?> gen) throws ScanningException, EventException {
+	private IDeviceController createRunnableDevice(ScanBean bean, IPointGenerator<?> generator, Collection<String> scannableNames) throws ScanningException, EventException {
 
 		ScanRequest<?> req = bean.getScanRequest();
 		if (req==null) throw new ScanningException("There must be a scan request to run a scan!");
 		
 		try {
 			final ScanModel scanModel = new ScanModel();
-			IPointGenerator<?> generator = getGenerator(req);
 			scanModel.setPositionIterable(generator);
 			
-			ScanEstimator estimator = new ScanEstimator(Services.getGeneratorService(), bean.getScanRequest());
+			// The estimate is made from the same generator, it is not built again.
+			ScanEstimator estimator = prepared!=null ? prepared.getEstimator() : new ScanEstimator(generator, req.getDetectors(), 0);
 			bean.setSize(estimator.getSize());
 			scanModel.setFilePath(bean.getFilePath());
 			
 			scanModel.setDetectors(getDetectors(req.getDetectors()));
-			scanModel.setScannables(getScannables(getScannableNames(generator)));
+			scanModel.setScannables(getScannables(scannableNames));
 			scanModel.setMonitors(getScannables(req.getMonitorNames()));
 			scanModel.setScanMetadata(req.getScanMetadata());
 			scanModel.setBean(bean);
 			
 			ScanInformation scanInfo = new ScanInformation(estimator);
 			scanInfo.setFilePath(bean.getFilePath());
-			scanInfo.setScannableNames(getScannableNames(generator));
+			scanInfo.setScannableNames(scannableNames);
 			scanModel.setScanInformation(scanInfo);
 			
 			configureDetectors(req.getDetectors(), scanModel, generator);
@@ -389,6 +432,20 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 	private void configureDetectors(Map<String, Object> dmodels, ScanModel model, IPointGenerator<?> generator) throws Exception {
 		
 		logger.debug("Configuring detectors {}", dmodels!=null?dmodels.keySet():null);
+		
+		// Malcolm devices spend their configure waiting on the remote device,
+		// if there is more than one their configures run at the same time.
+		int malcolmCount = 0;
+		for (IRunnableDevice<?> device : model.getDetectors()) {
+			if (device instanceof IMalcolmDevice && dmodels.containsKey(device.getName())) malcolmCount++;
+		}
+		final List<Future<?>>        configures = new ArrayList<>();
+		final List<Callable<Object>> postConfigures = new ArrayList<>();
+		
+		// Copied before any configure, a malcolm configure changes the generator's model.
+		final Object                 scanPath = getScanPath(generator);
+		final IRunnableDeviceService dservice = Services.getRunnableDeviceService();
+		
 		for (IRunnableDevice<?> device : model.getDetectors()) {
 			
 			AnnotationManager manager = new AnnotationManager(Activator.createResolver());
@@ -405,13 +462,69 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 			if (odevice instanceof AbstractRunnableDevice) {
 				((AbstractRunnableDevice<?>)odevice).setBean(bean);
 			}
-			odevice.configure(dmodel);
+			if (malcolmCount>1 && odevice instanceof IMalcolmDevice) {
+				configures.add(malcolmConfigurer.submit(()->{
+					dservice.configure(odevice, dmodel, scanPath);
+					return null;
+				}));
+				postConfigures.add(()->{
+					manager.invoke(PostConfigure.class, dmodel, generator, model, bean, publisher);
+					return null;
+				});
+				continue;
+			}
+			dservice.configure(odevice, dmodel, odevice instanceof IMalcolmDevice ? scanPath : null);
 			manager.invoke(PostConfigure.class, dmodel, generator, model, bean, publisher);
 		}
+		
+		waitForConfigures(configures);
+		for (Callable<Object> postConfigure : postConfigures) postConfigure.call();
 		logger.debug("Configured detectors {}", dmodels!=null?dmodels.keySet():null);
 	}
 
-	private Collection<String> getScannableNames(Iterable<IPosition> gen) {
+	/**
+	 * Malcolm is configured with the scan path as well as its model, so a configure
+	 * which is skipped because the model has not changed must also have the same path.
+	 */
+	private static Object getScanPath(IPointGenerator<?> generator) {
+		final Object model = generator.getModel();
+		if (model instanceof CompoundModel) return ((CompoundModel<?>)model).clone();
+		return model;
+	}
+	
+	/**
+	 * The detectors of a scan which failed or was aborted are configured again by the next scan.
+	 */
+	private void invalidateDetectors() {
+		final Map<String, Object> dmodels = bean.getScanRequest()!=null ? bean.getScanRequest().getDetectors() : null;
+		if (dmodels==null) return;
+		final IRunnableDeviceService dservice = Services.getRunnableDeviceService();
+		for (String name : dmodels.keySet()) {
+			try {
+				IRunnableDevice<?> device = dservice.getRunnableDevice(name);
+				if (device!=null) dservice.invalidateConfiguration(device);
+			} catch (ScanningException ne) {
+				logger.warn("Cannot invalidate the configuration of "+name, ne);
+			}
+		}
+	}
+
+	/**
+	 * Waits for every configure to finish. If one fails the others are
+	 * cancelled and the exception from the failed one is thrown.
+	 */
+	private void waitForConfigures(List<Future<?>> configures) throws Exception {
+		try {
+			for (Future<?> configure : configures) configure.get();
+		} catch (ExecutionException ne) {
+			if (ne.getCause() instanceof Exception) throw (Exception)ne.getCause();
+			throw ne;
+		} finally {
+			for (Future<?> configure : configures) configure.cancel(true);
+		}
+	}
+
+	static Collection<String> getScannableNames(Iterable<IPosition> gen) {
 		
 		Collection<String> names = null;
 		if (gen instanceof IDeviceDependentIterable) {
@@ -423,7 +536,7 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 		return names;   		
 	}
 
-	private IPointGenerator<?> getGenerator(ScanRequest<?> req) throws GeneratorException {
+	static IPointGenerator<?> getGenerator(ScanRequest<?> req) throws GeneratorException {
 		IPointGeneratorService service = Services.getGeneratorService();
 		if (req.getDetectors() != null) {
 			// if theres a malcolm device, set the duration of the compound model to its exposure time
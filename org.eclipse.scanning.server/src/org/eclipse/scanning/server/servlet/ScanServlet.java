@@ -39,6 +39,9 @@ import org.slf4j.LoggerFactory;
      
     </pre>
     
+    While a scan runs the next bean in the queue is prepared, see {@link PreparedScan}.
+    Use the property prepareAhead to switch this off.
+    
     FIXME Add security via activemq layer. Anyone can run this now.
 
  * 
@@ -49,6 +52,9 @@ public class ScanServlet extends AbstractConsumerServlet<ScanBean> {
 	
 	private static final Logger logger = LoggerFactory.getLogger(ScanServlet.class);
 	
+	private final ScanPreparer preparer = new ScanPreparer();
+	private boolean            prepareAhead = true;
+	
 	public ScanServlet() {
 		setPauseOnStart(true);
 	}
@@ -66,10 +72,23 @@ public class ScanServlet extends AbstractConsumerServlet<ScanBean> {
 		// Debugging makes code messy but switching this on can prove useful.
 		// Test used because output message does work.
 		debug("Accepting bean", scanBean, response);		
-		preprocess(scanBean);
+		PreparedScan prepared = prepareAhead ? preparer.take(scanBean) : null;
+		if (prepared!=null) {
+			scanBean.setScanRequest(prepared.getRequest());
+		} else {
+			preprocess(scanBean);
+		}
 		debug("After processing bean (normally no change)", scanBean, response);		
 		
-		return new ScanProcess(scanBean, response, isBlocking());
+		ScanProcess process = new ScanProcess(scanBean, response, isBlocking(), prepared);
+		if (prepareAhead) preparer.prepareNext(getConsumer(), scanBean);
+		return process;
+	}
+	
+	@Override
+	public void disconnect() throws EventException {
+		preparer.discard();
+		super.disconnect();
 	}
 
 	private void debug(String message, ScanBean scanBean, IPublisher<ScanBean> response) {
@@ -87,13 +106,29 @@ public class ScanServlet extends AbstractConsumerServlet<ScanBean> {
 	}
 
 	private void preprocess(ScanBean scanBean) throws ProcessingException {
-		ScanRequest<?> req = scanBean.getScanRequest();
+		scanBean.setScanRequest(preprocess(scanBean.getScanRequest()));
+	}
+	
+	static ScanRequest<?> preprocess(ScanRequest<?> req) throws ProcessingException {
 		if (req.isIgnorePreprocess()) {
-			return;
+			return req;
 		}
 		for (IPreprocessor processor : Services.getPreprocessors()) {
 			req = processor.preprocess(req);
 		}
-		scanBean.setScanRequest(req);
+		return req;
+	}
+
+	public boolean isPrepareAhead() {
+		return prepareAhead;
+	}
+
+	/**
+	 * 
+	 * @param prepareAhead false to stop the next bean in the queue being prepared while a scan runs.
+	 */
+	public void setPrepareAhead(boolean prepareAhead) {
+		this.prepareAhead = prepareAhead;
+		if (!prepareAhead) preparer.discard();
 	}
 }
@@ -15,8 +15,12 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.dawnsci.analysis.api.roi.IROI;
 import org.eclipse.dawnsci.analysis.dataset.roi.CircularROI;
@@ -24,6 +28,10 @@ import org.eclipse.scanning.api.event.scan.DeviceState;
 import org.eclipse.scanning.api.malcolm.IMalcolmDevice;
 import org.eclipse.scanning.api.malcolm.IMalcolmService;
 import org.eclipse.scanning.api.malcolm.MalcolmDeviceException;
+import org.eclipse.scanning.api.malcolm.connector.MessageGenerator;
+import org.eclipse.scanning.api.malcolm.message.MalcolmMessage;
+import org.eclipse.scanning.api.malcolm.message.MalcolmUtil;
+import org.eclipse.scanning.api.malcolm.message.Type;
 import org.eclipse.scanning.api.points.IPointGenerator;
 import org.eclipse.scanning.api.points.IPointGeneratorService;
 import org.eclipse.scanning.api.points.models.BoundingBox;
@@ -33,6 +41,7 @@ import org.eclipse.scanning.example.malcolm.EPICSv4EvilDevice;
 import org.eclipse.scanning.example.malcolm.EPICSv4ExampleModel;
 import org.eclipse.scanning.example.malcolm.IEPICSv4Device;
 import org.eclipse.scanning.malcolm.core.AbstractMalcolmDevice;
+import org.eclipse.scanning.malcolm.core.MalcolmDevice;
 import org.eclipse.scanning.malcolm.core.MalcolmService;
 import org.eclipse.scanning.points.PointGeneratorService;
 import org.junit.After;
@@ -321,4 +330,75 @@ public class EpicsV4ConnectorTest {
 	}
 
 
+	/**
+	 * Reads the same attribute several times and checks that only the first read
+	 * and a forced read go to the device, the others are answered by the monitor.
+	 * @throws Exception
+	 */
+	@Test
+	public void getAttributeFromCache() throws Exception {
+
+		// Start the dummy test device
+		DeviceRunner runner = new DeviceRunner();
+		epicsv4Device = runner.start();
+
+		final AtomicInteger gets = new AtomicInteger();
+		try (MalcolmService counter = new MalcolmService(new EpicsV4ConnectorService() {
+			@Override
+			protected MalcolmMessage sendGetMessage(IMalcolmDevice<?> device, MalcolmMessage message) throws Exception {
+				if ("health".equals(message.getEndpoint())) gets.incrementAndGet();
+				return super.sendGetMessage(device, message);
+			}
+		}, null)) {
+
+			// Get the device
+			MalcolmDevice<?> modelledDevice = (MalcolmDevice<?>)counter.getDevice(epicsv4Device.getRecordName());
+			modelledDevice.initialize();
+
+			Object health = modelledDevice.getAttributeValue("health");
+			assertEquals(1, gets.get());
+
+			for (int i = 0; i < 10; i++) {
+				assertEquals(health, modelledDevice.getAttributeValue("health"));
+			}
+			assertEquals(1, gets.get());
+
+			assertEquals(health, modelledDevice.getAttributeValue("health", true));
+			assertEquals(2, gets.get());
+		}
+	}
+
+
+	/**
+	 * Sends several requests to the same device without waiting for the replies
+	 * and checks that each one gets its own reply.
+	 * @throws Exception
+	 */
+	@Test
+	public void sendAsyncRequests() throws Exception {
+
+		// Start the dummy test device
+		DeviceRunner runner = new DeviceRunner();
+		epicsv4Device = runner.start();
+
+		EpicsV4ConnectorService connector = new EpicsV4ConnectorService();
+		IMalcolmDevice<EPICSv4ExampleModel> modelledDevice = service.getDevice(epicsv4Device.getRecordName());
+		MessageGenerator<MalcolmMessage> generator = connector.createDeviceConnection(modelledDevice);
+
+		List<MalcolmMessage>         requests = new ArrayList<>();
+		List<Future<MalcolmMessage>> replies  = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			MalcolmMessage request = generator.createGetMessage("state");
+			requests.add(request);
+			replies.add(connector.sendAsync(modelledDevice, request));
+		}
+
+		for (int i = 0; i < replies.size(); i++) {
+			MalcolmMessage reply = replies.get(i).get(5, TimeUnit.SECONDS);
+			assertEquals(Type.RETURN, reply.getType());
+			assertEquals(requests.get(i).getId(), reply.getId());
+			assertEquals(DeviceState.READY, MalcolmUtil.getState(reply));
+		}
+	}
+
 }
@@ -0,0 +1,299 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.epics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.dawnsci.analysis.api.roi.IROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.RectangularROI;
+import org.eclipse.scanning.api.malcolm.attributes.NumberArrayAttribute;
+import org.eclipse.scanning.api.malcolm.attributes.TableAttribute;
+import org.eclipse.scanning.api.malcolm.connector.MalcolmMethod;
+import org.eclipse.scanning.api.malcolm.message.MalcolmMessage;
+import org.eclipse.scanning.api.malcolm.message.Type;
+import org.eclipse.scanning.api.points.IMutator;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.connector.epics.EpicsV4ConnectorService;
+import org.eclipse.scanning.connector.epics.EpicsV4MessageMapper;
+import org.eclipse.scanning.malcolm.core.MalcolmDevice.EpicsMalcolmModel;
+import org.eclipse.scanning.points.PointGeneratorService;
+import org.eclipse.scanning.points.mutators.RandomOffsetMutator;
+import org.epics.pvdata.factory.FieldFactory;
+import org.epics.pvdata.factory.PVDataFactory;
+import org.epics.pvdata.pv.DoubleArrayData;
+import org.epics.pvdata.pv.FieldCreate;
+import org.epics.pvdata.pv.PVBoolean;
+import org.epics.pvdata.pv.PVDouble;
+import org.epics.pvdata.pv.PVDoubleArray;
+import org.epics.pvdata.pv.PVIntArray;
+import org.epics.pvdata.pv.PVString;
+import org.epics.pvdata.pv.PVStringArray;
+import org.epics.pvdata.pv.PVStructure;
+import org.epics.pvdata.pv.ScalarType;
+import org.epics.pvdata.pv.Structure;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the cached structures, single generator conversion and bulk array
+ * copies of the message mapper and benchmarks the messages which dominate
+ * a Malcolm scan, configure and the datasets table.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class MalcolmMessageMarshallingTest {
+
+	private EpicsV4MessageMapper mapper;
+	private EpicsV4ConnectorService connectorService;
+
+	@Before
+	public void create() throws Exception {
+		this.mapper = new EpicsV4MessageMapper();
+		this.connectorService = new EpicsV4ConnectorService();
+	}
+
+	@Test
+	public void testRegionStructureShared() throws Exception {
+
+		RectangularROI roi1 = new RectangularROI();
+		roi1.setPoint(new double[]{2, 1});
+		roi1.setLengths(5, 16);
+		RectangularROI roi2 = new RectangularROI();
+		roi2.setPoint(new double[]{-2, 2});
+		roi2.setLengths(9, 16);
+
+		PVStructure pv1 = connectorService.pvMarshal(roi1);
+		PVStructure pv2 = connectorService.pvMarshal(roi2);
+
+		// Same introspection interface, different data
+		assertSame(pv1.getStructure(), pv2.getStructure());
+		assertNotSame(pv1, pv2);
+		assertArrayEquals(new double[]{2, 1}, getDoubles(pv1, "point"), 0.0001);
+		assertArrayEquals(new double[]{-2, 2}, getDoubles(pv2, "point"), 0.0001);
+	}
+
+	@Test
+	public void testConfigureMessage() throws Exception {
+
+		IPointGenerator<?> scan = createGenerator();
+		CompoundModel<?> cm = (CompoundModel<?>) scan.getModel();
+
+		cm.setDuration(1.5);
+		PVStructure pvStructure = mapper.convertMalcolmMessageToPVStructure(createConfigureMessage(scan));
+		PVStructure generator = pvStructure.getStructureField("parameters").getStructureField("generator");
+		assertEquals(1.5, generator.getSubField(PVDouble.class, "duration").get(), 0.0001);
+
+		// The generator is converted for each message, nothing is kept from the last one
+		cm.setDuration(0.1);
+		pvStructure = mapper.convertMalcolmMessageToPVStructure(createConfigureMessage(scan));
+		generator = pvStructure.getStructureField("parameters").getStructureField("generator");
+		assertEquals(0.1, generator.getSubField(PVDouble.class, "duration").get(), 0.0001);
+		assertEquals("/dls/tmp/malcolm", pvStructure.getStructureField("parameters").getSubField(PVString.class, "fileDir").get());
+	}
+
+	@Test
+	public void testDeserialiseNumberArray() throws Exception {
+
+		PVStructure pvStructure = createNumberArrayPVStructure(new double[]{1.5, 2.5, 3.5});
+
+		NumberArrayAttribute attribute = connectorService.pvUnmarshal(pvStructure, NumberArrayAttribute.class);
+
+		assertEquals("float64", attribute.getDtype());
+		assertEquals("Positions", attribute.getLabel());
+		assertArrayEquals(new Number[]{1.5, 2.5, 3.5}, attribute.getValue());
+	}
+
+	/**
+	 * Marshals the configure message of a grid scan with regions and a mutator,
+	 * which has to convert the generator through Jython, and reads the datasets
+	 * table of a detector with many datasets. The times are printed and not
+	 * asserted as they depend on the machine, the results of the repeated
+	 * conversions are checked instead.
+	 */
+	@Test
+	public void testConfigureAndDatasetsBenchmark() throws Exception {
+
+		final MalcolmMessage configure = createConfigureMessage(createGenerator());
+		final PVStructure datasets = createDatasetsPVStructure(1000);
+
+		// Warm up
+		for (int i = 0; i < 10; i++) {
+			mapper.convertMalcolmMessageToPVStructure(configure);
+			connectorService.pvUnmarshal(datasets, TableAttribute.class);
+		}
+
+		final PVStructure first = mapper.convertMalcolmMessageToPVStructure(configure);
+		final int count = 100;
+		PVStructure last = null;
+		long start = System.nanoTime();
+		for (int i = 0; i < count; i++) last = mapper.convertMalcolmMessageToPVStructure(configure);
+		final double configureTime = (System.nanoTime() - start) / 1000000d / count;
+
+		start = System.nanoTime();
+		TableAttribute attribute = null;
+		for (int i = 0; i < count; i++) attribute = connectorService.pvUnmarshal(datasets, TableAttribute.class);
+		final double datasetsTime = (System.nanoTime() - start) / 1000000d / count;
+
+		System.out.println("Configure message marshalled in "+configureTime+"ms, datasets table of 1000 rows unmarshalled in "+datasetsTime+"ms");
+
+		// Nothing is left over from one conversion to change the next
+		assertEquals(first, last);
+		assertEquals(1000, attribute.getValue().getNumRows());
+		assertTrue(attribute.getValue().getColumnArray("rank") instanceof int[]);
+	}
+
+	private static double[] getDoubles(PVStructure pvStructure, String name) {
+		PVDoubleArray array = pvStructure.getSubField(PVDoubleArray.class, name);
+		DoubleArrayData data = new DoubleArrayData();
+		array.get(0, array.getLength(), data);
+		return Arrays.copyOfRange(data.data, data.offset, data.offset + array.getLength());
+	}
+
+	private static IPointGenerator<?> createGenerator() throws Exception {
+
+		List<IROI> regions = new LinkedList<>();
+		RectangularROI roi = new RectangularROI();
+		roi.setPoint(new double[]{2, 1});
+		roi.setLengths(5, 16);
+		roi.setAngle(Math.PI / 2.0);
+		regions.add(roi);
+
+		List<IMutator> mutators = new LinkedList<>();
+		Map<String, Double> offsets = new HashMap<String, Double>();
+		offsets.put("stage_x", 0.5);
+		mutators.add(new RandomOffsetMutator(112, Arrays.asList(new String[] {"stage_x"}), offsets));
+
+		IPointGeneratorService pgService = new PointGeneratorService();
+		GridModel gm = new GridModel("stage_x", "stage_y");
+		gm.setSnake(true);
+		gm.setSlowAxisPoints(50);
+		gm.setFastAxisPoints(100);
+
+		IPointGenerator<GridModel> grid = pgService.createGenerator(gm, regions);
+		IPointGenerator<?> scan = pgService.createCompoundGenerator(grid);
+
+		CompoundModel<?> cm = (CompoundModel<?>) scan.getModel();
+		cm.setMutators(mutators);
+		cm.setDuration(0.1);
+		return scan;
+	}
+
+	private static MalcolmMessage createConfigureMessage(IPointGenerator<?> generator) {
+		MalcolmMessage msg = new MalcolmMessage();
+		msg.setType(Type.CALL);
+		msg.setMethod(MalcolmMethod.CONFIGURE);
+		msg.setEndpoint("configure");
+		msg.setArguments(new EpicsMalcolmModel("/dls/tmp/malcolm", "%s.h5", Arrays.asList("stage_x", "stage_y"), generator));
+		return msg;
+	}
+
+	private static Structure createMetaStructure(String id, boolean dtype) {
+		FieldCreate fieldCreate = FieldFactory.getFieldCreate();
+		if (dtype) {
+			return fieldCreate.createFieldBuilder().
+					add("description", ScalarType.pvString).
+					addArray("tags", ScalarType.pvString).
+					add("writeable", ScalarType.pvBoolean).
+					add("label", ScalarType.pvString).
+					add("dtype", ScalarType.pvString).
+					setId(id).
+					createStructure();
+		}
+		return fieldCreate.createFieldBuilder().
+				add("description", ScalarType.pvString).
+				addArray("tags", ScalarType.pvString).
+				add("writeable", ScalarType.pvBoolean).
+				add("label", ScalarType.pvString).
+				setId(id).
+				createStructure();
+	}
+
+	private static PVStructure createNumberArrayPVStructure(double[] values) {
+		Structure structure = FieldFactory.getFieldCreate().createFieldBuilder().
+				add("meta", createMetaStructure(NumberArrayAttribute.NUMBERARRAY_ID+"1.0", true)).
+				addArray("value", ScalarType.pvDouble).
+				setId("epics:nt/NTScalarArray:1.0").
+				createStructure();
+
+		PVStructure pvStructure = PVDataFactory.getPVDataCreate().createPVStructure(structure);
+		PVStructure meta = pvStructure.getStructureField("meta");
+		meta.getSubField(PVString.class, "description").put("Positions of the axis");
+		meta.getSubField(PVBoolean.class, "writeable").put(false);
+		meta.getSubField(PVString.class, "label").put("Positions");
+		meta.getSubField(PVString.class, "dtype").put("float64");
+		pvStructure.getSubField(PVDoubleArray.class, "value").put(0, values.length, values, 0);
+		return pvStructure;
+	}
+
+	private static PVStructure createDatasetsPVStructure(int rows) {
+		FieldCreate fieldCreate = FieldFactory.getFieldCreate();
+		String[] labels = new String[] {"name", "filename", "type", "rank", "path", "uniqueid"};
+		Structure valueStructure = fieldCreate.createFieldBuilder().
+				addArray("name", ScalarType.pvString).
+				addArray("filename", ScalarType.pvString).
+				addArray("type", ScalarType.pvString).
+				addArray("rank", ScalarType.pvInt).
+				addArray("path", ScalarType.pvString).
+				addArray("uniqueid", ScalarType.pvString).
+				createStructure();
+		Structure tableStructure = fieldCreate.createFieldBuilder().
+				add("meta", createMetaStructure(TableAttribute.TABLE_ID+"1.0", false)).
+				addArray("labels", ScalarType.pvString).
+				add("value", valueStructure).
+				setId("epics:nt/NTTable:1.0").
+				createStructure();
+
+		PVStructure pvStructure = PVDataFactory.getPVDataCreate().createPVStructure(tableStructure);
+		PVStructure meta = pvStructure.getStructureField("meta");
+		meta.getSubField(PVString.class, "description").put("Datasets produced in HDF file");
+		meta.getSubField(PVBoolean.class, "writeable").put(false);
+		meta.getSubField(PVString.class, "label").put("Datasets");
+		pvStructure.getSubField(PVStringArray.class, "labels").put(0, labels.length, labels, 0);
+
+		String[] name = new String[rows];
+		String[] filename = new String[rows];
+		String[] type = new String[rows];
+		int[] rank = new int[rows];
+		String[] path = new String[rows];
+		String[] uniqueid = new String[rows];
+		for (int i = 0; i < rows; i++) {
+			name[i] = "detector"+i+".data";
+			filename[i] = "detector"+(i%10)+".h5";
+			type[i] = i%2==0 ? "primary" : "secondary";
+			rank[i] = 2 + i%3;
+			path[i] = "/entry/detector"+i+"/data";
+			uniqueid[i] = "/entry/NDAttributes/NDArrayUniqueId";
+		}
+		PVStructure value = pvStructure.getStructureField("value");
+		value.getSubField(PVStringArray.class, "name").put(0, rows, name, 0);
+		value.getSubField(PVStringArray.class, "filename").put(0, rows, filename, 0);
+		value.getSubField(PVStringArray.class, "type").put(0, rows, type, 0);
+		value.getSubField(PVIntArray.class, "rank").put(0, rows, rank, 0);
+		value.getSubField(PVStringArray.class, "path").put(0, rows, path, 0);
+		value.getSubField(PVStringArray.class, "uniqueid").put(0, rows, uniqueid, 0);
+		return pvStructure;
+	}
+}
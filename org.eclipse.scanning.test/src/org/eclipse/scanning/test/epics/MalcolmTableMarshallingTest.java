@@ -0,0 +1,318 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.epics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.scanning.api.malcolm.MalcolmTable;
+import org.eclipse.scanning.api.malcolm.attributes.TableAttribute;
+import org.eclipse.scanning.connector.epics.EpicsV4ConnectorService;
+import org.epics.pvdata.factory.FieldFactory;
+import org.epics.pvdata.factory.PVDataFactory;
+import org.epics.pvdata.pv.FieldCreate;
+import org.epics.pvdata.pv.FloatArrayData;
+import org.epics.pvdata.pv.PVBoolean;
+import org.epics.pvdata.pv.PVBooleanArray;
+import org.epics.pvdata.pv.PVFloatArray;
+import org.epics.pvdata.pv.PVString;
+import org.epics.pvdata.pv.PVStringArray;
+import org.epics.pvdata.pv.PVStructure;
+import org.epics.pvdata.pv.ScalarType;
+import org.epics.pvdata.pv.Structure;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that Malcolm tables are marshalled to and from NTTable with
+ * the columns held in primitive arrays, and benchmarks large tables.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class MalcolmTableMarshallingTest {
+
+	private EpicsV4ConnectorService connectorService;
+
+	@Before
+	public void create() throws Exception {
+		this.connectorService = new EpicsV4ConnectorService();
+	}
+
+	@Test
+	public void testSerialiseTable() throws Exception {
+
+		MalcolmTable table = createLayoutTable(3);
+
+		// Create the expected PVStructure
+		FieldCreate fieldCreate = FieldFactory.getFieldCreate();
+		Structure valueStructure = createLayoutValueStructure();
+		Structure expectedStructure = fieldCreate.createFieldBuilder().
+				addArray("labels", ScalarType.pvString).
+				add("value", valueStructure).
+				setId("epics:nt/NTTable:1.0").
+				createStructure();
+		PVStructure expectedPVStructure = PVDataFactory.getPVDataCreate().createPVStructure(expectedStructure);
+		expectedPVStructure.getSubField(PVStringArray.class, "labels").put(0, 5, new String[] {"name", "mri", "x", "y", "visible"}, 0);
+		populateLayoutValue(expectedPVStructure.getStructureField("value"), 3);
+
+		// Marshal and check against expected
+		PVStructure pvStructure = connectorService.pvMarshal(table);
+
+		assertEquals(expectedPVStructure.getStructure(), pvStructure.getStructure());
+		assertEquals(expectedPVStructure, pvStructure);
+	}
+
+	@Test
+	public void testDeserialiseTable() throws Exception {
+
+		PVStructure pvStructure = createLayoutTablePVStructure(3);
+
+		TableAttribute attribute = connectorService.pvUnmarshal(pvStructure, TableAttribute.class);
+
+		assertEquals("Layout", attribute.getLabel());
+		assertArrayEquals(new String[] {"name", "mri", "x", "y", "visible"}, attribute.getHeadings());
+
+		MalcolmTable table = attribute.getValue();
+		assertEquals(createLayoutTable(3), table);
+		assertEquals(Float.class, table.getColumnClass("x"));
+		assertEquals(Boolean.class, table.getColumnClass("visible"));
+
+		// The columns are stored unboxed
+		assertTrue(table.getColumnArray("x") instanceof float[]);
+		assertTrue(table.getColumnArray("visible") instanceof boolean[]);
+		assertTrue(table.getColumnArray("name") instanceof String[]);
+
+		// The row view is the same as before
+		Map<String, Object> row = table.getRow(1);
+		assertEquals("block1", row.get("name"));
+		assertEquals(1.5f, row.get("x"));
+		assertEquals(false, row.get("visible"));
+		assertEquals(1.5d, table.getDouble("x", 1), 0.0001);
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+
+		PVStructure pvStructure = createLayoutTablePVStructure(10);
+		TableAttribute attribute = connectorService.pvUnmarshal(pvStructure, TableAttribute.class);
+		PVStructure marshalled = connectorService.pvMarshal(attribute.getValue());
+
+		assertEquals(pvStructure.getStructureField("value"), marshalled.getStructureField("value"));
+	}
+
+	@Test
+	public void testAddRowsToTable() throws Exception {
+
+		MalcolmTable table = createLayoutTable(100);
+		assertEquals(100, table.getNumRows());
+		assertEquals(100, ((float[])table.getColumnArray("y")).length);
+		assertEquals("block99", table.getCellValue("name", 99));
+		assertEquals(Arrays.asList(0.0f, 0.5f, 1.0f), table.getColumn("y").subList(0, 3));
+	}
+
+	@Test
+	public void testEmptyTable() throws Exception {
+
+		MalcolmTable table = new MalcolmTable(new LinkedHashMap<String, List<Object>>(), new LinkedHashMap<String, Class<?>>());
+		assertEquals(0, table.getNumRows());
+		assertEquals(0, table.getTableData().size());
+	}
+
+	@Test
+	public void testNullInPrimitiveColumn() throws Exception {
+
+		Map<String, List<Object>> data = new LinkedHashMap<>();
+		data.put("x", Arrays.asList(1.5f, null, 3.0f));
+		Map<String, Class<?>> types = new LinkedHashMap<>();
+		types.put("x", Float.class);
+
+		MalcolmTable table = new MalcolmTable(data, types);
+		assertEquals(Arrays.asList(1.5f, null, 3.0f), table.getColumn("x"));
+		assertEquals(3.0f, table.getDouble("x", 2), 0.0001);
+
+		// A null added to an unboxed column boxes it
+		table = createLayoutTable(2);
+		Map<String, Object> row = new LinkedHashMap<>(table.getRow(1));
+		row.put("y", null);
+		table.addRow(row);
+		assertEquals(Arrays.asList(0.0f, 0.5f, null), table.getColumn("y"));
+	}
+
+	@Test
+	public void testRoundTripNull() throws Exception {
+
+		MalcolmTable table = createLayoutTable(2);
+		Map<String, Object> row = new LinkedHashMap<>(table.getRow(1));
+		row.put("y", null);
+		table.addRow(row);
+
+		// NTTable has no null, the missing value is sent as NaN
+		PVStructure marshalled = connectorService.pvMarshal(table);
+		FloatArrayData y = new FloatArrayData();
+		marshalled.getStructureField("value").getSubField(PVFloatArray.class, "y").get(0, 3, y);
+		assertEquals(0.5f, y.data[1], 0.0001);
+		assertTrue(Float.isNaN(y.data[2]));
+
+		// and read back as NaN
+		PVStructure pvStructure = createLayoutTablePVStructure(3);
+		pvStructure.getStructureField("value").getSubField(PVFloatArray.class, "y").put(0, 3, y.data, 0);
+		MalcolmTable read = connectorService.pvUnmarshal(pvStructure, TableAttribute.class).getValue();
+		assertEquals(3, read.getNumRows());
+		assertTrue(Float.isNaN((Float)read.getCellValue("y", 2)));
+	}
+
+	@Test
+	public void testNullInBooleanColumnNotSent() throws Exception {
+
+		MalcolmTable table = createLayoutTable(2);
+		Map<String, Object> row = new LinkedHashMap<>(table.getRow(1));
+		row.put("visible", null);
+		table.addRow(row);
+
+		try {
+			connectorService.pvMarshal(table);
+			fail("A null in a boolean column cannot be sent");
+		} catch (Exception expected) {
+			// There is no missing value for a boolean
+		}
+	}
+
+	@Test
+	public void testAddToColumn() throws Exception {
+
+		MalcolmTable table = createLayoutTable(2);
+		List<Object> names = new ArrayList<>(table.getColumn("name"));
+		for (String heading : table.getHeadings()) {
+			assertEquals(2, table.getNumRows()); // Until every column has the value
+			table.getColumn(heading).add(table.getCellValue(heading, 0));
+		}
+		names.add("block0");
+		assertEquals(3, table.getNumRows());
+		assertEquals(names, table.getColumn("name"));
+		assertEquals(0.0f, table.getRow(2).get("x"));
+	}
+
+	/**
+	 * Round trips tables with many rows, for instance the layout of a
+	 * position table. The times are reported, not checked, as they
+	 * depend on the machine.
+	 */
+	@Test
+	public void testLargeTableBenchmark() throws Exception {
+
+		// Warm up
+		roundTrip(1000);
+
+		final long small = roundTrip(10000);
+		final long large = roundTrip(100000);
+		System.out.println("NTTable round trip of 10^4 rows took "+small+"ms, 10^5 rows took "+large+"ms");
+	}
+
+	private long roundTrip(int rows) throws Exception {
+		PVStructure pvStructure = createLayoutTablePVStructure(rows);
+
+		long start = System.currentTimeMillis();
+		TableAttribute attribute = connectorService.pvUnmarshal(pvStructure, TableAttribute.class);
+		PVStructure marshalled = connectorService.pvMarshal(attribute.getValue());
+		long time = System.currentTimeMillis() - start;
+
+		assertEquals(rows, attribute.getValue().getNumRows());
+		assertEquals(rows, marshalled.getStructureField("value").getSubField(PVFloatArray.class, "x").getLength());
+		return time;
+	}
+
+	private static MalcolmTable createLayoutTable(int rows) {
+		Map<String, Class<?>> types = new LinkedHashMap<>();
+		types.put("name", String.class);
+		types.put("mri", String.class);
+		types.put("x", Float.class);
+		types.put("y", Float.class);
+		types.put("visible", Boolean.class);
+
+		MalcolmTable table = new MalcolmTable(types);
+		for (int i = 0; i < rows; i++) {
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("name", "block"+i);
+			row.put("mri", "P45-MRI-"+i);
+			row.put("x", i*1.5f);
+			row.put("y", i*0.5f);
+			row.put("visible", i%2==0);
+			table.addRow(row);
+		}
+		return table;
+	}
+
+	private static Structure createLayoutValueStructure() {
+		return FieldFactory.getFieldCreate().createFieldBuilder().
+				addArray("name", ScalarType.pvString).
+				addArray("mri", ScalarType.pvString).
+				addArray("x", ScalarType.pvFloat).
+				addArray("y", ScalarType.pvFloat).
+				addArray("visible", ScalarType.pvBoolean).
+				createStructure();
+	}
+
+	private static void populateLayoutValue(PVStructure value, int rows) {
+		String[] name = new String[rows];
+		String[] mri = new String[rows];
+		float[] x = new float[rows];
+		float[] y = new float[rows];
+		boolean[] visible = new boolean[rows];
+		for (int i = 0; i < rows; i++) {
+			name[i] = "block"+i;
+			mri[i] = "P45-MRI-"+i;
+			x[i] = i*1.5f;
+			y[i] = i*0.5f;
+			visible[i] = i%2==0;
+		}
+		value.getSubField(PVStringArray.class, "name").put(0, rows, name, 0);
+		value.getSubField(PVStringArray.class, "mri").put(0, rows, mri, 0);
+		value.getSubField(PVFloatArray.class, "x").put(0, rows, x, 0);
+		value.getSubField(PVFloatArray.class, "y").put(0, rows, y, 0);
+		value.getSubField(PVBooleanArray.class, "visible").put(0, rows, visible, 0);
+	}
+
+	private static PVStructure createLayoutTablePVStructure(int rows) {
+		FieldCreate fieldCreate = FieldFactory.getFieldCreate();
+		Structure metaStructure = fieldCreate.createFieldBuilder().
+				add("description", ScalarType.pvString).
+				addArray("tags", ScalarType.pvString).
+				add("writeable", ScalarType.pvBoolean).
+				add("label", ScalarType.pvString).
+				setId(TableAttribute.TABLE_ID+"1.0").
+				createStructure();
+		Structure tableStructure = fieldCreate.createFieldBuilder().
+				add("meta", metaStructure).
+				addArray("labels", ScalarType.pvString).
+				add("value", createLayoutValueStructure()).
+				setId("epics:nt/NTTable:1.0").
+				createStructure();
+
+		PVStructure pvStructure = PVDataFactory.getPVDataCreate().createPVStructure(tableStructure);
+		PVStructure meta = pvStructure.getStructureField("meta");
+		meta.getSubField(PVString.class, "description").put("Layout of child blocks");
+		meta.getSubField(PVBoolean.class, "writeable").put(true);
+		meta.getSubField(PVString.class, "label").put("Layout");
+		pvStructure.getSubField(PVStringArray.class, "labels").put(0, 5, new String[] {"name", "mri", "x", "y", "visible"}, 0);
+		populateLayoutValue(pvStructure.getStructureField("value"), rows);
+		return pvStructure;
+	}
+}
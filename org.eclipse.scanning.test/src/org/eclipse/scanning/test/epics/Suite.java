@@ -17,6 +17,8 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(org.junit.runners.Suite.class)
 @SuiteClasses({
 	PVDataSerializationTest.class,
+	MalcolmTableMarshallingTest.class,
+	MalcolmMessageMarshallingTest.class,
 	EpicsV4ConnectorTest.class
 })
 public class Suite {
@@ -0,0 +1,195 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.event;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.core.ISubmitter;
+import org.eclipse.scanning.api.event.status.StatusBean;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.connector.activemq.QueueJournal;
+import org.eclipse.scanning.event.EventServiceImpl;
+import org.eclipse.scanning.test.BrokerTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the journal which keeps queues over a restart of the broker. These 
+ * tests only use a local directory and a broker on localhost.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class QueueJournalTest {
+	
+	private File dir;
+	
+	@Before
+	public void createDirectory() throws IOException {
+		dir = Files.createTempDirectory("queueJournal").toFile();
+	}
+	
+	@After
+	public void deleteDirectory() {
+		for (File file : dir.listFiles()) file.delete();
+		dir.delete();
+		System.clearProperty(ActivemqConnectorService.JOURNAL_DIRECTORY_PROPERTY);
+	}
+
+	@Test
+	public void testRecoverQueues() throws Exception {
+		
+		QueueJournal journal = new QueueJournal(dir, 1000);
+		journal.add("submit", "fred", new byte[]{1,2,3});
+		journal.add("submit", "bill", new byte[]{4,5});
+		journal.add("status", "ted",  new byte[]{6});
+		journal.remove("submit", "fred");
+		journal.add("old", "old", new byte[]{7});
+		journal.clear("old");
+		journal.close();
+		
+		Map<String, Map<String, byte[]>> queues = new QueueJournal(dir, 1000).getQueues();
+		assertEquals(2, queues.size());
+		assertEquals(1, queues.get("submit").size());
+		assertEquals(2, queues.get("submit").get("bill").length);
+		assertEquals(1, queues.get("status").size());
+		assertFalse(queues.containsKey("old"));
+	}
+
+	@Test
+	public void testPartlyWrittenRecordIgnored() throws Exception {
+		
+		QueueJournal journal = new QueueJournal(dir, 1000);
+		journal.add("submit", "fred", new byte[]{1,2,3});
+		journal.add("submit", "bill", new byte[]{4,5,6,7,8,9});
+		journal.close();
+		
+		File file = new File(dir, "queues.journal");
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(file.length()-3);
+		}
+		
+		journal = new QueueJournal(dir, 1000);
+		assertEquals(1, journal.getQueues().get("submit").size());
+		journal.add("submit", "ted", new byte[]{1});
+		journal.close();
+		
+		assertEquals(2, new QueueJournal(dir, 1000).getQueues().get("submit").size());
+	}
+
+	@Test
+	public void testSnapshot() throws Exception {
+		
+		QueueJournal journal = new QueueJournal(dir, 100);
+		for (int i = 0; i < 250; i++) journal.add("submit", "bean"+i, new byte[64]);
+		for (int i = 0; i < 200; i++) journal.remove("submit", "bean"+i);
+		journal.close();
+
+		assertTrue("Journal should have been restarted by the snapshot", new File(dir, "queues.journal").length() < 100*64);
+		Map<String, byte[]> submit = new QueueJournal(dir, 100).getQueues().get("submit");
+		assertEquals(50, submit.size());
+		assertEquals("bean200", submit.keySet().iterator().next());
+	}
+	
+	@Test
+	public void testRecoverThousandsOfBeans() throws Exception {
+		
+		QueueJournal journal = new QueueJournal(dir, 10000);
+		for (int i = 0; i < 5000; i++) journal.add("submit", "queued"+i, createBean(i));
+		for (int i = 0; i < 5000; i++) journal.add("status", "run"+i, createBean(i));
+		journal.close();
+		
+		long start = System.currentTimeMillis();
+		Map<String, Map<String, byte[]>> queues = new QueueJournal(dir, 10000).getQueues();
+		long time = System.currentTimeMillis()-start;
+		System.out.println("Recovered 10000 beans in "+time+"ms");
+		
+		assertRecovered(queues.get("submit"), "queued", 5000);
+		assertRecovered(queues.get("status"), "run", 5000);
+	}
+	
+	private static byte[] createBean(int i) {
+		byte[] bean = new byte[1024];
+		bean[0] = (byte)i;
+		bean[1] = (byte)(i>>8);
+		return bean;
+	}
+	
+	private static void assertRecovered(Map<String, byte[]> queue, String prefix, int size) {
+		assertEquals(size, queue.size());
+		int i = 0;
+		for (Map.Entry<String, byte[]> entry : queue.entrySet()) {
+			assertEquals(prefix+i, entry.getKey()); // In the order they were added
+			assertArrayEquals(createBean(i), entry.getValue());
+			i++;
+		}
+	}
+	
+	@Test
+	public void testQueuedBeansSurviveBrokerRestart() throws Exception {
+		
+		BrokerTest.setUpNonOSGIActivemqMarshaller();
+		System.setProperty(ActivemqConnectorService.JOURNAL_DIRECTORY_PROPERTY, dir.getAbsolutePath());
+		
+		int port = 8719;
+		while(!ActivemqConnectorService.isPortFree(port)) port++;
+		URI uri = new URI("tcp://localhost:"+port);
+
+		ActivemqConnectorService connector = new ActivemqConnectorService();
+		IEventService eservice = new EventServiceImpl(connector);
+		
+		connector.start(uri.toString());
+		List<String> names = new ArrayList<>();
+		try {
+			ISubmitter<StatusBean> submitter = eservice.createSubmitter(uri, IEventService.SUBMISSION_QUEUE);
+			for (int i = 0; i < 10; i++) {
+				StatusBean bean = new StatusBean();
+				bean.setName("Overnight "+i);
+				submitter.submit(bean);
+				names.add(bean.getName());
+			}
+			submitter.disconnect();
+		} finally {
+			connector.stop();
+		}
+		
+		connector.start(uri.toString());
+		try {
+			ISubmitter<StatusBean> submitter = eservice.createSubmitter(uri, IEventService.SUBMISSION_QUEUE);
+			submitter.setBeanClass(StatusBean.class);
+			List<StatusBean> queue = submitter.getQueue();
+			assertEquals(names.size(), queue.size());
+			for (int i = 0; i < names.size(); i++) {
+				assertEquals(names.get(i), queue.get(i).getName());
+			}
+			submitter.clearQueue(IEventService.SUBMISSION_QUEUE);
+			submitter.disconnect();
+		} finally {
+			connector.stop();
+		}
+	}
+
+}
@@ -0,0 +1,202 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.event.queues.processes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.bean.BeanEvent;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.queues.QueueStatus;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.event.queues.QueueProcessFactory;
+import org.eclipse.scanning.event.queues.processes.LocalAtomQueue;
+import org.eclipse.scanning.test.event.queues.dummy.DummyAtom;
+import org.eclipse.scanning.test.event.queues.dummy.DummyAtomProcess;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LocalAtomQueueTest {
+	
+	private DummyAtom atomA, atomB, atomC;
+	private List<String> completed, started, events;
+	private LocalAtomQueue<DummyAtom> localQueue;
+	
+	@Before
+	public void setUp() throws EventException {
+		QueueProcessFactory.registerProcess(DummyAtomProcess.class);
+		
+		atomA = new DummyAtom("Hildebrand", 300);
+		atomB = new DummyAtom("Yuri", 1534);
+		atomC = new DummyAtom("Ingrid", 654);
+		
+		completed = new ArrayList<>();
+		started = new ArrayList<>();
+		events = new ArrayList<>();
+		localQueue = new LocalAtomQueue<>("local-test-queue", new IBeanListener<DummyAtom>() {
+			@Override
+			public void beanChangePerformed(BeanEvent<DummyAtom> evt) {
+				DummyAtom atom = evt.getBean();
+				if (atom.getStatus() == Status.RUNNING && !started.contains(atom.getName())) {
+					started.add(atom.getName());
+					events.add(atom.getName()+" started");
+				}
+				if (atom.getStatus() == Status.COMPLETE) {
+					completed.add(atom.getName());
+					events.add(atom.getName()+" complete");
+				}
+			}
+		});
+	}
+	
+	private void submitAll() throws EventException {
+		localQueue.submit(atomA);
+		localQueue.submit(atomB);
+		localQueue.submit(atomC);
+	}
+	
+	@After
+	public void tearDown() throws EventException {
+		localQueue.stop();
+		QueueProcessFactory.initialize();
+	}
+	
+	/**
+	 * Atoms are processed one after another in the order submitted and the 
+	 * queue stops when they are all done.
+	 */
+	@Test
+	public void testAtomsProcessedInOrder() throws Exception {
+		submitAll();
+		localQueue.start();
+		assertEquals("Queue not started", QueueStatus.STARTED, localQueue.getStatus());
+		waitForQueueEnd(10000);
+		
+		assertEquals(Arrays.asList("Hildebrand", "Yuri", "Ingrid"), completed);
+		for (DummyAtom atom : Arrays.asList(atomA, atomB, atomC)) {
+			assertEquals("Atom "+atom.getName()+" not complete", Status.COMPLETE, atom.getStatus());
+		}
+		assertEquals(QueueStatus.STOPPED, localQueue.getStatus());
+	}
+	
+	/**
+	 * Stopping terminates the running atom, the atoms after it are not run.
+	 */
+	@Test
+	public void testStop() throws Exception {
+		submitAll();
+		localQueue.start();
+		Thread.sleep(150);
+		localQueue.stop();
+		waitForQueueEnd(10000);
+		
+		assertTrue("No atoms should have completed", completed.isEmpty());
+		assertEquals(Status.TERMINATED, atomA.getStatus());
+		for (DummyAtom atom : Arrays.asList(atomB, atomC)) {
+			assertEquals(Status.TERMINATED, atom.getStatus());
+			assertEquals("Run aborted before started", atom.getMessage());
+		}
+		assertEquals(QueueStatus.STOPPED, localQueue.getStatus());
+	}
+	
+	/**
+	 * While paused no new atom is started.
+	 */
+	@Test
+	public void testPauseResume() throws Exception {
+		submitAll();
+		localQueue.start();
+		Thread.sleep(150);
+		localQueue.pause();
+		Thread.sleep(1000);
+		assertTrue("Next atom should not have started while paused", atomB.getStatus() == null || !atomB.getStatus().isRunning());
+		
+		localQueue.resume();
+		waitForQueueEnd(10000);
+		assertEquals(Arrays.asList("Hildebrand", "Yuri", "Ingrid"), completed);
+	}
+	
+	/**
+	 * Atoms using different devices run at the same time, an atom using a
+	 * device already in use waits for it.
+	 */
+	@Test
+	public void testDeviceConflicts() throws Exception {
+		atomA.setDevices(Arrays.asList("stage_x"));
+		atomB.setDevices(Arrays.asList("stage_y"));
+		atomC.setDevices(Arrays.asList("stage_x", "det"));
+		submitAll();
+		localQueue.start();
+		Thread.sleep(200);
+		assertEquals("A and B should both be running", new HashSet<>(Arrays.asList("Hildebrand", "Yuri")), new HashSet<>(started));
+		
+		waitForQueueEnd(10000);
+		assertEquals("Ingrid", started.get(2));
+		assertTrue("C started before A completed", events.indexOf("Hildebrand complete") < events.indexOf("Ingrid started"));
+		assertEquals(3, completed.size());
+	}
+	
+	/**
+	 * An atom without declarations still waits for every earlier atom, and 
+	 * every later atom waits for it.
+	 */
+	@Test
+	public void testUndeclaredAtomIsBarrier() throws Exception {
+		atomA.setDevices(Arrays.asList("stage_x"));
+		atomC.setDevices(Arrays.asList("stage_y"));
+		submitAll();
+		localQueue.start();
+		waitForQueueEnd(10000);
+		assertEquals(Arrays.asList("Hildebrand", "Yuri", "Ingrid"), completed);
+	}
+	
+	/**
+	 * An explicit dependency orders atoms which share no devices.
+	 */
+	@Test
+	public void testExplicitDependency() throws Exception {
+		atomA.setDevices(Arrays.asList("stage_x"));
+		atomB.setDevices(Arrays.asList("stage_y"));
+		atomB.setDependencies(Arrays.asList("Hildebrand"));
+		localQueue.submit(atomA);
+		localQueue.submit(atomB);
+		localQueue.start();
+		Thread.sleep(200);
+		assertEquals("Only A should be running", Arrays.asList("Hildebrand"), started);
+		
+		waitForQueueEnd(10000);
+		assertEquals(Arrays.asList("Hildebrand", "Yuri"), completed);
+	}
+	
+	@Test(expected=EventException.class)
+	public void testSubmitAfterStart() throws EventException {
+		submitAll();
+		localQueue.start();
+		localQueue.submit(new DummyAtom("Gregor", 100));
+	}
+	
+	private void waitForQueueEnd(long timeout) throws InterruptedException {
+		long start = System.currentTimeMillis();
+		while (localQueue.getStatus() == QueueStatus.STARTED || localQueue.getStatus() == QueueStatus.STOPPING) {
+			if (System.currentTimeMillis() - start > timeout) throw new RuntimeException("Local queue did not finish in "+timeout+"ms");
+			Thread.sleep(50);
+		}
+	}
+
+}
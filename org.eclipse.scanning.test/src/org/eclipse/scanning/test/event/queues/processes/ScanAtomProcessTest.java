@@ -12,7 +12,8 @@
 package org.eclipse.scanning.test.event.queues.processes;
 
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
@@ -26,6 +27,7 @@ import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.queues.IQueue;
 import org.eclipse.scanning.api.event.queues.beans.Queueable;
 import org.eclipse.scanning.api.event.queues.beans.ScanAtom;
+import org.eclipse.scanning.api.event.scan.ScanBean;
 import org.eclipse.scanning.api.event.scan.ScanRequest;
 import org.eclipse.scanning.api.event.status.Status;
 import org.eclipse.scanning.api.event.status.StatusBean;
@@ -35,6 +37,7 @@ import org.eclipse.scanning.api.points.models.StepModel;
 import org.eclipse.scanning.event.queues.ServicesHolder;
 import org.eclipse.scanning.event.queues.processes.QueueProcess;
 import org.eclipse.scanning.event.queues.processes.ScanAtomProcess;
+import org.eclipse.scanning.event.queues.processes.ScanChannel;
 import org.eclipse.scanning.test.event.queues.mocks.MockEventService;
 import org.eclipse.scanning.test.event.queues.mocks.MockPublisher;
 import org.eclipse.scanning.test.event.queues.mocks.MockSubmitter;
@@ -72,6 +75,7 @@ public class ScanAtomProcessTest {
 	
 	@AfterClass
 	public static void tearDownClass() {
+		ScanChannel.disconnectAll();
 		mockPub = null;
 		mockSub = null;
 		mockSubsc = null;
@@ -140,7 +144,7 @@ public class ScanAtomProcessTest {
 	 * - last bean in statPub should be Status.COMPLETE and 100%
 	 * - status publisher should have: 1 RUNNING bean and 1 COMPLETE bean
 	 * - ScanBean in child queue should have ScanRequest with configuration of ScanAtom
-	 * - child queue infrastructure should be disconnected
+	 * - child queue infrastructure should be released, but stay connected
 	 * 
 	 * N.B. This is *NOT* an integration test, so beans don't get run.
 	 *      It only checks the processor behaves as expected
@@ -163,7 +167,30 @@ public class ScanAtomProcessTest {
 		assertEquals("Wrong scan submit queue on bean", "fake.test.submit"+IQueue.SUBMISSION_QUEUE_SUFFIX, ((ScanAtom)pti.getLastBroadcastBean()).getScanSubmitQueueName());
 
 		pti.checkSubmittedBeans(mockSub, "fake.test.submit");
-		checkScanInfrastructureDisconnected();
+		checkScanInfrastructureReleased((ScanAtomProcess<Queueable>)scAtProc);
+	}
+	
+	/**
+	 * Consecutive ScanAtoms for the same scan broker use the same 
+	 * infrastructure.
+	 */
+	@Test
+	public void testScanChannelReused() throws Exception {
+		pti.executeProcess(scAtProc, scAt, true);
+		pti.waitForExecutionEnd(10000l);
+		ScanChannel firstChannel = ((ScanAtomProcess<Queueable>)scAtProc).getScanChannel();
+		
+		ScanAtom nextAt = new ScanAtom("vtScan2", scAt.getScanReq());
+		nextAt.setName("Second VT scan across sample");
+		nextAt.setScanBrokerURI(scAt.getScanBrokerURI());
+		nextAt.setScanSubmitQueueName(scAt.getScanSubmitQueueName());
+		pti = new ProcessTestInfrastructure();
+		ScanAtomProcess<Queueable> nextProc = new ScanAtomProcess<Queueable>(nextAt, pti.getPublisher(), false);
+		pti.executeProcess(nextProc, nextAt, true);
+		pti.waitForExecutionEnd(10000l);
+		
+		assertSame("Scan channel not reused", firstChannel, nextProc.getScanChannel());
+		checkScanInfrastructureReleased(nextProc);
 	}
 	
 	/**
@@ -173,7 +200,7 @@ public class ScanAtomProcessTest {
 	 * - status publisher should have a TERMINATED bean
 	 * - termination message should be set on the bean
 	 * - child bean should have received a terminate message
-	 * - child queue infrastructure should be disconnected
+	 * - child queue infrastructure should be released, but stay connected
 	 */
 	@Test
 	public void testTermination() throws Exception {
@@ -188,7 +215,7 @@ public class ScanAtomProcessTest {
 		StatusBean pubBean = mockPub.getBroadcastBeans().get(0);
 		assertEquals("Wrong status on published bean", Status.REQUEST_TERMINATE, pubBean.getStatus());
 		
-		checkScanInfrastructureDisconnected();
+		checkScanInfrastructureReleased((ScanAtomProcess<Queueable>)scAtProc);
 	}
 	
 //	@Test
@@ -220,14 +247,18 @@ public class ScanAtomProcessTest {
 		
 		pti.checkLastBroadcastBeanStatuses(Status.FAILED, false);
 		
-		checkScanInfrastructureDisconnected();
+		checkScanInfrastructureReleased((ScanAtomProcess<Queueable>)scAtProc);
 	}
 
-	private void checkScanInfrastructureDisconnected() {
-		//Scan infrastructure created should be disconnected afterwards
-		assertTrue("Submitter not disconnected", mockSub.isDisconnected());
-		assertTrue("Subscriber not disconnected", mockSubsc.isDisconnected());
-		assertTrue("Publisher not disconnected", mockPub.isDisconnected());
+	private void checkScanInfrastructureReleased(ScanAtomProcess<Queueable> process) throws EventException {
+		//Scan infrastructure is shared with later scans, so stays connected...
+		assertFalse("Submitter disconnected", mockSub.isDisconnected());
+		assertFalse("Subscriber disconnected", mockSubsc.isDisconnected());
+		assertFalse("Publisher disconnected", mockPub.isDisconnected());
+		
+		//...but should no longer pass on updates for this scan
+		ScanBean scanBean = (ScanBean)mockSub.getLastSubmitted("fake.test.submit"+IQueue.SUBMISSION_QUEUE_SUFFIX);
+		assertFalse("Scan channel still listening to scan", process.getScanChannel().isListening(scanBean));
 	}
 	
 }
@@ -102,7 +102,10 @@ public class SubTaskAtomProcessTest {
 		stAt.addAtom(atomB);
 		stAt.addAtom(atomC);
 		
-		stAtProcr = new SubTaskAtomProcess<>(stAt, pti.getPublisher(), false);
+		SubTaskAtomProcess<Queueable> process = new SubTaskAtomProcess<>(stAt, pti.getPublisher(), false);
+		//These tests check the active-queue, so the atoms go to the mock submitter
+		process.getAtomQueueProcessor().setRemote(true);
+		stAtProcr = process;
 		
 		//Reset queue architecture
 		mockSub.resetSubmitter();
@@ -16,6 +16,7 @@ import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(org.junit.runners.Suite.class)
 @SuiteClasses({
+	LocalAtomQueueTest.class,
 	MonitorAtomProcessTest.class,
 	PositionerAtomProcessTest.class,
 	QueueListenerTest.class,
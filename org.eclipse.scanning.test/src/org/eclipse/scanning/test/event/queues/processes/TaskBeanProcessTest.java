@@ -112,7 +112,10 @@ public class TaskBeanProcessTest {
 		tBe.addAtom(atomB);
 		tBe.addAtom(atomC);
 		
-		tBeProc = new TaskBeanProcess<>(tBe, pti.getPublisher(), false);
+		TaskBeanProcess<Queueable> process = new TaskBeanProcess<>(tBe, pti.getPublisher(), false);
+		//These tests check the active-queue, so the atoms go to the mock submitter
+		process.getAtomQueueProcessor().setRemote(true);
+		tBeProc = process;
 		
 		//Reset queue architecture
 		mockSub.resetSubmitter();
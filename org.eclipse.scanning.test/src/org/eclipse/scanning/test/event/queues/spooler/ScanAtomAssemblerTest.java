@@ -1,8 +1,11 @@
 package org.eclipse.scanning.test.event.queues.spooler;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -31,8 +34,11 @@ import org.eclipse.scanning.event.queues.spooler.QueueBeanFactory;
 import org.eclipse.scanning.event.queues.spooler.beanassemblers.ScanAtomAssembler;
 import org.eclipse.scanning.example.detector.MandelbrotDetector;
 import org.eclipse.scanning.example.detector.MandelbrotModel;
+import org.eclipse.scanning.example.malcolm.DummyMalcolmDevice;
+import org.eclipse.scanning.example.malcolm.DummyMalcolmModel;
 import org.eclipse.scanning.example.scannable.MockScannableConnector;
 import org.eclipse.scanning.sequencer.RunnableDeviceServiceImpl;
+import org.eclipse.scanning.test.scan.nexus.DummyMalcolmDeviceTest;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -300,6 +306,111 @@ public class ScanAtomAssemblerTest {
 		assertEquals("Produced task is not correctly configured", exemplar, produced);
 	}
 	
+	/**
+	 * Tests that many atoms can be assembled from one registered template, 
+	 * each with its own configuration, without the template being changed. 
+	 * This doubles as a benchmark of a large experiment: one scan for each 
+	 * sample on a 2000 sample plate.
+	 * @throws Exception
+	 */
+	@Test
+	public void testBulkAssemblyFromTemplate() throws Exception {
+		Map<String, DeviceModel> pMods = new LinkedHashMap<>();
+		Map<String, Object> pModDevConf = new HashMap<>();
+		pModDevConf.put("start", new QueueValue<String>("start", "start", true));
+		pModDevConf.put("stop", new QueueValue<String>("stop", "stop", true));
+		pModDevConf.put("step", 1.5);
+		pMods.put("stage_x", new DeviceModel("Step", pModDevConf));
+		Map<String, DeviceModel> dMods = new LinkedHashMap<>();
+		Map<String, Object> dModDevConf = new HashMap<>();
+		dModDevConf.put("exposureTime", new QueueValue<String>("exposureTime", true));
+		dMods.put("mandelbrotA", new DeviceModel(null, dModDevConf));
+		Collection<Object> mons = Arrays.asList(new QueueValue<String>("monitor2"));
+		qbf.registerAtom(new ScanAtom("plateScan", pMods, dMods, mons));
+		
+		List<ExperimentConfiguration> configs = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			configs.add(new ExperimentConfiguration(Arrays.asList(new QueueValue<Double>("start", (double)i), 
+					new QueueValue<Double>("stop", i+10.5), new QueueValue<Double>("exposureTime", 30.0+i)), null, null));
+		}
+		
+		long start = System.currentTimeMillis();
+		List<ScanAtom> atoms = qbf.assembleQueueAtoms(new QueueValue<>("plateScan", true), configs);
+		long time = System.currentTimeMillis()-start;
+		System.out.println("Assembled "+atoms.size()+" scan atoms from one template in "+time+"ms"); // Reported, not asserted
+		
+		assertEquals("Wrong number of atoms assembled", 2000, atoms.size());
+		for (int i = 0; i < atoms.size(); i++) {
+			CompoundModel<?> cMod = new CompoundModel<>();
+			cMod.addData(new StepModel("stage_x", i, i+10.5, 1.5), null);
+			assertEquals("Atom "+i+" has the wrong path", cMod, atoms.get(i).getScanReq().getCompoundModel());
+			//Each atom has its own copy of the detector model
+			assertEquals("Atom "+i+" has the wrong exposure", 30.0+i, ((IDetectorModel)atoms.get(i).getScanReq().getDetectors().get("mandelbrotA")).getExposureTime(), 0.0);
+		}
+		assertTrue("Template should not be changed by assembly", pModDevConf.get("start") instanceof QueueValue);
+	}
+	
+	/**
+	 * Detector models are cached between assemblies. Test that a changed 
+	 * detector is seen once the template is registered again.
+	 * @throws Exception
+	 */
+	@Test
+	public void testDetectorCacheInvalidatedOnRegistration() throws Exception {
+		Map<String, DeviceModel> dMods = new LinkedHashMap<>();
+		Map<String, Object> dModDevConf = new HashMap<>();
+		dModDevConf.put("exposureTime", 30.0);
+		dMods.put("mandelbrotA", new DeviceModel(null, dModDevConf));
+		ScanAtom scAtMod = new ScanAtom("testScan", new HashMap<String, DeviceModel>(), dMods, new ArrayList<Object>());
+		qbf.registerAtom(scAtMod);
+		
+		ScanAtom produced = qbf.assembleQueueAtom(new QueueValue<>("testScan", true), new ExperimentConfiguration(null, null, null));
+		assertEquals("Wrong detector model used", 64, ((MandelbrotModel)produced.getScanReq().getDetectors().get("mandelbrotA")).getColumns());
+		
+		MandelbrotModel replacement = makeMandelbrotModelA();
+		replacement.setColumns(32);
+		ServicesHolder.getRunnableDeviceService().createRunnableDevice(replacement);
+		qbf.replaceAtom(scAtMod);
+		
+		produced = qbf.assembleQueueAtom(new QueueValue<>("testScan", true), new ExperimentConfiguration(null, null, null));
+		assertEquals("Replaced detector model not used", 32, ((MandelbrotModel)produced.getScanReq().getDetectors().get("mandelbrotA")).getColumns());
+	}
+	
+	/**
+	 * Detector models are copied from the cached model. Test that the lists 
+	 * and nested models of the copies are not shared, with each other or 
+	 * with the model of the detector.
+	 * @throws Exception
+	 */
+	@Test
+	public void testDetectorModelsDeepCopied() throws Exception {
+		((RunnableDeviceServiceImpl) ServicesHolder.getRunnableDeviceService())._register(DummyMalcolmModel.class, DummyMalcolmDevice.class);
+		DummyMalcolmModel malcolmModel = DummyMalcolmDeviceTest.createModel(new File(System.getProperty("java.io.tmpdir")));
+		malcolmModel.setName("malcolm");
+		ServicesHolder.getRunnableDeviceService().createRunnableDevice(malcolmModel, false);
+		
+		Map<String, DeviceModel> dMods = new LinkedHashMap<>();
+		Map<String, Object> dModDevConf = new HashMap<>();
+		dModDevConf.put("exposureTime", 0.1);
+		dMods.put("malcolm", new DeviceModel(null, dModDevConf));
+		qbf.registerAtom(new ScanAtom("malcolmScan", new HashMap<String, DeviceModel>(), dMods, new ArrayList<Object>()));
+		
+		List<ScanAtom> atoms = qbf.assembleQueueAtoms(new QueueValue<>("malcolmScan", true), 
+				Arrays.asList(new ExperimentConfiguration(null, null, null), new ExperimentConfiguration(null, null, null)));
+		DummyMalcolmModel first = (DummyMalcolmModel)atoms.get(0).getScanReq().getDetectors().get("malcolm");
+		DummyMalcolmModel second = (DummyMalcolmModel)atoms.get(1).getScanReq().getDetectors().get("malcolm");
+		assertEquals("Copied model differs from the detector model", malcolmModel.getAxesToMove(), first.getAxesToMove());
+		assertNotSame("Atoms share a list", first.getAxesToMove(), second.getAxesToMove());
+		
+		first.getAxesToMove().set(0, "stage_z");
+		first.getDummyDetectorModels().get(0).setName("changed");
+		assertEquals("Changing one atom changed another", "stage_x", second.getAxesToMove().get(0));
+		assertEquals("Changing one atom changed another", "detector", second.getDummyDetectorModels().get(0).getName());
+		DummyMalcolmModel cached = (DummyMalcolmModel)ServicesHolder.getRunnableDeviceService().getRunnableDevice("malcolm").getModel();
+		assertEquals("Changing an atom changed the detector", "stage_x", cached.getAxesToMove().get(0));
+		assertEquals("Changing an atom changed the detector", "detector", cached.getDummyDetectorModels().get(0).getName());
+	}
+	
 	private <T> ScanAtom createScanAtom() throws ScanningException {
 		ScanRequest<T> scanReq = new ScanRequest<>();
 		CompoundModel<T> cMod = new CompoundModel<>();
@@ -0,0 +1,126 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.malcolm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.Scalar;
+import org.eclipse.scanning.malcolm.core.MalcolmProgressReporter;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that completedSteps updates at hardware rates are coalesced
+ * and that the thread delivering them is not held up.
+ */
+public class MalcolmProgressReporterTest {
+
+	private static final long PERIOD = 50;
+	
+	private List<Integer>           publishedSteps;
+	private List<IPosition>         publishedPositions;
+	private AtomicInteger           lookups;
+	private MalcolmProgressReporter reporter;
+	
+	@Before
+	public void before() {
+		publishedSteps     = Collections.synchronizedList(new ArrayList<>());
+		publishedPositions = Collections.synchronizedList(new ArrayList<>());
+		lookups            = new AtomicInteger();
+		reporter = new MalcolmProgressReporter(PERIOD, (step, position) -> {
+			publishedSteps.add(step);
+			publishedPositions.add(position);
+		});
+		reporter.setPositions(step -> {
+			lookups.incrementAndGet();
+			return new Scalar<>("x", step-1, (step-1)*0.1);
+		});
+	}
+	
+	@Test
+	public void testManyUpdates() throws Exception {
+		final int steps = 100000;
+		for (int step = 1; step <= steps; step++) reporter.update(step);
+		waitForStep(steps);
+		
+		// Only published steps are looked up
+		assertEquals(publishedSteps.size(), lookups.get());
+		
+		// The steps published only go forwards and the last one is the end of the scan
+		for (int i = 1; i < publishedSteps.size(); i++) {
+			assertTrue(publishedSteps.get(i) > publishedSteps.get(i-1));
+		}
+		assertEquals(steps, publishedSteps.get(publishedSteps.size()-1).intValue());
+		assertEquals(steps-1, publishedPositions.get(publishedPositions.size()-1).getIndex("x"));
+	}
+	
+	@Test
+	public void testLatestStepOnly() throws Exception {
+		reporter.update(1);
+		waitForStep(1);
+		
+		// Many updates inside one period are published once, as the latest
+		for (int step = 2; step <= 100; step++) reporter.update(step);
+		waitForStep(100);
+		assertEquals(2, publishedSteps.size());
+		assertEquals(100, publishedSteps.get(1).intValue());
+	}
+	
+	@Test
+	public void testNoPositions() throws Exception {
+		reporter.setPositions(null);
+		reporter.update(10);
+		waitForStep(10);
+		assertEquals(null, publishedPositions.get(0));
+	}
+
+	@Test
+	public void testFlush() throws Exception {
+		reporter.update(1);
+		waitForStep(1);
+		
+		// Inside the period, flush publishes straight away on this thread
+		reporter.update(42);
+		reporter.flush();
+		assertEquals(42, reporter.getPublishedStep());
+		assertEquals(42, publishedSteps.get(publishedSteps.size()-1).intValue());
+		
+		// And the scheduled publish does not send it again
+		Thread.sleep(2*PERIOD);
+		assertEquals(2, publishedSteps.size());
+	}
+
+	@Test
+	public void testReset() throws Exception {
+		reporter.update(10);
+		waitForStep(10);
+		reporter.reset();
+		reporter.update(10);
+		waitForStep(10);
+		assertEquals(2, publishedSteps.size());
+	}
+
+	private void waitForStep(int step) throws InterruptedException {
+		long end = System.currentTimeMillis() + 10*PERIOD;
+		while (reporter.getPublishedStep()!=step && System.currentTimeMillis() < end) {
+			Thread.sleep(PERIOD/5);
+		}
+		assertEquals(step, reporter.getPublishedStep());
+	}
+}
@@ -22,7 +22,8 @@ import org.junit.runners.Suite.SuiteClasses;
 	MockAbortingMalcolmTest.class,
 	MockCommunicationMalcolmTest.class,
 	MockMultipleClientTest.class,
-	MockPausingMalcolmTest.class
+	MockPausingMalcolmTest.class,
+	MalcolmProgressReporterTest.class
 })
 public class Suite {
 
@@ -0,0 +1,364 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.malcolm.device;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.scanning.api.event.scan.DeviceState;
+import org.eclipse.scanning.api.malcolm.IMalcolmDevice;
+import org.eclipse.scanning.api.malcolm.MalcolmDeviceException;
+import org.eclipse.scanning.api.malcolm.attributes.ChoiceAttribute;
+import org.eclipse.scanning.api.malcolm.attributes.IDeviceAttribute;
+import org.eclipse.scanning.api.malcolm.attributes.NumberAttribute;
+import org.eclipse.scanning.api.malcolm.connector.IMalcolmConnectorService;
+import org.eclipse.scanning.api.malcolm.connector.MalcolmMethod;
+import org.eclipse.scanning.api.malcolm.connector.MessageGenerator;
+import org.eclipse.scanning.api.malcolm.event.IMalcolmListener;
+import org.eclipse.scanning.api.malcolm.event.MalcolmEvent;
+import org.eclipse.scanning.api.malcolm.message.MalcolmMessage;
+import org.eclipse.scanning.api.malcolm.message.Type;
+import org.eclipse.scanning.api.scan.PositionEvent;
+import org.eclipse.scanning.api.scan.event.IPositionListener;
+import org.eclipse.scanning.example.malcolm.DummyMalcolmDevice;
+import org.eclipse.scanning.example.malcolm.DummyMalcolmModel;
+import org.eclipse.scanning.malcolm.core.MalcolmDevice.EpicsMalcolmModel;
+
+/**
+ * 
+ * A connector which talks to a {@link DummyMalcolmDevice} in the same VM
+ * instead of to a Malcolm server over the network. A MalcolmDevice using it
+ * goes through the same messages, replies and monitors as it would with the
+ * EPICS connector, while the dummy device writes the frames. Used for load
+ * testing the MalcolmDevice, NeXus linking and events without a network.
+ * 
+ * The completedSteps monitor is updated at most attributeRate times a second,
+ * or on every frame if the rate is zero, like a Malcolm server which throttles
+ * its attribute updates.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class LoopbackMalcolmConnectorService implements IMalcolmConnectorService<MalcolmMessage> {
+	
+	private static final String STATE_ENDPOINT          = "state";
+	private static final String COMPLETED_STEPS_ENDPOINT = "completedSteps";
+
+	private final DummyMalcolmDevice dummy;
+	private final double             attributeRate;
+	
+	private final ExecutorService          requestExecutor;
+	private final ScheduledExecutorService updateExecutor;
+	
+	private final AtomicLong    ids            = new AtomicLong();
+	private final AtomicInteger completedSteps = new AtomicInteger();
+	private final Map<String, Collection<Subscription>> subscriptions = new ConcurrentHashMap<>();
+	
+	private volatile long[] frameTimes;
+	private volatile int    publishedSteps;
+
+	/**
+	 * 
+	 * @param dummy the device which writes the frames, its model must already have the detectors set.
+	 * @param attributeRate the maximum number of attribute updates a second, 0 to send one for every frame.
+	 */
+	public LoopbackMalcolmConnectorService(DummyMalcolmDevice dummy, double attributeRate) {
+		this.dummy         = dummy;
+		this.attributeRate = attributeRate;
+		this.requestExecutor = Executors.newCachedThreadPool(r -> {
+			Thread thread = new Thread(r, "Malcolm loopback device");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.updateExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "Malcolm loopback updates");
+			thread.setDaemon(true);
+			return thread;
+		});
+		dummy.addPositionListener(new IPositionListener() {
+			@Override
+			public void positionPerformed(PositionEvent evt) {
+				frameCompleted();
+			}
+		});
+	}
+	
+	/**
+	 * The time in nanoseconds that each frame of the current run was written by the dummy device,
+	 * frame n completes step n+1.
+	 * @return the times, zero for frames not yet written
+	 */
+	public long[] getFrameTimes() {
+		return frameTimes;
+	}
+
+	@Override
+	public void connect(URI malcolmUri) throws MalcolmDeviceException {
+		// Nothing to connect to
+	}
+
+	@Override
+	public void disconnect() throws MalcolmDeviceException {
+		subscriptions.clear();
+		updateExecutor.shutdownNow();
+		requestExecutor.shutdownNow();
+	}
+
+	@Override
+	public MalcolmMessage send(IMalcolmDevice<?> device, MalcolmMessage message) throws MalcolmDeviceException {
+		try {
+			switch (message.getType()) {
+			case GET:
+				return reply(message, getAttribute(message.getEndpoint()));
+			case CALL:
+				return reply(message, call(message.getMethod(), message.getArguments()));
+			default:
+				throw new MalcolmDeviceException(device, "Cannot send a "+message.getType()+" message to the loopback device");
+			}
+		} catch (MalcolmDeviceException ne) {
+			throw ne;
+		} catch (InterruptedException ne) {
+			Thread.currentThread().interrupt();
+			return error(message, "Interrupted");
+		} catch (Exception ne) {
+			return error(message, ne.getMessage());
+		}
+	}
+	
+	@Override
+	public Future<MalcolmMessage> sendAsync(IMalcolmDevice<?> device, MalcolmMessage message) {
+		return requestExecutor.submit(()->send(device, message));
+	}
+
+	private Object getAttribute(String name) throws Exception {
+		if (name==null || name.isEmpty()) {
+			final Map<String, Object> block = new ConcurrentHashMap<>();
+			for (IDeviceAttribute<?> attribute : dummy.getAllAttributes()) block.put(attribute.getName(), attribute);
+			return block;
+		}
+		if (COMPLETED_STEPS_ENDPOINT.equals(name)) return createCompletedSteps(completedSteps.get());
+		if (STATE_ENDPOINT.equals(name)) return createState();
+		return dummy.getAttribute(name);
+	}
+
+	private Object call(MalcolmMethod method, Object arguments) throws Exception {
+		switch (method) {
+		case CONFIGURE:
+			configure((EpicsMalcolmModel)arguments);
+			break;
+		case RUN:
+			run();
+			break;
+		case PAUSE:
+			dummy.pause();
+			break;
+		case RESUME:
+			dummy.resume();
+			break;
+		case ABORT:
+		case DISABLE:
+		case RESET:
+		case VALIDATE:
+			break;
+		}
+		publishState();
+		return null;
+	}
+
+	private void configure(EpicsMalcolmModel epicsModel) throws Exception {
+		final DummyMalcolmModel model = dummy.getModel();
+		model.setFileDir(epicsModel.getFileDir());
+		if (epicsModel.getAxesToMove()!=null) model.setAxesToMove(epicsModel.getAxesToMove());
+		dummy.setPointGenerator(epicsModel.getGenerator());
+		dummy.configure(model);
+		
+		completedSteps.set(0);
+		publishedSteps = 0;
+		frameTimes = new long[epicsModel.getGenerator()!=null ? epicsModel.getGenerator().size() : 0];
+	}
+
+	private void run() throws Exception {
+		ScheduledFuture<?> updates = null;
+		if (attributeRate>0) {
+			final long period = Math.round(1000000000d/attributeRate);
+			updates = updateExecutor.scheduleAtFixedRate(this::publishCompletedSteps, period, period, TimeUnit.NANOSECONDS);
+		}
+		try {
+			dummy.run(null);
+		} finally {
+			if (updates!=null) updates.cancel(false);
+			// The last step is always sent, whatever the rate.
+			updateExecutor.submit(this::publishCompletedSteps).get();
+		}
+	}
+	
+	private void frameCompleted() {
+		final int step = completedSteps.incrementAndGet();
+		final long[] times = frameTimes;
+		if (times!=null && step<=times.length) times[step-1] = System.nanoTime();
+		if (attributeRate<=0) publishCompletedSteps();
+	}
+
+	private synchronized void publishCompletedSteps() {
+		final int step = completedSteps.get();
+		if (step==publishedSteps) return;
+		publishedSteps = step;
+		publish(COMPLETED_STEPS_ENDPOINT, createCompletedSteps(step));
+	}
+	
+	private void publishState() throws Exception {
+		publish(STATE_ENDPOINT, createState());
+	}
+
+	private void publish(String endpoint, Object value) {
+		final Collection<Subscription> subs = subscriptions.get(endpoint);
+		if (subs==null) return;
+		for (Subscription sub : subs) {
+			final MalcolmMessage update = new MalcolmMessage();
+			update.setType(Type.UPDATE);
+			update.setId(sub.message.getId());
+			update.setEndpoint(endpoint);
+			update.setValue(value);
+			sub.listener.eventPerformed(new MalcolmEvent<>(update));
+		}
+	}
+
+	private NumberAttribute createCompletedSteps(int step) {
+		final NumberAttribute attribute = new NumberAttribute();
+		attribute.setDtype("int32");
+		attribute.setName(COMPLETED_STEPS_ENDPOINT);
+		attribute.setValue(step);
+		return attribute;
+	}
+	
+	private ChoiceAttribute createState() throws Exception {
+		final ChoiceAttribute attribute = new ChoiceAttribute();
+		attribute.setChoices(Arrays.stream(DeviceState.values()).map(DeviceState::toString).toArray(String[]::new));
+		attribute.setName(STATE_ENDPOINT);
+		attribute.setValue(dummy.getDeviceState().toString());
+		return attribute;
+	}
+
+	private static MalcolmMessage reply(MalcolmMessage message, Object value) {
+		final MalcolmMessage reply = new MalcolmMessage();
+		reply.setType(Type.RETURN);
+		reply.setId(message.getId());
+		reply.setEndpoint(message.getEndpoint());
+		reply.setValue(value);
+		return reply;
+	}
+
+	private static MalcolmMessage error(MalcolmMessage message, String text) {
+		final MalcolmMessage reply = reply(message, null);
+		reply.setType(Type.ERROR);
+		reply.setMessage(text);
+		return reply;
+	}
+
+	@Override
+	public void subscribe(IMalcolmDevice<?> device, MalcolmMessage msg, IMalcolmListener<MalcolmMessage> listener) throws MalcolmDeviceException {
+		subscriptions.computeIfAbsent(msg.getEndpoint(), e -> new CopyOnWriteArrayList<>()).add(new Subscription(msg, listener));
+	}
+
+	@Override
+	public MalcolmMessage unsubscribe(IMalcolmDevice<?> device, MalcolmMessage msg, IMalcolmListener<MalcolmMessage>... listeners) throws MalcolmDeviceException {
+		final Collection<IMalcolmListener<MalcolmMessage>> remove = listeners!=null ? Arrays.asList(listeners) : null;
+		for (Collection<Subscription> subs : subscriptions.values()) {
+			subs.removeIf(sub -> sub.message.getId()==msg.getId() && (remove==null || remove.isEmpty() || remove.contains(sub.listener)));
+		}
+		return reply(msg, null);
+	}
+
+	@Override
+	public void subscribeToConnectionStateChange(IMalcolmDevice<?> device, IMalcolmListener<Boolean> listener) throws MalcolmDeviceException {
+		// Always connected
+	}
+
+	@Override
+	public MessageGenerator<MalcolmMessage> createConnection() {
+		return new LoopbackMessageGenerator(null);
+	}
+
+	@Override
+	public MessageGenerator<MalcolmMessage> createDeviceConnection(IMalcolmDevice<?> device) throws MalcolmDeviceException {
+		return new LoopbackMessageGenerator(device);
+	}
+	
+	private static final class Subscription {
+		private final MalcolmMessage                   message;
+		private final IMalcolmListener<MalcolmMessage> listener;
+		Subscription(MalcolmMessage message, IMalcolmListener<MalcolmMessage> listener) {
+			this.message  = message;
+			this.listener = listener;
+		}
+	}
+	
+	private final class LoopbackMessageGenerator implements MessageGenerator<MalcolmMessage> {
+
+		private final IMalcolmDevice<?> device;
+
+		LoopbackMessageGenerator(IMalcolmDevice<?> device) {
+			this.device = device;
+		}
+		
+		private MalcolmMessage create(Type type) {
+			final MalcolmMessage msg = new MalcolmMessage();
+			msg.setId(ids.getAndIncrement());
+			msg.setType(type);
+			return msg;
+		}
+
+		@Override
+		public MalcolmMessage call(MalcolmMethod method, DeviceState... states) throws MalcolmDeviceException {
+			return send(device, createCallMessage(method, null));
+		}
+
+		@Override
+		public MalcolmMessage createGetMessage(String endpoint) throws MalcolmDeviceException {
+			final MalcolmMessage msg = create(Type.GET);
+			msg.setEndpoint(endpoint);
+			return msg;
+		}
+
+		@Override
+		public MalcolmMessage createCallMessage(MalcolmMethod method, Object params) throws MalcolmDeviceException {
+			final MalcolmMessage msg = create(Type.CALL);
+			msg.setMethod(method);
+			msg.setArguments(params);
+			return msg;
+		}
+
+		@Override
+		public MalcolmMessage createSubscribeMessage(String subscription) {
+			final MalcolmMessage msg = create(Type.SUBSCRIBE);
+			msg.setEndpoint(subscription);
+			return msg;
+		}
+
+		@Override
+		public MalcolmMessage createUnsubscribeMessage() {
+			return create(Type.UNSUBSCRIBE);
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.points;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+
+import org.eclipse.scanning.api.scan.rank.ChunkPlan;
+import org.eclipse.scanning.api.scan.rank.IChunkPlanner;
+import org.eclipse.scanning.api.scan.rank.ReadPattern;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the chunks planned for different scan shapes, frames and ways of reading.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class ChunkPlannerTest {
+	
+	private IChunkPlanner planner;
+	
+	@Before
+	public void before() throws Exception {
+		planner = IChunkPlanner.getChunkPlanner();
+	}
+
+	@Test
+	public void testSmallScalarScanIsOneChunk() throws Exception {
+		assertArrayEquals(new int[]{8, 5}, planner.createScalarChunk(new int[]{8, 5}, 4));
+	}
+	
+	@Test
+	public void testLargeScalarScanKeepsLinesWhole() throws Exception {
+		ChunkPlan plan = planner.plan(new int[]{1000, 1000}, -1, new int[0], 8, ReadPattern.LINE, ReadPattern.MAP);
+		assertArrayEquals(new int[]{64, 1000}, plan.getChunk());
+		checkBounds(plan);
+	}
+	
+	@Test
+	public void testScalarReadByLineOnlyGrowsFastDimension() throws Exception {
+		ChunkPlan plan = planner.plan(new int[]{1000, 1000}, -1, new int[0], 8, ReadPattern.LINE);
+		assertArrayEquals(new int[]{1, 1000}, plan.getChunk());
+	}
+
+	@Test
+	public void testScalarUnknownShape() throws Exception {
+		assertArrayEquals(new int[]{1, 2048}, planner.createScalarChunk(IChunkPlanner.unknownShape(2), 8));
+	}
+
+	@Test
+	public void testSmallScalarScanOfUnknownShape() throws Exception {
+		assertArrayEquals(new int[]{1, 25}, planner.createScalarChunk(IChunkPlanner.unknownShape(2), 25, 8));
+	}
+
+	@Test
+	public void testLargeScalarScanOfUnknownShape() throws Exception {
+		assertArrayEquals(new int[]{1, 32768}, planner.createScalarChunk(IChunkPlanner.unknownShape(2), 1000000, 8));
+	}
+
+	@Test
+	public void testSmallFrameGrownAlongScan() throws Exception {
+		ChunkPlan plan = planner.plan(new int[]{100}, -1, new int[]{10, 10}, 8, ReadPattern.FRAME);
+		assertArrayEquals(new int[]{32, 10, 10}, plan.getChunk());
+		checkBounds(plan);
+	}
+
+	@Test
+	public void testLargeFrameIsSplit() throws Exception {
+		ChunkPlan plan = planner.plan(new int[]{10}, -1, new int[]{2048, 2048}, 8, ReadPattern.FRAME);
+		assertArrayEquals(new int[]{1, 64, 2048}, plan.getChunk());
+		checkBounds(plan);
+		assertTrue(plan.getCacheBytes()>=32*plan.getChunkBytes()); // The whole frame is open at once
+	}
+
+	@Test
+	public void testFrameChunkDefault() throws Exception {
+		assertArrayEquals(planner.plan(new int[]{5, 5}, -1, new int[]{64, 64}, 8, ReadPattern.FRAME).getChunk(), 
+				          planner.createChunk(new int[]{5, 5}, 8, 64, 64));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNullScanShape() throws Exception {
+		planner.createScalarChunk(null, 8);
+	}
+
+	private void checkBounds(ChunkPlan plan) {
+		assertTrue(plan.getChunkBytes()>=16*1024);
+		assertTrue(plan.getChunkBytes()<=1024*1024);
+		assertTrue(plan.getCacheBytes()>=plan.getChunkBytes());
+		assertTrue(BigInteger.valueOf(plan.getCacheSlots()).isProbablePrime(20));
+	}
+}
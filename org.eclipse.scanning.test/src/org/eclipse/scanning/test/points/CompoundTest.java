@@ -26,6 +26,7 @@ import org.eclipse.dawnsci.analysis.dataset.roi.CircularROI;
 import org.eclipse.scanning.api.points.IPointGenerator;
 import org.eclipse.scanning.api.points.IPointGeneratorService;
 import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.IRandomAccessIterator;
 import org.eclipse.scanning.api.points.models.BoundingBox;
 import org.eclipse.scanning.api.points.models.CompoundModel;
 import org.eclipse.scanning.api.points.models.GridModel;
@@ -364,6 +365,43 @@ public class CompoundTest {
         GeneratorUtil.testGeneratorPoints(scan);
 	}
 	
+	@Test
+	public void testGetPointByStep() throws Exception {
+		IPointGenerator<StepModel> temp = service.createGenerator(new StepModel("Temperature", 290,295,1));
+		
+		BoundingBox box = new BoundingBox();
+		box.setFastAxisStart(0);
+		box.setSlowAxisStart(0);
+		box.setFastAxisLength(3);
+		box.setSlowAxisLength(3);
+		
+		GridModel model = new GridModel("x", "y");
+		model.setSlowAxisPoints(20);
+		model.setFastAxisPoints(20);
+		model.setSnake(true);
+		model.setBoundingBox(box);
+		
+		IROI region = new CircularROI(2, 1, 1);
+		IPointGenerator<GridModel> grid = service.createGenerator(model, region);
+		IPointGenerator<?> scan = service.createCompoundGenerator(temp, grid);
+		
+		Iterator<IPosition> it = scan.iterator();
+		Iterator<IPosition> lookup = scan.iterator();
+		assertTrue(lookup instanceof IRandomAccessIterator);
+		
+		// Every point looked up by step must be the one iterated to
+		int step = 0;
+		while (it.hasNext()) {
+			IPosition expected = it.next();
+			assertEquals(expected, ((IRandomAccessIterator)lookup).getPoint(step));
+			step++;
+		}
+		assertEquals(scan.size(), step);
+		
+		// Looking up does not move the iterator
+		assertEquals(0, lookup.next().getStepIndex());
+	}
+	
 
 	@Test
 	public void testGridCompoundGrid() throws Exception {
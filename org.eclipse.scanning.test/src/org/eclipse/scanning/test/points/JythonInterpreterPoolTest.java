@@ -0,0 +1,153 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.points;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.scanning.jython.JythonInterpreterPool;
+import org.junit.Before;
+import org.junit.Test;
+import org.python.core.Py;
+import org.python.util.PythonInterpreter;
+
+/**
+ * Tests the interpreter pool is bounded, resets interpreters
+ * and can be used by many threads at once.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class JythonInterpreterPoolTest {
+	
+	private JythonInterpreterPool pool;
+	
+	@Before
+	public void before() throws Exception {
+		pool = new JythonInterpreterPool(2, 1);
+	}
+	
+	@Test
+	public void prewarmed() throws Exception {
+		assertEquals(1, pool.getSize());
+		assertEquals(1, pool.getIdle());
+	}
+
+	@Test
+	public void resetOnReturn() throws Exception {
+		
+		try (JythonInterpreterPool.Lease lease = pool.borrow(1, TimeUnit.SECONDS)) {
+			lease.exec("fred = 10");
+			assertEquals(10, Py.tojava(lease.get("fred"), Integer.class).intValue());
+		}
+		try (JythonInterpreterPool.Lease lease = pool.borrow(1, TimeUnit.SECONDS)) {
+			assertEquals(1, pool.getSize()); // Same interpreter
+			assertNull(lease.get("fred"));
+		}
+	}
+
+	@Test
+	public void isolated() throws Exception {
+		
+		try (JythonInterpreterPool.Lease lease1 = pool.borrow(1, TimeUnit.SECONDS);
+			 JythonInterpreterPool.Lease lease2 = pool.borrow(1, TimeUnit.SECONDS)) {
+			
+			assertTrue(lease1.getInterpreter().getSystemState()!=lease2.getInterpreter().getSystemState());
+			lease1.exec("import sys\nsys.fred = 1");
+			lease2.exec("import sys\nbill = hasattr(sys, 'fred')");
+			assertEquals(Boolean.FALSE, Py.tojava(lease2.get("bill"), Boolean.class));
+		}
+	}
+
+	@Test(expected=TimeoutException.class)
+	public void bounded() throws Exception {
+		
+		try (JythonInterpreterPool.Lease lease1 = pool.borrow(1, TimeUnit.SECONDS);
+			 JythonInterpreterPool.Lease lease2 = pool.borrow(1, TimeUnit.SECONDS)) {
+			assertEquals(2, pool.getSize());
+			pool.borrow(100, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Test
+	public void failedCreateKeepsCapacity() throws Exception {
+		
+		final AtomicInteger failures = new AtomicInteger(1);
+		final JythonInterpreterPool pool = new JythonInterpreterPool(1, 0) {
+			@Override
+			protected PythonInterpreter create() {
+				if (failures.getAndDecrement()>0) throw new IllegalStateException("Cannot create the system state!");
+				return super.create();
+			}
+		};
+		try {
+			pool.borrow(1, TimeUnit.SECONDS);
+			fail("The interpreter should not have been created");
+		} catch (IllegalStateException expected) {
+			assertEquals(0, pool.getSize());
+		}
+		try (JythonInterpreterPool.Lease lease = pool.borrow(1, TimeUnit.SECONDS)) {
+			assertEquals(1, pool.getSize());
+		}
+	}
+
+	@Test
+	public void compiledOnce() throws Exception {
+		String script = "x = 1";
+		assertSame(pool.compile(script), pool.compile(script));
+	}
+
+	@Test
+	public void concurrent() throws Exception {
+		
+		final JythonInterpreterPool pool = new JythonInterpreterPool(4, 4);
+		final AtomicInteger         count = new AtomicInteger();
+		final ExecutorService       exec  = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int i = 0; i < 64; i++) {
+				final int value = i;
+				results.add(exec.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						try (JythonInterpreterPool.Lease lease = pool.borrow(10, TimeUnit.SECONDS)) {
+							lease.set("value", value);
+							lease.exec("result = value*2");
+							count.incrementAndGet();
+							return Py.tojava(lease.get("result"), Integer.class);
+						}
+					}
+				}));
+			}
+			for (int i = 0; i < results.size(); i++) assertEquals(i*2, results.get(i).get().intValue());
+			
+		} finally {
+			exec.shutdownNow();
+		}
+		assertEquals(64, count.get());
+		assertEquals(4, pool.getSize());
+		assertEquals(4, pool.getIdle());
+	}
+}
@@ -33,7 +33,9 @@ import org.junit.runners.Suite.SuiteClasses;
 	SpiralTest.class,
 	StaticTest.class,
 	StepTest.class,
-	JythonGeneratorTest.class
+	JythonGeneratorTest.class,
+	JythonInterpreterPoolTest.class,
+	ChunkPlannerTest.class
 
 	// TODO Smoke tests?
 	//GridTestLarge.class, 
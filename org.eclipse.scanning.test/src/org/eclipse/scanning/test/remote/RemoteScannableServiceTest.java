@@ -13,10 +13,13 @@ package org.eclipse.scanning.test.remote;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -26,8 +29,10 @@ import org.eclipse.scanning.api.event.EventConstants;
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventService;
 import org.eclipse.scanning.api.event.core.IDisconnectable;
+import org.eclipse.scanning.api.event.scan.DeviceInformation;
 import org.eclipse.scanning.api.scan.PositionEvent;
 import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.event.IPositionCacheable;
 import org.eclipse.scanning.api.scan.event.IPositionListenable;
 import org.eclipse.scanning.api.scan.event.IPositionListener;
 import org.eclipse.scanning.event.EventServiceImpl;
@@ -158,6 +163,86 @@ public class RemoteScannableServiceTest extends BrokerTest {
 		}
 	}
 	
+	@Test
+	public void testManyScannables() throws Exception {
+		
+		cservice.getScannable("xNex").setPosition(1d);
+		cservice.getScannable("yNex").setPosition(2d);
+		
+		Collection<DeviceInformation<?>> infos = rservice.getDeviceInformation(Arrays.asList("xNex", "yNex", "T"));
+		assertEquals(3, infos.size());
+		
+		Iterator<DeviceInformation<?>> it = infos.iterator();
+		checkInformation(it.next(), "xNex", 1d);
+		checkInformation(it.next(), "yNex", 2d);
+		checkInformation(it.next(), "T", cservice.getScannable("T").getPosition());
+	}
+	
+	@Test
+	public void testManyScannablesOneMissing() throws Exception {
+		
+		((MockScannableConnector)cservice).setCreateIfNotThere(false);
+		try {
+			Collection<DeviceInformation<?>> infos = rservice.getDeviceInformation(Arrays.asList("xNex", "fred", "yNex"));
+			assertEquals(3, infos.size());
+			
+			Iterator<DeviceInformation<?>> it = infos.iterator();
+			checkInformation(it.next(), "xNex", cservice.getScannable("xNex").getPosition());
+			
+			DeviceInformation<?> fred = it.next();
+			assertEquals("fred", fred.getName());
+			assertNotNull(fred.getErrorMessage());
+			
+			checkInformation(it.next(), "yNex", cservice.getScannable("yNex").getPosition());
+		} finally {
+			((MockScannableConnector)cservice).setCreateIfNotThere(true);
+		}
+	}
+	
+	@Test
+	public void testManyScannablesUpdateRemote() throws Exception {
+		
+		IScannable<Double> xNex = rservice.getScannable("xNex");
+		rservice.getDeviceInformation(Arrays.asList("xNex"));
+		assertEquals(cservice.getScannable("xNex").getMaximum(), xNex.getMaximum());
+		assertEquals(cservice.getScannable("xNex").getUnit(), xNex.getUnit());
+	}
+	
+	@Test
+	public void testCachedPositionMovedOnServer() throws Exception {
+		
+		IScannable<Double> xNex = rservice.getScannable("xNex");
+		((IPositionCacheable<?>)xNex).setMaximumAge(60000);
+		
+		xNex.setPosition(5d);
+		assertEquals(5d, xNex.getPosition(), 0.0001);
+		
+		// The position performed event updates the cache
+		cservice.getScannable("xNex").setPosition(7d);
+		for (int i = 0; i < 100 && xNex.getPosition()!=7d; i++) Thread.sleep(10);
+		assertEquals(7d, xNex.getPosition(), 0.0001);
+		assertEquals(7d, (Double)((IPositionCacheable<?>)xNex).getPosition(0), 0.0001);
+	}
+	
+	@Test
+	public void testCachedPositionMovedByProxy() throws Exception {
+		
+		IScannable<Double> xNex = rservice.getScannable("xNex");
+		((IPositionCacheable<?>)xNex).setMaximumAge(60000);
+		
+		for (int i = 0; i < 10; i++) {
+			xNex.setPosition(i*10d);
+			assertEquals(i*10d, xNex.getPosition(), 0.0001); // Never the position before the move
+		}
+	}
+
+	private void checkInformation(DeviceInformation<?> info, String name, Object value) throws Exception {
+		assertEquals(name, info.getName());
+		assertNull(info.getErrorMessage());
+		assertEquals(value, info.getValue());
+		assertEquals(cservice.getScannable(name).getUnit(), info.getUnit());
+	}
+
 	@Test
 	public void addFive() throws Exception {
 		checkTemperature(5);
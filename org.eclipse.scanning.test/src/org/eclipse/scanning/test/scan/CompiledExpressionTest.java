@@ -0,0 +1,97 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.eclipse.scanning.sequencer.expression.CompiledExpression;
+import org.junit.Test;
+
+public class CompiledExpressionTest {
+
+	@Test
+	public void testSlots() throws Exception {
+		
+		CompiledExpression expr = new CompiledExpression("beamcurrent >= 1.0 && !portshutter.equalsIgnoreCase(\"Closed\")", Arrays.asList("beamcurrent", "portshutter"));
+		assertEquals(0, expr.getSlot("beamcurrent"));
+		assertEquals(1, expr.getSlot("portshutter"));
+		assertEquals(-1, expr.getSlot("x"));
+		
+		assertTrue(expr.set("beamcurrent", 5d));
+		assertTrue(expr.set("portshutter", "Open"));
+		assertFalse(expr.set("portshutter", "Open")); // Not changed
+		assertFalse(expr.set("x", 1d));               // Not in expression
+		assertTrue(expr.<Boolean>evaluate());
+		
+		expr.set("portshutter", "Closed");
+		assertFalse(expr.<Boolean>evaluate());
+		
+		expr.set("portshutter", "Open");
+		expr.set(0, 0.5);
+		assertFalse(expr.<Boolean>evaluate());
+	}
+	
+	@Test
+	public void testRepeatedEvaluation() throws Exception {
+		
+		CompiledExpression expr = new CompiledExpression("beamcurrent >= 1.0 && ringcurrent > 200 && !portshutter.equalsIgnoreCase(\"Closed\")", 
+				                                         Arrays.asList("beamcurrent", "ringcurrent", "portshutter"));
+		int ring = expr.getSlot("ringcurrent");
+		expr.set("beamcurrent", 5d);
+		expr.set("portshutter", "Open");
+		
+		evaluate(expr, ring, 100000);
+		
+		expr.set("beamcurrent", 0.5d);
+		assertFalse(expr.evaluate());
+	}
+	
+	/**
+	 * Reports the rate at which a watchdog expression is evaluated. The rate
+	 * depends on the machine so it is printed and not asserted.
+	 */
+	@Test
+	public void benchmarkEvaluation() throws Exception {
+		
+		CompiledExpression expr = new CompiledExpression("beamcurrent >= 1.0 && ringcurrent > 200 && !portshutter.equalsIgnoreCase(\"Closed\")", 
+				                                         Arrays.asList("beamcurrent", "ringcurrent", "portshutter"));
+		int ring = expr.getSlot("ringcurrent");
+		expr.set("beamcurrent", 5d);
+		expr.set("portshutter", "Open");
+		
+		// Warm up
+		evaluate(expr, ring, 100000);
+		
+		int  size = 1000000;
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < 5; i++) best = Math.min(best, evaluate(expr, ring, size));
+		
+		double rate = size/(best/1e9);
+		System.out.println("Compiled expression evaluated at "+Math.round(rate)+" evaluations/s");
+	}
+
+	private long evaluate(CompiledExpression expr, int slot, int size) {
+		long start = System.nanoTime();
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			expr.set(slot, 300d+(i%2)); // Changes every time, as a fast PV would
+			Boolean ok = expr.evaluate();
+			if (ok) count++;
+		}
+		assertEquals(size, count);
+		return System.nanoTime()-start;
+	}
+}
@@ -0,0 +1,214 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.scanning.api.device.IRunnableDeviceService;
+import org.eclipse.scanning.api.event.scan.DeviceState;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.example.detector.MandelbrotDetector;
+import org.eclipse.scanning.example.detector.MandelbrotModel;
+import org.eclipse.scanning.example.malcolm.DummyMalcolmDevice;
+import org.eclipse.scanning.example.malcolm.DummyMalcolmModel;
+import org.eclipse.scanning.example.scannable.MockScannableConnector;
+import org.eclipse.scanning.sequencer.RunnableDeviceServiceImpl;
+import org.eclipse.scanning.test.scan.mock.MockDetectorModel;
+import org.eclipse.scanning.test.scan.mock.MockWritableDetector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConfigureCacheTest {
+
+	private IRunnableDeviceService dservice;
+	private CountingDetector       detector;
+
+	@Before
+	public void setup() throws Exception {
+		dservice = new RunnableDeviceServiceImpl(new MockScannableConnector());
+		RunnableDeviceServiceImpl.setConfigureCache(true);
+
+		detector = new CountingDetector("counter");
+		detector.setRunnableDeviceService(dservice);
+	}
+
+	@After
+	public void teardown() throws Exception {
+		RunnableDeviceServiceImpl.setConfigureCache(false);
+	}
+
+	@Test
+	public void testEqualModelNotConfiguredAgain() throws Exception {
+
+		assertTrue(dservice.configure(detector, createModel(0.1), null));
+		assertFalse(dservice.configure(detector, createModel(0.1), null));
+		assertFalse(dservice.configure(detector, createModel(0.1), null));
+		assertEquals(1, detector.configureCount);
+	}
+
+	@Test
+	public void testChangedModelConfigured() throws Exception {
+
+		assertTrue(dservice.configure(detector, createModel(0.1), null));
+		assertTrue(dservice.configure(detector, createModel(0.2), null));
+		assertFalse(dservice.configure(detector, createModel(0.2), null));
+		assertEquals(2, detector.configureCount);
+	}
+
+	@Test
+	public void testModelChangedAfterConfigure() throws Exception {
+
+		MockDetectorModel model = createModel(0.1);
+		assertTrue(dservice.configure(detector, model, null));
+
+		model.setExposureTime(0.2); // The device still has 0.1
+		assertTrue(dservice.configure(detector, model, null));
+		assertEquals(2, detector.configureCount);
+	}
+
+	@Test
+	public void testCacheOff() throws Exception {
+
+		RunnableDeviceServiceImpl.setConfigureCache(false);
+		assertTrue(dservice.configure(detector, createModel(0.1), null));
+		assertTrue(dservice.configure(detector, createModel(0.1), null));
+		assertEquals(2, detector.configureCount);
+	}
+
+	@Test
+	public void testNotSkippableByDefault() throws Exception {
+
+		MockWritableDetector mock = new MockWritableDetector("mock");
+		assertTrue(dservice.configure(mock, createModel(0.1), null));
+		assertTrue(dservice.configure(mock, createModel(0.1), null));
+	}
+
+	@Test
+	public void testInvalidated() throws Exception {
+
+		assertTrue(dservice.configure(detector, createModel(0.1), null));
+		dservice.invalidateConfiguration(detector); // For instance the scan was aborted
+		assertTrue(dservice.configure(detector, createModel(0.1), null));
+		assertEquals(2, detector.configureCount);
+	}
+
+	@Test
+	public void testResetFromOutside() throws Exception {
+
+		assertTrue(dservice.configure(detector, createModel(0.1), null));
+		detector.reset();
+		assertTrue(dservice.configure(detector, createModel(0.1), null));
+		assertEquals(2, detector.configureCount);
+	}
+
+	@Test
+	public void testConfigureFailed() throws Exception {
+
+		detector.fail = true;
+		try {
+			dservice.configure(detector, createModel(0.1), null);
+		} catch (ScanningException expected) {
+			// The device is not configured
+		}
+		detector.fail = false;
+		assertTrue(dservice.configure(detector, createModel(0.1), null));
+		assertFalse(dservice.configure(detector, createModel(0.1), null));
+	}
+
+	@Test
+	public void testSimulatedDetector() throws Exception {
+
+		MandelbrotDetector mandy = new MandelbrotDetector();
+		MandelbrotModel    model = new MandelbrotModel();
+		model.setName("mandelbrot");
+		model.setExposureTime(0.001);
+
+		assertTrue(dservice.configure(mandy, model, null));
+		assertFalse(dservice.configure(mandy, model, null));
+
+		mandy.run(new MapPosition()); // Running until the point is written
+		assertEquals(DeviceState.RUNNING, mandy.getDeviceState());
+		assertTrue(dservice.configure(mandy, model, null));
+	}
+
+	@Test
+	public void testDummyMalcolm() throws Exception {
+
+		DummyMalcolmDevice malcolm = new DummyMalcolmDevice();
+		DummyMalcolmModel  model   = new DummyMalcolmModel();
+
+		assertTrue(dservice.configure(malcolm, model, createScanPath(10)));
+		assertEquals(DeviceState.ARMED, malcolm.getDeviceState());
+		assertFalse(dservice.configure(malcolm, model, createScanPath(10)));
+
+		// A different scan path must be sent to malcolm
+		assertTrue(dservice.configure(malcolm, model, createScanPath(20)));
+		assertFalse(dservice.configure(malcolm, model, createScanPath(20)));
+
+		// A different output directory
+		model.setFileDir("/tmp/next_scan");
+		assertTrue(dservice.configure(malcolm, model, createScanPath(20)));
+	}
+
+	@Test
+	public void testDummyMalcolmNotArmed() throws Exception {
+
+		// The service is not set on this device, so only the state tells us it was reset,
+		// as it does for a malcolm which has finished its run.
+		DummyMalcolmDevice malcolm = new DummyMalcolmDevice();
+		DummyMalcolmModel  model   = new DummyMalcolmModel();
+
+		assertTrue(dservice.configure(malcolm, model, createScanPath(10)));
+		malcolm.reset();
+		assertEquals(DeviceState.READY, malcolm.getDeviceState());
+		assertTrue(dservice.configure(malcolm, model, createScanPath(10)));
+		assertFalse(dservice.configure(malcolm, model, createScanPath(10)));
+	}
+
+	private MockDetectorModel createModel(double exposure) {
+		MockDetectorModel model = new MockDetectorModel(exposure);
+		model.setName("counter");
+		return model;
+	}
+
+	private CompoundModel<?> createScanPath(int stop) {
+		return new CompoundModel<>(new StepModel("T", 0, stop, 1));
+	}
+
+	private static class CountingDetector extends MockWritableDetector {
+
+		private int     configureCount;
+		private boolean fail;
+
+		CountingDetector(String name) {
+			super(name);
+		}
+
+		@Override
+		public void configure(MockDetectorModel model) throws ScanningException {
+			if (fail) throw new ScanningException("The detector could not be configured!");
+			configureCount++;
+			super.configure(model);
+		}
+
+		@Override
+		public boolean isReconfigureSkippable() throws ScanningException {
+			return getDeviceState()==DeviceState.ARMED;
+		}
+	}
+}
@@ -31,7 +31,9 @@ import org.junit.runners.Suite.SuiteClasses;
 	RunnableDeviceServiceConfigureTest.class,
 	WatchdogTopupTest.class,
 	WatchdogShutterTest.class,
-	WatchdogCombinedTest.class
+	WatchdogCombinedTest.class,
+	CompiledExpressionTest.class,
+	ConfigureCacheTest.class
 	// ThreadScanTest.class  Not reliable on traivs.
 })
 public class Suite {
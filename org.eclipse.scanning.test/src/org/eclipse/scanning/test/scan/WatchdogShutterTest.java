@@ -12,6 +12,7 @@
 package org.eclipse.scanning.test.scan;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -20,6 +21,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.scanning.api.IScannable;
@@ -130,6 +132,49 @@ public class WatchdogShutterTest extends AbstractWatchdogTest {
 
 	}
 	
+	@Test
+	public void beamBlipIgnoredWithHysteresis() throws Exception {
+
+		dog.getModel().setPauseDelay(200);
+		try {
+			IDeviceController controller = createTestScanner(null);
+			IRunnableEventDevice<?> scanner = (IRunnableEventDevice<?>)controller.getDevice();
+			
+			final CountDownLatch paused  = new CountDownLatch(1);
+			final CountDownLatch resumed = new CountDownLatch(1);
+			scanner.addRunListener(new IRunListener() {
+				public void stateChanged(RunEvent evt) throws ScanningException {
+					if (evt.getDeviceState()==DeviceState.PAUSED) {
+						paused.countDown();
+					} else if (evt.getDeviceState()==DeviceState.RUNNING && paused.getCount()==0) {
+						resumed.countDown();
+					}
+				}
+			});
+			
+			scanner.start(null);
+			scanner.latch(200, TimeUnit.MILLISECONDS);
+			
+			// A short blip should not pause the scan, even when we wait longer than the delay
+			final IScannable<Number>   mon  = connector.getScannable("beamcurrent");
+			mon.setPosition(0.1);
+			mon.setPosition(2.1);
+			assertFalse(paused.await(400, TimeUnit.MILLISECONDS));
+			
+			// Loosing the beam for longer than the delay should
+			mon.setPosition(0.1);
+			assertTrue(paused.await(5, TimeUnit.SECONDS));
+			
+			mon.setPosition(2.1);
+			assertTrue(resumed.await(5, TimeUnit.SECONDS));
+			
+			controller.abort("test");
+			
+		} finally {
+			dog.getModel().setPauseDelay(0);
+		}
+	}
+	
 	@Test
 	public void shutterClosedInScan() throws Exception {
 
@@ -12,6 +12,7 @@
 package org.eclipse.scanning.test.scan;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -23,7 +24,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.scanning.api.IScannable;
@@ -255,6 +258,59 @@ public class WatchdogTopupTest extends AbstractWatchdogTest {
 		assertTrue("States contain no seeking: "+states, states.contains(DeviceState.SEEKING));
 	}
 
+	@Test
+	public void topupPredictiveIn2DScan() throws Exception {
+		
+		final IScannable<Number>   topups  = connector.getScannable("topup");
+		final MockTopupScannable   topup   = (MockTopupScannable)topups;
+		assertNotNull(topup);
+		topup.start();
+
+		dog.getModel().setPredictive(true);
+		try {
+			detector.getModel().setExposureTime(0.05);
+			IDeviceController controller = createTestScanner(null);
+			IRunnableEventDevice<?> scanner = (IRunnableEventDevice<?>)controller.getDevice();
+			
+			Set<DeviceState> states = new HashSet<>();
+			scanner.addRunListener(new IRunListener() {
+				public void stateChanged(RunEvent evt) throws ScanningException {
+					states.add(evt.getDeviceState());
+				}
+			});
+			
+			// Record the countdown either side of each exposure
+			final Map<Integer, Integer> before = new ConcurrentHashMap<>();
+			final Map<Integer, Integer> after  = new ConcurrentHashMap<>();
+			IRunListener exposures = new IRunListener() {
+				public void runWillPerform(RunEvent evt) throws ScanningException {
+					before.put(evt.getPosition().getStepIndex(), topup.getPosition().intValue());
+				}
+				public void runPerformed(RunEvent evt) throws ScanningException {
+					after.put(evt.getPosition().getStepIndex(), topup.getPosition().intValue());
+				}
+			};
+			detector.addRunListener(exposures);
+			try {
+				scanner.run(null);
+			} finally {
+				detector.removeRunListener(exposures);
+			}
+			
+			assertFalse("Predictive mode should not pause: "+states, states.contains(DeviceState.PAUSED));
+			assertEquals(25, positions.size());
+			
+			// The countdown resets at topup, so a point which straddled topup would see it go up.
+			for (Integer step : before.keySet()) {
+				assertTrue("Point "+step+" started at "+before.get(step)+" and ended at "+after.get(step), 
+						   before.get(step)>=after.get(step));
+			}
+			
+		} finally {
+			dog.getModel().setPredictive(false);
+		}
+	}
+
 	@Test
 	public void scanDuringTopup() throws Exception {
 
@@ -0,0 +1,72 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan.mock;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.dawnsci.analysis.api.processing.OperationData;
+import org.eclipse.dawnsci.analysis.api.processing.model.ValueModel;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.IDataset;
+import org.eclipse.january.dataset.Maths;
+
+/**
+ * Subtracts a scalar value like the subtract operation, but each frame
+ * waits until the gate is opened. Used to hold up processing in tests.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class MockBlockingOperation extends MockAbstractMathsOperation<ValueModel, OperationData> {
+	
+	private static volatile CountDownLatch gate    = new CountDownLatch(0);
+	private static volatile CountDownLatch started = new CountDownLatch(1);
+	
+	/**
+	 * Frames processed after this wait until {@link #open()} is called.
+	 */
+	public static void close() {
+		started = new CountDownLatch(1);
+		gate    = new CountDownLatch(1);
+	}
+	
+	public static void open() {
+		gate.countDown();
+	}
+	
+	/**
+	 * Wait for a frame to reach the closed gate.
+	 */
+	public static boolean awaitStarted(long time, TimeUnit unit) throws InterruptedException {
+		return started.await(time, unit);
+	}
+	
+	protected IDataset operation(IDataset a, Object value) {
+		started.countDown();
+		try {
+			gate.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return a instanceof Dataset ? ((Dataset) a).isubtract(value) : Maths.subtract(a, value);
+	}
+
+	@Override
+	public String getId() {
+		return "org.eclipse.scanning.test.scan.mock.blockingOperation";
+	}
+	@Override
+    public String getName() {
+		return "Subtract when the gate opens";
+	}
+}
@@ -0,0 +1,81 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan.nexus;
+
+import static org.junit.Assert.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.dawnsci.analysis.api.io.IDataHolder;
+import org.eclipse.dawnsci.analysis.api.io.ILoaderService;
+import org.eclipse.january.IMonitor;
+import org.eclipse.january.dataset.Slice;
+import org.eclipse.scanning.api.device.IRunnableDevice;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.models.ScanModel;
+import org.eclipse.scanning.example.detector.MandelbrotModel;
+import org.eclipse.scanning.sequencer.RunnableDeviceServiceImpl;
+import org.eclipse.scanning.sequencer.ServiceHolder;
+import org.junit.Before;
+
+/**
+ * Grid scans of a Mandelbrot detector with a device which processes
+ * its frames, added to the scan after it.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public abstract class AbstractImageProcessingTest extends NexusTest {
+
+	protected IRunnableDevice<?> imagedetector;
+	
+	@Before
+	public void createImageDetector() throws ScanningException {
+		
+		MandelbrotModel model = createMandelbrotModel();		
+		imagedetector = dservice.createRunnableDevice(model);
+		assertNotNull(imagedetector);
+	}
+	
+	@SuppressWarnings("rawtypes")
+	protected void register(Class<?> model, Class<? extends IRunnableDevice> device) {
+		((RunnableDeviceServiceImpl)dservice)._register(model, device);
+	}
+
+	protected IRunnableDevice<ScanModel> createProcessingScan(Object processingModel, int... shape) throws Exception {
+		ScanModel smodel = createGridScanModel(imagedetector, output, true, shape);
+		addProcessor(smodel, processingModel);
+		return dservice.createRunnableDevice(smodel, null);
+	}
+
+	protected void addProcessor(ScanModel smodel, Object processingModel) throws ScanningException {
+		IRunnableDevice<?> processor = dservice.createRunnableDevice(processingModel, null);
+		final List<IRunnableDevice<?>> detectors = new ArrayList<>(smodel.getDetectors());
+		detectors.add(processor);
+		smodel.setDetectors(detectors);
+	}
+
+	protected IDataHolder getHolder() throws Exception {
+		ILoaderService lservice = ServiceHolder.getLoaderService();
+		return lservice.getData(output.getAbsolutePath(), new IMonitor.Stub());
+	}
+
+	/**
+	 * Slice of one scan point, the data dimensions are left whole.
+	 */
+	protected static Slice[] frame(int rank, int[] pos) {
+		Slice[] slice = new Slice[rank];
+		for (int i = 0; i < pos.length; i++) slice[i] = new Slice(pos[i], pos[i]+1);
+		return slice;
+	}
+}
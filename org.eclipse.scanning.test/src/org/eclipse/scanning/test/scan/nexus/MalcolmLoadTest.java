@@ -0,0 +1,241 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan.nexus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.eclipse.scanning.api.device.IRunnableDevice;
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.scan.DeviceState;
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.scan.PositionEvent;
+import org.eclipse.scanning.api.scan.event.IPositionListener;
+import org.eclipse.scanning.api.scan.models.ScanModel;
+import org.eclipse.scanning.example.malcolm.DummyMalcolmControlledDetectorModel;
+import org.eclipse.scanning.example.malcolm.DummyMalcolmDatasetModel;
+import org.eclipse.scanning.example.malcolm.DummyMalcolmDevice;
+import org.eclipse.scanning.example.malcolm.DummyMalcolmModel;
+import org.eclipse.scanning.malcolm.core.MalcolmDevice;
+import org.eclipse.scanning.test.event.queues.mocks.MockPublisher;
+import org.eclipse.scanning.test.malcolm.device.LoopbackMalcolmConnectorService;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * 
+ * Load test of a MalcolmDevice driving the dummy Malcolm device in the same VM.
+ * The frames are written by the dummy device, the MalcolmDevice talks to it with
+ * the same messages and monitors as it would to a server, and the scan links the
+ * files and sends the events. Nothing uses the network.
+ * 
+ * The load is set with system properties, the defaults are small enough to run
+ * with the other tests:
+ * <pre>
+ * org.eclipse.scanning.test.malcolm.load.frameRate      frames a second, default 100
+ * org.eclipse.scanning.test.malcolm.load.frameSize      each frame is size x size doubles, default 64
+ * org.eclipse.scanning.test.malcolm.load.datasets       number of frame datasets written, default 2
+ * org.eclipse.scanning.test.malcolm.load.attributeRate  completedSteps updates a second, 0 for every frame, default 10
+ * org.eclipse.scanning.test.malcolm.load.rows           rows in the grid, default 10
+ * org.eclipse.scanning.test.malcolm.load.columns        columns in the grid, default 20
+ * </pre>
+ * 
+ * The report printed has the sustained frame rate, the latency from a frame being
+ * written to the scan being told that it is complete and to its event being
+ * published, and the CPU used by each thread (group) during the scan.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class MalcolmLoadTest extends AbstractMalcolmScanTest {
+	
+	private static final String PROPERTY_PREFIX = "org.eclipse.scanning.test.malcolm.load.";
+	
+	private static final double FRAME_RATE     = getDouble("frameRate", 100);
+	private static final int    FRAME_SIZE     = Integer.getInteger(PROPERTY_PREFIX+"frameSize", 64);
+	private static final int    DATASETS       = Integer.getInteger(PROPERTY_PREFIX+"datasets", 2);
+	private static final double ATTRIBUTE_RATE = getDouble("attributeRate", 10);
+	private static final int    ROWS           = Integer.getInteger(PROPERTY_PREFIX+"rows", 10);
+	private static final int    COLUMNS        = Integer.getInteger(PROPERTY_PREFIX+"columns", 20);
+	
+	private static double getDouble(String name, double defaultValue) {
+		final String value = System.getProperty(PROPERTY_PREFIX+name);
+		return value!=null ? Double.parseDouble(value) : defaultValue;
+	}
+	
+	private LoopbackMalcolmConnectorService loopback;
+	private MalcolmDevice<DummyMalcolmModel> malcolm;
+
+	@Override
+	protected DummyMalcolmModel createMalcolmModel() {
+		final DummyMalcolmModel model = new DummyMalcolmModel();
+		model.setTimeout(10 * 60);
+		model.setFileDir(malcolmOutputDir);
+		model.setExposureTime(1d/FRAME_RATE);
+		model.setAxesToMove(Arrays.asList("stage_x", "stage_y"));
+		model.setPositionerNames(Arrays.asList("stage_x", "stage_y"));
+		model.setMonitorNames(Arrays.asList("i0"));
+
+		final List<DummyMalcolmDatasetModel> datasets = new ArrayList<>(DATASETS);
+		for (int i = 0; i < DATASETS; i++) {
+			DummyMalcolmDatasetModel dataset = new DummyMalcolmDatasetModel(i==0 ? "detector" : "frame"+i, 2, Double.class);
+			dataset.setShape(new int[]{FRAME_SIZE, FRAME_SIZE});
+			datasets.add(dataset);
+		}
+		DummyMalcolmControlledDetectorModel detector = new DummyMalcolmControlledDetectorModel();
+		detector.setName("detector");
+		detector.setDatasets(datasets);
+		model.setDummyDetectorModels(Arrays.asList(detector));
+		
+		return model;
+	}
+	
+	@After
+	public void disposeMalcolm() throws Exception {
+		if (malcolm!=null)  malcolm.dispose();
+		if (loopback!=null) loopback.disconnect();
+	}
+	
+	@Test
+	public void testMalcolmLoad() throws Exception {
+		
+		final ConcurrentLinkedQueue<long[]> positions = new ConcurrentLinkedQueue<>();
+		final ConcurrentLinkedQueue<long[]> events    = new ConcurrentLinkedQueue<>();
+		
+		loopback = new LoopbackMalcolmConnectorService((DummyMalcolmDevice)malcolmDevice, ATTRIBUTE_RATE);
+		malcolm  = new MalcolmDevice<>("loopback", loopback, dservice, new MockPublisher<ScanBean>(null, "load") {
+			@Override
+			public void broadcast(ScanBean bean) throws EventException {
+				if ("loopback".equals(bean.getDeviceName()) && bean.getPoint()>0) {
+					events.add(new long[]{bean.getPoint(), System.nanoTime()});
+				}
+			}
+		});
+		malcolm.initialize();
+		malcolm.addPositionListener(new IPositionListener() {
+			@Override
+			public void positionPerformed(PositionEvent evt) {
+				positions.add(new long[]{evt.getPosition().getStepIndex(), System.nanoTime()});
+			}
+		});
+		
+		final IRunnableDevice<ScanModel> scanner = createScan();
+		
+		final Map<Long, Long> cpuBefore = getThreadCpu();
+		final long start = System.nanoTime();
+		scanner.run(null);
+		final long time = System.nanoTime() - start;
+		final Map<String, Long> cpu = getCpuByThread(cpuBefore);
+		
+		final long[] frameTimes = loopback.getFrameTimes();
+		assertEquals(ROWS*COLUMNS, frameTimes.length);
+		assertTrue("Not every frame was written", Arrays.stream(frameTimes).allMatch(t -> t>0));
+		assertEquals(DeviceState.ARMED, scanner.getDeviceState());
+		assertEquals(ROWS*COLUMNS, malcolm.getBean().getPoint());
+		checkNexusFile(scanner, false, new int[]{ROWS, COLUMNS});
+		
+		final double rate = (frameTimes.length-1) / ((frameTimes[frameTimes.length-1]-frameTimes[0])/1e9);
+		System.out.println("Malcolm load: "+frameTimes.length+" frames of "+DATASETS+" x "+FRAME_SIZE+"x"+FRAME_SIZE
+				+ " at "+FRAME_RATE+"Hz requested, attributes at "+(ATTRIBUTE_RATE>0 ? ATTRIBUTE_RATE+"Hz" : "every frame"));
+		System.out.println(String.format("  sustained rate    %.1f frames/s, scan took %d ms", rate, time/1000000));
+		System.out.println("  position latency  "+latency(positions, frameTimes));
+		System.out.println("  event latency     "+latency(events, frameTimes));
+		System.out.println("  cpu by thread:");
+		for (Map.Entry<String, Long> entry : cpu.entrySet()) {
+			System.out.println(String.format("    %-40s %6d ms", entry.getKey(), entry.getValue()/1000000));
+		}
+	}
+
+	private IRunnableDevice<ScanModel> createScan() throws Exception {
+		
+		final GridModel gmodel = new GridModel("stage_x", "stage_y", COLUMNS, ROWS);
+		gmodel.setBoundingBox(new BoundingBox(0,0,3,3));
+		
+		final IPointGenerator<?> gen = gservice.createCompoundGenerator(gservice.createGenerator(gmodel));
+		malcolm.setPointGenerator(gen);
+		malcolm.configure(malcolmDevice.getModel());
+		
+		final ScanModel smodel = new ScanModel();
+		smodel.setPositionIterable(gen);
+		smodel.setDetectors(malcolm);
+		smodel.setFilePath(output.getAbsolutePath());
+		
+		return dservice.createRunnableDevice(smodel, null);
+	}
+
+	/**
+	 * @param reported the step and time that each step was reported, steps are not all reported
+	 * @param frameTimes the time that each frame was written
+	 * @return percentiles of the time from the frame of a step being written to it being reported
+	 */
+	private static String latency(Iterable<long[]> reported, long[] frameTimes) {
+		final List<Long> latencies = new ArrayList<>();
+		for (long[] report : reported) {
+			int step = (int)report[0];
+			if (step<1 || step>frameTimes.length) continue;
+			latencies.add(report[1] - frameTimes[step-1]);
+		}
+		if (latencies.isEmpty()) return "no steps reported";
+		latencies.sort(null);
+		return String.format("p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms (%d of %d steps reported)",
+				percentile(latencies, 0.5), percentile(latencies, 0.9), percentile(latencies, 0.99),
+				latencies.get(latencies.size()-1)/1e6, latencies.size(), frameTimes.length);
+	}
+	
+	private static double percentile(List<Long> sorted, double fraction) {
+		return sorted.get((int)Math.round(fraction*(sorted.size()-1)))/1e6;
+	}
+	
+	private static Map<Long, Long> getThreadCpu() {
+		final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		final Map<Long, Long> cpu = new HashMap<>();
+		if (!bean.isThreadCpuTimeSupported()) return cpu;
+		if (!bean.isThreadCpuTimeEnabled()) bean.setThreadCpuTimeEnabled(true);
+		for (long id : bean.getAllThreadIds()) cpu.put(id, bean.getThreadCpuTime(id));
+		return cpu;
+	}
+
+	/**
+	 * CPU used since the snapshot, threads which have the same name apart from a
+	 * number, for instance those of a pool, are added together. Threads which
+	 * finished during the scan are not counted.
+	 */
+	private static Map<String, Long> getCpuByThread(Map<Long, Long> before) {
+		final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		final Map<String, Long> cpu = new TreeMap<>();
+		if (!bean.isThreadCpuTimeSupported()) return cpu;
+		for (long id : bean.getAllThreadIds()) {
+			final ThreadInfo info = bean.getThreadInfo(id);
+			final long time = bean.getThreadCpuTime(id);
+			if (info==null || time<0) continue;
+			final long used = time - before.getOrDefault(id, 0L);
+			if (used<=0) continue;
+			final String name = info.getThreadName().replaceAll("[-_ ]?\\d+$", "");
+			cpu.merge(name, used, Long::sum);
+		}
+		return cpu;
+	}
+}
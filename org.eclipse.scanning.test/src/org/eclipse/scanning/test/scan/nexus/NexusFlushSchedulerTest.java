@@ -0,0 +1,191 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan.nexus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.dawnsci.nexus.NexusScanInfo;
+import org.eclipse.scanning.api.device.IFlushableDevice;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.Point;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.models.ScanModel;
+import org.eclipse.scanning.sequencer.nexus.INexusScanFileManager;
+import org.eclipse.scanning.sequencer.nexus.NexusFlushScheduler;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the scan file is flushed on time and on the amount written,
+ * not every point.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class NexusFlushSchedulerTest {
+	
+	private CountingFileManager manager;
+	private IPosition           pos;
+
+	@Before
+	public void before() {
+		manager = new CountingFileManager(1000);
+		pos     = new Point(0, 0, 0, 0);
+	}
+
+	@Test
+	public void testDisabled() throws Exception {
+		NexusFlushScheduler scheduler = new NexusFlushScheduler(manager, null, 0, 0);
+		assertFalse(scheduler.isEnabled());
+		scheduler.start();
+		for (int i = 0; i < 100; i++) scheduler.written(pos);
+		scheduler.stop();
+		assertEquals(0, manager.flushes.get());
+	}
+
+	@Test
+	public void testFlushOnBytes() throws Exception {
+		NexusFlushScheduler scheduler = new NexusFlushScheduler(manager, null, 0, 10000);
+		scheduler.start();
+		for (int i = 0; i < 9; i++) scheduler.written(pos);
+		Thread.sleep(100);
+		assertEquals(0, manager.flushes.get());
+		
+		scheduler.written(pos);
+		scheduler.stop();
+		assertEquals(1, manager.flushes.get());
+		assertEquals(1, scheduler.getFlushCount());
+	}
+
+	@Test
+	public void testFlushOnTime() throws Exception {
+		NexusFlushScheduler scheduler = new NexusFlushScheduler(manager, null, 100, 0);
+		scheduler.start();
+		scheduler.written(pos);
+		Thread.sleep(500);
+		scheduler.stop();
+		
+		// Only one point was written so there is nothing to flush after the first flush.
+		assertEquals(1, manager.flushes.get());
+		assertTrue(scheduler.getMaxLatency()>=scheduler.getMeanLatency());
+		assertTrue(scheduler.getLastLatency()>=0);
+	}
+
+	@Test
+	public void testNoFlushWithoutWrites() throws Exception {
+		NexusFlushScheduler scheduler = new NexusFlushScheduler(manager, null, 50, 1000);
+		scheduler.start();
+		Thread.sleep(300);
+		scheduler.stop();
+		assertEquals(0, manager.flushes.get());
+	}
+	
+	@Test
+	public void testDeviceFlushed() throws Exception {
+		
+		final AtomicInteger deviceFlushes = new AtomicInteger();
+		IFlushableDevice device = () -> deviceFlushes.incrementAndGet();
+		
+		NexusFlushScheduler scheduler = new NexusFlushScheduler(manager, Arrays.asList(device, "not a device"), 0, 1000);
+		scheduler.start();
+		scheduler.written(pos);
+		scheduler.stop();
+		assertEquals(1, manager.flushes.get());
+		assertEquals(1, deviceFlushes.get());
+	}
+
+	@Test
+	public void testFlushDoesNotBlockPoints() throws Exception {
+		
+		manager.started = new CountDownLatch(1);
+		manager.release = new CountDownLatch(1);
+		NexusFlushScheduler scheduler = new NexusFlushScheduler(manager, null, 0, 1000);
+		scheduler.start();
+		
+		scheduler.written(pos);
+		assertTrue("The flush did not start", manager.started.await(5, TimeUnit.SECONDS));
+		
+		// The flush is held until it is released, these would not return if they waited for it.
+		for (int i = 0; i < 9; i++) scheduler.written(pos);
+		assertEquals(0, manager.flushes.get());
+		
+		manager.release.countDown();
+		scheduler.stop();
+		assertEquals(1, manager.flushes.get()); // The others were included in the running flush
+	}
+
+	private static class CountingFileManager implements INexusScanFileManager {
+
+		private final AtomicInteger flushes = new AtomicInteger();
+		private final long          bytesPerPoint;
+		private volatile CountDownLatch started;
+		private volatile CountDownLatch release;
+		
+		CountingFileManager(long bytesPerPoint) {
+			this.bytesPerPoint = bytesPerPoint;
+		}
+		
+		@Override
+		public void flushNexusFile() throws ScanningException {
+			try {
+				if (started!=null) started.countDown();
+				if (release!=null) release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				throw new ScanningException(e);
+			}
+			flushes.incrementAndGet();
+		}
+
+		@Override
+		public long getBytesPerPoint() {
+			return bytesPerPoint;
+		}
+
+		@Override
+		public boolean isNexusWritingEnabled() {
+			return true;
+		}
+
+		@Override
+		public void configure(ScanModel model) throws ScanningException {
+			// Not used
+		}
+
+		@Override
+		public String createNexusFile(boolean async) throws ScanningException {
+			return null;
+		}
+
+		@Override
+		public void scanFinished() throws ScanningException {
+			// Not used
+		}
+
+		@Override
+		public NexusScanInfo getNexusScanInfo() {
+			return null;
+		}
+
+		@Override
+		public Set<String> getExternalFilePaths() {
+			return null;
+		}
+	}
+}
@@ -20,8 +20,11 @@ import static org.eclipse.scanning.test.scan.nexus.NexusAssert.assertTarget;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
@@ -32,12 +35,15 @@ import java.util.stream.IntStream;
 
 import org.eclipse.dawnsci.analysis.api.tree.DataNode;
 import org.eclipse.dawnsci.nexus.INexusFileFactory;
+import org.eclipse.dawnsci.nexus.NexusException;
+import org.eclipse.dawnsci.nexus.NexusScanInfo;
 import org.eclipse.dawnsci.nexus.NXdata;
 import org.eclipse.dawnsci.nexus.NXentry;
 import org.eclipse.dawnsci.nexus.NXinstrument;
 import org.eclipse.dawnsci.nexus.NXpositioner;
 import org.eclipse.dawnsci.nexus.NXroot;
 import org.eclipse.dawnsci.nexus.NXslit;
+import org.eclipse.dawnsci.nexus.builder.NexusObjectProvider;
 import org.eclipse.january.dataset.Dataset;
 import org.eclipse.january.dataset.DatasetUtils;
 import org.eclipse.january.dataset.IDataset;
@@ -56,7 +62,9 @@ import org.eclipse.scanning.api.scan.event.IRunListener;
 import org.eclipse.scanning.api.scan.event.RunEvent;
 import org.eclipse.scanning.api.scan.models.ScanModel;
 import org.eclipse.scanning.example.scannable.MockScannableConfiguration;
+import org.eclipse.scanning.example.scannable.MockNeXusScannable;
 import org.eclipse.scanning.example.scannable.MockScannableConnector;
+import org.eclipse.scanning.sequencer.nexus.NexusScanFileManager;
 import org.eclipse.scanning.server.application.PseudoSpringParser;
 import org.junit.Before;
 import org.junit.Test;
@@ -127,6 +135,56 @@ public class PerScanMonitorTest extends NexusTest {
 		test(perPointMonitor, dcs, "dcs");
 	}
 
+	@Test
+	public void testSlowPerScanMonitorLeftOut() throws Exception {
+		((MockScannableConnector) connector).setGlobalPerScanMonitorNames("perScanMonitor2");
+		
+		final long timeout = NexusScanFileManager.getPerScanTimeout();
+		NexusScanFileManager.setPerScanTimeout(200);
+		try {
+			long before = System.currentTimeMillis();
+			IRunnableDevice<ScanModel> scanner = createStepScan(perPointMonitor, new SlowNeXusScannable("slowPerScanMonitor", 5000), 2, 2);
+			long after = System.currentTimeMillis();
+			assertTrue("The scan waited for the slow monitor", after-before < 5000);
+			
+			scanner.run(null);
+			
+			NXinstrument instrument = getNexusRoot(scanner).getEntry().getInstrument();
+			assertNull(instrument.getPositioner("slowPerScanMonitor"));
+			assertNotNull(instrument.getPositioner("perScanMonitor2"));
+			
+		} finally {
+			NexusScanFileManager.setPerScanTimeout(timeout);
+		}
+	}
+
+	@Test
+	public void testHungPerScanMonitorsDoNotHoldUpOthers() throws Exception {
+		((MockScannableConnector) connector).setGlobalPerScanMonitorNames("perScanMonitor2");
+		
+		final long timeout = NexusScanFileManager.getPerScanTimeout();
+		NexusScanFileManager.setPerScanTimeout(200);
+		try {
+			// More reads which ignore the interrupt than there are threads to read them,
+			// the monitors after them only start when the hung reads return.
+			final int hung = NexusScanFileManager.getPerScanThreads()+2;
+			final List<IScannable<?>> perScanMonitors = new ArrayList<>();
+			for (int i = 0; i < hung; i++) perScanMonitors.add(new SlowNeXusScannable("hungPerScanMonitor"+i, 2000, false));
+			perScanMonitors.add(perScanMonitor);
+			
+			IRunnableDevice<ScanModel> scanner = createStepScan(perPointMonitor, perScanMonitors, 2, 2);
+			scanner.run(null);
+			
+			NXinstrument instrument = getNexusRoot(scanner).getEntry().getInstrument();
+			for (int i = 0; i < hung; i++) assertNull(instrument.getPositioner("hungPerScanMonitor"+i));
+			assertNotNull(instrument.getPositioner("perScanMonitor1"));
+			assertNotNull(instrument.getPositioner("perScanMonitor2"));
+			
+		} finally {
+			NexusScanFileManager.setPerScanTimeout(timeout);
+		}
+	}
+
 	private void test(IScannable<?> monitor, IScannable<?> perScanMonitor,
 			String... expectedPerScanMonitorNames) throws Exception {
 		int[] shape = new int[] { 8, 5 };
@@ -281,6 +339,11 @@ public class PerScanMonitorTest extends NexusTest {
 
 	private IRunnableDevice<ScanModel> createStepScan(IScannable<?> monitor,
 			IScannable<?> perScanMonitor, int... size) throws Exception {
+		return createStepScan(monitor, perScanMonitor!=null ? Arrays.asList(perScanMonitor) : new ArrayList<>(), size);
+	}
+
+	private IRunnableDevice<ScanModel> createStepScan(IScannable<?> monitor,
+			List<IScannable<?>> perScanMonitors, int... size) throws Exception {
 		
 		IPointGenerator<?>[] gens = new IPointGenerator<?>[size.length];
 		// We add the outer scans, if any
@@ -300,11 +363,14 @@ public class PerScanMonitorTest extends NexusTest {
 		// Create the model for a scan.
 		final ScanModel  smodel = new ScanModel();
 		smodel.setPositionIterable(gen);
-		if (perScanMonitor != null) {
+		final List<IScannable<?>> monitors = new ArrayList<>();
+		if (monitor != null) monitors.add(monitor);
+		for (IScannable<?> perScanMonitor : perScanMonitors) {
 			perScanMonitor.setMonitorRole(MonitorRole.PER_SCAN);
 			perScanMonitor.setActivated(true);
+			monitors.add(perScanMonitor);
 		}
-		smodel.setMonitors(monitor, perScanMonitor);
+		smodel.setMonitors(monitors);
 		
 		// Create a file to scan into.
 		smodel.setFilePath(output.getAbsolutePath());
@@ -328,6 +394,36 @@ public class PerScanMonitorTest extends NexusTest {
 		return scanner;
 	}
 
+	private static class SlowNeXusScannable extends MockNeXusScannable {
+		
+		private final long    delay;
+		private final boolean interruptible;
+
+		SlowNeXusScannable(String name, long delay) {
+			this(name, delay, true);
+		}
+		
+		SlowNeXusScannable(String name, long delay, boolean interruptible) {
+			super(name, 0d, 3);
+			this.delay = delay;
+			this.interruptible = interruptible;
+		}
+		
+		@Override
+		public NexusObjectProvider<NXpositioner> getNexusProvider(NexusScanInfo info) throws NexusException {
+			final long end = System.currentTimeMillis()+delay;
+			while (System.currentTimeMillis()<end) {
+				try {
+					Thread.sleep(end-System.currentTimeMillis()); // For instance an EPICS device which does not answer
+				} catch (InterruptedException e) {
+					if (interruptible) throw new NexusException("Interrupted reading "+getName());
+					// A read blocked in native code does not see the interrupt
+				}
+			}
+			return super.getNexusProvider(info);
+		}
+	}
+
 	public static INexusFileFactory getFileFactory() {
 		return fileFactory;
 	}
@@ -105,27 +105,63 @@ public class ScanJythonTest extends NexusTest {
 		checkMax(scanner, 2, 2);
 	}
 
+	@Test 
+	public void testConcurrentJythonDevices() throws Exception {
+		
+		// Two jython devices at the same level run at the same time, each with an interpreter from the pool.
+		ScanModel smodel = createGridScanModel(imagedetector, output, true, 3, 3);
+		final List<IRunnableDevice<?>> detectors = new ArrayList<>(smodel.getDetectors());
+		detectors.add(createJythonDevice(imagedetector, 2, "max", "MaxFunction"));
+		detectors.add(createJythonDevice(imagedetector, 2, "sum", "SumFunction"));
+		smodel.setDetectors(detectors);
+		
+		IRunnableDevice<ScanModel> scanner = dservice.createRunnableDevice(smodel, null);
+		scanner.run(null);
+	
+		checkMax(scanner, 3, 3);
+		
+		ILoaderService lservice = ServiceHolder.getLoaderService();
+		IDataHolder    holder   = lservice.getData(output.getAbsolutePath(), new IMonitor.Stub());
+		ILazyDataset   data     = holder.getLazyDataset("/entry/instrument/"+imagedetector.getName()+"/data");
+		ILazyDataset   sum      = holder.getLazyDataset("/entry/instrument/"+imagedetector.getName()+"_sum/data");
+		assertTrue(Arrays.equals(new int[]{3,3}, sum.getShape()));
+		
+		final PositionIterator it = new PositionIterator(3, 3);
+		while(it.hasNext()) {
+			int[] pos = it.getPos();
+			Slice[] islice = new Slice[data.getRank()];
+			Slice[] sslice = new Slice[2];
+			for (int i = 0; i < pos.length; i++) islice[i] = sslice[i] = new Slice(pos[i], pos[i]+1);
+			double sum1 = ((Number)DatasetUtils.convertToDataset(data.getSlice(islice)).sum()).doubleValue();
+			double sum2 = DatasetUtils.convertToDataset(sum.getSlice(sslice)).getDouble();
+			assertEquals(sum1, sum2, 0.001);
+		}
+	}
+
 	private IRunnableDevice<ScanModel> createScanner(IRunnableDevice<?> device, int dataRank, boolean doAveraging, int... shape) throws Exception {
 		
 		ScanModel smodel = createGridScanModel(device, output, true, shape);
 		if (doAveraging) {
-			JythonModel model = new JythonModel();
-			model.setName("max");
-			model.setDataFile(output.getAbsolutePath());
-			model.setDetectorName(device.getName());
-			model.setTimeout(1);
-			model.setDataRank(dataRank);
-			model.setModuleName("functions");
-			model.setClassName("MaxFunction");
-			model.setOutputRank(1);
-			
-			IRunnableDevice<SlicingModel> script =  dservice.createRunnableDevice(model, null);
 			final List<IRunnableDevice<?>> detectors = new ArrayList<>(smodel.getDetectors());
-			detectors.add(script);
+			detectors.add(createJythonDevice(device, dataRank, "max", "MaxFunction"));
 			smodel.setDetectors(detectors);
 		}
 		return dservice.createRunnableDevice(smodel, null);
 	}
+	
+	private IRunnableDevice<SlicingModel> createJythonDevice(IRunnableDevice<?> device, int dataRank, String name, String className) throws ScanningException {
+		JythonModel model = new JythonModel();
+		model.setName(name);
+		model.setDataFile(output.getAbsolutePath());
+		model.setDetectorName(device.getName());
+		model.setTimeout(1);
+		model.setDataRank(dataRank);
+		model.setModuleName("functions");
+		model.setClassName(className);
+		model.setOutputRank(1);
+		
+		return dservice.createRunnableDevice(model, null);
+	}
 
 	private void checkMax(IRunnableDevice<ScanModel> scanner, int... scanShape) throws Exception {
 		
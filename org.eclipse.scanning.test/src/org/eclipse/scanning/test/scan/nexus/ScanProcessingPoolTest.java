@@ -0,0 +1,152 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan.nexus;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.dawnsci.analysis.api.io.IDataHolder;
+import org.eclipse.dawnsci.analysis.api.processing.IOperation;
+import org.eclipse.dawnsci.analysis.api.processing.model.ValueModel;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetUtils;
+import org.eclipse.january.dataset.ILazyDataset;
+import org.eclipse.january.dataset.Maths;
+import org.eclipse.january.dataset.PositionIterator;
+import org.eclipse.january.dataset.Slice;
+import org.eclipse.scanning.api.device.IRunnableDevice;
+import org.eclipse.scanning.api.device.IRunnableEventDevice;
+import org.eclipse.scanning.api.device.models.PooledProcessingModel;
+import org.eclipse.scanning.api.scan.PositionEvent;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.event.IPositionListenable;
+import org.eclipse.scanning.api.scan.event.IPositionListener;
+import org.eclipse.scanning.api.scan.models.ScanModel;
+import org.eclipse.scanning.sequencer.ServiceHolder;
+import org.eclipse.scanning.sequencer.analysis.PooledProcessingRunnableDevice;
+import org.eclipse.scanning.test.scan.mock.MockBlockingOperation;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ScanProcessingPoolTest extends AbstractImageProcessingTest {
+
+	@Before
+	public void before() {
+		register(PooledProcessingModel.class, PooledProcessingRunnableDevice.class);
+	}
+
+	@Test 
+	public void testOneWorker() throws Exception {
+		IRunnableDevice<ScanModel> scanner = createScanner(1, 1, 2, 2);
+		scanner.run(null);
+		checkSubtracted(2, 2);
+	}
+
+	@Test 
+	public void testWorkersInOrder() throws Exception {
+		IRunnableDevice<ScanModel> scanner = createScanner(4, 2, 3, 4);
+		scanner.run(null);
+		checkSubtracted(3, 4);
+	}
+
+	@Test 
+	public void testLagLargerThanScan() throws Exception {
+		IRunnableDevice<ScanModel> scanner = createScanner(3, 100, 3, 3);
+		scanner.run(null);
+		checkSubtracted(3, 3);
+	}
+	
+	@Test 
+	public void testBackpressure() throws Exception {
+		
+		final int maxLag = 2;
+		MockBlockingOperation.close();
+		try {
+			final MockBlockingOperation blocking = new MockBlockingOperation();
+			blocking.setModel(new ValueModel(100));
+			PooledProcessingModel pmodel = createModel(1, maxLag);
+			pmodel.setOperation(blocking);
+			
+			IRunnableEventDevice<ScanModel> scanner = (IRunnableEventDevice<ScanModel>)createProcessingScan(pmodel, 4, 4);
+			final AtomicInteger points = new AtomicInteger();
+			((IPositionListenable)scanner).addPositionListener(new IPositionListener() {
+				@Override
+				public void positionPerformed(PositionEvent evt) {
+					points.incrementAndGet();
+				}
+			});
+			scanner.start(null);
+			
+			// The worker is held on the first frame, so the queue fills and the scan waits in the detector's write
+			assertTrue(MockBlockingOperation.awaitStarted(5, TimeUnit.SECONDS));
+			assertFalse(scanner.latch(500, TimeUnit.MILLISECONDS));
+			assertTrue("The scan ran "+points.get()+" points", points.get()<=maxLag+2); // The write of a point overlaps the next point
+			
+			MockBlockingOperation.open();
+			assertTrue(scanner.latch(10, TimeUnit.SECONDS));
+			checkSubtracted(4, 4);
+			
+		} finally {
+			MockBlockingOperation.open();
+		}
+	}
+	
+	@Test(expected=ScanningException.class)
+	public void testDetectorNotInScan() throws Exception {
+		ScanModel smodel = createGridScanModel(imagedetector, output, true, 2, 2);
+		PooledProcessingModel pmodel = createModel(2, 2);
+		pmodel.setDetectorName("nonexistent");
+		addProcessor(smodel, pmodel);
+		dservice.createRunnableDevice(smodel, null).run(null);
+	}
+
+	private IRunnableDevice<ScanModel> createScanner(int workers, int maxLag, int... shape) throws Exception {
+		return createProcessingScan(createModel(workers, maxLag), shape);
+	}
+
+	@SuppressWarnings("unchecked")
+	private PooledProcessingModel createModel(int workers, int maxLag) throws Exception {
+		
+		// We manually tell the subtract operation to be used and to subtract 100.
+		final IOperation<ValueModel,?> subtract = (IOperation<ValueModel,?>)ServiceHolder.getOperationService().findFirst("subtractOperation");
+		subtract.setModel(new ValueModel(100));
+
+		PooledProcessingModel pmodel = new PooledProcessingModel(imagedetector.getName(), null, workers, maxLag, 60);
+		pmodel.setName("subtract");
+		pmodel.setOperation(subtract);
+		return pmodel;
+	}
+
+	private void checkSubtracted(int... scanShape) throws Exception {
+		
+		IDataHolder holder = getHolder();
+
+		ILazyDataset data = holder.getLazyDataset("/entry/instrument/"+imagedetector.getName()+"/data");
+		ILazyDataset proc = holder.getLazyDataset("/entry/instrument/subtract/data");
+		assertArrayEquals(data.getShape(), proc.getShape());
+		
+		final PositionIterator it = new PositionIterator(scanShape);
+		while(it.hasNext()) {
+			int[] pos = it.getPos();
+			Slice[] slice = frame(data.getRank(), pos);
+			Dataset image = DatasetUtils.convertToDataset(data.getSlice(slice)).squeeze();
+			Dataset sub   = DatasetUtils.convertToDataset(proc.getSlice(slice)).squeeze();
+          
+			assertEquals(0d, ((Number)Maths.abs(Maths.subtract(Maths.subtract(image, 100), sub)).max()).doubleValue(), 0.00001);
+		}
+	}
+}
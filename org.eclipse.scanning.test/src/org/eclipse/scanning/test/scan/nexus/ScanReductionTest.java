@@ -0,0 +1,158 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan.nexus;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.dawnsci.analysis.api.io.IDataHolder;
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetUtils;
+import org.eclipse.january.dataset.ILazyDataset;
+import org.eclipse.january.dataset.IndexIterator;
+import org.eclipse.january.dataset.PositionIterator;
+import org.eclipse.january.dataset.Slice;
+import org.eclipse.scanning.api.device.IRunnableDevice;
+import org.eclipse.scanning.api.device.models.HistogramReductionModel;
+import org.eclipse.scanning.api.device.models.ReductionModel;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.scan.PositionEvent;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.event.IPositionListenable;
+import org.eclipse.scanning.api.scan.event.IPositionListener;
+import org.eclipse.scanning.api.scan.models.ScanModel;
+import org.eclipse.scanning.sequencer.analysis.HistogramReductionDevice;
+import org.eclipse.scanning.sequencer.analysis.StatisticsReductionDevice;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ScanReductionTest extends AbstractImageProcessingTest {
+
+	@Before
+	public void before() {
+		register(ReductionModel.class, StatisticsReductionDevice.class);
+		register(HistogramReductionModel.class, HistogramReductionDevice.class);
+	}
+
+	@Test 
+	public void testStatistics() throws Exception {
+		
+		ReductionModel model = new ReductionModel(imagedetector.getName(), "stats");
+		IRunnableDevice<ScanModel> scanner = createProcessingScan(model, 2, 3);
+		
+		final List<IPosition> live = new ArrayList<>();
+		listen(scanner, live);
+		scanner.run(null);
+	
+		assertEquals(6, live.size());
+		checkStatistics("stats", null, null, 2, 3);
+		
+		StatisticsReductionDevice device = (StatisticsReductionDevice)scanner.getModel().getDetectors().get(1);
+		assertEquals(device.getScanMean(), (Double)live.get(live.size()-1).get("stats_scan_mean"), 0.00001);
+	}
+	
+	@Test 
+	public void testStatisticsRegion() throws Exception {
+		
+		ReductionModel model = new ReductionModel(imagedetector.getName(), "stats");
+		model.setRoiStart(10, 20);
+		model.setRoiShape(8, 16);
+		IRunnableDevice<ScanModel> scanner = createProcessingScan(model, 2, 2);
+		scanner.run(null);
+	
+		checkStatistics("stats", new int[]{10, 20}, new int[]{18, 36}, 2, 2);
+	}
+	
+	@Test 
+	public void testHistogram() throws Exception {
+		
+		HistogramReductionModel model = new HistogramReductionModel(imagedetector.getName(), "histo", 50, 0, 500);
+		IRunnableDevice<ScanModel> scanner = createProcessingScan(model, 2, 2);
+		
+		final List<IPosition> live = new ArrayList<>();
+		listen(scanner, live);
+		scanner.run(null);
+		assertEquals(4, live.size());
+		
+		IDataHolder holder = getHolder();
+		ILazyDataset data  = holder.getLazyDataset("/entry/instrument/"+imagedetector.getName()+"/data");
+		ILazyDataset histo = holder.getLazyDataset("/entry/instrument/histo/data");
+		assertArrayEquals(new int[]{2, 2, 50}, histo.getShape());
+
+		final PositionIterator it = new PositionIterator(2, 2);
+		while(it.hasNext()) {
+			int[] pos = it.getPos();
+			Dataset image = DatasetUtils.convertToDataset(data.getSlice(frame(data.getRank(), pos)));
+			Dataset hist  = DatasetUtils.convertToDataset(histo.getSlice(frame(histo.getRank(), pos))).squeeze();
+			
+			double[] expected = new double[50];
+			IndexIterator iit = image.getIterator();
+			while(iit.hasNext()) {
+				double v = image.getElementDoubleAbs(iit.index);
+				int    i = (int)Math.floor(v/10);
+				if (i>=0 && i<50) expected[i]++;
+				else if (v==500) expected[49]++;
+			}
+			for (int i = 0; i < expected.length; i++) assertEquals(expected[i], hist.getDouble(i), 0);
+		}
+	}
+	
+	@Test(expected=ScanningException.class)
+	public void testDetectorNotInScan() throws Exception {
+		
+		ReductionModel model = new ReductionModel("nonexistent", "stats");
+		IRunnableDevice<ScanModel> scanner = createProcessingScan(model, 2, 2);
+		scanner.run(null);
+	}
+
+	private void listen(IRunnableDevice<ScanModel> scanner, final List<IPosition> live) {
+		IPositionListenable reducer = (IPositionListenable)scanner.getModel().getDetectors().get(1);
+		reducer.addPositionListener(new IPositionListener() {
+			@Override
+			public void positionPerformed(PositionEvent evt) {
+				live.add(evt.getPosition());
+			}
+		});
+	}
+
+	private void checkStatistics(String name, int[] start, int[] stop, int... scanShape) throws Exception {
+		
+		IDataHolder  holder = getHolder();
+		ILazyDataset data   = holder.getLazyDataset("/entry/instrument/"+imagedetector.getName()+"/data");
+		ILazyDataset mean   = holder.getLazyDataset("/entry/instrument/"+name+"/"+StatisticsReductionDevice.FIELD_NAME_MEAN);
+		ILazyDataset sum    = holder.getLazyDataset("/entry/instrument/"+name+"/"+StatisticsReductionDevice.FIELD_NAME_SUM);
+		ILazyDataset min    = holder.getLazyDataset("/entry/instrument/"+name+"/"+StatisticsReductionDevice.FIELD_NAME_MIN);
+		ILazyDataset max    = holder.getLazyDataset("/entry/instrument/"+name+"/"+StatisticsReductionDevice.FIELD_NAME_MAX);
+		assertArrayEquals(scanShape, mean.getShape());
+		
+		final PositionIterator it = new PositionIterator(scanShape);
+		while(it.hasNext()) {
+			int[] pos = it.getPos();
+			Slice[] islice = frame(data.getRank(), pos);
+			if (start!=null) for (int i = 0; i < start.length; i++) islice[pos.length+i] = new Slice(start[i], stop[i]);
+			Dataset image = DatasetUtils.convertToDataset(data.getSlice(islice)).squeeze();
+			Slice[] aslice = frame(scanShape.length, pos);
+          
+			assertEquals((Double)image.mean(), value(mean, aslice), 0.00001);
+			assertEquals(((Number)image.sum()).doubleValue(), value(sum, aslice), 0.001);
+			assertEquals(image.min().doubleValue(), value(min, aslice), 0);
+			assertEquals(image.max().doubleValue(), value(max, aslice), 0);
+		}
+	}
+	
+	private static double value(ILazyDataset lz, Slice[] slice) throws Exception {
+		return DatasetUtils.convertToDataset(lz.getSlice(slice)).getDouble();
+	}
+}
@@ -182,9 +182,8 @@ public class SolsticeScanMonitorTest {
 		NexusScanInfo scanInfo = new NexusScanInfo();
 		scanInfo.setRank(scanRank);
 		scanInfo.setShape(scanShape);
-		int[] expectedChunking = new int[scanInfo.getRank()];
-		Arrays.fill(expectedChunking, 1);
-		expectedChunking[expectedChunking.length-1] = 8;
+		// The unique keys are small, a whole scan this size fits in one chunk
+		int[] expectedChunking = new int[] { 8, 5 };
 
 		// Act
 		NXcollection solsticeScanCollection = solsticeScanMonitor.createNexusObject(scanInfo);
@@ -459,4 +458,71 @@ public class SolsticeScanMonitorTest {
 		assertArrayEquals(uniqueKeysSlice.getStop(), stopIndices);
 	}
 	
+	@Test
+	public void testUniqueKeysWrittenInBatches() throws Exception {
+		// Arrange
+		ScanModel scanModel = new ScanModel();
+		Iterable<IPosition> positions = Collections.nCopies(40, new StaticPosition());
+		ScanEstimator scanEstimator = new ScanEstimator(positions, null, 100);
+		scanModel.setScanInformation(new ScanInformation(scanEstimator));
+		SolsticeScanMonitor solsticeScanMonitor = new SolsticeScanMonitor(scanModel);
+		solsticeScanMonitor.setNexusObjectProviders(new ArrayList<>());
+		
+		NexusScanInfo scanInfo = new NexusScanInfo();
+		scanInfo.setRank(2);
+		scanInfo.setShape(new int[] { 8, 5 });
+		NXcollection solsticeScanCollection = solsticeScanMonitor.createNexusObject(scanInfo);
+		NXcollection keysCollection = (NXcollection) solsticeScanCollection.getGroupNode(GROUP_NAME_KEYS);
+		ILazyWriteableDataset uniqueKeysDataset = (ILazyWriteableDataset) keysCollection.getDataNode(FIELD_NAME_UNIQUE_KEYS).getDataset();
+		MockLazySaver uniqueKeysSaver = new MockLazySaver();
+		uniqueKeysDataset.setSaver(uniqueKeysSaver);
+		
+		// Act - the first row, nothing is written until the row (one chunk) is complete
+		int stepIndex = 0;
+		for (int x = 0; x < 4; x++) solsticeScanMonitor.setPosition(null, createPosition(stepIndex++, 0, x));
+		assertEquals(0, uniqueKeysSaver.getNumberOfWrites());
+		solsticeScanMonitor.setPosition(null, createPosition(stepIndex++, 0, 4));
+		
+		// Assert
+		assertEquals(1, uniqueKeysSaver.getNumberOfWrites());
+		assertArrayEquals(new int[] { 1, 5 }, uniqueKeysSaver.getLastWrittenData().getShape());
+		assertArrayEquals(new int[] { 0, 0 }, uniqueKeysSaver.getLastSlice().getStart());
+		for (int x = 0; x < 5; x++) assertEquals(x + 1, uniqueKeysSaver.getLastWrittenData().getInt(0, x));
+		
+		// Act - the second row snakes back, the keys are written in order of index
+		for (int x = 4; x >= 0; x--) solsticeScanMonitor.setPosition(null, createPosition(stepIndex++, 1, x));
+		
+		// Assert
+		assertEquals(2, uniqueKeysSaver.getNumberOfWrites());
+		assertArrayEquals(new int[] { 1, 0 }, uniqueKeysSaver.getLastSlice().getStart());
+		for (int x = 0; x < 5; x++) assertEquals(10 - x, uniqueKeysSaver.getLastWrittenData().getInt(0, x));
+		
+		// Act - a partial row is written when the monitor is flushed
+		solsticeScanMonitor.setPosition(null, createPosition(stepIndex++, 2, 0));
+		solsticeScanMonitor.setPosition(null, createPosition(stepIndex++, 2, 1));
+		assertEquals(2, uniqueKeysSaver.getNumberOfWrites());
+		solsticeScanMonitor.flushUniqueKeys();
+		
+		// Assert
+		assertEquals(3, uniqueKeysSaver.getNumberOfWrites());
+		assertArrayEquals(new int[] { 1, 2 }, uniqueKeysSaver.getLastWrittenData().getShape());
+		assertArrayEquals(new int[] { 2, 0 }, uniqueKeysSaver.getLastSlice().getStart());
+		assertEquals(12, uniqueKeysSaver.getLastWrittenData().getInt(0, 1));
+		
+		// Nothing left to write
+		solsticeScanMonitor.flushUniqueKeys();
+		assertEquals(3, uniqueKeysSaver.getNumberOfWrites());
+	}
+	
+	private static IPosition createPosition(int stepIndex, int y, int x) {
+		MapPosition position = new MapPosition();
+		position.setStepIndex(stepIndex);
+		position.put("yPos", (double)y);
+		position.putIndex("yPos", y);
+		position.put("xPos", (double)x);
+		position.putIndex("xPos", x);
+		position.setDimensionNames(Arrays.<Collection<String>>asList(Arrays.asList("yPos"), Arrays.asList("xPos")));
+		return position;
+	}
+	
 }
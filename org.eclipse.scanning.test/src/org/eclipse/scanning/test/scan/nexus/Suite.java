@@ -23,6 +23,7 @@ import org.junit.runners.Suite.SuiteClasses;
 	ConstantVelocityTest.class,
 	DarkCurrentTest.class,
 	MalcolmGridScanTest.class,
+	MalcolmLoadTest.class,
 	MalcolmStaticScanTest.class,
 	MandelbrotAcquireTest.class,
 	MandelbrotExampleTest.class,
@@ -31,9 +32,12 @@ import org.junit.runners.Suite.SuiteClasses;
 	ScanMetadataTest.class,
 	ScanOperationPipelineTest.class,
 	ScanAverageTest.class,
+	ScanReductionTest.class,
+	ScanProcessingPoolTest.class,
 	ScanJythonTest.class,
 	ScanClusterProcessingTest.class,
 	SolsticeScanMonitorTest.class,
+	NexusFlushSchedulerTest.class,
 	LinearScanTest.class,
 	ScanTimeoutTest.class,
 	NexusStepScanSpeedTest.class
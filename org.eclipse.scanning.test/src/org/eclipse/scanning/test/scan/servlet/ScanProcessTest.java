@@ -19,7 +19,9 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
@@ -53,6 +55,7 @@ import org.eclipse.scanning.api.device.IScannableDeviceService;
 import org.eclipse.scanning.api.event.IEventService;
 import org.eclipse.scanning.api.event.scan.ScanBean;
 import org.eclipse.scanning.api.event.scan.ScanRequest;
+import org.eclipse.scanning.api.event.status.Status;
 import org.eclipse.scanning.api.points.IPointGeneratorService;
 import org.eclipse.scanning.api.points.MapPosition;
 import org.eclipse.scanning.api.points.models.BoundingBox;
@@ -83,6 +86,7 @@ import org.eclipse.scanning.points.validation.ValidatorService;
 import org.eclipse.scanning.sequencer.RunnableDeviceServiceImpl;
 import org.eclipse.scanning.sequencer.ServiceHolder;
 import org.eclipse.scanning.sequencer.watchdog.DeviceWatchdogService;
+import org.eclipse.scanning.server.servlet.PreparedScan;
 import org.eclipse.scanning.server.servlet.ScanProcess;
 import org.eclipse.scanning.server.servlet.Services;
 import org.eclipse.scanning.test.ScanningTestClassRegistry;
@@ -386,6 +390,76 @@ public class ScanProcessTest {
 		}
 	}
 	
+	@Test
+	public void testPreparedScan() throws Exception {
+		// Arrange
+		ScanBean scanBean = createNestedScanBean();
+		final String filePath = scanBean.getScanRequest().getFilePath();
+		
+		// The servlet prepares the copy of the bean read from the submission queue
+		ScanBean queued = marshaller.unmarshal(marshaller.marshal(scanBean), ScanBean.class);
+		PreparedScan prepared = PreparedScan.prepare(queued);
+		assertTrue(prepared.isFor(scanBean));
+		assertTrue(prepared.isValidated());
+		assertEquals(24, prepared.getEstimator().getSize());
+		assertArrayEquals(new int[] { 6, 2, 2 }, prepared.getEstimator().getShape());
+		
+		scanBean.setScanRequest(prepared.getRequest());
+		ScanProcess process = new ScanProcess(scanBean, null, true, prepared);
+		
+		// Act
+		process.execute();
+		
+		// Assert
+		assertEquals(Status.COMPLETE, scanBean.getStatus());
+		assertEquals(24, scanBean.getSize());
+		
+		NexusFile nf = fileFactory.newNexusFile(filePath);
+		nf.openToRead();
+		TreeFile nexusTree = NexusUtils.loadNexusTree(nf);
+		nf.close();
+		NXentry entry = ((NXroot) nexusTree.getGroupNode()).getEntry();
+		assertThat(entry.getData("mandelbrot"), is(notNullValue()));
+	}
+	
+	@Test
+	public void testPreparedScanDiscardedWhenChanged() throws Exception {
+		// Arrange
+		ScanBean scanBean = createNestedScanBean();
+		ScanBean queued = marshaller.unmarshal(marshaller.marshal(scanBean), ScanBean.class);
+		PreparedScan prepared = PreparedScan.prepare(queued);
+		
+		// Act, the request is edited in the queue after it was prepared.
+		((MandelbrotModel)scanBean.getScanRequest().getDetectors().get("mandelbrot")).setExposureTime(0.002);
+		
+		// Assert
+		assertFalse(prepared.isFor(scanBean));
+		assertFalse(prepared.isFor(createNestedScanBean())); // Not the bean which was prepared
+	}
+	
+	private ScanBean createNestedScanBean() throws Exception {
+		ScanBean scanBean = new ScanBean();
+		ScanRequest<?> scanRequest = new ScanRequest<>();
+		
+		CompoundModel cmodel = new CompoundModel<>(Arrays.asList(new StepModel("T", 290, 295, 1), new GridModel("xNex", "yNex",2,2)));
+		cmodel.setRegions(Arrays.asList(new ScanRegion<IROI>(new RectangularROI(0, 0, 3, 3, 0), "xNex", "yNex")));
+		scanRequest.setCompoundModel(cmodel);
+		
+		final Map<String, Object> dmodels = new HashMap<String, Object>(3);
+		MandelbrotModel model = new MandelbrotModel("xNex", "yNex");
+		model.setName("mandelbrot");
+		model.setExposureTime(0.001);
+		dmodels.put("mandelbrot", model);
+		scanRequest.setDetectors(dmodels);
+		
+		final File tmp = File.createTempFile("scan_prepared_test", ".nxs");
+		tmp.deleteOnExit();
+		scanRequest.setFilePath(tmp.getAbsolutePath());
+		
+		scanBean.setScanRequest(scanRequest);
+		return scanBean;
+	}
+	
 	@Ignore("Got broken by scisoft change...")
 	@Test
 	public void testMalcolmValidation() throws Exception {